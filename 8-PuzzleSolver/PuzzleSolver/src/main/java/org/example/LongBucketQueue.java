@@ -0,0 +1,80 @@
+package org.example;
+
+import java.util.Arrays;
+
+/**
+ * Priority queue for small integer priorities (f = g + h). Each priority has its
+ * own growable stack of (key, g) pairs, so push and pop never allocate nodes.
+ */
+public class LongBucketQueue {
+
+    private long[][] keys;
+    private int[][] costs;
+    private int[] counts;
+    private int minBucket;
+    private int size;
+
+    public LongBucketQueue(int maxPriority) {
+        keys = new long[maxPriority + 1][];
+        costs = new int[maxPriority + 1][];
+        counts = new int[maxPriority + 1];
+        minBucket = Integer.MAX_VALUE;
+    }
+
+    public void push(long key, int priority, int g) {
+        if (priority >= counts.length) {
+            grow(priority);
+        }
+        long[] bucket = keys[priority];
+        int n = counts[priority];
+        if (bucket == null) {
+            keys[priority] = bucket = new long[64];
+            costs[priority] = new int[64];
+        } else if (n == bucket.length) {
+            keys[priority] = bucket = Arrays.copyOf(bucket, n * 2);
+            costs[priority] = Arrays.copyOf(costs[priority], n * 2);
+        }
+        bucket[n] = key;
+        costs[priority][n] = g;
+        counts[priority] = n + 1;
+        size++;
+        if (priority < minBucket) {
+            minBucket = priority;
+        }
+    }
+
+    private void grow(int priority) {
+        int length = Math.max(priority + 1, counts.length * 2);
+        keys = Arrays.copyOf(keys, length);
+        costs = Arrays.copyOf(costs, length);
+        counts = Arrays.copyOf(counts, length);
+    }
+
+    /** Smallest priority currently queued, or Integer.MAX_VALUE when empty. */
+    public int minPriority() {
+        while (size > 0 && counts[minBucket] == 0) {
+            minBucket++;
+        }
+        return size == 0 ? Integer.MAX_VALUE : minBucket;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** Cost of the entry that the next {@link #popKey()} will return. */
+    public int peekCost() {
+        int b = minPriority();
+        return costs[b][counts[b] - 1];
+    }
+
+    public long popKey() {
+        int b = minPriority();
+        size--;
+        return keys[b][--counts[b]];
+    }
+}
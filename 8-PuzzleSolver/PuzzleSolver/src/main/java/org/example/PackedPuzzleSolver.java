@@ -0,0 +1,529 @@
+package org.example;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Sliding-tile solver for 3x3, 4x4 and 5x5 boards.
+ *
+ * Boards are flat row-major int arrays with 0 as the blank; the goal is 1..n-1
+ * followed by the blank. The A* modes pack a board of up to 16 cells into a long
+ * (4 bits per cell) and keep visited states in a {@link LongIntHashMap}, so no
+ * board arrays or strings are allocated per node. IDA* keeps no visited set at all
+ * and works on a single mutable board, which is what makes 5x5 feasible.
+ */
+public class PackedPuzzleSolver {
+
+    public enum Mode {
+        IDA_STAR,
+        A_STAR,
+        BIDIRECTIONAL_A_STAR
+    }
+
+    public static class Result {
+        private final int[] moves;
+        private final SolverStats stats;
+
+        Result(int[] moves, SolverStats stats) {
+            this.moves = moves;
+            this.stats = stats;
+        }
+
+        /** Tiles slid into the blank, in order. Null if no solution exists. */
+        public int[] getMoves() {
+            return moves;
+        }
+
+        public SolverStats getStats() {
+            return stats;
+        }
+    }
+
+    private static final int FOUND = -1;
+    private static final int MAX_PACKED_CELLS = 16;
+
+    private final int side;
+    private final int cells;
+    private final int[][] neighbors;
+    private final PatternDatabase[] databases;
+    private final int[] groupOf;
+    private final int[] weightOf;
+
+    // IDA* working state
+    private int[] tiles;
+    private int[] groupIndex;
+    private int blank;
+    private int h;
+    private int[] path;
+    private SolverStats stats;
+
+    public PackedPuzzleSolver(int side) {
+        this(side, PatternDatabase.defaultPartition(side));
+    }
+
+    public PackedPuzzleSolver(int side, PatternDatabase[] databases) {
+        if (side < 2 || side > 5) {
+            throw new IllegalArgumentException("Board side must be between 2 and 5: " + side);
+        }
+        this.side = side;
+        this.cells = side * side;
+        this.neighbors = neighborTable(side);
+        this.databases = databases;
+        this.groupOf = new int[cells];
+        this.weightOf = new int[cells];
+        Arrays.fill(groupOf, -1);
+        for (int g = 0; g < databases.length; g++) {
+            int[] groupTiles = databases[g].tiles();
+            for (int i = 0; i < groupTiles.length; i++) {
+                groupOf[groupTiles[i]] = g;
+                weightOf[groupTiles[i]] = databases[g].weight(i);
+            }
+        }
+        for (int t = 1; t < cells; t++) {
+            if (groupOf[t] < 0) {
+                throw new IllegalArgumentException("Tile " + t + " is not covered by any pattern database");
+            }
+        }
+    }
+
+    public int getSide() {
+        return side;
+    }
+
+    public Result solve(int[][] board, Mode mode) {
+        int[] flat = new int[cells];
+        for (int r = 0; r < side; r++) {
+            for (int c = 0; c < side; c++) {
+                flat[r * side + c] = board[r][c];
+            }
+        }
+        return solve(flat, mode);
+    }
+
+    public Result solve(int[] board, Mode mode) {
+        if (board.length != cells) {
+            throw new IllegalArgumentException("Expected " + cells + " cells, got " + board.length);
+        }
+        SolverStats result = new SolverStats();
+        result.start();
+        int[] moves;
+        if (!isSolvable(board, side)) {
+            moves = null;
+        } else if (mode == Mode.IDA_STAR) {
+            moves = idaStar(board, result);
+        } else {
+            if (cells > MAX_PACKED_CELLS) {
+                throw new IllegalArgumentException(mode + " needs a packed board; use IDA_STAR for " + side + "x" + side);
+            }
+            moves = mode == Mode.A_STAR ? aStar(board, result) : bidirectional(board, result);
+        }
+        result.stop();
+        return new Result(moves, result);
+    }
+
+    /** Sum of all pattern databases for the given board. */
+    public int heuristic(int[] board) {
+        int[] pos = positions(board);
+        int sum = 0;
+        for (PatternDatabase db : databases) {
+            sum += db.lookup(db.index(pos));
+        }
+        return sum;
+    }
+
+    // ---------------------------------------------------------------- IDA*
+
+    private int[] idaStar(int[] board, SolverStats result) {
+        tiles = board.clone();
+        stats = result;
+        int[] pos = positions(tiles);
+        groupIndex = new int[databases.length];
+        h = 0;
+        for (int g = 0; g < databases.length; g++) {
+            groupIndex[g] = databases[g].index(pos);
+            h += databases[g].lookup(groupIndex[g]);
+        }
+        blank = pos[0];
+        path = new int[256];
+        int bound = h;
+        while (true) {
+            int t = search(0, bound, -1);
+            if (t == FOUND) {
+                return Arrays.copyOf(path, pathLength);
+            }
+            if (t == Integer.MAX_VALUE) {
+                return null;
+            }
+            bound = t;
+        }
+    }
+
+    private int pathLength;
+
+    private int search(int g, int bound, int previousBlank) {
+        int f = g + h;
+        if (f > bound) {
+            return f;
+        }
+        if (h == 0) {
+            pathLength = g;
+            return FOUND;
+        }
+        stats.nodesExpanded++;
+        int min = Integer.MAX_VALUE;
+        for (int c : neighbors[blank]) {
+            if (c == previousBlank) {
+                continue;
+            }
+            int tile = tiles[c];
+            int group = groupOf[tile];
+            PatternDatabase db = databases[group];
+            int oldIndex = groupIndex[group];
+            int newIndex = oldIndex + (blank - c) * weightOf[tile];
+            int oldH = h;
+            int oldBlank = blank;
+
+            tiles[oldBlank] = tile;
+            tiles[c] = 0;
+            groupIndex[group] = newIndex;
+            h += db.lookup(newIndex) - db.lookup(oldIndex);
+            blank = c;
+            if (g == path.length) {
+                path = Arrays.copyOf(path, path.length * 2);
+            }
+            path[g] = tile;
+
+            int t = search(g + 1, bound, oldBlank);
+            if (t == FOUND) {
+                return FOUND;
+            }
+
+            blank = oldBlank;
+            h = oldH;
+            groupIndex[group] = oldIndex;
+            tiles[c] = tile;
+            tiles[oldBlank] = 0;
+            if (t < min) {
+                min = t;
+            }
+        }
+        return min;
+    }
+
+    // ---------------------------------------------------------------- A*
+
+    private int[] aStar(int[] board, SolverStats result) {
+        long start = pack(board);
+        long goal = pack(goal(side));
+        LongIntHashMap g = new LongIntHashMap(1 << 16);
+        LongBucketQueue open = new LongBucketQueue(128);
+        g.put(start, 0);
+        open.push(start, heuristic(board), 0);
+        int[] pos = new int[cells];
+        int[] index = new int[databases.length];
+        while (!open.isEmpty()) {
+            int cost = open.peekCost();
+            long key = open.popKey();
+            if (g.get(key) < cost) {
+                continue;
+            }
+            if (key == goal) {
+                result.storedStates = g.size();
+                return reverse(walk(g, key, cost));
+            }
+            result.nodesExpanded++;
+            int hValue = unpack(key, pos, index);
+            int b = pos[0];
+            for (int c : neighbors[b]) {
+                int tile = (int) (key >>> (c << 2)) & 0xF;
+                long child = key - ((long) tile << (c << 2)) + ((long) tile << (b << 2));
+                int ng = cost + 1;
+                int old = g.get(child);
+                if (old == LongIntHashMap.MISSING || ng < old) {
+                    g.put(child, ng);
+                    open.push(child, ng + childHeuristic(hValue, index, tile, b, c), ng);
+                }
+            }
+        }
+        result.storedStates = g.size();
+        return null;
+    }
+
+    // ---------------------------------------------------------------- bidirectional A*
+
+    /**
+     * Front-to-end bidirectional A*: the forward side uses the pattern databases, the
+     * backward side uses Manhattan distance to the start board. Stops once either
+     * frontier's smallest f reaches the best meeting cost found so far.
+     */
+    private int[] bidirectional(int[] board, SolverStats result) {
+        long start = pack(board);
+        long goal = pack(goal(side));
+        if (start == goal) {
+            return new int[0];
+        }
+        int[] startPos = positions(board);
+        LongIntHashMap forwardG = new LongIntHashMap(1 << 16);
+        LongIntHashMap backwardG = new LongIntHashMap(1 << 16);
+        LongBucketQueue forward = new LongBucketQueue(128);
+        LongBucketQueue backward = new LongBucketQueue(128);
+        forwardG.put(start, 0);
+        backwardG.put(goal, 0);
+        forward.push(start, heuristic(board), 0);
+        backward.push(goal, manhattan(positions(goal(side)), startPos), 0);
+
+        int[] pos = new int[cells];
+        int[] index = new int[databases.length];
+        int best = Integer.MAX_VALUE;
+        long meet = 0;
+        while (!forward.isEmpty() && !backward.isEmpty()) {
+            if (forward.minPriority() >= best || backward.minPriority() >= best) {
+                break;
+            }
+            boolean expandForward = forward.size() <= backward.size();
+            LongBucketQueue open = expandForward ? forward : backward;
+            LongIntHashMap own = expandForward ? forwardG : backwardG;
+            LongIntHashMap other = expandForward ? backwardG : forwardG;
+
+            int cost = open.peekCost();
+            long key = open.popKey();
+            if (own.get(key) < cost) {
+                continue;
+            }
+            result.nodesExpanded++;
+            int hValue = expandForward ? unpack(key, pos, index) : unpackManhattan(key, pos, startPos);
+            int b = pos[0];
+            for (int c : neighbors[b]) {
+                int tile = (int) (key >>> (c << 2)) & 0xF;
+                long child = key - ((long) tile << (c << 2)) + ((long) tile << (b << 2));
+                int ng = cost + 1;
+                int old = own.get(child);
+                if (old != LongIntHashMap.MISSING && ng >= old) {
+                    continue;
+                }
+                own.put(child, ng);
+                int childH = expandForward
+                        ? childHeuristic(hValue, index, tile, b, c)
+                        : hValue + distance(b, startPos[tile]) - distance(c, startPos[tile]);
+                open.push(child, ng + childH, ng);
+                int across = other.get(child);
+                if (across != LongIntHashMap.MISSING && ng + across < best) {
+                    best = ng + across;
+                    meet = child;
+                }
+            }
+        }
+        result.storedStates = forwardG.size() + backwardG.size();
+        if (best == Integer.MAX_VALUE) {
+            return null;
+        }
+        int[] toStart = walk(forwardG, meet, forwardG.get(meet));
+        int[] toGoal = walk(backwardG, meet, backwardG.get(meet));
+        int[] moves = new int[toStart.length + toGoal.length];
+        for (int i = 0; i < toStart.length; i++) {
+            moves[i] = toStart[toStart.length - 1 - i];
+        }
+        System.arraycopy(toGoal, 0, moves, toStart.length, toGoal.length);
+        return moves;
+    }
+
+    // ---------------------------------------------------------------- helpers
+
+    private int unpack(long key, int[] pos, int[] index) {
+        for (int c = 0; c < cells; c++) {
+            pos[(int) (key >>> (c << 2)) & 0xF] = c;
+        }
+        int sum = 0;
+        for (int g = 0; g < databases.length; g++) {
+            index[g] = databases[g].index(pos);
+            sum += databases[g].lookup(index[g]);
+        }
+        return sum;
+    }
+
+    private int unpackManhattan(long key, int[] pos, int[] target) {
+        for (int c = 0; c < cells; c++) {
+            pos[(int) (key >>> (c << 2)) & 0xF] = c;
+        }
+        return manhattan(pos, target);
+    }
+
+    private int childHeuristic(int hValue, int[] index, int tile, int blankCell, int tileCell) {
+        int group = groupOf[tile];
+        PatternDatabase db = databases[group];
+        int newIndex = index[group] + (blankCell - tileCell) * weightOf[tile];
+        return hValue - db.lookup(index[group]) + db.lookup(newIndex);
+    }
+
+    private int manhattan(int[] pos, int[] target) {
+        int sum = 0;
+        for (int t = 1; t < cells; t++) {
+            sum += distance(pos[t], target[t]);
+        }
+        return sum;
+    }
+
+    private int distance(int a, int b) {
+        return Math.abs(a / side - b / side) + Math.abs(a % side - b % side);
+    }
+
+    /**
+     * Follows stored path costs from {@code key} back to the root of the search,
+     * returning the tiles moved on the way. Any neighbour stored with cost g-1 lies on
+     * a real path of that length, so parents never need to be recorded.
+     */
+    private int[] walk(LongIntHashMap g, long key, int cost) {
+        int[] moves = new int[cost];
+        int n = 0;
+        while (cost > 0) {
+            int b = 0;
+            while (((key >>> (b << 2)) & 0xF) != 0) {
+                b++;
+            }
+            for (int c : neighbors[b]) {
+                int tile = (int) (key >>> (c << 2)) & 0xF;
+                long parent = key - ((long) tile << (c << 2)) + ((long) tile << (b << 2));
+                if (g.get(parent) == cost - 1) {
+                    moves[n++] = tile;
+                    key = parent;
+                    cost--;
+                    break;
+                }
+            }
+        }
+        return moves;
+    }
+
+    private static int[] reverse(int[] moves) {
+        int[] out = new int[moves.length];
+        for (int i = 0; i < moves.length; i++) {
+            out[i] = moves[moves.length - 1 - i];
+        }
+        return out;
+    }
+
+    private int[] positions(int[] board) {
+        int[] pos = new int[cells];
+        for (int c = 0; c < cells; c++) {
+            pos[board[c]] = c;
+        }
+        return pos;
+    }
+
+    public static long pack(int[] board) {
+        if (board.length > MAX_PACKED_CELLS) {
+            throw new IllegalArgumentException("Only boards of up to 16 cells fit in a long");
+        }
+        long key = 0;
+        for (int c = 0; c < board.length; c++) {
+            key |= (long) board[c] << (c << 2);
+        }
+        return key;
+    }
+
+    public static int[] unpack(long key, int side) {
+        int[] board = new int[side * side];
+        for (int c = 0; c < board.length; c++) {
+            board[c] = (int) (key >>> (c << 2)) & 0xF;
+        }
+        return board;
+    }
+
+    public static int[] goal(int side) {
+        int[] board = new int[side * side];
+        for (int c = 0; c < board.length - 1; c++) {
+            board[c] = c + 1;
+        }
+        return board;
+    }
+
+    static int[][] neighborTable(int side) {
+        int cells = side * side;
+        int[][] table = new int[cells][];
+        for (int c = 0; c < cells; c++) {
+            int r = c / side, col = c % side;
+            int[] tmp = new int[4];
+            int n = 0;
+            if (r > 0) tmp[n++] = c - side;
+            if (r < side - 1) tmp[n++] = c + side;
+            if (col > 0) tmp[n++] = c - 1;
+            if (col < side - 1) tmp[n++] = c + 1;
+            table[c] = Arrays.copyOf(tmp, n);
+        }
+        return table;
+    }
+
+    /** Random walk from the goal, so the result is always solvable. */
+    public static int[] scramble(int side, int steps, Random random) {
+        int[] board = goal(side);
+        int[][] neighbors = neighborTable(side);
+        int blank = board.length - 1;
+        int previous = -1;
+        for (int i = 0; i < steps; i++) {
+            int[] options = neighbors[blank];
+            int c;
+            do {
+                c = options[random.nextInt(options.length)];
+            } while (c == previous);
+            board[blank] = board[c];
+            board[c] = 0;
+            previous = blank;
+            blank = c;
+        }
+        return board;
+    }
+
+    public static boolean isSolvable(int[] board, int side) {
+        int inversions = 0;
+        int blankRow = 0;
+        for (int i = 0; i < board.length; i++) {
+            if (board[i] == 0) {
+                blankRow = i / side;
+                continue;
+            }
+            for (int j = i + 1; j < board.length; j++) {
+                if (board[j] != 0 && board[j] < board[i]) {
+                    inversions++;
+                }
+            }
+        }
+        if (side % 2 == 1) {
+            return inversions % 2 == 0;
+        }
+        int rowFromBottom = side - blankRow;
+        return (inversions + rowFromBottom) % 2 == 1;
+    }
+
+    public static void main(String[] args) {
+        Random random = new Random(42);
+        for (int side = 3; side <= 5; side++) {
+            long t0 = System.nanoTime();
+            PackedPuzzleSolver solver = new PackedPuzzleSolver(side);
+            System.out.printf("%dx%d pattern databases built in %.0f ms%n", side, side, (System.nanoTime() - t0) / 1e6);
+            int[] board = scramble(side, side == 5 ? 60 : 200, random);
+            for (Mode mode : Mode.values()) {
+                if (mode != Mode.IDA_STAR && side * side > MAX_PACKED_CELLS) {
+                    continue;
+                }
+                Result result = solver.solve(board, mode);
+                System.out.println("  " + mode + ": " + result.getMoves().length + " moves, " + result.getStats());
+            }
+        }
+
+        // The original misplaced-tiles A* on the same 3x3 boards, for comparison
+        System.out.println("3x3 original A* vs packed A*:");
+        PackedPuzzleSolver solver = new PackedPuzzleSolver(3);
+        for (int i = 0; i < 5; i++) {
+            int[] board = scramble(3, 200, random);
+            int[][] rows = new int[3][3];
+            for (int cell = 0; cell < 9; cell++) {
+                rows[cell / 3][cell % 3] = board[cell];
+            }
+            SolverStats original = new SolverStats();
+            int moves = PuzzleSolver.PuzzleSolver2.solvePuzzle(rows, original);
+            System.out.println("  original: " + moves + " moves, " + original);
+            Result packed = solver.solve(board, Mode.A_STAR);
+            System.out.println("  packed:   " + packed.getMoves().length + " moves, " + packed.getStats());
+        }
+    }
+}
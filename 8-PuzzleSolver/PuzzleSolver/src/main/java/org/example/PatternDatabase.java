@@ -0,0 +1,202 @@
+package org.example;
+
+import java.util.Arrays;
+
+/**
+ * Additive pattern database for one group of tiles. Only moves of the group's own
+ * tiles are counted, so the values of disjoint groups can be summed and the result
+ * is still an admissible (and consistent) heuristic.
+ *
+ * The index of a pattern is the positions of its tiles read as digits in base
+ * {@code cells}; this wastes some entries but makes incremental updates a single
+ * multiply-add when one tile slides.
+ */
+public class PatternDatabase {
+
+    private final int side;
+    private final int cells;
+    private final int[] tiles;
+    private final int[] weights;
+    private final byte[] table;
+
+    public PatternDatabase(int side, int[] tiles) {
+        this.side = side;
+        this.cells = side * side;
+        this.tiles = tiles.clone();
+        this.weights = new int[tiles.length];
+        long size = 1;
+        for (int i = 0; i < tiles.length; i++) {
+            weights[i] = (int) size;
+            size *= cells;
+        }
+        if (size * cells > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Pattern of " + tiles.length + " tiles is too large for a " + side + "x" + side + " board");
+        }
+        this.table = new byte[(int) size];
+        build();
+    }
+
+    /**
+     * 0-1 breadth-first search backwards from the goal over (pattern positions, blank) states.
+     * Sliding a pattern tile costs 1, sliding any other tile costs 0.
+     */
+    private void build() {
+        int k = tiles.length;
+        int patternSize = table.length;
+        byte[] dist = new byte[patternSize * cells];
+        Arrays.fill(dist, (byte) -1);
+        int[][] neighbors = PackedPuzzleSolver.neighborTable(side);
+
+        int start = 0;
+        for (int i = 0; i < k; i++) {
+            start += (tiles[i] - 1) * weights[i];
+        }
+        start += (cells - 1) * patternSize;
+
+        IntQueue current = new IntQueue(1024);
+        IntQueue next = new IntQueue(1024);
+        dist[start] = 0;
+        current.add(start);
+        int[] pos = new int[k];
+        int level = 0;
+        while (!current.isEmpty()) {
+            while (!current.isEmpty()) {
+                int state = current.poll();
+                if ((dist[state] & 0xFF) != level) {
+                    continue;
+                }
+                int rest = state;
+                for (int i = 0; i < k; i++) {
+                    pos[i] = rest % cells;
+                    rest /= cells;
+                }
+                int blank = rest;
+                for (int c : neighbors[blank]) {
+                    int owner = -1;
+                    for (int i = 0; i < k; i++) {
+                        if (pos[i] == c) {
+                            owner = i;
+                            break;
+                        }
+                    }
+                    int base = state - blank * patternSize + c * patternSize;
+                    if (owner < 0) {
+                        int d = dist[base] & 0xFF;
+                        if (d == 0xFF || d > level) {
+                            dist[base] = (byte) level;
+                            current.add(base);
+                        }
+                    } else {
+                        int moved = base + (blank - c) * weights[owner];
+                        if ((dist[moved] & 0xFF) == 0xFF) {
+                            dist[moved] = (byte) (level + 1);
+                            next.add(moved);
+                        }
+                    }
+                }
+            }
+            IntQueue swap = current;
+            current = next;
+            next = swap;
+            level++;
+        }
+
+        Arrays.fill(table, (byte) -1);
+        for (int state = 0; state < dist.length; state++) {
+            int d = dist[state] & 0xFF;
+            if (d != 0xFF) {
+                int p = state % patternSize;
+                int old = table[p] & 0xFF;
+                if (d < old) {
+                    table[p] = (byte) d;
+                }
+            }
+        }
+    }
+
+    public int[] tiles() {
+        return tiles.clone();
+    }
+
+    public int weight(int tileSlot) {
+        return weights[tileSlot];
+    }
+
+    public int index(int[] tilePositions) {
+        int idx = 0;
+        for (int i = 0; i < tiles.length; i++) {
+            idx += tilePositions[tiles[i]] * weights[i];
+        }
+        return idx;
+    }
+
+    public int lookup(int index) {
+        return table[index] & 0xFF;
+    }
+
+    public long memoryBytes() {
+        return table.length;
+    }
+
+    /** Default disjoint partitions: 4-4 for 3x3, the classic 5-5-5 for 4x4, and six 4-tile groups for 5x5. */
+    public static PatternDatabase[] defaultPartition(int side) {
+        int[][] groups;
+        if (side == 3) {
+            groups = new int[][]{{1, 2, 3, 4}, {5, 6, 7, 8}};
+        } else if (side == 4) {
+            groups = new int[][]{{1, 2, 3, 5, 6}, {4, 7, 8, 11, 12}, {9, 10, 13, 14, 15}};
+        } else {
+            int tileCount = side * side - 1;
+            int groupSize = side <= 2 ? tileCount : 4;
+            groups = new int[(tileCount + groupSize - 1) / groupSize][];
+            for (int g = 0; g < groups.length; g++) {
+                int from = g * groupSize + 1;
+                int to = Math.min(tileCount, from + groupSize - 1);
+                groups[g] = new int[to - from + 1];
+                for (int t = from; t <= to; t++) {
+                    groups[g][t - from] = t;
+                }
+            }
+        }
+        PatternDatabase[] result = new PatternDatabase[groups.length];
+        for (int g = 0; g < groups.length; g++) {
+            result[g] = new PatternDatabase(side, groups[g]);
+        }
+        return result;
+    }
+
+    /** Growable FIFO of ints used by the database build. */
+    static class IntQueue {
+        private int[] items;
+        private int head, tail;
+
+        IntQueue(int capacity) {
+            items = new int[capacity];
+        }
+
+        void add(int value) {
+            if (tail == items.length) {
+                if (head > items.length / 2) {
+                    System.arraycopy(items, head, items, 0, tail - head);
+                    tail -= head;
+                    head = 0;
+                } else {
+                    items = Arrays.copyOf(items, items.length * 2);
+                }
+            }
+            items[tail++] = value;
+        }
+
+        int poll() {
+            int value = items[head++];
+            if (head == tail) {
+                head = tail = 0;
+            }
+            return value;
+        }
+
+        boolean isEmpty() {
+            return head == tail;
+        }
+    }
+}
@@ -4,7 +4,7 @@ import java.util.*;
 
 public class PuzzleSolver {
 
-    class PuzzleState {
+    static class PuzzleState {
         int[][] board;
         int emptyRow, emptyCol, cost, level;
         PuzzleState parent;
@@ -53,9 +53,33 @@ public class PuzzleSolver {
         }
     }
 
-    public class PuzzleSolver2 {
+    public static class PuzzleSolver2 {
         public static void solvePuzzle(int[][] startBoard) {
-            PuzzleState initialState = new PuzzleState(startBoard, 2, 2, 0);
+            PuzzleState goalState = search(startBoard, new SolverStats());
+            if (goalState != null) {
+                System.out.println("Goal reached!");
+                goalState.printBoard();
+            }
+        }
+
+        // Same search without printing, counting expanded nodes into stats; returns the moves found, or -1
+        public static int solvePuzzle(int[][] startBoard, SolverStats stats) {
+            PuzzleState goalState = search(startBoard, stats);
+            return goalState == null ? -1 : goalState.level;
+        }
+
+        static PuzzleState search(int[][] startBoard, SolverStats stats) {
+            stats.start();
+            int emptyRow = 0, emptyCol = 0;
+            for (int r = 0; r < 3; r++) {
+                for (int c = 0; c < 3; c++) {
+                    if (startBoard[r][c] == 0) {
+                        emptyRow = r;
+                        emptyCol = c;
+                    }
+                }
+            }
+            PuzzleState initialState = new PuzzleState(startBoard, emptyRow, emptyCol, 0);
             initialState.cost = initialState.calculateCost();
 
             PriorityQueue<PuzzleState> openList = new PriorityQueue<>(Comparator.comparingInt(a -> a.cost + a.level));
@@ -65,11 +89,12 @@ public class PuzzleSolver {
 
             while (!openList.isEmpty()) {
                 PuzzleState currentState = openList.poll();
+                stats.nodesExpanded++;
 
                 if (currentState.isGoalState()) {
-                    System.out.println("Goal reached!");
-                    currentState.printBoard();
-                    return;
+                    stats.storedStates = closedSet.size();
+                    stats.stop();
+                    return currentState;
                 }
 
                 // Generate child states (move empty space)
@@ -83,9 +108,12 @@ public class PuzzleSolver {
                     }
                 }
             }
+            stats.storedStates = closedSet.size();
+            stats.stop();
+            return null;
         }
 
-        public List<PuzzleState> generateChildren(PuzzleState state) {
+        public static List<PuzzleState> generateChildren(PuzzleState state) {
             List<PuzzleState> children = new ArrayList<>();
 
             // Move empty space up, down, left, right
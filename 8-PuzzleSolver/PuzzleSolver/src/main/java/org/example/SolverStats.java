@@ -0,0 +1,65 @@
+package org.example;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+
+/**
+ * Counters reported by {@link PackedPuzzleSolver}: expanded nodes, wall time and peak heap.
+ */
+public class SolverStats {
+
+    long nodesExpanded;
+    long elapsedNanos;
+    long peakHeapBytes;
+    int storedStates;
+
+    private long startNanos;
+
+    void start() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+        startNanos = System.nanoTime();
+    }
+
+    void stop() {
+        elapsedNanos = System.nanoTime() - startNanos;
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        peakHeapBytes = peak;
+    }
+
+    public long getNodesExpanded() {
+        return nodesExpanded;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double getNodesPerSecond() {
+        return elapsedNanos == 0 ? 0 : nodesExpanded * 1e9 / elapsedNanos;
+    }
+
+    public long getPeakHeapBytes() {
+        return peakHeapBytes;
+    }
+
+    /** Number of states held in the visited tables (0 for IDA*, which keeps none). */
+    public int getStoredStates() {
+        return storedStates;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("nodes=%d time=%.1fms nodes/sec=%.0f stored=%d peakHeap=%.1fMB",
+                nodesExpanded, elapsedNanos / 1e6, getNodesPerSecond(), storedStates, peakHeapBytes / (1024.0 * 1024.0));
+    }
+}
@@ -0,0 +1,335 @@
+package org.example;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Asteroids and bullets on a torus of width x height: anything leaving one edge
+ * comes back at the opposite one, and distances are measured the short way
+ * round.
+ *
+ * Both kinds are kept packed in primitive arrays, asteroids in [0,
+ * asteroidCount) and bullets in [0, bulletCount). Growing an array is the only
+ * allocation. Destroyed ones are flagged during a step and compacted at the end
+ * by swapping in the last element. Asteroids are put in a wrapping uniform grid
+ * whose cells are at least as wide as two of the largest asteroids, so anything
+ * that can touch a circle lies in the 3x3 cells around its centre. Candidates
+ * from the grid are then tested circle against circle.
+ */
+public final class AsteroidPhysics {
+
+    public static final float MAX_RADIUS = 25;
+    public static final float MIN_RADIUS = 7;
+    public static final float BULLET_RADIUS = 2;
+
+    final float width;
+    final float height;
+
+    int asteroidCount;
+    float[] asteroidX = new float[64];
+    float[] asteroidY = new float[64];
+    float[] asteroidVX = new float[64];
+    float[] asteroidVY = new float[64];
+    float[] asteroidRadius = new float[64];
+    private boolean[] asteroidDead = new boolean[64];
+
+    int bulletCount;
+    float[] bulletX = new float[16];
+    float[] bulletY = new float[16];
+    private float[] bulletVX = new float[16];
+    private float[] bulletVY = new float[16];
+    private int[] bulletLife = new int[16];
+    private boolean[] bulletDead = new boolean[16];
+
+    private final int columns;
+    private final int rows;
+    private final int[] cellStart;
+    private final int[] cellFill;
+    private int[] cellItems = new int[64];
+
+    private final Random random;
+    private boolean asteroidCollisions;
+    private long checks;
+
+    /** The world must be at least three grid cells ({@code 6 * MAX_RADIUS}) each way. */
+    public AsteroidPhysics(float width, float height, long seed) {
+        this.width = width;
+        this.height = height;
+        columns = (int) (width / (2 * MAX_RADIUS));
+        rows = (int) (height / (2 * MAX_RADIUS));
+        if (columns < 3 || rows < 3) {
+            throw new IllegalArgumentException("world too small: " + width + "x" + height);
+        }
+        cellStart = new int[columns * rows + 1];
+        cellFill = new int[columns * rows];
+        random = new Random(seed);
+    }
+
+    /** Whether asteroids also bounce off each other (elastically, mass by area). */
+    public void setAsteroidCollisions(boolean asteroidCollisions) {
+        this.asteroidCollisions = asteroidCollisions;
+    }
+
+    /** Circle-circle tests made so far. */
+    public long getChecks() {
+        return checks;
+    }
+
+    public int getAsteroidCount() {
+        return asteroidCount;
+    }
+
+    public int getBulletCount() {
+        return bulletCount;
+    }
+
+    public void addAsteroid(float x, float y, float vx, float vy, float radius) {
+        if (asteroidCount == asteroidX.length) {
+            int n = asteroidCount * 2;
+            asteroidX = Arrays.copyOf(asteroidX, n);
+            asteroidY = Arrays.copyOf(asteroidY, n);
+            asteroidVX = Arrays.copyOf(asteroidVX, n);
+            asteroidVY = Arrays.copyOf(asteroidVY, n);
+            asteroidRadius = Arrays.copyOf(asteroidRadius, n);
+            asteroidDead = Arrays.copyOf(asteroidDead, n);
+        }
+        int i = asteroidCount++;
+        asteroidX[i] = x;
+        asteroidY[i] = y;
+        asteroidVX[i] = vx;
+        asteroidVY[i] = vy;
+        asteroidRadius[i] = Math.min(radius, MAX_RADIUS);
+        asteroidDead[i] = false;
+    }
+
+    /** A bullet that flies for {@code life} steps. */
+    public void addBullet(float x, float y, float vx, float vy, int life) {
+        if (bulletCount == bulletX.length) {
+            int n = bulletCount * 2;
+            bulletX = Arrays.copyOf(bulletX, n);
+            bulletY = Arrays.copyOf(bulletY, n);
+            bulletVX = Arrays.copyOf(bulletVX, n);
+            bulletVY = Arrays.copyOf(bulletVY, n);
+            bulletLife = Arrays.copyOf(bulletLife, n);
+            bulletDead = Arrays.copyOf(bulletDead, n);
+        }
+        int i = bulletCount++;
+        bulletX[i] = wrap(x, width);
+        bulletY[i] = wrap(y, height);
+        bulletVX[i] = vx;
+        bulletVY[i] = vy;
+        bulletLife[i] = life;
+        bulletDead[i] = false;
+    }
+
+    public void clear() {
+        asteroidCount = 0;
+        bulletCount = 0;
+    }
+
+    private static float wrap(float v, float size) {
+        if (v < 0) {
+            v += size;
+        } else if (v >= size) {
+            v -= size;
+        }
+        return v;
+    }
+
+    /** b - a the short way round a circle of the given size. */
+    private static float delta(float a, float b, float size) {
+        float d = b - a;
+        if (d > size / 2) {
+            d -= size;
+        } else if (d < -size / 2) {
+            d += size;
+        }
+        return d;
+    }
+
+    private int column(float x) {
+        return Math.min(columns - 1, (int) (x * columns / width));
+    }
+
+    private int row(float y) {
+        return Math.min(rows - 1, (int) (y * rows / height));
+    }
+
+    /**
+     * Moves everything one step and resolves collisions. Each bullet destroys
+     * the first asteroid it touches, and asteroids that are big enough split in
+     * two. Returns the number of asteroids hit.
+     */
+    public int step() {
+        for (int i = 0; i < asteroidCount; i++) {
+            asteroidX[i] = wrap(asteroidX[i] + asteroidVX[i], width);
+            asteroidY[i] = wrap(asteroidY[i] + asteroidVY[i], height);
+        }
+        for (int i = 0; i < bulletCount; i++) {
+            bulletX[i] = wrap(bulletX[i] + bulletVX[i], width);
+            bulletY[i] = wrap(bulletY[i] + bulletVY[i], height);
+            bulletDead[i] = --bulletLife[i] < 0;
+        }
+        buildGrid();
+        int hits = 0;
+        int indexed = asteroidCount;
+        for (int b = 0; b < bulletCount; b++) {
+            if (bulletDead[b]) {
+                continue;
+            }
+            int hit = firstHit(bulletX[b], bulletY[b], BULLET_RADIUS, indexed);
+            if (hit >= 0) {
+                bulletDead[b] = true;
+                asteroidDead[hit] = true;
+                split(hit);
+                hits++;
+            }
+        }
+        if (asteroidCollisions) {
+            bounce(indexed);
+        }
+        compact();
+        return hits;
+    }
+
+    /** True if a circle at (x, y) touches any asteroid; for the ship. */
+    public boolean touchesAsteroid(float x, float y, float radius) {
+        buildGrid();
+        return firstHit(wrap(x, width), wrap(y, height), radius, asteroidCount) >= 0;
+    }
+
+    private void buildGrid() {
+        Arrays.fill(cellStart, 0);
+        for (int i = 0; i < asteroidCount; i++) {
+            cellStart[row(asteroidY[i]) * columns + column(asteroidX[i]) + 1]++;
+        }
+        for (int c = 0; c < cellFill.length; c++) {
+            cellStart[c + 1] += cellStart[c];
+        }
+        if (cellItems.length < asteroidCount) {
+            cellItems = new int[Math.max(asteroidCount, cellItems.length * 2)];
+        }
+        System.arraycopy(cellStart, 0, cellFill, 0, cellFill.length);
+        for (int i = 0; i < asteroidCount; i++) {
+            cellItems[cellFill[row(asteroidY[i]) * columns + column(asteroidX[i])]++] = i;
+        }
+    }
+
+    /** First live asteroid among the first {@code indexed} touching the circle, or -1. */
+    private int firstHit(float x, float y, float radius, int indexed) {
+        int cx = column(x), cy = row(y);
+        for (int oy = -1; oy <= 1; oy++) {
+            int r = cy + oy;
+            r = r < 0 ? r + rows : r >= rows ? r - rows : r;
+            for (int ox = -1; ox <= 1; ox++) {
+                int c = cx + ox;
+                c = c < 0 ? c + columns : c >= columns ? c - columns : c;
+                int cell = r * columns + c;
+                for (int k = cellStart[cell], end = cellStart[cell + 1]; k < end; k++) {
+                    int a = cellItems[k];
+                    if (a >= indexed || asteroidDead[a]) {
+                        continue;
+                    }
+                    checks++;
+                    float dx = delta(x, asteroidX[a], width), dy = delta(y, asteroidY[a], height);
+                    float reach = radius + asteroidRadius[a];
+                    if (dx * dx + dy * dy < reach * reach) {
+                        return a;
+                    }
+                }
+            }
+        }
+        return -1;
+    }
+
+    /** Two fragments of half the radius flying apart at 30 degrees either side, a little faster. */
+    private void split(int a) {
+        float radius = asteroidRadius[a] / 2;
+        if (radius < MIN_RADIUS) {
+            return;
+        }
+        float vx = asteroidVX[a] * 1.3f, vy = asteroidVY[a] * 1.3f;
+        float cos = (float) Math.cos(Math.PI / 6), sin = (float) Math.sin(Math.PI / 6);
+        float x = asteroidX[a], y = asteroidY[a];
+        float jitter = 0.9f + 0.2f * random.nextFloat();
+        addAsteroid(x, y, (vx * cos - vy * sin) * jitter, (vx * sin + vy * cos) * jitter, radius);
+        addAsteroid(x, y, (vx * cos + vy * sin) * jitter, (-vx * sin + vy * cos) * jitter, radius);
+    }
+
+    /**
+     * Elastic collisions between indexed asteroids; each pair is visited once, by
+     * its lower index. Overlapping pairs are also pushed apart.
+     */
+    private void bounce(int indexed) {
+        for (int i = 0; i < indexed; i++) {
+            if (asteroidDead[i]) {
+                continue;
+            }
+            int cx = column(asteroidX[i]), cy = row(asteroidY[i]);
+            for (int oy = -1; oy <= 1; oy++) {
+                int r = cy + oy;
+                r = r < 0 ? r + rows : r >= rows ? r - rows : r;
+                for (int ox = -1; ox <= 1; ox++) {
+                    int c = cx + ox;
+                    c = c < 0 ? c + columns : c >= columns ? c - columns : c;
+                    int cell = r * columns + c;
+                    for (int k = cellStart[cell], end = cellStart[cell + 1]; k < end; k++) {
+                        int j = cellItems[k];
+                        if (j <= i || j >= indexed || asteroidDead[j]) {
+                            continue;
+                        }
+                        checks++;
+                        float dx = delta(asteroidX[i], asteroidX[j], width);
+                        float dy = delta(asteroidY[i], asteroidY[j], height);
+                        float reach = asteroidRadius[i] + asteroidRadius[j], d2 = dx * dx + dy * dy;
+                        if (d2 >= reach * reach || d2 == 0) {
+                            continue;
+                        }
+                        float d = (float) Math.sqrt(d2), nx = dx / d, ny = dy / d;
+                        float mi = asteroidRadius[i] * asteroidRadius[i], mj = asteroidRadius[j] * asteroidRadius[j];
+                        float approach = (asteroidVX[i] - asteroidVX[j]) * nx + (asteroidVY[i] - asteroidVY[j]) * ny;
+                        if (approach > 0) {
+                            float impulse = 2 * approach / (mi + mj);
+                            asteroidVX[i] -= impulse * mj * nx;
+                            asteroidVY[i] -= impulse * mj * ny;
+                            asteroidVX[j] += impulse * mi * nx;
+                            asteroidVY[j] += impulse * mi * ny;
+                        }
+                        float push = (reach - d) / (mi + mj);
+                        asteroidX[i] = wrap(asteroidX[i] - nx * push * mj, width);
+                        asteroidY[i] = wrap(asteroidY[i] - ny * push * mj, height);
+                        asteroidX[j] = wrap(asteroidX[j] + nx * push * mi, width);
+                        asteroidY[j] = wrap(asteroidY[j] + ny * push * mi, height);
+                    }
+                }
+            }
+        }
+    }
+
+    private void compact() {
+        for (int i = 0; i < asteroidCount; i++) {
+            if (asteroidDead[i]) {
+                int last = --asteroidCount;
+                asteroidX[i] = asteroidX[last];
+                asteroidY[i] = asteroidY[last];
+                asteroidVX[i] = asteroidVX[last];
+                asteroidVY[i] = asteroidVY[last];
+                asteroidRadius[i] = asteroidRadius[last];
+                asteroidDead[i] = asteroidDead[last];
+                i--;
+            }
+        }
+        for (int i = 0; i < bulletCount; i++) {
+            if (bulletDead[i]) {
+                int last = --bulletCount;
+                bulletX[i] = bulletX[last];
+                bulletY[i] = bulletY[last];
+                bulletVX[i] = bulletVX[last];
+                bulletVY[i] = bulletVY[last];
+                bulletLife[i] = bulletLife[last];
+                bulletDead[i] = bulletDead[last];
+                i--;
+            }
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package org.example;
+
+import java.util.Random;
+
+/**
+ * Runs {@link AsteroidPhysics} with no rendering: a field of asteroids that
+ * bounce off each other plus a steady stream of bullets. Shot-down asteroids
+ * are replaced, so the load stays constant. Reports steps per second and
+ * narrow-phase collision checks per second. The world grows with the number of
+ * asteroids, at one per 60x60 pixels.
+ *
+ * Usage: java org.example.AsteroidsBenchmark [asteroids] [bullets] [steps]
+ */
+public class AsteroidsBenchmark {
+
+    public static void main(String[] args) {
+        int asteroids = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+        int bullets = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+        int steps = args.length > 2 ? Integer.parseInt(args[2]) : 2000;
+
+        float side = (float) Math.max(300, Math.sqrt(asteroids * 3600.0));
+        AsteroidPhysics physics = new AsteroidPhysics(side, side, 1);
+        physics.setAsteroidCollisions(true);
+        Random random = new Random(2);
+        long hits = 0, checksBefore = 0;
+        long begin = 0;
+        int warmUp = Math.min(200, steps / 5);
+        for (int s = 0; s < warmUp + steps; s++) {
+            if (s == warmUp) {
+                begin = System.nanoTime();
+                checksBefore = physics.getChecks();
+                hits = 0;
+            }
+            while (physics.getAsteroidCount() < asteroids) {
+                double angle = random.nextDouble() * 2 * Math.PI;
+                physics.addAsteroid(random.nextFloat() * side, random.nextFloat() * side,
+                        (float) Math.cos(angle) * 2, (float) Math.sin(angle) * 2, 10 + random.nextFloat() * 15);
+            }
+            while (physics.getBulletCount() < bullets) {
+                double angle = random.nextDouble() * 2 * Math.PI;
+                physics.addBullet(random.nextFloat() * side, random.nextFloat() * side,
+                        (float) Math.cos(angle) * 5, (float) Math.sin(angle) * 5, 60);
+            }
+            hits += physics.step();
+        }
+        double seconds = (System.nanoTime() - begin) / 1e9;
+        long checks = physics.getChecks() - checksBefore;
+        System.out.printf("%d asteroids, %d bullets, %.0fx%.0f world, %d steps in %.2f s%n",
+                asteroids, bullets, side, side, steps, seconds);
+        System.out.printf("%.3f ms/step (%.0f steps/sec), %.1f M collision checks/sec, %d hits%n",
+                seconds * 1000 / steps, steps / seconds, checks / seconds / 1e6, hits);
+    }
+}
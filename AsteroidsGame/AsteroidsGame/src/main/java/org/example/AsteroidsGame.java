@@ -4,7 +4,6 @@ import javax.swing.*;
 import javax.swing.Timer;
 import java.awt.*;
 import java.awt.event.*;
-import java.util.*;
 
 public class AsteroidsGame extends JPanel implements ActionListener, KeyListener {
     Timer timer = new Timer(15, this);
@@ -14,19 +13,25 @@ public class AsteroidsGame extends JPanel implements ActionListener, KeyListener
     double playerSpeed = 0, playerDX = 0, playerDY = 0;
     boolean isThrusting = false;
 
-    // Bullet properties
-    ArrayList<Bullet> bullets = new ArrayList<>();
+    // Bullets and asteroids
+    AsteroidPhysics physics = new AsteroidPhysics(600, 600, System.nanoTime());
     int maxBullets = 5;
-
-    // Asteroids properties
-    ArrayList<Asteroid> asteroids = new ArrayList<>();
+    int bulletLife = 100;
     int asteroidSpeed = 3;
+    int level = 0;
+    int startingAsteroids;
 
     // Game properties
     int score = 0;
     boolean gameOver = false;
 
     public AsteroidsGame() {
+        this(0);
+    }
+
+    /** @param startingAsteroids asteroids in the first wave, or 0 for the usual five */
+    public AsteroidsGame(int startingAsteroids) {
+        this.startingAsteroids = startingAsteroids;
         setPreferredSize(new Dimension(600, 600));
         setBackground(Color.BLACK);
         addKeyListener(this);
@@ -42,13 +47,10 @@ public class AsteroidsGame extends JPanel implements ActionListener, KeyListener
         // Update player movement
         updatePlayer();
 
-        // Update bullet movement
-        updateBullets();
+        // Move bullets and asteroids and resolve their collisions
+        score += 10 * physics.step();
 
-        // Update asteroid movement
-        updateAsteroids();
-
-        // Check collisions
+        // Check the player and the next wave
         checkCollisions();
 
         // Repaint the screen
@@ -70,13 +72,16 @@ public class AsteroidsGame extends JPanel implements ActionListener, KeyListener
         drawPlayer(g);
 
         // Draw bullets
-        for (Bullet bullet : bullets) {
-            bullet.draw(g);
+        g.setColor(Color.YELLOW);
+        for (int i = 0; i < physics.bulletCount; i++) {
+            g.fillOval((int) physics.bulletX[i] - 2, (int) physics.bulletY[i] - 2, 4, 4);
         }
 
         // Draw asteroids
-        for (Asteroid asteroid : asteroids) {
-            asteroid.draw(g);
+        g.setColor(Color.GRAY);
+        for (int i = 0; i < physics.asteroidCount; i++) {
+            int r = (int) physics.asteroidRadius[i];
+            g.fillOval((int) physics.asteroidX[i] - r, (int) physics.asteroidY[i] - r, 2 * r, 2 * r);
         }
 
         // Draw score
@@ -116,64 +121,31 @@ public class AsteroidsGame extends JPanel implements ActionListener, KeyListener
         if (playerY < 0) playerY = getHeight();
     }
 
-    private void updateBullets() {
-        for (int i = 0; i < bullets.size(); i++) {
-            Bullet bullet = bullets.get(i);
-            bullet.update();
-
-            // Remove bullets that go off-screen
-            if (bullet.isOffScreen()) {
-                bullets.remove(i);
-                i--;
-            }
-        }
-    }
-
-    private void updateAsteroids() {
-        for (Asteroid asteroid : asteroids) {
-            asteroid.update();
-
-            // Wrap asteroids around the screen
-            if (asteroid.x > getWidth()) asteroid.x = 0;
-            if (asteroid.x < 0) asteroid.x = getWidth();
-            if (asteroid.y > getHeight()) asteroid.y = 0;
-            if (asteroid.y < 0) asteroid.y = getHeight();
-        }
-    }
-
     private void checkCollisions() {
-        // Check if any bullet hits an asteroid
-        for (int i = 0; i < bullets.size(); i++) {
-            Bullet bullet = bullets.get(i);
-            for (int j = 0; j < asteroids.size(); j++) {
-                Asteroid asteroid = asteroids.get(j);
-
-                if (bullet.collidesWith(asteroid)) {
-                    score += 10;
-                    bullets.remove(i);
-                    asteroids.remove(j);
-                    i--;
-                    break;
-                }
-            }
-        }
-
         // Check if the player collides with any asteroid
-        for (Asteroid asteroid : asteroids) {
-            if (asteroid.collidesWith(playerX, playerY)) {
-                gameOver = true;
-            }
+        if (physics.touchesAsteroid(playerX, playerY, 10)) {
+            gameOver = true;
         }
 
         // If there are no asteroids left, generate new ones
-        if (asteroids.isEmpty()) {
+        if (physics.getAsteroidCount() == 0) {
             generateAsteroids();
         }
     }
 
+    /** Five asteroids and one more each wave, or the requested number for the first wave. */
     private void generateAsteroids() {
-        for (int i = 0; i < 5; i++) {
-            asteroids.add(new Asteroid((int) (Math.random() * getWidth()), (int) (Math.random() * getHeight()), asteroidSpeed));
+        int count = level == 0 && startingAsteroids > 0 ? startingAsteroids : 5 + level;
+        level++;
+        for (int i = 0; i < count; i++) {
+            double angle = Math.random() * 2 * Math.PI;
+            float x, y;
+            do {
+                x = (float) (Math.random() * physics.width);
+                y = (float) (Math.random() * physics.height);
+            } while (count < 100 && Math.hypot(x - playerX, y - playerY) < 100);
+            physics.addAsteroid(x, y, (float) (Math.cos(angle) * asteroidSpeed), (float) (Math.sin(angle) * asteroidSpeed),
+                    (float) (Math.random() * 15 + 10));
         }
     }
 
@@ -186,7 +158,8 @@ public class AsteroidsGame extends JPanel implements ActionListener, KeyListener
         playerDY = 0;
         score = 0;
         gameOver = false;
-        asteroids.clear();
+        level = 0;
+        physics.clear();
         generateAsteroids();
     }
 
@@ -221,78 +194,19 @@ public class AsteroidsGame extends JPanel implements ActionListener, KeyListener
     }
 
     private void shootBullet() {
-        if (bullets.size() < maxBullets) {
-            Bullet bullet = new Bullet(playerX, playerY, playerAngle);
-            bullets.add(bullet);
+        if (physics.getBulletCount() < maxBullets) {
+            double angle = Math.toRadians(playerAngle);
+            physics.addBullet(playerX, playerY, (float) (Math.cos(angle) * 5), (float) (Math.sin(angle) * 5), bulletLife);
         }
     }
 
+    /** Usage: java org.example.AsteroidsGame [asteroids in the first wave] */
     public static void main(String[] args) {
         JFrame frame = new JFrame("Asteroids");
-        AsteroidsGame game = new AsteroidsGame();
+        AsteroidsGame game = new AsteroidsGame(args.length > 0 ? Integer.parseInt(args[0]) : 0);
         frame.add(game);
         frame.pack();
         frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         frame.setVisible(true);
     }
-
-    // Bullet class
-    class Bullet {
-        int x, y;
-        double angle;
-        double speed = 5;
-
-        Bullet(int x, int y, double angle) {
-            this.x = x;
-            this.y = y;
-            this.angle = angle;
-        }
-
-        void update() {
-            x += (int) (Math.cos(Math.toRadians(angle)) * speed);
-            y += (int) (Math.sin(Math.toRadians(angle)) * speed);
-        }
-
-        boolean isOffScreen() {
-            return x < 0 || x > getWidth() || y < 0 || y > getHeight();
-        }
-
-        boolean collidesWith(Asteroid asteroid) {
-            return Math.hypot(x - asteroid.x, y - asteroid.y) < 20;
-        }
-
-        void draw(Graphics g) {
-            g.setColor(Color.YELLOW);
-            g.fillOval(x - 2, y - 2, 4, 4);
-        }
-    }
-
-    // Asteroid class
-    class Asteroid {
-        int x, y, size;
-        double angle;
-        int speed;
-
-        Asteroid(int x, int y, int speed) {
-            this.x = x;
-            this.y = y;
-            this.size = (int) (Math.random() * 30 + 20);
-            this.angle = Math.random() * 360;
-            this.speed = speed;
-        }
-
-        void update() {
-            x += (int) (Math.cos(Math.toRadians(angle)) * speed);
-            y += (int) (Math.sin(Math.toRadians(angle)) * speed);
-        }
-
-        boolean collidesWith(int playerX, int playerY) {
-            return Math.hypot(x - playerX, y - playerY) < size / 2 + 10;
-        }
-
-        void draw(Graphics g) {
-            g.setColor(Color.GRAY);
-            g.fillOval(x - size / 2, y - size / 2, size, size);
-        }
-    }
 }
@@ -3,16 +3,24 @@ package org.example;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
 
 public class Checkers extends JFrame {
     private static final int SIZE = 8;
+    private static final long COMPUTER_MILLIS = 1500;
     private final CheckerPiece[][] board = new CheckerPiece[SIZE][SIZE];
     private CheckerPiece selectedPiece = null;
+    private int selectedSquare = -1;
     private int currentPlayer = 1; // 1 = Red, 2 = Black
+    private CheckersPosition position = CheckersPosition.initial();
+    private final boolean computerPlaysBlack;
+    private CheckersAI ai;
+    private boolean thinking;
 
-    public Checkers() {
+    public Checkers(boolean computerPlaysBlack) {
+        this.computerPlaysBlack = computerPlaysBlack;
         setTitle("Checkers Game");
         setSize(600, 600);
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
@@ -21,15 +29,22 @@ public class Checkers extends JFrame {
         add(new CheckersPanel());
     }
 
+    public Checkers() {
+        this(true);
+    }
+
     private void initializeBoard() {
         for (int row = 0; row < SIZE; row++) {
             for (int col = 0; col < SIZE; col++) {
-                if ((row + col) % 2 != 0) {
-                    if (row < 3) board[row][col] = new CheckerPiece(2); // Black pieces
-                    else if (row > 4) board[row][col] = new CheckerPiece(1); // Red pieces
+                board[row][col] = null;
+                int square = CheckersBitboard.square(row, col);
+                if (square >= 0 && (position.isRed(square) || position.isBlack(square))) {
+                    board[row][col] = new CheckerPiece(position.isRed(square) ? 1 : 2); // Red pieces : Black pieces
+                    board[row][col].isKing = position.isKing(square);
                 }
             }
         }
+        currentPlayer = position.isRedToMove() ? 1 : 2;
     }
 
     private class CheckersPanel extends JPanel implements MouseListener {
@@ -81,12 +96,19 @@ public class Checkers extends JFrame {
 
         @Override
         public void mouseClicked(MouseEvent e) {
+            if (thinking || isComputerTurn()) {
+                return;
+            }
             int col = e.getX() / CELL_SIZE;
             int row = e.getY() / CELL_SIZE;
+            if (row >= SIZE || col >= SIZE) {
+                return;
+            }
 
             if (selectedPiece == null) {
                 if (board[row][col] != null && board[row][col].player == currentPlayer) {
                     selectedPiece = board[row][col];
+                    selectedSquare = CheckersBitboard.square(row, col);
                     validMoves = getValidMoves(row, col);
                 }
             } else {
@@ -95,63 +117,30 @@ public class Checkers extends JFrame {
                     switchPlayer();
                 }
                 selectedPiece = null;
+                selectedSquare = -1;
                 validMoves.clear();
             }
             repaint();
         }
 
+        /** Landing squares of the piece's legal moves; empty if another piece has to capture. */
         private List<Point> getValidMoves(int row, int col) {
             List<Point> moves = new ArrayList<>();
-            int direction = (board[row][col].player == 1) ? -1 : 1;
-
-            for (int[] move : new int[][]{{direction, -1}, {direction, 1}, {2 * direction, -2}, {2 * direction, 2}}) {
-                int newRow = row + move[0], newCol = col + move[1];
-                if (isValidMove(row, col, newRow, newCol)) {
-                    moves.add(new Point(newCol, newRow));
+            int from = CheckersBitboard.square(row, col);
+            for (long move : position.legalMoves()) {
+                if (CheckersBitboard.from(move) == from) {
+                    int to = CheckersBitboard.to(move);
+                    moves.add(new Point(CheckersBitboard.col(to), CheckersBitboard.row(to)));
                 }
             }
             return moves;
         }
 
-        private boolean isValidMove(int row, int col, int newRow, int newCol) {
-            if (newRow < 0 || newRow >= SIZE || newCol < 0 || newCol >= SIZE) return false;
-            if (board[newRow][newCol] != null) return false;
-
-            int midRow = (row + newRow) / 2, midCol = (col + newCol) / 2;
-            if (Math.abs(newRow - row) == 2) {
-                return board[midRow][midCol] != null && board[midRow][midCol].player != board[row][col].player;
-            }
-            return Math.abs(newRow - row) == 1;
-        }
-
         private void movePiece(int newRow, int newCol) {
-            int oldRow = -1, oldCol = -1;
-            for (int row = 0; row < SIZE; row++) {
-                for (int col = 0; col < SIZE; col++) {
-                    if (board[row][col] == selectedPiece) {
-                        oldRow = row;
-                        oldCol = col;
-                        break;
-                    }
-                }
+            long move = findMove(selectedSquare, CheckersBitboard.square(newRow, newCol));
+            if (move != 0) {
+                playMove(move);
             }
-            if (oldRow == -1 || oldCol == -1) return;
-
-            board[newRow][newCol] = selectedPiece;
-            board[oldRow][oldCol] = null;
-
-            if (Math.abs(newRow - oldRow) == 2) {
-                int midRow = (oldRow + newRow) / 2, midCol = (oldCol + newCol) / 2;
-                board[midRow][midCol] = null;
-            }
-
-            if ((selectedPiece.player == 1 && newRow == 0) || (selectedPiece.player == 2 && newRow == SIZE - 1)) {
-                selectedPiece.isKing = true;
-            }
-        }
-
-        private void switchPlayer() {
-            currentPlayer = (currentPlayer == 1) ? 2 : 1;
         }
 
         @Override
@@ -167,6 +156,65 @@ public class Checkers extends JFrame {
         public void mouseExited(MouseEvent e) {}
     }
 
+    /** The legal move between two squares, or 0. A multi-jump is one move. */
+    private long findMove(int from, int to) {
+        for (long move : position.legalMoves()) {
+            if (CheckersBitboard.from(move) == from && CheckersBitboard.to(move) == to) {
+                return move;
+            }
+        }
+        return 0;
+    }
+
+    private void playMove(long move) {
+        position = position.play(move);
+        initializeBoard();
+    }
+
+    private boolean isComputerTurn() {
+        return computerPlaysBlack && !position.isRedToMove();
+    }
+
+    /** Called after every move: announces the end of the game or lets the computer reply. */
+    private void switchPlayer() {
+        currentPlayer = position.isRedToMove() ? 1 : 2;
+        if (position.isGameOver()) {
+            repaint();
+            JOptionPane.showMessageDialog(this, (currentPlayer == 1 ? "Black" : "Red") + " wins!");
+            return;
+        }
+        if (isComputerTurn()) {
+            computerMove();
+        }
+    }
+
+    private void computerMove() {
+        thinking = true;
+        CheckersPosition snapshot = position;
+        new SwingWorker<CheckersAI.Result, Void>() {
+            @Override
+            protected CheckersAI.Result doInBackground() {
+                if (ai == null) {
+                    ai = new CheckersAI(new CheckersEndgameDatabase(Paths.get(CheckersEndgameDatabase.DEFAULT_FILE)));
+                }
+                return ai.search(snapshot, COMPUTER_MILLIS, 64);
+            }
+
+            @Override
+            protected void done() {
+                thinking = false;
+                try {
+                    playMove(get().getMove());
+                } catch (Exception ex) {
+                    JOptionPane.showMessageDialog(Checkers.this, "Computer move failed: " + ex.getMessage());
+                    return;
+                }
+                repaint();
+                switchPlayer();
+            }
+        }.execute();
+    }
+
     private static class CheckerPiece {
         int player;
         boolean isKing;
@@ -177,7 +225,9 @@ public class Checkers extends JFrame {
         }
     }
 
+    /** Usage: Checkers [two-player] */
     public static void main(String[] args) {
-        SwingUtilities.invokeLater(Checkers::new);
+        boolean computer = args.length == 0 || !args[0].equalsIgnoreCase("two-player");
+        SwingUtilities.invokeLater(() -> new Checkers(computer).setVisible(true));
     }
 }
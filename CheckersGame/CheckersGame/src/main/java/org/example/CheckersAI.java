@@ -0,0 +1,290 @@
+package org.example;
+
+/**
+ * Iterative-deepening alpha-beta (negamax) over {@link CheckersBitboard}
+ * positions. A transposition table keyed by the exact side-relative bitboards
+ * stores bounds and the best move; pending captures are searched past the
+ * horizon, and positions with few enough pieces are scored from the
+ * {@link CheckersEndgameDatabase} when one is given.
+ */
+public final class CheckersAI {
+
+    public static final int WIN = 30000;
+
+    private static final int MAX_PLY = 128;
+    private static final int EXACT = 1, LOWER = 2, UPPER = 3;
+
+    public static class Result {
+        private final long move;
+        private final int score;
+        private final int depth;
+        private final long nodes;
+        private final long elapsedNanos;
+
+        Result(long move, int score, int depth, long nodes, long elapsedNanos) {
+            this.move = move;
+            this.score = score;
+            this.depth = depth;
+            this.nodes = nodes;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        /** Best move in board squares, or 0 if the side to move has none. */
+        public long getMove() {
+            return move;
+        }
+
+        /** Score for the side to move, in hundredths of a man; near +-WIN for a forced result. */
+        public int getScore() {
+            return score;
+        }
+
+        public int getDepth() {
+            return depth;
+        }
+
+        public long getNodes() {
+            return nodes;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        public double getNodesPerSecond() {
+            return nodes / Math.max(elapsedNanos / 1e9, 1e-9);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d-%d score=%d depth=%d nodes=%d time=%.0f ms (%.2f M nodes/sec)",
+                    CheckersBitboard.from(move), CheckersBitboard.to(move), score, depth, nodes, elapsedNanos / 1e6,
+                    getNodesPerSecond() / 1e6);
+        }
+    }
+
+    private final CheckersEndgameDatabase database;
+    private final int mask;
+    private final long[] ttPieces;
+    private final int[] ttKings;
+    private final long[] ttData;
+
+    private final long[] moves = new long[MAX_PLY * CheckersBitboard.MAX_MOVES];
+    private final long[][] killers = new long[MAX_PLY][2];
+    private long nodes;
+    private long deadline;
+    private boolean stopped;
+
+    /** @param database endgame database, or null; @param ttBits log2 of the table size */
+    public CheckersAI(CheckersEndgameDatabase database, int ttBits) {
+        this.database = database;
+        mask = (1 << ttBits) - 1;
+        ttPieces = new long[1 << ttBits];
+        ttKings = new int[1 << ttBits];
+        ttData = new long[1 << ttBits];
+    }
+
+    public CheckersAI(CheckersEndgameDatabase database) {
+        this(database, 20);
+    }
+
+    /** Searches until the time runs out or {@code maxDepth} is completed. */
+    public Result search(CheckersPosition position, long timeMillis, int maxDepth) {
+        long begin = System.nanoTime();
+        deadline = begin + timeMillis * 1000000L;
+        stopped = false;
+        nodes = 0;
+        int me = position.me(), opp = position.opp(), kings = position.relativeKings();
+
+        int n = CheckersBitboard.generate(me, opp, kings, moves, 0);
+        if (n == 0) {
+            return new Result(0, -WIN, 0, 0, System.nanoTime() - begin);
+        }
+        long best = moves[0];
+        int bestScore = 0, completed = 0;
+        if (n == 1) {
+            // forced: no point searching
+            return new Result(position.toAbsolute(best), 0, 0, 1, System.nanoTime() - begin);
+        }
+        for (int depth = 1; depth <= maxDepth; depth++) {
+            int score = negamax(me, opp, kings, depth, -WIN - 1, WIN + 1, 0);
+            if (stopped) {
+                break;
+            }
+            best = probeMove(me, opp, kings, best);
+            bestScore = score;
+            completed = depth;
+            // a win found through the database keeps improving with depth; stop once it is inside the tree
+            if (Math.abs(score) > WIN - MAX_PLY && WIN - Math.abs(score) <= depth) {
+                break;
+            }
+        }
+        return new Result(position.toAbsolute(best), bestScore, completed, nodes, System.nanoTime() - begin);
+    }
+
+    private long probeMove(int me, int opp, int kings, long fallback) {
+        int slot = slot(me, opp, kings);
+        if (ttPieces[slot] != pieces(me, opp) || ttKings[slot] != kings) {
+            return fallback;
+        }
+        long move = findMove(me, opp, kings, (int) (ttData[slot] >>> 32));
+        return move != 0 ? move : fallback;
+    }
+
+    private long findMove(int me, int opp, int kings, int fromTo) {
+        long[] buffer = new long[CheckersBitboard.MAX_MOVES];
+        int n = CheckersBitboard.generate(me, opp, kings, buffer, 0);
+        for (int i = 0; i < n; i++) {
+            if (fromTo(buffer[i]) == fromTo) {
+                return buffer[i];
+            }
+        }
+        return 0;
+    }
+
+    private static long pieces(int me, int opp) {
+        return (long) me << 32 | (opp & 0xFFFFFFFFL);
+    }
+
+    private int slot(int me, int opp, int kings) {
+        long h = pieces(me, opp) * 0x9E3779B97F4A7C15L ^ kings * 0xC2B2AE3D27D4EB4FL;
+        return (int) (h ^ h >>> 29) & mask;
+    }
+
+    private static int fromTo(long move) {
+        return CheckersBitboard.from(move) << 5 | CheckersBitboard.to(move);
+    }
+
+    private int negamax(int me, int opp, int kings, int depth, int alpha, int beta, int ply) {
+        if ((++nodes & 4095) == 0 && System.nanoTime() > deadline) {
+            stopped = true;
+        }
+        if (stopped) {
+            return 0;
+        }
+        if (ply > 0 && database != null) {
+            int value = database.probe(me, opp, kings);
+            if (value != CheckersEndgameDatabase.UNKNOWN) {
+                return value == 0 ? 0 : value > 0 ? WIN - ply - value : -(WIN - ply + value + 1);
+            }
+        }
+        boolean capture = CheckersBitboard.hasJump(me, opp, kings);
+        if (depth <= 0 && !capture) {
+            return evaluate(me, opp, kings);
+        }
+        if (ply >= MAX_PLY - 1) {
+            return evaluate(me, opp, kings);
+        }
+
+        int slot = slot(me, opp, kings);
+        long key = pieces(me, opp);
+        int hashMove = -1;
+        if (ttPieces[slot] == key && ttKings[slot] == kings) {
+            long data = ttData[slot];
+            hashMove = (int) (data >>> 32);
+            int storedDepth = (int) (data >>> 16) & 0xFF;
+            int flag = (int) (data >>> 24) & 3;
+            int score = fromTable((short) data, ply);
+            if (storedDepth >= depth && ply > 0
+                    && (flag == EXACT || (flag == LOWER && score >= beta) || (flag == UPPER && score <= alpha))) {
+                return score;
+            }
+        }
+
+        int offset = ply * CheckersBitboard.MAX_MOVES;
+        int end = CheckersBitboard.generate(me, opp, kings, moves, offset);
+        if (end == offset) {
+            return -(WIN - ply);
+        }
+        orderMoves(offset, end, hashMove, ply);
+
+        int originalAlpha = alpha;
+        int best = -WIN - 1;
+        long bestMove = moves[offset];
+        for (int i = offset; i < end; i++) {
+            long m = moves[i];
+            int score = -negamax(CheckersBitboard.nextMe(me, opp, kings, m), CheckersBitboard.nextOpp(me, opp, kings, m),
+                    CheckersBitboard.nextKings(me, opp, kings, m), depth - 1, -beta, -alpha, ply + 1);
+            if (stopped) {
+                return 0;
+            }
+            if (score > best) {
+                best = score;
+                bestMove = m;
+            }
+            if (score > alpha) {
+                alpha = score;
+            }
+            if (alpha >= beta) {
+                if (CheckersBitboard.captures(m) == 0 && killers[ply][0] != m) {
+                    killers[ply][1] = killers[ply][0];
+                    killers[ply][0] = m;
+                }
+                break;
+            }
+        }
+        int flag = best <= originalAlpha ? UPPER : best >= beta ? LOWER : EXACT;
+        ttPieces[slot] = key;
+        ttKings[slot] = kings;
+        ttData[slot] = (long) fromTo(bestMove) << 32 | (long) flag << 24 | (long) Math.max(depth, 0) << 16
+                | (toTable(best, ply) & 0xFFFF);
+        return best;
+    }
+
+    /** Forced results are stored relative to the node, not the root. */
+    private static int toTable(int score, int ply) {
+        return score > WIN - MAX_PLY ? score + ply : score < -WIN + MAX_PLY ? score - ply : score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        return score > WIN - MAX_PLY ? score - ply : score < -WIN + MAX_PLY ? score + ply : score;
+    }
+
+    /** Hash move, then bigger captures, then killers, by selection into place. */
+    private void orderMoves(int start, int end, int hashMove, int ply) {
+        for (int i = start; i < end; i++) {
+            int bestIndex = i, bestKey = -1;
+            for (int j = i; j < end; j++) {
+                long m = moves[j];
+                int key = fromTo(m) == hashMove ? 1000 : Integer.bitCount(CheckersBitboard.captures(m)) * 10
+                        + (m == killers[ply][0] ? 2 : m == killers[ply][1] ? 1 : 0);
+                if (key > bestKey) {
+                    bestKey = key;
+                    bestIndex = j;
+                }
+            }
+            long t = moves[i];
+            moves[i] = moves[bestIndex];
+            moves[bestIndex] = t;
+        }
+    }
+
+    private static final int MAN = 100, KING = 140;
+    private static final int BACK_ROW = 0xF0000000;
+    private static final int CENTER = 0x00666600;
+
+    /** Material, men advancing, the back row held and the centre, for the side to move. */
+    static int evaluate(int me, int opp, int kings) {
+        int myMen = me & ~kings, oppMen = opp & ~kings;
+        int myMaterial = MAN * Integer.bitCount(myMen) + KING * Integer.bitCount(me & kings);
+        int oppMaterial = MAN * Integer.bitCount(oppMen) + KING * Integer.bitCount(opp & kings);
+        int score = myMaterial - oppMaterial;
+        // trade down when ahead
+        if (score != 0) {
+            score += score * 24 / (myMaterial + oppMaterial);
+        }
+        score += advancement(myMen) - advancement(Integer.reverse(oppMen));
+        score += 4 * (Integer.bitCount(myMen & BACK_ROW) - Integer.bitCount(Integer.reverse(oppMen) & BACK_ROW));
+        score += 3 * (Integer.bitCount(me & CENTER) - Integer.bitCount(opp & CENTER));
+        return score;
+    }
+
+    /** Men moving up: two points per row climbed. */
+    private static int advancement(int men) {
+        int score = 0;
+        for (int row = 0; row < 8; row++) {
+            score += 2 * (7 - row) * Integer.bitCount(men & 0xF << 4 * row);
+        }
+        return score;
+    }
+}
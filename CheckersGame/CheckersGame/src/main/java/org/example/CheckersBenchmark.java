@@ -0,0 +1,42 @@
+package org.example;
+
+import java.nio.file.Paths;
+
+/**
+ * Perft counts from the initial position, checked against the published values
+ * for English draughts, with leaf positions per second, then search nodes per
+ * second of the AI from the initial position and from a few plies in.
+ * Usage: CheckersBenchmark [perft depth] [search millis] [endgame file]
+ */
+public class CheckersBenchmark {
+
+    private static final long[] PERFT = {1, 7, 49, 302, 1469, 7361, 36768, 179740, 845931, 3963680, 18391564,
+            85242128, 388623673};
+
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 11;
+        long millis = args.length > 1 ? Long.parseLong(args[1]) : 3000;
+        String file = args.length > 2 ? args[2] : CheckersEndgameDatabase.DEFAULT_FILE;
+
+        CheckersPosition start = CheckersPosition.initial();
+        boolean ok = true;
+        for (int d = 1; d <= depth; d++) {
+            long begin = System.nanoTime();
+            long count = CheckersBitboard.perft(start.me(), start.opp(), start.relativeKings(), d);
+            double seconds = (System.nanoTime() - begin) / 1e9;
+            boolean match = d >= PERFT.length || PERFT[d] == count;
+            ok &= match;
+            System.out.printf("perft %2d: %,14d %s %8.3f s %6.1f M leaves/sec%n", d, count,
+                    d >= PERFT.length ? "" : match ? "ok" : "EXPECTED " + PERFT[d], seconds, count / seconds / 1e6);
+        }
+        System.out.println(ok ? "perft: all counts match" : "perft: MISMATCH");
+
+        CheckersAI ai = new CheckersAI(new CheckersEndgameDatabase(Paths.get(file)), 22);
+        CheckersPosition position = start;
+        for (int move = 0; move < 6 && !position.isGameOver(); move++) {
+            CheckersAI.Result result = ai.search(position, millis, 64);
+            System.out.println("search: " + result);
+            position = position.play(result.getMove());
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package org.example;
+
+/**
+ * English draughts rules on 32-square bitboards. Square s is row s / 4 of the
+ * 8x8 board, dark column 2 * (s % 4) + 1 on even rows and 2 * (s % 4) on odd rows,
+ * so rotating the board by 180 degrees maps s to 31 - s, which is
+ * {@link Integer#reverse}.
+ *
+ * Positions are side-relative: {@code me} are the pieces of the side to move,
+ * which always moves up (towards row 0) and crowns on squares 0..3. After a move
+ * the board is rotated so the opponent becomes {@code me}.
+ *
+ * A move is a long: bits 0-31 are the captured squares, bits 32-36 the origin and
+ * bits 37-41 the destination. Captures are mandatory, a multi-jump is one move
+ * and a man that reaches the king row by jumping stops there.
+ */
+public final class CheckersBitboard {
+
+    public static final int MAX_MOVES = 64;
+    public static final int KING_ROW = 0xF;
+
+    /** Up-left, up-right, down-left, down-right. Men only use the first two. */
+    static final int[][] NEIGHBOR = new int[32][4];
+    static final int[][] JUMP = new int[32][4];
+
+    static {
+        int[][] deltas = {{-1, -1}, {-1, 1}, {1, -1}, {1, 1}};
+        for (int s = 0; s < 32; s++) {
+            int row = row(s), col = col(s);
+            for (int d = 0; d < 4; d++) {
+                NEIGHBOR[s][d] = square(row + deltas[d][0], col + deltas[d][1]);
+                JUMP[s][d] = square(row + 2 * deltas[d][0], col + 2 * deltas[d][1]);
+            }
+        }
+    }
+
+    private CheckersBitboard() {
+    }
+
+    public static int row(int square) {
+        return square / 4;
+    }
+
+    public static int col(int square) {
+        return 2 * (square % 4) + (row(square) % 2 == 0 ? 1 : 0);
+    }
+
+    /** Square index of a dark board cell, or -1 off the board or on a light cell. */
+    public static int square(int row, int col) {
+        if (row < 0 || row > 7 || col < 0 || col > 7 || (row + col) % 2 == 0) {
+            return -1;
+        }
+        return row * 4 + col / 2;
+    }
+
+    public static long move(int from, int to, int captures) {
+        return (captures & 0xFFFFFFFFL) | (long) from << 32 | (long) to << 37;
+    }
+
+    public static int from(long move) {
+        return (int) (move >>> 32) & 31;
+    }
+
+    public static int to(long move) {
+        return (int) (move >>> 37) & 31;
+    }
+
+    public static int captures(long move) {
+        return (int) move;
+    }
+
+    /**
+     * Writes the legal moves to {@code out} from {@code offset} and returns the new end.
+     * Jumps are generated first and, if there are any, they are the only moves.
+     */
+    public static int generate(int me, int opp, int kings, long[] out, int offset) {
+        int empty = ~(me | opp);
+        int n = offset;
+        for (int bits = me; bits != 0; bits &= bits - 1) {
+            int s = Integer.numberOfTrailingZeros(bits);
+            boolean king = (kings >>> s & 1) != 0;
+            n = jumps(s, s, 0, king, opp, empty | 1 << s, out, offset, n);
+        }
+        if (n > offset) {
+            return n;
+        }
+        for (int bits = me; bits != 0; bits &= bits - 1) {
+            int s = Integer.numberOfTrailingZeros(bits);
+            int dirs = (kings >>> s & 1) != 0 ? 4 : 2;
+            for (int d = 0; d < dirs; d++) {
+                int to = NEIGHBOR[s][d];
+                if (to >= 0 && (empty >>> to & 1) != 0) {
+                    out[n++] = move(s, to, 0);
+                }
+            }
+        }
+        return n;
+    }
+
+    /** True if the side to move has a capture. */
+    public static boolean hasJump(int me, int opp, int kings) {
+        int empty = ~(me | opp);
+        for (int bits = me; bits != 0; bits &= bits - 1) {
+            int s = Integer.numberOfTrailingZeros(bits);
+            int dirs = (kings >>> s & 1) != 0 ? 4 : 2;
+            for (int d = 0; d < dirs; d++) {
+                int mid = NEIGHBOR[s][d], land = JUMP[s][d];
+                if (land >= 0 && (opp >>> mid & 1) != 0 && (empty >>> land & 1) != 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static int jumps(int from, int at, int captured, boolean king, int opp, int empty,
+                             long[] out, int start, int n) {
+        int dirs = king ? 4 : 2;
+        boolean extended = false;
+        for (int d = 0; d < dirs; d++) {
+            int mid = NEIGHBOR[at][d], land = JUMP[at][d];
+            if (land < 0 || (opp >>> mid & 1) == 0 || (captured >>> mid & 1) != 0 || (empty >>> land & 1) == 0) {
+                continue;
+            }
+            extended = true;
+            int now = captured | 1 << mid;
+            if (!king && land < 4) {
+                n = add(move(from, land, now), out, start, n);
+            } else {
+                n = jumps(from, land, now, king, opp, empty & ~(1 << land) | 1 << at, out, start, n);
+            }
+        }
+        if (!extended && captured != 0) {
+            n = add(move(from, at, captured), out, start, n);
+        }
+        return n;
+    }
+
+    /** A king can make the same capture in two orders around a loop: keep one. */
+    private static int add(long move, long[] out, int start, int n) {
+        for (int i = start; i < n; i++) {
+            if (out[i] == move) {
+                return n;
+            }
+        }
+        out[n] = move;
+        return n + 1;
+    }
+
+    // The position after a move, already rotated for the opponent.
+
+    public static int nextMe(int me, int opp, int kings, long move) {
+        return Integer.reverse(opp & ~captures(move));
+    }
+
+    public static int nextOpp(int me, int opp, int kings, long move) {
+        return Integer.reverse(me & ~(1 << from(move)) | 1 << to(move));
+    }
+
+    public static int nextKings(int me, int opp, int kings, long move) {
+        int from = from(move), to = to(move);
+        int k = kings & ~captures(move);
+        if ((k >>> from & 1) != 0) {
+            k = k & ~(1 << from) | 1 << to;
+        } else if (to < 4) {
+            k |= 1 << to;
+        }
+        return Integer.reverse(k);
+    }
+
+    /** Number of leaf positions {@code depth} moves ahead. */
+    public static long perft(int me, int opp, int kings, int depth) {
+        return perft(me, opp, kings, depth, new long[(depth + 1) * MAX_MOVES], 0);
+    }
+
+    private static long perft(int me, int opp, int kings, int depth, long[] moves, int offset) {
+        int end = generate(me, opp, kings, moves, offset);
+        if (depth == 1) {
+            return end - offset;
+        }
+        long count = 0;
+        for (int i = offset; i < end; i++) {
+            long m = moves[i];
+            count += perft(nextMe(me, opp, kings, m), nextOpp(me, opp, kings, m), nextKings(me, opp, kings, m),
+                    depth - 1, moves, end);
+        }
+        return count;
+    }
+}
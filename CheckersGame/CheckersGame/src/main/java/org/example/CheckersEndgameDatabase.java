@@ -0,0 +1,334 @@
+package org.example;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Win/loss/draw with distance for every position of up to {@code maxPieces}
+ * pieces, one byte per position, computed by retrograde analysis and stored in
+ * a file that is memory-mapped on the first probe.
+ *
+ * Positions are side-relative as in {@link CheckersBitboard} and grouped into
+ * classes by (my men, my kings, their men, their kings). Inside a class the index
+ * is the mixed-radix combination of the colex ranks of the four square sets; my
+ * men never stand on squares 0..3 and theirs never on 28..31, so men are ranked
+ * over 28 squares. Indices where two sets overlap are unused.
+ *
+ * A byte v is a draw for v == 0, a win in v plies for v > 0 and a loss in -v - 1
+ * plies for v < 0. Repetition and move-count draws are not modelled.
+ *
+ * Usage: CheckersEndgameDatabase [max pieces] [file]
+ */
+public final class CheckersEndgameDatabase {
+
+    public static final String DEFAULT_FILE = "checkers-endgame.bin";
+    public static final int UNKNOWN = Integer.MIN_VALUE;
+
+    private static final int MAGIC = 0x434B4442; // "CKDB"
+    private static final int MAX_PLIES = 126;
+    private static final int HEADER = 8;
+    private static final int[][] BINOMIAL = new int[33][33];
+
+    static {
+        for (int n = 0; n <= 32; n++) {
+            BINOMIAL[n][0] = 1;
+            for (int k = 1; k <= 32; k++) {
+                BINOMIAL[n][k] = n == 0 ? 0 : BINOMIAL[n - 1][k - 1] + BINOMIAL[n - 1][k];
+            }
+        }
+    }
+
+    private final Path file;
+    private Layout layout;
+    private MappedByteBuffer data;
+    private volatile boolean opened;
+
+    /** Nothing is read until the first probe; a missing file makes every probe UNKNOWN. */
+    public CheckersEndgameDatabase(Path file) {
+        this.file = file;
+    }
+
+    public synchronized int getMaxPieces() {
+        open();
+        return layout == null ? 0 : layout.maxPieces;
+    }
+
+    /** Stored value for the position, or UNKNOWN if it is outside the database. */
+    public int probe(int me, int opp, int kings) {
+        if (!opened) {
+            synchronized (this) {
+                open();
+            }
+        }
+        if (layout == null) {
+            return UNKNOWN;
+        }
+        long index = layout.index(me, opp, kings);
+        return index < 0 ? UNKNOWN : data.get((int) (HEADER + index));
+    }
+
+    private void open() {
+        if (opened) {
+            return;
+        }
+        if (Files.exists(file)) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                int pieces = buffer.getInt(4);
+                if (buffer.getInt(0) == MAGIC && pieces >= 2 && pieces <= 32) {
+                    Layout l = new Layout(pieces);
+                    if (channel.size() == HEADER + l.size) {
+                        data = buffer;
+                        layout = l;
+                    }
+                }
+            } catch (IOException e) {
+                System.err.println("Endgame database not loaded: " + e.getMessage());
+            }
+        }
+        opened = true;
+    }
+
+    /** Mixed-radix indexing of all piece classes up to maxPieces. */
+    static final class Layout {
+        final int maxPieces;
+        final long[][][][] offsets;
+        final long size;
+
+        Layout(int maxPieces) {
+            this.maxPieces = maxPieces;
+            int m = maxPieces + 1;
+            offsets = new long[m][m][m][m];
+            long total = 0;
+            for (int a = 0; a < m; a++) {
+                for (int b = 0; a + b < m; b++) {
+                    for (int c = 0; a + b + c < m; c++) {
+                        for (int d = 0; a + b + c + d < m; d++) {
+                            if (a + b == 0 || c + d == 0) {
+                                continue;
+                            }
+                            offsets[a][b][c][d] = total;
+                            total += classSize(a, b, c, d);
+                        }
+                    }
+                }
+            }
+            size = total;
+        }
+
+        static long classSize(int a, int b, int c, int d) {
+            return (long) BINOMIAL[28][a] * BINOMIAL[32][b] * BINOMIAL[28][c] * BINOMIAL[32][d];
+        }
+
+        long index(int me, int opp, int kings) {
+            int myMen = me & ~kings, myKings = me & kings, oppMen = opp & ~kings, oppKings = opp & kings;
+            int a = Integer.bitCount(myMen), b = Integer.bitCount(myKings);
+            int c = Integer.bitCount(oppMen), d = Integer.bitCount(oppKings);
+            if (a + b == 0 || c + d == 0 || a + b + c + d > maxPieces) {
+                return -1;
+            }
+            long index = rank(myMen >>> 4);
+            index = index * BINOMIAL[32][b] + rank(myKings);
+            index = index * BINOMIAL[28][c] + rank(oppMen);
+            index = index * BINOMIAL[32][d] + rank(oppKings);
+            return offsets[a][b][c][d] + index;
+        }
+    }
+
+    /** Colex rank of a set of squares. */
+    static int rank(int set) {
+        int rank = 0, k = 1;
+        for (; set != 0; set &= set - 1, k++) {
+            rank += BINOMIAL[Integer.numberOfTrailingZeros(set)][k];
+        }
+        return rank;
+    }
+
+    /** The set of k squares with the given colex rank. */
+    static int unrank(int rank, int k) {
+        int set = 0;
+        for (int i = k, n = 31; i > 0; i--) {
+            while (BINOMIAL[n][i] > rank) {
+                n--;
+            }
+            set |= 1 << n;
+            rank -= BINOMIAL[n][i];
+            n--;
+        }
+        return set;
+    }
+
+    /**
+     * Solves all classes in order of piece count, and by men count within it, so
+     * captures and promotions always lead to classes that are already solved. Each
+     * group is then iterated ply by ply: first the positions without moves (lost),
+     * then wins one ply before a known loss and losses whose moves all reach
+     * known wins, with the longest win taken as the distance.
+     */
+    public static byte[] build(int maxPieces) {
+        if (maxPieces < 2 || maxPieces > 32) {
+            throw new IllegalArgumentException("maxPieces must be between 2 and 32: " + maxPieces);
+        }
+        Layout layout = new Layout(maxPieces);
+        // one byte array, and probes index the mapped file with an int
+        if (layout.size > Integer.MAX_VALUE - HEADER) {
+            throw new IllegalArgumentException(maxPieces + " pieces need " + layout.size
+                    + " positions; the table holds at most " + (Integer.MAX_VALUE - HEADER));
+        }
+        byte[] table = new byte[(int) layout.size];
+        long[] moves = new long[CheckersBitboard.MAX_MOVES];
+        int deepest = 0;
+        for (int total = 2; total <= maxPieces; total++) {
+            for (int men = 0; men <= total; men++) {
+                // gather the legal positions of this group
+                int count = 0;
+                int[] positions = new int[0];
+                for (int a = 0; a <= men; a++) {
+                    int c = men - a;
+                    for (int b = 0; a + b + c <= total; b++) {
+                        int d = total - a - b - c;
+                        if (a + b == 0 || c + d == 0) {
+                            continue;
+                        }
+                        long size = Layout.classSize(a, b, c, d);
+                        long needed = 3L * (count + size);
+                        if (needed > positions.length) {
+                            positions = Arrays.copyOf(positions, (int) Math.max(needed, 2L * positions.length));
+                        }
+                        count = enumerate(a, b, c, d, positions, count);
+                    }
+                }
+                if (count == 0) {
+                    continue;
+                }
+                int lastChange = 0;
+                for (int ply = 0; ply <= MAX_PLIES; ply++) {
+                    int kept = 0;
+                    boolean changed = false;
+                    for (int i = 0; i < count; i++) {
+                        int me = positions[3 * i], opp = positions[3 * i + 1], kings = positions[3 * i + 2];
+                        int value = solveStep(layout, table, me, opp, kings, ply, moves);
+                        if (value != 0) {
+                            table[(int) layout.index(me, opp, kings)] = (byte) value;
+                            changed = true;
+                        } else {
+                            positions[3 * kept] = me;
+                            positions[3 * kept + 1] = opp;
+                            positions[3 * kept + 2] = kings;
+                            kept++;
+                        }
+                    }
+                    count = kept;
+                    if (changed) {
+                        lastChange = ply;
+                        deepest = Math.max(deepest, ply);
+                    }
+                    if (count == 0 || (ply > deepest + 1 && ply > lastChange + 1)) {
+                        break;
+                    }
+                }
+            }
+        }
+        return table;
+    }
+
+    /** Appends every non-overlapping position of a class as (me, opp, kings) triples. */
+    private static int enumerate(int a, int b, int c, int d, int[] out, int count) {
+        for (int ra = 0; ra < BINOMIAL[28][a]; ra++) {
+            int myMen = unrank(ra, a) << 4;
+            for (int rb = 0; rb < BINOMIAL[32][b]; rb++) {
+                int myKings = unrank(rb, b);
+                if ((myKings & myMen) != 0) {
+                    continue;
+                }
+                int mine = myMen | myKings;
+                for (int rc = 0; rc < BINOMIAL[28][c]; rc++) {
+                    int oppMen = unrank(rc, c);
+                    if ((oppMen & mine) != 0) {
+                        continue;
+                    }
+                    for (int rd = 0; rd < BINOMIAL[32][d]; rd++) {
+                        int oppKings = unrank(rd, d);
+                        if ((oppKings & (mine | oppMen)) != 0) {
+                            continue;
+                        }
+                        out[3 * count] = mine;
+                        out[3 * count + 1] = oppMen | oppKings;
+                        out[3 * count + 2] = myKings | oppKings;
+                        count++;
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    /** The value a position gets at this ply of the iteration, or 0 if it is still open. */
+    private static int solveStep(Layout layout, byte[] table, int me, int opp, int kings, int ply, long[] moves) {
+        int n = CheckersBitboard.generate(me, opp, kings, moves, 0);
+        if (n == 0) {
+            return ply == 0 ? -1 : 0;
+        }
+        if (ply == 0) {
+            return 0;
+        }
+        boolean allWins = true;
+        int longestWin = 0;
+        for (int i = 0; i < n; i++) {
+            long m = moves[i];
+            int nextOpp = CheckersBitboard.nextOpp(me, opp, kings, m);
+            int nextMe = CheckersBitboard.nextMe(me, opp, kings, m);
+            int value;
+            if (nextMe == 0) {
+                value = -1; // captured everything: the opponent has lost
+            } else {
+                value = table[(int) layout.index(nextMe, nextOpp, CheckersBitboard.nextKings(me, opp, kings, m))];
+            }
+            if (value == -ply) {
+                return ply; // opponent lost in ply - 1
+            }
+            if (value <= 0) {
+                allWins = false;
+            } else {
+                longestWin = Math.max(longestWin, value);
+            }
+        }
+        return allWins && longestWin == ply - 1 ? -ply - 1 : 0;
+    }
+
+    public static void save(byte[] table, int maxPieces, Path file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(maxPieces);
+            out.write(table);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int maxPieces = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        Path file = Paths.get(args.length > 1 ? args[1] : DEFAULT_FILE);
+        long start = System.nanoTime();
+        byte[] table = build(maxPieces);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        int wins = 0, losses = 0, longest = 0;
+        for (byte v : table) {
+            if (v > 0) {
+                wins++;
+                longest = Math.max(longest, v);
+            } else if (v < 0) {
+                losses++;
+            }
+        }
+        save(table, maxPieces, file);
+        System.out.printf("%d-piece database: %d entries, %d wins, %d losses, longest win %d plies, %.1f s -> %s%n",
+                maxPieces, table.length, wins, losses, longest, seconds, file);
+    }
+}
@@ -0,0 +1,91 @@
+package org.example;
+
+/**
+ * Immutable position in board coordinates for the UI: red starts on rows 5-7 and
+ * moves up, black starts on rows 0-2 and moves down. Moves use the
+ * {@link CheckersBitboard} encoding with absolute squares.
+ */
+public final class CheckersPosition {
+
+    private final int red;
+    private final int black;
+    private final int kings;
+    private final boolean redToMove;
+
+    public CheckersPosition(int red, int black, int kings, boolean redToMove) {
+        this.red = red;
+        this.black = black;
+        this.kings = kings;
+        this.redToMove = redToMove;
+    }
+
+    public static CheckersPosition initial() {
+        return new CheckersPosition(0xFFF00000, 0x00000FFF, 0, true);
+    }
+
+    public boolean isRedToMove() {
+        return redToMove;
+    }
+
+    public boolean isRed(int square) {
+        return (red >>> square & 1) != 0;
+    }
+
+    public boolean isBlack(int square) {
+        return (black >>> square & 1) != 0;
+    }
+
+    public boolean isKing(int square) {
+        return (kings >>> square & 1) != 0;
+    }
+
+    /** Pieces of the side to move, rotated so that side moves up. */
+    public int me() {
+        return redToMove ? red : Integer.reverse(black);
+    }
+
+    public int opp() {
+        return redToMove ? black : Integer.reverse(red);
+    }
+
+    public int relativeKings() {
+        return redToMove ? kings : Integer.reverse(kings);
+    }
+
+    public long[] legalMoves() {
+        long[] buffer = new long[CheckersBitboard.MAX_MOVES];
+        int n = CheckersBitboard.generate(me(), opp(), relativeKings(), buffer, 0);
+        long[] moves = new long[n];
+        for (int i = 0; i < n; i++) {
+            moves[i] = toAbsolute(buffer[i]);
+        }
+        return moves;
+    }
+
+    /** Converts between side-relative and board squares; the mapping is its own inverse. */
+    public long toAbsolute(long move) {
+        if (redToMove) {
+            return move;
+        }
+        return CheckersBitboard.move(31 - CheckersBitboard.from(move), 31 - CheckersBitboard.to(move),
+                Integer.reverse(CheckersBitboard.captures(move)));
+    }
+
+    public CheckersPosition play(long move) {
+        long relative = toAbsolute(move);
+        int me = me(), opp = opp(), k = relativeKings();
+        int nextMe = CheckersBitboard.nextMe(me, opp, k, relative);
+        int nextOpp = CheckersBitboard.nextOpp(me, opp, k, relative);
+        int nextKings = CheckersBitboard.nextKings(me, opp, k, relative);
+        // nextMe is the opponent seen from its own side
+        if (redToMove) {
+            return new CheckersPosition(Integer.reverse(nextOpp), Integer.reverse(nextMe), Integer.reverse(nextKings),
+                    false);
+        }
+        return new CheckersPosition(nextMe, nextOpp, nextKings, true);
+    }
+
+    public boolean isGameOver() {
+        return legalMoves().length == 0;
+    }
+}
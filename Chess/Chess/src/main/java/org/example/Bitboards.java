@@ -0,0 +1,207 @@
+package org.example;
+
+import java.util.Random;
+
+/**
+ * Precomputed attack tables. Squares are numbered a1 = 0 ... h8 = 63.
+ * Rook and bishop attacks use magic bitboards: the relevant blockers are
+ * multiplied by a per-square magic number and shifted down to index a table
+ * that holds the attack set for that blocker configuration.
+ */
+final class Bitboards {
+
+    static final long FILE_A = 0x0101010101010101L;
+    static final long FILE_H = FILE_A << 7;
+    static final long RANK_1 = 0xFFL;
+    static final long RANK_3 = RANK_1 << 16;
+    static final long RANK_6 = RANK_1 << 40;
+    static final long RANK_8 = RANK_1 << 56;
+
+    static final long[] KNIGHT_ATTACKS = new long[64];
+    static final long[] KING_ATTACKS = new long[64];
+    static final long[][] PAWN_ATTACKS = new long[2][64];
+
+    private static final long[] ROOK_MASK = new long[64];
+    private static final long[] BISHOP_MASK = new long[64];
+    // Precomputed with findMagic(); a square is only searched again if its entry collides.
+    private static final long[] ROOK_MAGIC = {
+            0x0080008420144000L, 0x0140001000402000L, 0x8100200100081040L, 0x0580100181040800L,
+            0x0480040002480180L, 0x020002001004C108L, 0x06002600180104ACL, 0x0A00010200804024L,
+            0x1102800320814002L, 0xC000808040002000L, 0x0202802000821000L, 0x4210800800801000L,
+            0x8008808044004800L, 0x0006002418100200L, 0x0A00800200010080L, 0x0202000208804114L,
+            0x0280044002200041L, 0x3010004020004008L, 0x0010002008040022L, 0x8000210008100102L,
+            0x60A2020004110820L, 0x0222008080040002L, 0x00C0840002085110L, 0x02004A0000810454L,
+            0x0080401080008020L, 0x0040200040100048L, 0x0006041200208040L, 0x2010100100210008L,
+            0x5090080080800400L, 0x0022002200042950L, 0x011010040002E108L, 0x0000240200009041L,
+            0x0010400020800080L, 0x0040401000402000L, 0x0200200080801000L, 0x4140080080801003L,
+            0x0000800400800800L, 0x0800040080800200L, 0x1008080284002110L, 0x00A001008A001444L,
+            0x3040002040908000L, 0x1000422010024000L, 0x0040402001010010L, 0x8000100008008080L,
+            0x0084008008028004L, 0x0002000204008080L, 0x0000088210040001L, 0x0280C12080520004L,
+            0x028700800C402B00L, 0x0180200040008080L, 0x80A0008020100080L, 0x0001012010008900L,
+            0x4000040108008180L, 0x000C000402008080L, 0x004B0002002C0900L, 0x0020D42040811200L,
+            0x8844520121004082L, 0x1109150082204001L, 0x0302000820408012L, 0x2081002208041001L,
+            0x0002000804201002L, 0x5101000A28040029L, 0x0100080112489004L, 0x02000E4400288102L
+    };
+    private static final long[] BISHOP_MAGIC = {
+            0x4014281015002108L, 0x0060020882029000L, 0x1104440082102120L, 0x4004410020042802L,
+            0x0011104020140040L, 0x0006074460005020L, 0x48208E0820040201L, 0x0202050401042240L,
+            0x400C401014208AA0L, 0x01C020064A424100L, 0x0012304408424000L, 0x21008808510C0004L,
+            0x0020141420000024L, 0x0004009004202009L, 0x4002008410080450L, 0x2000088280B82000L,
+            0x4040002410828602L, 0x08448030810A1410L, 0x1010032104008110L, 0x0850810802084244L,
+            0x0804000202112040L, 0x4901008610009420L, 0x31A0402411082800L, 0x8402000107620200L,
+            0x2210311041126208L, 0x0295218018020400L, 0x2092010408104400L, 0x0004040000401080L,
+            0x0020404004010041L, 0x80448A0109080618L, 0x008084110A0A0200L, 0x204C00C000A70440L,
+            0x3010106441114400L, 0x0C94115400181000L, 0x1821403000020400L, 0x2000020082480080L,
+            0x2080408020020200L, 0x0020080040068040L, 0x20089D8888190802L, 0x000F820044408408L,
+            0x2084022006089000L, 0x22510101A0401020L, 0x40000A0802009408L, 0x140483C010420200L,
+            0x0449200208811408L, 0x0002220042000100L, 0x00281000D0800201L, 0x044200A519010200L,
+            0x0300421050080002L, 0x00C0540401080004L, 0x4801010088040034L, 0x8400000210540051L,
+            0x400400404822002CL, 0x2080070448020000L, 0x1B2082100A00A000L, 0x4002021802108000L,
+            0xC000248800901000L, 0x0000024100B01100L, 0x1902103044022100L, 0x0000004404228810L,
+            0x0101000008210100L, 0x0025000820089082L, 0x0008091010008120L, 0x9120024202040010L
+    };
+    private static final int[] ROOK_SHIFT = new int[64];
+    private static final int[] BISHOP_SHIFT = new int[64];
+    private static final long[][] ROOK_TABLE = new long[64][];
+    private static final long[][] BISHOP_TABLE = new long[64][];
+
+    private static final int[][] ROOK_DIRECTIONS = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+    private static final int[][] BISHOP_DIRECTIONS = {{1, 1}, {1, -1}, {-1, 1}, {-1, -1}};
+
+    static {
+        int[][] knightSteps = {{1, 2}, {2, 1}, {2, -1}, {1, -2}, {-1, -2}, {-2, -1}, {-2, 1}, {-1, 2}};
+        int[][] kingSteps = {{1, 0}, {1, 1}, {0, 1}, {-1, 1}, {-1, 0}, {-1, -1}, {0, -1}, {1, -1}};
+        for (int sq = 0; sq < 64; sq++) {
+            int rank = sq >> 3, file = sq & 7;
+            for (int[] s : knightSteps) {
+                KNIGHT_ATTACKS[sq] |= bit(rank + s[0], file + s[1]);
+            }
+            for (int[] s : kingSteps) {
+                KING_ATTACKS[sq] |= bit(rank + s[0], file + s[1]);
+            }
+            PAWN_ATTACKS[Position.WHITE][sq] = bit(rank + 1, file - 1) | bit(rank + 1, file + 1);
+            PAWN_ATTACKS[Position.BLACK][sq] = bit(rank - 1, file - 1) | bit(rank - 1, file + 1);
+        }
+
+        Random random = new Random(0x5EEDL);
+        for (int sq = 0; sq < 64; sq++) {
+            ROOK_MASK[sq] = relevantMask(sq, ROOK_DIRECTIONS);
+            BISHOP_MASK[sq] = relevantMask(sq, BISHOP_DIRECTIONS);
+            ROOK_SHIFT[sq] = 64 - Long.bitCount(ROOK_MASK[sq]);
+            BISHOP_SHIFT[sq] = 64 - Long.bitCount(BISHOP_MASK[sq]);
+            ROOK_TABLE[sq] = new long[1 << Long.bitCount(ROOK_MASK[sq])];
+            BISHOP_TABLE[sq] = new long[1 << Long.bitCount(BISHOP_MASK[sq])];
+            if (!fillTable(sq, ROOK_MASK[sq], ROOK_MAGIC[sq], ROOK_SHIFT[sq], ROOK_TABLE[sq], ROOK_DIRECTIONS)) {
+                ROOK_MAGIC[sq] = findMagic(sq, ROOK_MASK[sq], ROOK_SHIFT[sq], ROOK_TABLE[sq], ROOK_DIRECTIONS, random);
+            }
+            if (!fillTable(sq, BISHOP_MASK[sq], BISHOP_MAGIC[sq], BISHOP_SHIFT[sq], BISHOP_TABLE[sq], BISHOP_DIRECTIONS)) {
+                BISHOP_MAGIC[sq] = findMagic(sq, BISHOP_MASK[sq], BISHOP_SHIFT[sq], BISHOP_TABLE[sq], BISHOP_DIRECTIONS, random);
+            }
+        }
+    }
+
+    private Bitboards() {
+    }
+
+    static long rookAttacks(int sq, long occupied) {
+        return ROOK_TABLE[sq][(int) (((occupied & ROOK_MASK[sq]) * ROOK_MAGIC[sq]) >>> ROOK_SHIFT[sq])];
+    }
+
+    static long bishopAttacks(int sq, long occupied) {
+        return BISHOP_TABLE[sq][(int) (((occupied & BISHOP_MASK[sq]) * BISHOP_MAGIC[sq]) >>> BISHOP_SHIFT[sq])];
+    }
+
+    static long queenAttacks(int sq, long occupied) {
+        return rookAttacks(sq, occupied) | bishopAttacks(sq, occupied);
+    }
+
+    private static long bit(int rank, int file) {
+        if (rank < 0 || rank > 7 || file < 0 || file > 7) {
+            return 0L;
+        }
+        return 1L << (rank * 8 + file);
+    }
+
+    /** Ray squares that can block, i.e. every ray square except the one on the board edge. */
+    private static long relevantMask(int sq, int[][] directions) {
+        long mask = 0;
+        for (int[] d : directions) {
+            int r = (sq >> 3) + d[0], f = (sq & 7) + d[1];
+            while (bit(r + d[0], f + d[1]) != 0) {
+                mask |= bit(r, f);
+                r += d[0];
+                f += d[1];
+            }
+        }
+        return mask;
+    }
+
+    private static long slowAttacks(int sq, long occupied, int[][] directions) {
+        long attacks = 0;
+        for (int[] d : directions) {
+            int r = (sq >> 3) + d[0], f = (sq & 7) + d[1];
+            long b;
+            while ((b = bit(r, f)) != 0) {
+                attacks |= b;
+                if ((occupied & b) != 0) {
+                    break;
+                }
+                r += d[0];
+                f += d[1];
+            }
+        }
+        return attacks;
+    }
+
+    /** Fills the attack table for a known magic; false if two blocker sets collide. */
+    private static boolean fillTable(int sq, long mask, long magic, int shift, long[] table, int[][] directions) {
+        boolean[] used = new boolean[table.length];
+        long subset = 0;
+        do {
+            int idx = (int) ((subset * magic) >>> shift);
+            long attacks = slowAttacks(sq, subset, directions);
+            if (used[idx] && table[idx] != attacks) {
+                return false;
+            }
+            used[idx] = true;
+            table[idx] = attacks;
+            subset = (subset - mask) & mask;
+        } while (subset != 0);
+        return true;
+    }
+
+    private static long findMagic(int sq, long mask, int shift, long[] table, int[][] directions, Random random) {
+        int size = table.length;
+        long[] occupancies = new long[size];
+        long[] attacks = new long[size];
+        int n = 0;
+        long subset = 0;
+        do {
+            occupancies[n] = subset;
+            attacks[n] = slowAttacks(sq, subset, directions);
+            n++;
+            subset = (subset - mask) & mask;
+        } while (subset != 0);
+
+        int[] epoch = new int[size];
+        for (int attempt = 1; ; attempt++) {
+            long magic = random.nextLong() & random.nextLong() & random.nextLong();
+            if (Long.bitCount((mask * magic) & 0xFF00000000000000L) < 6) {
+                continue;
+            }
+            boolean ok = true;
+            for (int i = 0; i < n && ok; i++) {
+                int idx = (int) ((occupancies[i] * magic) >>> shift);
+                if (epoch[idx] != attempt) {
+                    epoch[idx] = attempt;
+                    table[idx] = attacks[i];
+                } else if (table[idx] != attacks[i]) {
+                    ok = false;
+                }
+            }
+            if (ok) {
+                return magic;
+            }
+        }
+    }
+}
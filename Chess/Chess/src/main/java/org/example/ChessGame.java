@@ -4,12 +4,17 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.util.concurrent.ExecutionException;
 
 public class ChessGame extends JPanel {
     private static final int TILE_SIZE = 80;
     private static final int BOARD_SIZE = 8;
+    private static final long THINK_MILLIS = 2000;
     private Piece[][] board;
     private int selectedRow = -1, selectedCol = -1;
+    private final Position position = new Position();
+    private final SearchEngine engine = new SearchEngine();
+    private boolean thinking;
 
     public ChessGame() {
         this.board = new Piece[BOARD_SIZE][BOARD_SIZE];
@@ -26,38 +31,120 @@ public class ChessGame extends JPanel {
     }
 
     private void initializeBoard() {
-        for (int i = 0; i < BOARD_SIZE; i++) {
-            board[1][i] = new Piece("P", Color.BLACK);
-            board[6][i] = new Piece("P", Color.WHITE);
+        for (int row = 0; row < BOARD_SIZE; row++) {
+            for (int col = 0; col < BOARD_SIZE; col++) {
+                int piece = position.pieceAt(toSquare(row, col));
+                if (piece == Position.EMPTY) {
+                    board[row][col] = null;
+                } else {
+                    String type = String.valueOf(Character.toUpperCase(Position.pieceChar(piece)));
+                    board[row][col] = new Piece(type, piece < 6 ? Color.WHITE : Color.BLACK);
+                }
+            }
         }
-        board[0][0] = board[0][7] = new Piece("R", Color.BLACK);
-        board[0][1] = board[0][6] = new Piece("N", Color.BLACK);
-        board[0][2] = board[0][5] = new Piece("B", Color.BLACK);
-        board[0][3] = new Piece("Q", Color.BLACK);
-        board[0][4] = new Piece("K", Color.BLACK);
-
-        board[7][0] = board[7][7] = new Piece("R", Color.WHITE);
-        board[7][1] = board[7][6] = new Piece("N", Color.WHITE);
-        board[7][2] = board[7][5] = new Piece("B", Color.WHITE);
-        board[7][3] = new Piece("Q", Color.WHITE);
-        board[7][4] = new Piece("K", Color.WHITE);
+    }
+
+    private static int toSquare(int row, int col) {
+        return (BOARD_SIZE - 1 - row) * BOARD_SIZE + col;
     }
 
     private void handleClick(int row, int col) {
+        if (thinking || row >= BOARD_SIZE || col >= BOARD_SIZE) {
+            return;
+        }
+        int square = toSquare(row, col);
         if (selectedRow == -1) {
-            if (board[row][col] != null) {
+            if (isOwnPiece(square)) {
                 selectedRow = row;
                 selectedCol = col;
             }
         } else {
-            board[row][col] = board[selectedRow][selectedCol];
-            board[selectedRow][selectedCol] = null;
-            selectedRow = -1;
-            selectedCol = -1;
+            int move = findLegalMove(toSquare(selectedRow, selectedCol), square);
+            if (move != 0) {
+                position.makeMove(move);
+                selectedRow = -1;
+                selectedCol = -1;
+                initializeBoard();
+                if (!checkGameOver()) {
+                    startComputerMove();
+                }
+            } else if (isOwnPiece(square)) {
+                selectedRow = row;
+                selectedCol = col;
+            } else {
+                selectedRow = -1;
+                selectedCol = -1;
+            }
         }
         repaint();
     }
 
+    private boolean isOwnPiece(int square) {
+        int piece = position.pieceAt(square);
+        return piece != Position.EMPTY && piece / 6 == position.getSide();
+    }
+
+    /** Legal move between the squares, promoting to a queen when there is a choice. */
+    private int findLegalMove(int from, int to) {
+        int[] moves = new int[256];
+        int count = position.generateLegalMoves(moves);
+        int found = 0;
+        for (int i = 0; i < count; i++) {
+            int move = moves[i];
+            if (Position.from(move) == from && Position.to(move) == to) {
+                if (!Position.isPromotion(move) || Position.promotionType(move) == Position.QUEEN) {
+                    return move;
+                }
+                found = move;
+            }
+        }
+        return found;
+    }
+
+    /** The engine searches a copy of the position on a worker thread so the EDT stays responsive. */
+    private void startComputerMove() {
+        thinking = true;
+        Position snapshot = position.copy();
+        new SwingWorker<SearchEngine.Result, Void>() {
+            @Override
+            protected SearchEngine.Result doInBackground() {
+                return engine.search(snapshot, THINK_MILLIS);
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    SearchEngine.Result result = get();
+                    if (result.getBestMove() != 0) {
+                        position.makeMove(result.getBestMove());
+                    }
+                } catch (InterruptedException | ExecutionException e) {
+                    // The engine's side is still to move, so input stays blocked rather than handing it to the player
+                    Throwable cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+                    JOptionPane.showMessageDialog(ChessGame.this, "Computer move failed: " + cause
+                            + "\nThe game cannot continue.");
+                    return;
+                }
+                thinking = false;
+                initializeBoard();
+                repaint();
+                checkGameOver();
+            }
+        }.execute();
+    }
+
+    private boolean checkGameOver() {
+        int[] moves = new int[256];
+        if (position.generateLegalMoves(moves) > 0) {
+            return false;
+        }
+        String message = position.inCheck()
+                ? (position.getSide() == Position.WHITE ? "Black" : "White") + " wins by checkmate!"
+                : "Stalemate!";
+        JOptionPane.showMessageDialog(this, message);
+        return true;
+    }
+
     @Override
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
@@ -0,0 +1,75 @@
+package org.example;
+
+/**
+ * Move generator correctness check: counts leaf nodes of the legal move tree
+ * and compares against published perft numbers, reporting nodes/sec.
+ */
+public class Perft {
+
+    private final int[][] moves = new int[64][256];
+
+    public long perft(Position position, int depth) {
+        return perft(position, depth, 0);
+    }
+
+    private long perft(Position position, int depth, int ply) {
+        if (depth == 0) {
+            return 1;
+        }
+        int[] list = moves[ply];
+        int count = position.generateMoves(list, false);
+        long nodes = 0;
+        for (int i = 0; i < count; i++) {
+            int move = list[i];
+            position.makeMove(move);
+            if (!position.leftKingInCheck()) {
+                nodes += depth == 1 ? 1 : perft(position, depth - 1, ply + 1);
+            }
+            position.unmakeMove(move);
+        }
+        return nodes;
+    }
+
+    /** Per-root-move counts, handy for tracking down a generator bug. */
+    public void divide(Position position, int depth) {
+        int[] list = new int[256];
+        int count = position.generateLegalMoves(list);
+        long total = 0;
+        for (int i = 0; i < count; i++) {
+            position.makeMove(list[i]);
+            long nodes = perft(position, depth - 1, 1);
+            position.unmakeMove(list[i]);
+            System.out.println(Position.moveToString(list[i]) + ": " + nodes);
+            total += nodes;
+        }
+        System.out.println("Total: " + total);
+    }
+
+    public static void main(String[] args) {
+        Object[][] suite = {
+                {Position.START_FEN, new long[]{20, 400, 8902, 197281, 4865609}},
+                {"r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1", new long[]{48, 2039, 97862, 4085603}},
+                {"8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1", new long[]{14, 191, 2812, 43238, 674624}},
+                {"r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1", new long[]{6, 264, 9467, 422333}},
+                {"rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8", new long[]{44, 1486, 62379, 2103487}},
+        };
+        Perft perft = new Perft();
+        boolean allPassed = true;
+        for (Object[] test : suite) {
+            String fen = (String) test[0];
+            long[] expected = (long[]) test[1];
+            Position position = new Position(fen);
+            System.out.println(fen);
+            for (int depth = 1; depth <= expected.length; depth++) {
+                long start = System.nanoTime();
+                long nodes = perft.perft(position, depth);
+                double seconds = (System.nanoTime() - start) / 1e9;
+                boolean ok = nodes == expected[depth - 1];
+                allPassed &= ok;
+                System.out.printf("  depth %d: %d nodes %s (%.0f nodes/sec)%n",
+                        depth, nodes, ok ? "OK" : "FAIL expected " + expected[depth - 1], nodes / Math.max(seconds, 1e-9));
+            }
+        }
+        System.out.println(allPassed ? "All perft counts match" : "Perft mismatch!");
+    }
+}
@@ -0,0 +1,483 @@
+package org.example;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Bitboard chess position with make/unmake and legal move generation.
+ *
+ * Pieces are indexed {@code color * 6 + type}. Moves are packed ints:
+ * bits 0-5 from square, 6-11 to square, 12-15 flags (see {@link #FLAG_CAPTURE} etc.).
+ */
+public class Position {
+
+    public static final int WHITE = 0, BLACK = 1;
+    public static final int PAWN = 0, KNIGHT = 1, BISHOP = 2, ROOK = 3, QUEEN = 4, KING = 5;
+    public static final int EMPTY = -1;
+
+    public static final int FLAG_QUIET = 0;
+    public static final int FLAG_DOUBLE_PUSH = 1;
+    public static final int FLAG_KING_CASTLE = 2;
+    public static final int FLAG_QUEEN_CASTLE = 3;
+    public static final int FLAG_CAPTURE = 4;
+    public static final int FLAG_EN_PASSANT = 5;
+    public static final int FLAG_PROMOTION = 8;
+
+    public static final String START_FEN = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    private static final String PIECE_CHARS = "PNBRQKpnbrqk";
+    private static final int[] CASTLE_MASK = new int[64];
+
+    static final long[][] ZOBRIST_PIECE = new long[12][64];
+    static final long[] ZOBRIST_CASTLING = new long[16];
+    static final long[] ZOBRIST_EP_FILE = new long[8];
+    static final long ZOBRIST_SIDE;
+
+    static {
+        Arrays.fill(CASTLE_MASK, 15);
+        CASTLE_MASK[0] &= ~2;
+        CASTLE_MASK[7] &= ~1;
+        CASTLE_MASK[4] &= ~3;
+        CASTLE_MASK[56] &= ~8;
+        CASTLE_MASK[63] &= ~4;
+        CASTLE_MASK[60] &= ~12;
+
+        Random random = new Random(0x20B121L);
+        for (long[] squares : ZOBRIST_PIECE) {
+            for (int sq = 0; sq < 64; sq++) {
+                squares[sq] = random.nextLong();
+            }
+        }
+        for (int i = 0; i < 16; i++) {
+            ZOBRIST_CASTLING[i] = random.nextLong();
+        }
+        for (int i = 0; i < 8; i++) {
+            ZOBRIST_EP_FILE[i] = random.nextLong();
+        }
+        ZOBRIST_SIDE = random.nextLong();
+    }
+
+    final long[] pieces = new long[12];
+    final long[] colors = new long[2];
+    long occupied;
+    final int[] board = new int[64];
+    int side;
+    int castling;
+    int epSquare = -1;
+    int halfmove;
+    long key;
+
+    // Undo stack, indexed by ply since the position was set up
+    int ply;
+    private long[] undoKey = new long[256];
+    private int[] undoCaptured = new int[256];
+    private int[] undoCastling = new int[256];
+    private int[] undoEp = new int[256];
+    private int[] undoHalfmove = new int[256];
+
+    public Position() {
+        this(START_FEN);
+    }
+
+    public Position(String fen) {
+        Arrays.fill(board, EMPTY);
+        String[] parts = fen.trim().split("\\s+");
+        int rank = 7, file = 0;
+        for (char ch : parts[0].toCharArray()) {
+            if (ch == '/') {
+                rank--;
+                file = 0;
+            } else if (Character.isDigit(ch)) {
+                file += ch - '0';
+            } else {
+                int piece = PIECE_CHARS.indexOf(ch);
+                if (piece < 0) {
+                    throw new IllegalArgumentException("Bad FEN piece '" + ch + "' in " + fen);
+                }
+                addPiece(rank * 8 + file, piece);
+                file++;
+            }
+        }
+        side = parts.length > 1 && parts[1].equals("b") ? BLACK : WHITE;
+        if (parts.length > 2) {
+            for (char ch : parts[2].toCharArray()) {
+                switch (ch) {
+                    case 'K': castling |= 1; break;
+                    case 'Q': castling |= 2; break;
+                    case 'k': castling |= 4; break;
+                    case 'q': castling |= 8; break;
+                    default: break;
+                }
+            }
+        }
+        if (parts.length > 3 && !parts[3].equals("-")) {
+            epSquare = (parts[3].charAt(1) - '1') * 8 + (parts[3].charAt(0) - 'a');
+        }
+        if (parts.length > 4) {
+            halfmove = Integer.parseInt(parts[4]);
+        }
+        key = computeKey();
+    }
+
+    public Position copy() {
+        Position p = new Position("8/8/8/8/8/8/8/8 w - - 0 1");
+        System.arraycopy(pieces, 0, p.pieces, 0, 12);
+        System.arraycopy(colors, 0, p.colors, 0, 2);
+        System.arraycopy(board, 0, p.board, 0, 64);
+        p.occupied = occupied;
+        p.side = side;
+        p.castling = castling;
+        p.epSquare = epSquare;
+        p.halfmove = halfmove;
+        p.key = key;
+        p.ply = ply;
+        p.undoKey = undoKey.clone();
+        p.undoCaptured = undoCaptured.clone();
+        p.undoCastling = undoCastling.clone();
+        p.undoEp = undoEp.clone();
+        p.undoHalfmove = undoHalfmove.clone();
+        return p;
+    }
+
+    long computeKey() {
+        long k = 0;
+        for (int sq = 0; sq < 64; sq++) {
+            if (board[sq] != EMPTY) {
+                k ^= ZOBRIST_PIECE[board[sq]][sq];
+            }
+        }
+        k ^= ZOBRIST_CASTLING[castling];
+        if (epSquare >= 0) {
+            k ^= ZOBRIST_EP_FILE[epSquare & 7];
+        }
+        if (side == BLACK) {
+            k ^= ZOBRIST_SIDE;
+        }
+        return k;
+    }
+
+    private void addPiece(int sq, int piece) {
+        long b = 1L << sq;
+        pieces[piece] |= b;
+        colors[piece / 6] |= b;
+        occupied |= b;
+        board[sq] = piece;
+        key ^= ZOBRIST_PIECE[piece][sq];
+    }
+
+    private void removePiece(int sq) {
+        int piece = board[sq];
+        long b = ~(1L << sq);
+        pieces[piece] &= b;
+        colors[piece / 6] &= b;
+        occupied &= b;
+        board[sq] = EMPTY;
+        key ^= ZOBRIST_PIECE[piece][sq];
+    }
+
+    private void movePiece(int from, int to) {
+        int piece = board[from];
+        long b = (1L << from) | (1L << to);
+        pieces[piece] ^= b;
+        colors[piece / 6] ^= b;
+        occupied ^= b;
+        board[from] = EMPTY;
+        board[to] = piece;
+        key ^= ZOBRIST_PIECE[piece][from] ^ ZOBRIST_PIECE[piece][to];
+    }
+
+    // ---------------------------------------------------------------- moves
+
+    public static int move(int from, int to, int flags) {
+        return from | (to << 6) | (flags << 12);
+    }
+
+    public static int from(int move) {
+        return move & 63;
+    }
+
+    public static int to(int move) {
+        return (move >>> 6) & 63;
+    }
+
+    public static int flags(int move) {
+        return move >>> 12;
+    }
+
+    public static boolean isCapture(int move) {
+        return (flags(move) & FLAG_CAPTURE) != 0;
+    }
+
+    public static boolean isPromotion(int move) {
+        return (flags(move) & FLAG_PROMOTION) != 0;
+    }
+
+    /** Promotion piece type (KNIGHT..QUEEN); only meaningful for promotions. */
+    public static int promotionType(int move) {
+        return KNIGHT + (flags(move) & 3);
+    }
+
+    public void makeMove(int move) {
+        if (ply == undoKey.length) {
+            int n = ply * 2;
+            undoKey = Arrays.copyOf(undoKey, n);
+            undoCaptured = Arrays.copyOf(undoCaptured, n);
+            undoCastling = Arrays.copyOf(undoCastling, n);
+            undoEp = Arrays.copyOf(undoEp, n);
+            undoHalfmove = Arrays.copyOf(undoHalfmove, n);
+        }
+        int from = from(move), to = to(move), flags = flags(move);
+        int piece = board[from];
+        int captured = EMPTY;
+        undoKey[ply] = key;
+        undoCastling[ply] = castling;
+        undoEp[ply] = epSquare;
+        undoHalfmove[ply] = halfmove;
+
+        if (epSquare >= 0) {
+            key ^= ZOBRIST_EP_FILE[epSquare & 7];
+        }
+        if (flags == FLAG_EN_PASSANT) {
+            int capSq = side == WHITE ? to - 8 : to + 8;
+            captured = board[capSq];
+            removePiece(capSq);
+        } else if ((flags & FLAG_CAPTURE) != 0) {
+            captured = board[to];
+            removePiece(to);
+        }
+        movePiece(from, to);
+        if ((flags & FLAG_PROMOTION) != 0) {
+            removePiece(to);
+            addPiece(to, side * 6 + promotionType(move));
+        } else if (flags == FLAG_KING_CASTLE) {
+            movePiece(to + 1, to - 1);
+        } else if (flags == FLAG_QUEEN_CASTLE) {
+            movePiece(to - 2, to + 1);
+        }
+
+        key ^= ZOBRIST_CASTLING[castling];
+        castling &= CASTLE_MASK[from] & CASTLE_MASK[to];
+        key ^= ZOBRIST_CASTLING[castling];
+
+        epSquare = flags == FLAG_DOUBLE_PUSH ? (from + to) >> 1 : -1;
+        if (epSquare >= 0) {
+            key ^= ZOBRIST_EP_FILE[epSquare & 7];
+        }
+        halfmove = (piece % 6 == PAWN || captured != EMPTY) ? 0 : halfmove + 1;
+        undoCaptured[ply] = captured;
+        side ^= 1;
+        key ^= ZOBRIST_SIDE;
+        ply++;
+    }
+
+    public void unmakeMove(int move) {
+        ply--;
+        side ^= 1;
+        int from = from(move), to = to(move), flags = flags(move);
+        if ((flags & FLAG_PROMOTION) != 0) {
+            removePiece(to);
+            addPiece(from, side * 6 + PAWN);
+        } else {
+            movePiece(to, from);
+        }
+        if (flags == FLAG_KING_CASTLE) {
+            movePiece(to - 1, to + 1);
+        } else if (flags == FLAG_QUEEN_CASTLE) {
+            movePiece(to + 1, to - 2);
+        }
+        int captured = undoCaptured[ply];
+        if (captured != EMPTY) {
+            addPiece(flags == FLAG_EN_PASSANT ? (side == WHITE ? to - 8 : to + 8) : to, captured);
+        }
+        castling = undoCastling[ply];
+        epSquare = undoEp[ply];
+        halfmove = undoHalfmove[ply];
+        key = undoKey[ply];
+    }
+
+    // ---------------------------------------------------------------- attacks
+
+    public boolean isAttacked(int sq, int bySide) {
+        int base = bySide * 6;
+        if ((Bitboards.PAWN_ATTACKS[bySide ^ 1][sq] & pieces[base + PAWN]) != 0) return true;
+        if ((Bitboards.KNIGHT_ATTACKS[sq] & pieces[base + KNIGHT]) != 0) return true;
+        if ((Bitboards.KING_ATTACKS[sq] & pieces[base + KING]) != 0) return true;
+        long queens = pieces[base + QUEEN];
+        if ((Bitboards.bishopAttacks(sq, occupied) & (pieces[base + BISHOP] | queens)) != 0) return true;
+        return (Bitboards.rookAttacks(sq, occupied) & (pieces[base + ROOK] | queens)) != 0;
+    }
+
+    public int kingSquare(int color) {
+        return Long.numberOfTrailingZeros(pieces[color * 6 + KING]);
+    }
+
+    public boolean inCheck() {
+        return isAttacked(kingSquare(side), side ^ 1);
+    }
+
+    /** True if the move just made left the mover's own king attacked. */
+    public boolean leftKingInCheck() {
+        return isAttacked(kingSquare(side ^ 1), side);
+    }
+
+    // ---------------------------------------------------------------- generation
+
+    /**
+     * Writes pseudo-legal moves into {@code moves} starting at 0 and returns the count.
+     * With {@code noisyOnly} only captures and promotions are produced.
+     */
+    public int generateMoves(int[] moves, boolean noisyOnly) {
+        int n = 0;
+        int us = side, them = side ^ 1;
+        long own = colors[us], enemy = colors[them];
+        long empty = ~occupied;
+        long targets = noisyOnly ? enemy : ~own;
+
+        long pawns = pieces[us * 6 + PAWN];
+        long promoRank = us == WHITE ? Bitboards.RANK_8 : Bitboards.RANK_1;
+        int forward = us == WHITE ? 8 : -8;
+        long push, doublePush, left, right;
+        if (us == WHITE) {
+            push = (pawns << 8) & empty;
+            doublePush = ((push & Bitboards.RANK_3) << 8) & empty;
+            left = ((pawns & ~Bitboards.FILE_A) << 7) & enemy;
+            right = ((pawns & ~Bitboards.FILE_H) << 9) & enemy;
+        } else {
+            push = (pawns >>> 8) & empty;
+            doublePush = ((push & Bitboards.RANK_6) >>> 8) & empty;
+            left = ((pawns & ~Bitboards.FILE_A) >>> 9) & enemy;
+            right = ((pawns & ~Bitboards.FILE_H) >>> 7) & enemy;
+        }
+        int leftDelta = us == WHITE ? 7 : -9;
+        int rightDelta = us == WHITE ? 9 : -7;
+
+        n = addPawnMoves(moves, n, push & promoRank, forward, 0);
+        if (!noisyOnly) {
+            n = addPawnMoves(moves, n, push & ~promoRank, forward, 0);
+            for (long b = doublePush; b != 0; b &= b - 1) {
+                int to = Long.numberOfTrailingZeros(b);
+                moves[n++] = move(to - 2 * forward, to, FLAG_DOUBLE_PUSH);
+            }
+        }
+        n = addPawnMoves(moves, n, left, leftDelta, FLAG_CAPTURE);
+        n = addPawnMoves(moves, n, right, rightDelta, FLAG_CAPTURE);
+        if (epSquare >= 0) {
+            for (long b = Bitboards.PAWN_ATTACKS[them][epSquare] & pawns; b != 0; b &= b - 1) {
+                moves[n++] = move(Long.numberOfTrailingZeros(b), epSquare, FLAG_EN_PASSANT);
+            }
+        }
+
+        for (long b = pieces[us * 6 + KNIGHT]; b != 0; b &= b - 1) {
+            int from = Long.numberOfTrailingZeros(b);
+            n = addMoves(moves, n, from, Bitboards.KNIGHT_ATTACKS[from] & targets, enemy);
+        }
+        for (long b = pieces[us * 6 + BISHOP]; b != 0; b &= b - 1) {
+            int from = Long.numberOfTrailingZeros(b);
+            n = addMoves(moves, n, from, Bitboards.bishopAttacks(from, occupied) & targets, enemy);
+        }
+        for (long b = pieces[us * 6 + ROOK]; b != 0; b &= b - 1) {
+            int from = Long.numberOfTrailingZeros(b);
+            n = addMoves(moves, n, from, Bitboards.rookAttacks(from, occupied) & targets, enemy);
+        }
+        for (long b = pieces[us * 6 + QUEEN]; b != 0; b &= b - 1) {
+            int from = Long.numberOfTrailingZeros(b);
+            n = addMoves(moves, n, from, Bitboards.queenAttacks(from, occupied) & targets, enemy);
+        }
+        int king = kingSquare(us);
+        n = addMoves(moves, n, king, Bitboards.KING_ATTACKS[king] & targets, enemy);
+
+        if (!noisyOnly) {
+            int base = us == WHITE ? 0 : 56;
+            int kingSide = us == WHITE ? 1 : 4;
+            int queenSide = us == WHITE ? 2 : 8;
+            if ((castling & kingSide) != 0 && (occupied & (0x60L << base)) == 0
+                    && !isAttacked(base + 4, them) && !isAttacked(base + 5, them) && !isAttacked(base + 6, them)) {
+                moves[n++] = move(base + 4, base + 6, FLAG_KING_CASTLE);
+            }
+            if ((castling & queenSide) != 0 && (occupied & (0x0EL << base)) == 0
+                    && !isAttacked(base + 4, them) && !isAttacked(base + 3, them) && !isAttacked(base + 2, them)) {
+                moves[n++] = move(base + 4, base + 2, FLAG_QUEEN_CASTLE);
+            }
+        }
+        return n;
+    }
+
+    private static int addPawnMoves(int[] moves, int n, long targets, int delta, int flags) {
+        for (long b = targets; b != 0; b &= b - 1) {
+            int to = Long.numberOfTrailingZeros(b);
+            int from = to - delta;
+            if (to >= 56 || to < 8) {
+                for (int promo = 3; promo >= 0; promo--) {
+                    moves[n++] = move(from, to, flags | FLAG_PROMOTION | promo);
+                }
+            } else {
+                moves[n++] = move(from, to, flags);
+            }
+        }
+        return n;
+    }
+
+    private static int addMoves(int[] moves, int n, int from, long targets, long enemy) {
+        for (long b = targets; b != 0; b &= b - 1) {
+            int to = Long.numberOfTrailingZeros(b);
+            moves[n++] = move(from, to, (enemy & (1L << to)) != 0 ? FLAG_CAPTURE : FLAG_QUIET);
+        }
+        return n;
+    }
+
+    /** Legal moves only; filters pseudo-legal moves by making them. */
+    public int generateLegalMoves(int[] moves) {
+        int[] pseudo = new int[256];
+        int count = generateMoves(pseudo, false);
+        int n = 0;
+        for (int i = 0; i < count; i++) {
+            makeMove(pseudo[i]);
+            if (!leftKingInCheck()) {
+                moves[n++] = pseudo[i];
+            }
+            unmakeMove(pseudo[i]);
+        }
+        return n;
+    }
+
+    /** True if the current position occurred earlier since the last irreversible move. */
+    public boolean isRepetition() {
+        for (int i = ply - 2; i >= 0 && i >= ply - halfmove; i -= 2) {
+            if (undoKey[i] == key) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // ---------------------------------------------------------------- queries
+
+    public int getSide() {
+        return side;
+    }
+
+    public long getKey() {
+        return key;
+    }
+
+    /** Piece index (color * 6 + type) on the square, or {@link #EMPTY}. */
+    public int pieceAt(int sq) {
+        return board[sq];
+    }
+
+    public static char pieceChar(int piece) {
+        return PIECE_CHARS.charAt(piece);
+    }
+
+    public static String squareName(int sq) {
+        return "" + (char) ('a' + (sq & 7)) + (char) ('1' + (sq >> 3));
+    }
+
+    public static String moveToString(int move) {
+        String s = squareName(from(move)) + squareName(to(move));
+        if (isPromotion(move)) {
+            s += "nbrq".charAt(promotionType(move) - KNIGHT);
+        }
+        return s;
+    }
+}
@@ -0,0 +1,382 @@
+package org.example;
+
+import java.util.Arrays;
+
+/**
+ * Iterative-deepening principal variation search with quiescence, a Zobrist-keyed
+ * transposition table, killer moves and a history table. The engine is not
+ * thread-safe; give it a {@link Position#copy()} when running off the Swing EDT.
+ */
+public class SearchEngine {
+
+    public static class Result {
+        private final int bestMove;
+        private final int score;
+        private final int depth;
+        private final long nodes;
+        private final long elapsedNanos;
+
+        Result(int bestMove, int score, int depth, long nodes, long elapsedNanos) {
+            this.bestMove = bestMove;
+            this.score = score;
+            this.depth = depth;
+            this.nodes = nodes;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public int getBestMove() {
+            return bestMove;
+        }
+
+        public int getScore() {
+            return score;
+        }
+
+        public int getDepth() {
+            return depth;
+        }
+
+        public long getNodes() {
+            return nodes;
+        }
+
+        public double getNodesPerSecond() {
+            return elapsedNanos == 0 ? 0 : nodes * 1e9 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s score=%d depth=%d nodes=%d nps=%.0f",
+                    Position.moveToString(bestMove), score, depth, nodes, getNodesPerSecond());
+        }
+    }
+
+    static final int INFINITY = 32000;
+    static final int MATE = 31000;
+    private static final int MAX_PLY = 64;
+    private static final int[] PIECE_VALUE = {100, 320, 330, 500, 900, 0};
+
+    // Piece-square tables, written from White's point of view with rank 8 first.
+    private static final int[][] PST = {
+            {0, 0, 0, 0, 0, 0, 0, 0,
+                    50, 50, 50, 50, 50, 50, 50, 50,
+                    10, 10, 20, 30, 30, 20, 10, 10,
+                    5, 5, 10, 25, 25, 10, 5, 5,
+                    0, 0, 0, 20, 20, 0, 0, 0,
+                    5, -5, -10, 0, 0, -10, -5, 5,
+                    5, 10, 10, -20, -20, 10, 10, 5,
+                    0, 0, 0, 0, 0, 0, 0, 0},
+            {-50, -40, -30, -30, -30, -30, -40, -50,
+                    -40, -20, 0, 0, 0, 0, -20, -40,
+                    -30, 0, 10, 15, 15, 10, 0, -30,
+                    -30, 5, 15, 20, 20, 15, 5, -30,
+                    -30, 0, 15, 20, 20, 15, 0, -30,
+                    -30, 5, 10, 15, 15, 10, 5, -30,
+                    -40, -20, 0, 5, 5, 0, -20, -40,
+                    -50, -40, -30, -30, -30, -30, -40, -50},
+            {-20, -10, -10, -10, -10, -10, -10, -20,
+                    -10, 0, 0, 0, 0, 0, 0, -10,
+                    -10, 0, 5, 10, 10, 5, 0, -10,
+                    -10, 5, 5, 10, 10, 5, 5, -10,
+                    -10, 0, 10, 10, 10, 10, 0, -10,
+                    -10, 10, 10, 10, 10, 10, 10, -10,
+                    -10, 5, 0, 0, 0, 0, 5, -10,
+                    -20, -10, -10, -10, -10, -10, -10, -20},
+            {0, 0, 0, 0, 0, 0, 0, 0,
+                    5, 10, 10, 10, 10, 10, 10, 5,
+                    -5, 0, 0, 0, 0, 0, 0, -5,
+                    -5, 0, 0, 0, 0, 0, 0, -5,
+                    -5, 0, 0, 0, 0, 0, 0, -5,
+                    -5, 0, 0, 0, 0, 0, 0, -5,
+                    -5, 0, 0, 0, 0, 0, 0, -5,
+                    0, 0, 0, 5, 5, 0, 0, 0},
+            {-20, -10, -10, -5, -5, -10, -10, -20,
+                    -10, 0, 0, 0, 0, 0, 0, -10,
+                    -10, 0, 5, 5, 5, 5, 0, -10,
+                    -5, 0, 5, 5, 5, 5, 0, -5,
+                    0, 0, 5, 5, 5, 5, 0, -5,
+                    -10, 5, 5, 5, 5, 5, 0, -10,
+                    -10, 0, 5, 0, 0, 0, 0, -10,
+                    -20, -10, -10, -5, -5, -10, -10, -20},
+            {-30, -40, -40, -50, -50, -40, -40, -30,
+                    -30, -40, -40, -50, -50, -40, -40, -30,
+                    -30, -40, -40, -50, -50, -40, -40, -30,
+                    -30, -40, -40, -50, -50, -40, -40, -30,
+                    -20, -30, -30, -40, -40, -30, -30, -20,
+                    -10, -20, -20, -20, -20, -20, -20, -10,
+                    20, 20, 0, 0, 0, 0, 20, 20,
+                    20, 30, 10, 0, 0, 10, 30, 20}
+    };
+
+    private final TranspositionTable table;
+    private final int[][] moves = new int[MAX_PLY + 1][256];
+    private final int[][] scores = new int[MAX_PLY + 1][256];
+    private final int[][] killers = new int[MAX_PLY + 1][2];
+    private final int[][] history = new int[64][64];
+
+    private Position position;
+    private long nodes;
+    private long deadline;
+    private volatile boolean stopped;
+    private int rootBestMove;
+
+    public SearchEngine() {
+        this(64);
+    }
+
+    public SearchEngine(int tableMegabytes) {
+        this.table = new TranspositionTable(tableMegabytes);
+    }
+
+    /** Asks a running search to return as soon as possible. */
+    public void stop() {
+        stopped = true;
+    }
+
+    /**
+     * Searches until the time budget runs out or {@code maxDepth} is completed and
+     * returns the best move of the deepest finished iteration.
+     */
+    public Result search(Position root, long timeMillis, int maxDepth) {
+        long start = System.nanoTime();
+        position = root;
+        deadline = start + timeMillis * 1_000_000L;
+        stopped = false;
+        nodes = 0;
+        for (int[] k : killers) {
+            k[0] = k[1] = 0;
+        }
+        for (int[] h : history) {
+            Arrays.fill(h, 0);
+        }
+
+        int bestMove = 0, bestScore = 0, completedDepth = 0;
+        int[] legal = new int[256];
+        if (root.generateLegalMoves(legal) > 0) {
+            bestMove = legal[0];
+        }
+        for (int depth = 1; depth <= Math.min(maxDepth, MAX_PLY - 1); depth++) {
+            rootBestMove = 0;
+            int score = negamax(depth, -INFINITY, INFINITY, 0);
+            if (stopped) {
+                break;
+            }
+            bestMove = rootBestMove != 0 ? rootBestMove : bestMove;
+            bestScore = score;
+            completedDepth = depth;
+            if (Math.abs(score) > MATE - MAX_PLY || System.nanoTime() > start + (deadline - start) / 2) {
+                break;
+            }
+        }
+        return new Result(bestMove, bestScore, completedDepth, nodes, System.nanoTime() - start);
+    }
+
+    public Result search(Position root, long timeMillis) {
+        return search(root, timeMillis, MAX_PLY);
+    }
+
+    private int negamax(int depth, int alpha, int beta, int ply) {
+        if ((++nodes & 2047) == 0 && System.nanoTime() > deadline) {
+            stopped = true;
+        }
+        if (stopped) {
+            return 0;
+        }
+        if (ply > 0 && (position.halfmove >= 100 || position.isRepetition())) {
+            return 0;
+        }
+        boolean inCheck = position.inCheck();
+        if (inCheck) {
+            depth++;
+        }
+        if (depth <= 0 || ply >= MAX_PLY) {
+            return quiesce(alpha, beta, ply);
+        }
+
+        long entry = table.probe(position.key);
+        int ttMove = 0;
+        if (entry != 0) {
+            ttMove = TranspositionTable.move(entry);
+            if (ply > 0 && TranspositionTable.depth(entry) >= depth) {
+                int score = fromTable(TranspositionTable.score(entry), ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.EXACT
+                        || (bound == TranspositionTable.LOWER && score >= beta)
+                        || (bound == TranspositionTable.UPPER && score <= alpha)) {
+                    return score;
+                }
+            }
+        }
+
+        int[] list = moves[ply];
+        int count = position.generateMoves(list, false);
+        scoreMoves(list, scores[ply], count, ttMove, ply);
+
+        int originalAlpha = alpha;
+        int best = -INFINITY, bestMove = 0, legal = 0;
+        for (int i = 0; i < count; i++) {
+            int move = pickNext(list, scores[ply], i, count);
+            position.makeMove(move);
+            if (position.leftKingInCheck()) {
+                position.unmakeMove(move);
+                continue;
+            }
+            legal++;
+            int score;
+            if (legal == 1) {
+                score = -negamax(depth - 1, -beta, -alpha, ply + 1);
+            } else {
+                score = -negamax(depth - 1, -alpha - 1, -alpha, ply + 1);
+                if (score > alpha && score < beta) {
+                    score = -negamax(depth - 1, -beta, -alpha, ply + 1);
+                }
+            }
+            position.unmakeMove(move);
+            if (stopped) {
+                return 0;
+            }
+            if (score > best) {
+                best = score;
+                bestMove = move;
+                if (ply == 0) {
+                    rootBestMove = move;
+                }
+                if (score > alpha) {
+                    alpha = score;
+                }
+                if (alpha >= beta) {
+                    if (!Position.isCapture(move)) {
+                        if (killers[ply][0] != move) {
+                            killers[ply][1] = killers[ply][0];
+                            killers[ply][0] = move;
+                        }
+                        history[Position.from(move)][Position.to(move)] += depth * depth;
+                    }
+                    break;
+                }
+            }
+        }
+        if (legal == 0) {
+            return inCheck ? -MATE + ply : 0;
+        }
+        int bound = best >= beta ? TranspositionTable.LOWER
+                : best > originalAlpha ? TranspositionTable.EXACT : TranspositionTable.UPPER;
+        table.store(position.key, bestMove, toTable(best, ply), depth, bound);
+        return best;
+    }
+
+    private int quiesce(int alpha, int beta, int ply) {
+        if ((++nodes & 2047) == 0 && System.nanoTime() > deadline) {
+            stopped = true;
+        }
+        if (stopped) {
+            return 0;
+        }
+        int standPat = evaluate(position);
+        if (standPat >= beta || ply >= MAX_PLY) {
+            return standPat;
+        }
+        if (standPat > alpha) {
+            alpha = standPat;
+        }
+        int[] list = moves[ply];
+        int count = position.generateMoves(list, true);
+        scoreMoves(list, scores[ply], count, 0, ply);
+        for (int i = 0; i < count; i++) {
+            int move = pickNext(list, scores[ply], i, count);
+            position.makeMove(move);
+            if (position.leftKingInCheck()) {
+                position.unmakeMove(move);
+                continue;
+            }
+            int score = -quiesce(-beta, -alpha, ply + 1);
+            position.unmakeMove(move);
+            if (score >= beta) {
+                return score;
+            }
+            if (score > alpha) {
+                alpha = score;
+            }
+        }
+        return alpha;
+    }
+
+    private void scoreMoves(int[] list, int[] out, int count, int ttMove, int ply) {
+        for (int i = 0; i < count; i++) {
+            int move = list[i];
+            int score;
+            if (move == ttMove) {
+                score = 1_000_000;
+            } else if (Position.isCapture(move)) {
+                int victim = Position.flags(move) == Position.FLAG_EN_PASSANT
+                        ? Position.PAWN : position.board[Position.to(move)] % 6;
+                int attacker = position.board[Position.from(move)] % 6;
+                score = 100_000 + PIECE_VALUE[victim] * 10 - attacker;
+            } else if (Position.isPromotion(move)) {
+                score = 90_000 + Position.promotionType(move);
+            } else if (move == killers[ply][0]) {
+                score = 80_000;
+            } else if (move == killers[ply][1]) {
+                score = 79_000;
+            } else {
+                score = Math.min(history[Position.from(move)][Position.to(move)], 70_000);
+            }
+            out[i] = score;
+        }
+    }
+
+    /** Selection sort step: moves the best remaining move to index i. */
+    private static int pickNext(int[] list, int[] score, int i, int count) {
+        int best = i;
+        for (int j = i + 1; j < count; j++) {
+            if (score[j] > score[best]) {
+                best = j;
+            }
+        }
+        int move = list[best];
+        list[best] = list[i];
+        list[i] = move;
+        int s = score[best];
+        score[best] = score[i];
+        score[i] = s;
+        return move;
+    }
+
+    private static int toTable(int score, int ply) {
+        if (score > MATE - MAX_PLY) return score + ply;
+        if (score < -MATE + MAX_PLY) return score - ply;
+        return score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        if (score > MATE - MAX_PLY) return score - ply;
+        if (score < -MATE + MAX_PLY) return score + ply;
+        return score;
+    }
+
+    /** Material plus piece-square score from the side to move's point of view. */
+    static int evaluate(Position position) {
+        int score = 0;
+        for (int type = 0; type < 6; type++) {
+            for (long b = position.pieces[type]; b != 0; b &= b - 1) {
+                int sq = Long.numberOfTrailingZeros(b);
+                score += PIECE_VALUE[type] + PST[type][sq ^ 56];
+            }
+            for (long b = position.pieces[6 + type]; b != 0; b &= b - 1) {
+                int sq = Long.numberOfTrailingZeros(b);
+                score -= PIECE_VALUE[type] + PST[type][sq];
+            }
+        }
+        return position.side == Position.WHITE ? score : -score;
+    }
+
+    public static void main(String[] args) {
+        Position position = new Position();
+        SearchEngine engine = new SearchEngine();
+        for (int i = 0; i < 6; i++) {
+            Result result = engine.search(position, 1000);
+            System.out.println((position.side == Position.WHITE ? "White " : "Black ") + result);
+            position.makeMove(result.getBestMove());
+        }
+    }
+}
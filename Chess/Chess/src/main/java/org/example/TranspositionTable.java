@@ -0,0 +1,63 @@
+package org.example;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size Zobrist-keyed hash table. Each slot is two longs: the full key and a
+ * packed entry of move (16 bits), score (16), depth (8) and bound (2).
+ * A slot is replaced when the key differs or the new search is at least as deep.
+ */
+public class TranspositionTable {
+
+    public static final int EXACT = 0, LOWER = 1, UPPER = 2;
+
+    private final long[] keys;
+    private final long[] data;
+    private final int mask;
+
+    public TranspositionTable(int megabytes) {
+        int slots = Integer.highestOneBit(Math.max(1, megabytes) * 1024 * 1024 / 16);
+        keys = new long[slots];
+        data = new long[slots];
+        mask = slots - 1;
+    }
+
+    public void store(long key, int move, int score, int depth, int bound) {
+        int i = (int) key & mask;
+        if (keys[i] == key && depth < depth(data[i])) {
+            return;
+        }
+        keys[i] = key;
+        data[i] = (move & 0xFFFFL)
+                | ((score & 0xFFFFL) << 16)
+                | ((long) (depth & 0xFF) << 32)
+                | ((long) bound << 40);
+    }
+
+    /** Packed entry for the key, or 0 if the slot holds another position. */
+    public long probe(long key) {
+        int i = (int) key & mask;
+        return keys[i] == key ? data[i] | (1L << 63) : 0;
+    }
+
+    public static int move(long entry) {
+        return (int) (entry & 0xFFFF);
+    }
+
+    public static int score(long entry) {
+        return (short) (entry >>> 16);
+    }
+
+    public static int depth(long entry) {
+        return (int) (entry >>> 32) & 0xFF;
+    }
+
+    public static int bound(long entry) {
+        return (int) (entry >>> 40) & 3;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(data, 0);
+    }
+}
@@ -0,0 +1,215 @@
+package org.example;
+
+/**
+ * Connect Four position packed into two longs, column by column with one spare
+ * bit on top of every column (so bit {@code col * (rows + 1) + row}, row 0 at the
+ * bottom). {@code current} holds the stones of the player to move and
+ * {@code mask} holds all stones; the spare row keeps shifted lines from bleeding
+ * into the next column, which is what makes win detection a handful of shifts.
+ *
+ * Only boards with {@code cols * (rows + 1) <= 64} fit; 6x7 uses 49 bits.
+ */
+public class ConnectFourBitboard {
+
+    private final int rows;
+    private final int cols;
+    private final int height;
+    private final long bottomMask;
+    private final long boardMask;
+    /** Vertical, horizontal and both diagonal bit distances. */
+    private final int[] shifts;
+    private long current;
+    private long mask;
+    private int moves;
+
+    public ConnectFourBitboard(int rows, int cols) {
+        if (!fits(rows, cols)) {
+            throw new IllegalArgumentException(rows + "x" + cols + " does not fit in a 64-bit board");
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.height = rows + 1;
+        long bottom = 0;
+        for (int c = 0; c < cols; c++) {
+            bottom |= 1L << (c * height);
+        }
+        this.bottomMask = bottom;
+        this.boardMask = bottom * ((1L << rows) - 1);
+        this.shifts = new int[]{1, height, height - 1, height + 1};
+    }
+
+    public ConnectFourBitboard(ConnectFourBitboard other) {
+        this.rows = other.rows;
+        this.cols = other.cols;
+        this.height = other.height;
+        this.bottomMask = other.bottomMask;
+        this.boardMask = other.boardMask;
+        this.shifts = other.shifts;
+        this.current = other.current;
+        this.mask = other.mask;
+        this.moves = other.moves;
+    }
+
+    public static boolean fits(int rows, int cols) {
+        return rows >= 1 && cols >= 1 && cols * (rows + 1) <= 64;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public int getMoves() {
+        return moves;
+    }
+
+    public long getMask() {
+        return mask;
+    }
+
+    public long getCurrent() {
+        return current;
+    }
+
+    /** Stones of the player who made the last move. */
+    public long getOpponent() {
+        return current ^ mask;
+    }
+
+    public boolean canPlay(int col) {
+        return (mask & topMask(col)) == 0;
+    }
+
+    public void play(int col) {
+        playMove((mask + bottomMaskCol(col)) & columnMask(col));
+    }
+
+    /** Plays a move given as its single-bit board square. */
+    public void playMove(long move) {
+        current ^= mask;
+        mask |= move;
+        moves++;
+    }
+
+    /** Takes back {@link #playMove}{@code (move)}, which must have been the last move played. */
+    public void undoMove(long move) {
+        mask ^= move;
+        current ^= mask;
+        moves--;
+    }
+
+    public boolean isFull() {
+        return moves == rows * cols;
+    }
+
+    /** True if playing the column wins immediately for the player to move. */
+    public boolean isWinningMove(int col) {
+        return (winningSquares() & possible() & columnMask(col)) != 0;
+    }
+
+    public boolean canWinNext() {
+        return (winningSquares() & possible()) != 0;
+    }
+
+    /** Unique key of the position: current + mask differs for every distinct position. */
+    public long key() {
+        return current + mask;
+    }
+
+    /** Key of the left-right mirrored position, for symmetry-reduced tables. */
+    public long mirroredKey() {
+        long k = key();
+        long columnBits = (1L << height) - 1;
+        long mirrored = 0;
+        for (int c = 0; c < cols; c++) {
+            mirrored |= ((k >>> (c * height)) & columnBits) << ((cols - 1 - c) * height);
+        }
+        return mirrored;
+    }
+
+    public long canonicalKey() {
+        return Math.min(key(), mirroredKey());
+    }
+
+    /** Squares where the next stone may go. */
+    public long possible() {
+        return (mask + bottomMask) & boardMask;
+    }
+
+    /**
+     * Playable squares that don't hand the opponent an immediate win. Returns 0 when
+     * every move loses (the opponent has two threats, or one directly above ours).
+     */
+    public long possibleNonLosingMoves() {
+        long possible = possible();
+        long opponentWins = opponentWinningSquares();
+        long forced = possible & opponentWins;
+        if (forced != 0) {
+            if ((forced & (forced - 1)) != 0) {
+                return 0;
+            }
+            possible = forced;
+        }
+        return possible & ~(opponentWins >>> 1);
+    }
+
+    /** Number of winning squares the player to move would own after playing {@code move}. */
+    public int moveScore(long move) {
+        return Long.bitCount(winningSquares(current | move, mask));
+    }
+
+    private long winningSquares() {
+        return winningSquares(current, mask);
+    }
+
+    private long opponentWinningSquares() {
+        return winningSquares(current ^ mask, mask);
+    }
+
+    /** Empty squares that would complete four for the stones in {@code position}. */
+    private long winningSquares(long position, long mask) {
+        // vertical
+        long r = (position << 1) & (position << 2) & (position << 3);
+        for (int d = 1; d < 4; d++) {
+            int shift = shifts[d];
+            long p = (position << shift) & (position << 2 * shift);
+            r |= p & (position << 3 * shift);
+            r |= p & (position >>> shift);
+            p = (position >>> shift) & (position >>> 2 * shift);
+            r |= p & (position << shift);
+            r |= p & (position >>> 3 * shift);
+        }
+        return r & (boardMask ^ mask);
+    }
+
+    /** Four in a row for the given stones: one shift-and-AND pair per direction. */
+    public boolean hasFour(long position) {
+        for (int shift : shifts) {
+            long m = position & (position >>> shift);
+            if ((m & (m >>> 2 * shift)) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public long columnMask(int col) {
+        return ((1L << rows) - 1) << (col * height);
+    }
+
+    private long topMask(int col) {
+        return 1L << (rows - 1 + col * height);
+    }
+
+    private long bottomMaskCol(int col) {
+        return 1L << (col * height);
+    }
+
+    /** Column of a single-bit move. */
+    public int columnOf(long move) {
+        return Long.numberOfTrailingZeros(move) / height;
+    }
+}
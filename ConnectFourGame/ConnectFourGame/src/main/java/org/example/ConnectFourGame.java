@@ -1,10 +1,19 @@
 package org.example;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Scanner;
 
 public class ConnectFourGame {
 
+    private static final long COMPUTER_THINK_MILLIS = 3000;
+
     private char[][] board;
+    // Mirrors board when it fits in 64 bits; null otherwise, and the scans below are used
+    private ConnectFourBitboard bitboard;
+    private ConnectFourSolver solver;
     private char currentPlayer;
     private int rows;
     private int cols;
@@ -22,6 +31,9 @@ public class ConnectFourGame {
             }
         }
         currentPlayer = 'X';
+        if (ConnectFourBitboard.fits(rows, cols)) {
+            bitboard = new ConnectFourBitboard(rows, cols);
+        }
         scanner = new Scanner(System.in);
         gameWon = false;
         gameDraw = false;
@@ -33,6 +45,9 @@ public class ConnectFourGame {
                 board[i][j] = ' ';
             }
         }
+        if (bitboard != null) {
+            bitboard = new ConnectFourBitboard(rows, cols);
+        }
     }
 
     public void printBoard() {
@@ -71,6 +86,9 @@ public class ConnectFourGame {
         for (int i = rows - 1; i >= 0; i--) {
             if (board[i][col] == ' ') {
                 board[i][col] = currentPlayer;
+                if (bitboard != null) {
+                    bitboard.play(col);
+                }
                 return true;
             }
         }
@@ -125,10 +143,17 @@ public class ConnectFourGame {
     }
 
     public boolean checkWin() {
+        if (bitboard != null) {
+            // the player who just moved is the bitboard's opponent until switchPlayer
+            return bitboard.hasFour(bitboard.getOpponent());
+        }
         return checkHorizontalWin() || checkVerticalWin() || checkDiagonalWin();
     }
 
     public boolean isBoardFull() {
+        if (bitboard != null) {
+            return bitboard.isFull();
+        }
         for (int i = 0; i < rows; i++) {
             for (int j = 0; j < cols; j++) {
                 if (board[i][j] == ' ') {
@@ -155,11 +180,40 @@ public class ConnectFourGame {
         gameDraw = true;
     }
 
+    /** Sets up the solver, with the opening book from the working directory if one was generated. */
+    private void enableComputer() {
+        solver = new ConnectFourSolver(rows, cols);
+        Path bookFile = Paths.get(OpeningBook.defaultFileName(rows, cols));
+        if (Files.exists(bookFile)) {
+            try {
+                OpeningBook book = OpeningBook.load(bookFile);
+                if (book.matches(rows, cols)) {
+                    solver.setOpeningBook(book);
+                    System.out.println("Loaded opening book with " + book.size() + " positions.");
+                }
+            } catch (IOException e) {
+                System.out.println("Could not load opening book: " + e.getMessage());
+            }
+        }
+    }
+
     public void playGameLoop() {
+        if (bitboard != null) {
+            System.out.println("Play against the computer as X? (y/n):");
+            if (scanner.next().equalsIgnoreCase("y")) {
+                enableComputer();
+            }
+        }
         while (!gameWon && !gameDraw) {
             printBoard();
-            System.out.print("Player " + currentPlayer + ", enter column (0-" + (cols - 1) + "): ");
-            int col = scanner.nextInt();
+            int col;
+            if (solver != null && currentPlayer == 'O') {
+                col = solver.bestMove(bitboard, COMPUTER_THINK_MILLIS);
+                System.out.println("Computer plays column " + col);
+            } else {
+                System.out.print("Player " + currentPlayer + ", enter column (0-" + (cols - 1) + "): ");
+                col = scanner.nextInt();
+            }
 
             if (makeMove(col)) {
                 if (checkWin()) {
@@ -0,0 +1,264 @@
+package org.example;
+
+/**
+ * Perfect-play Connect Four solver: negamax with alpha-beta, null-window
+ * iterative narrowing, centre-first move ordering refined by the number of
+ * threats a move creates, and a fixed-size lossy transposition table.
+ *
+ * Scores follow the usual convention: 0 is a draw, a positive score means the
+ * player to move wins, and the sooner the win the larger the score
+ * ({@code (cells + 1 - movesAtWin) / 2}).
+ */
+public class ConnectFourSolver {
+
+    /** Returned by {@link #analyze} for full columns. */
+    public static final int INVALID = Integer.MIN_VALUE;
+
+    private final int rows;
+    private final int cols;
+    private final int[] columnOrder;
+    private final int minScore;
+    private final int maxScore;
+
+    // Lossy table: always-replace slots of full key + score biased into a byte
+    private final long[] keys;
+    private final byte[] values;
+    private final int mask;
+
+    // Candidate moves and their ordering scores for each ply, indexed by stones on the board
+    private final long[][] plyMoves;
+    private final int[][] plyScores;
+
+    private OpeningBook book;
+    private long nodes;
+    private long deadline = Long.MAX_VALUE;
+    private boolean timedOut;
+
+    public ConnectFourSolver(int rows, int cols) {
+        this(rows, cols, 23);
+    }
+
+    public ConnectFourSolver(int rows, int cols, int tableBits) {
+        this.rows = rows;
+        this.cols = cols;
+        this.minScore = -(rows * cols) / 2 + 3;
+        this.maxScore = (rows * cols + 1) / 2 - 3;
+        this.columnOrder = new int[cols];
+        for (int i = 0; i < cols; i++) {
+            // centre first: 3, 2, 4, 1, 5, 0, 6 for seven columns
+            columnOrder[i] = cols / 2 + (1 - 2 * (i % 2)) * (i + 1) / 2;
+        }
+        this.keys = new long[1 << tableBits];
+        this.values = new byte[1 << tableBits];
+        this.mask = (1 << tableBits) - 1;
+        this.plyMoves = new long[rows * cols + 1][cols];
+        this.plyScores = new int[rows * cols + 1][cols];
+    }
+
+    public void setOpeningBook(OpeningBook book) {
+        this.book = book;
+    }
+
+    public long getNodeCount() {
+        return nodes;
+    }
+
+    public void resetNodeCount() {
+        nodes = 0;
+    }
+
+    /** Exact score of the position. */
+    public int solve(ConnectFourBitboard position) {
+        // The search plays and takes back moves on one board, so work on a copy
+        position = new ConnectFourBitboard(position);
+        if (position.canWinNext()) {
+            return (rows * cols + 1 - position.getMoves()) / 2;
+        }
+        int min = -(rows * cols - position.getMoves()) / 2;
+        int max = (rows * cols + 1 - position.getMoves()) / 2;
+        while (min < max) {
+            int med = min + (max - min) / 2;
+            if (med <= 0 && min / 2 < med) {
+                med = min / 2;
+            } else if (med >= 0 && max / 2 > med) {
+                med = max / 2;
+            }
+            int r = negamax(position, med, med + 1);
+            if (timedOut) {
+                return 0;
+            }
+            if (r <= med) {
+                max = r;
+            } else {
+                min = r;
+            }
+        }
+        return min;
+    }
+
+    /** Score of every column for the player to move, {@link #INVALID} for full columns. */
+    public int[] analyze(ConnectFourBitboard position) {
+        int[] scores = new int[cols];
+        for (int col = 0; col < cols; col++) {
+            if (!position.canPlay(col)) {
+                scores[col] = INVALID;
+            } else if (position.isWinningMove(col)) {
+                scores[col] = (rows * cols + 1 - position.getMoves()) / 2;
+            } else {
+                ConnectFourBitboard next = new ConnectFourBitboard(position);
+                next.play(col);
+                scores[col] = -solve(next);
+            }
+        }
+        return scores;
+    }
+
+    /**
+     * Best column under a time budget. Positions in the opening book are answered
+     * from it; otherwise the position is solved exactly, and if that does not finish
+     * in time the most central non-losing column is returned.
+     */
+    public int bestMove(ConnectFourBitboard position, long timeMillis) {
+        for (int col : columnOrder) {
+            if (position.canPlay(col) && position.isWinningMove(col)) {
+                return col;
+            }
+        }
+        deadline = System.nanoTime() + timeMillis * 1_000_000L;
+        timedOut = false;
+        try {
+            int bestCol = -1, bestScore = Integer.MIN_VALUE;
+            for (int col : columnOrder) {
+                if (!position.canPlay(col)) {
+                    continue;
+                }
+                ConnectFourBitboard next = new ConnectFourBitboard(position);
+                next.play(col);
+                int score = -solveWithBook(next);
+                if (timedOut) {
+                    break;
+                }
+                if (score > bestScore) {
+                    bestScore = score;
+                    bestCol = col;
+                }
+            }
+            if (!timedOut) {
+                return bestCol;
+            }
+            long safe = position.possibleNonLosingMoves();
+            for (int col : columnOrder) {
+                if (position.canPlay(col) && (safe == 0 || (safe & position.columnMask(col)) != 0)) {
+                    return col;
+                }
+            }
+            return -1;
+        } finally {
+            deadline = Long.MAX_VALUE;
+            timedOut = false;
+        }
+    }
+
+    private int solveWithBook(ConnectFourBitboard position) {
+        if (book != null) {
+            int score = book.lookup(position);
+            if (score != OpeningBook.MISSING) {
+                return score;
+            }
+        }
+        return solve(position);
+    }
+
+    private int negamax(ConnectFourBitboard position, int alpha, int beta) {
+        if ((++nodes & 0xFFFF) == 0 && System.nanoTime() > deadline) {
+            timedOut = true;
+        }
+        if (timedOut) {
+            return 0;
+        }
+        long next = position.possibleNonLosingMoves();
+        if (next == 0) {
+            return -(rows * cols - position.getMoves()) / 2;
+        }
+        if (position.getMoves() >= rows * cols - 2) {
+            return 0;
+        }
+        int min = -(rows * cols - 2 - position.getMoves()) / 2;
+        if (alpha < min) {
+            alpha = min;
+            if (alpha >= beta) {
+                return alpha;
+            }
+        }
+        int max = (rows * cols - 1 - position.getMoves()) / 2;
+        long key = position.key();
+        int slot = (int) (key ^ (key >>> 29)) & mask;
+        int v = values[slot];
+        // stored values are never 0, which keeps the empty board (key 0) from hitting blank slots
+        if (v != 0 && keys[slot] == key) {
+            if (v > maxScore - minScore + 1) {
+                // stored lower bound
+                min = v + 2 * minScore - maxScore - 2;
+                if (alpha < min) {
+                    alpha = min;
+                    if (alpha >= beta) {
+                        return alpha;
+                    }
+                }
+            } else {
+                // stored upper bound
+                max = v + minScore - 1;
+            }
+        }
+        if (book != null && position.getMoves() <= book.getDepth()) {
+            int score = book.lookup(position);
+            if (score != OpeningBook.MISSING) {
+                return score;
+            }
+        }
+        if (beta > max) {
+            beta = max;
+            if (alpha >= beta) {
+                return beta;
+            }
+        }
+
+        // Order candidate moves by threats created, centre columns breaking ties
+        long[] moves = plyMoves[position.getMoves()];
+        int[] scores = plyScores[position.getMoves()];
+        int n = 0;
+        for (int i = cols - 1; i >= 0; i--) {
+            long move = next & position.columnMask(columnOrder[i]);
+            if (move != 0) {
+                int score = position.moveScore(move);
+                int j = n++;
+                while (j > 0 && scores[j - 1] > score) {
+                    moves[j] = moves[j - 1];
+                    scores[j] = scores[j - 1];
+                    j--;
+                }
+                moves[j] = move;
+                scores[j] = score;
+            }
+        }
+        for (int i = n - 1; i >= 0; i--) {
+            position.playMove(moves[i]);
+            int score = -negamax(position, -beta, -alpha);
+            position.undoMove(moves[i]);
+            if (timedOut) {
+                return 0;
+            }
+            if (score >= beta) {
+                keys[slot] = key;
+                values[slot] = (byte) (score + maxScore - 2 * minScore + 2);
+                return score;
+            }
+            if (score > alpha) {
+                alpha = score;
+            }
+        }
+        keys[slot] = key;
+        values[slot] = (byte) (alpha - minScore + 1);
+        return alpha;
+    }
+}
@@ -0,0 +1,211 @@
+package org.example;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Exact scores of every position up to a fixed number of moves, computed offline
+ * and memory-mapped at startup. Positions are stored once per mirror pair under
+ * {@link ConnectFourBitboard#canonicalKey()}.
+ *
+ * File layout (big-endian): magic, rows, cols, depth, count as ints, then
+ * {@code count} sorted keys as longs, then {@code count} scores as bytes.
+ */
+public class OpeningBook {
+
+    public static final int MISSING = Integer.MIN_VALUE;
+
+    private static final int MAGIC = 0x43344250; // "C4BP"
+    private static final int HEADER_BYTES = 20;
+
+    private final int rows;
+    private final int cols;
+    private final int depth;
+    private final int count;
+    private final MappedByteBuffer buffer;
+
+    private OpeningBook(int rows, int cols, int depth, int count, MappedByteBuffer buffer) {
+        this.rows = rows;
+        this.cols = cols;
+        this.depth = depth;
+        this.count = count;
+        this.buffer = buffer;
+    }
+
+    public static String defaultFileName(int rows, int cols) {
+        return "connect4-book-" + rows + "x" + cols + ".bin";
+    }
+
+    /** Maps a book file read-only; the mapping stays valid after the channel is closed. */
+    public static OpeningBook load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.BIG_ENDIAN);
+            if (channel.size() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+                throw new IOException(file + " is not an opening book");
+            }
+            int rows = buffer.getInt(4);
+            int cols = buffer.getInt(8);
+            int depth = buffer.getInt(12);
+            int count = buffer.getInt(16);
+            if (channel.size() != HEADER_BYTES + 9L * count) {
+                throw new IOException(file + " is truncated");
+            }
+            return new OpeningBook(rows, cols, depth, count, buffer);
+        }
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public boolean matches(int rows, int cols) {
+        return this.rows == rows && this.cols == cols;
+    }
+
+    /** Exact score for the player to move, or {@link #MISSING}. */
+    public int lookup(ConnectFourBitboard position) {
+        if (position.getMoves() > depth || !matches(position.getRows(), position.getCols())) {
+            return MISSING;
+        }
+        long key = position.canonicalKey();
+        int lo = 0, hi = count - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            long k = buffer.getLong(HEADER_BYTES + 8 * mid);
+            if (k < key) {
+                lo = mid + 1;
+            } else if (k > key) {
+                hi = mid - 1;
+            } else {
+                return buffer.get(HEADER_BYTES + 8 * count + mid);
+            }
+        }
+        return MISSING;
+    }
+
+    /**
+     * Solves every position with at most {@code depth} moves that is not already
+     * decided by an immediate win, using one solver per thread, and writes the book.
+     */
+    public static int generate(int rows, int cols, int depth, int threads, Path file)
+            throws IOException, InterruptedException {
+        Map<Long, ConnectFourBitboard> positions = new HashMap<>();
+        List<ConnectFourBitboard> frontier = new ArrayList<>();
+        frontier.add(new ConnectFourBitboard(rows, cols));
+        for (int ply = 0; ply <= depth && !frontier.isEmpty(); ply++) {
+            List<ConnectFourBitboard> next = new ArrayList<>();
+            for (ConnectFourBitboard position : frontier) {
+                if (position.canWinNext() || position.isFull()) {
+                    continue;
+                }
+                if (positions.putIfAbsent(position.canonicalKey(), position) != null || ply == depth) {
+                    // the last level's children would be thrown away
+                    continue;
+                }
+                for (int col = 0; col < cols; col++) {
+                    if (position.canPlay(col)) {
+                        ConnectFourBitboard child = new ConnectFourBitboard(position);
+                        child.play(col);
+                        next.add(child);
+                    }
+                }
+            }
+            frontier = next;
+        }
+
+        long[] keys = new long[positions.size()];
+        int n = 0;
+        for (long key : positions.keySet()) {
+            keys[n++] = key;
+        }
+        Arrays.sort(keys);
+        byte[] scores = new byte[keys.length];
+        System.out.printf("Solving %d positions up to %d moves on %d thread(s)%n", keys.length, depth, threads);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        AtomicInteger nextIndex = new AtomicInteger();
+        AtomicInteger done = new AtomicInteger();
+        long start = System.nanoTime();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                ConnectFourSolver solver = new ConnectFourSolver(rows, cols, 22);
+                int i;
+                while ((i = nextIndex.getAndIncrement()) < keys.length) {
+                    scores[i] = (byte) solver.solve(positions.get(keys[i]));
+                    int finished = done.incrementAndGet();
+                    if (finished % 1000 == 0) {
+                        System.out.printf("  %d/%d (%.0f s)%n", finished, keys.length,
+                                (System.nanoTime() - start) / 1e9);
+                    }
+                }
+            }));
+        }
+        executor.shutdown();
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(file.toFile())))) {
+            out.writeInt(MAGIC);
+            out.writeInt(rows);
+            out.writeInt(cols);
+            out.writeInt(depth);
+            out.writeInt(keys.length);
+            for (long key : keys) {
+                out.writeLong(key);
+            }
+            out.write(scores);
+        }
+        return keys.length;
+    }
+
+    /** Usage: OpeningBook [rows] [cols] [depth] [file]. Generates a book for the given board. */
+    public static void main(String[] args) throws Exception {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 6;
+        int cols = args.length > 1 ? Integer.parseInt(args[1]) : 7;
+        int depth = args.length > 2 ? Integer.parseInt(args[2]) : 8;
+        Path file = Paths.get(args.length > 3 ? args[3] : defaultFileName(rows, cols));
+        long start = System.nanoTime();
+        int count = generate(rows, cols, depth, Runtime.getRuntime().availableProcessors(), file);
+        System.out.printf("Wrote %d positions to %s (%d bytes) in %.1f s%n", count, file,
+                Files.size(file), (System.nanoTime() - start) / 1e9);
+    }
+}
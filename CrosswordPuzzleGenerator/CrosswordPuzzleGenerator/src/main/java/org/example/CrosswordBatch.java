@@ -0,0 +1,74 @@
+package org.example;
+
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Loads a word list, then fills a diagram again and again with different
+ * seeds and reports each fill's time, search nodes and backjumps. The fill
+ * is checked: every slot must hold a dictionary word and no word may repeat.
+ *
+ * Usage: java org.example.CrosswordBatch dictionary.txt [template] [grids] [seconds]
+ * The template is one of {@link CrosswordGrid#TEMPLATES}, 15x15 by default.
+ */
+public class CrosswordBatch {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.out.println("Usage: java org.example.CrosswordBatch dictionary.txt [template] [grids] [seconds]");
+            return;
+        }
+        String template = args.length > 1 ? args[1] : "15x15";
+        int grids = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        long millis = args.length > 3 ? Long.parseLong(args[3]) * 1000 : 60_000;
+
+        long begin = System.nanoTime();
+        WordIndex index;
+        try (Reader reader = new FileReader(args[0])) {
+            index = WordIndex.read(reader);
+        }
+        System.out.printf("%d words indexed in %.0f ms, %.1f MB of bitsets%n", index.size(),
+                (System.nanoTime() - begin) / 1e6, index.indexBytes() / (1024.0 * 1024.0));
+
+        CrosswordGrid grid = CrosswordGrid.template(template);
+        CrosswordFiller filler = new CrosswordFiller(grid, index);
+        System.out.printf("%s: %d slots%n", template, grid.getSlots());
+        System.out.printf("%5s %-10s %10s %10s %9s%n", "grid", "result", "nodes", "backjumps", "ms");
+        int filled = 0;
+        long totalMillis = 0;
+        CrosswordFiller.Result last = null;
+        for (int g = 0; g < grids; g++) {
+            CrosswordFiller.Result r = filler.fill(g + 1, millis);
+            String status = r.filled ? "filled" : r.timedOut ? "timed out" : "impossible";
+            System.out.printf("%5d %-10s %10d %10d %9d%n", g + 1, status, r.nodes, r.backjumps, r.millis);
+            totalMillis += r.millis;
+            if (r.filled) {
+                check(grid, index, r);
+                filled++;
+                last = r;
+            }
+        }
+        System.out.printf("%d of %d filled, %.1f ms per grid%n", filled, grids, (double) totalMillis / grids);
+        if (last != null) {
+            System.out.print(grid.toString(last.letters));
+        }
+    }
+
+    /** Throws if a slot does not spell its word, a word is not in the index, or a word repeats. */
+    static void check(CrosswordGrid grid, WordIndex index, CrosswordFiller.Result r) {
+        Set<String> seen = new HashSet<>();
+        for (int s = 0; s < grid.getSlots(); s++) {
+            StringBuilder spelled = new StringBuilder();
+            for (int p = 0; p < grid.length(s); p++) {
+                spelled.append(r.letters[grid.cell(s, p)]);
+            }
+            String w = spelled.toString();
+            if (!w.equals(r.words[s]) || index.matches(w, 1).isEmpty() || !seen.add(w)) {
+                throw new IllegalStateException("bad fill at " + grid.getNumber(s) + (grid.isAcross(s) ? " across: " : " down: ") + w);
+            }
+        }
+    }
+}
@@ -0,0 +1,295 @@
+package org.example;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Fills a {@link CrosswordGrid} with words from a {@link WordIndex}, each word
+ * used at most once.
+ *
+ * Every open slot keeps its candidates as a bitset over the words of its
+ * length. Placing a word ANDs each crossing slot's bitset with the index's
+ * bitset for the letter now in the shared square, so a slot with no words
+ * left is seen at once (forward checking). The next slot filled is always the
+ * one with the fewest candidates.
+ *
+ * On a dead end the search backjumps instead of just undoing the last word.
+ * A slot's conflict set holds the earlier choices that narrowed it, which are
+ * the filled slots that cross it. When every word for a slot fails, the search
+ * returns straight to the most recent choice in that set, skipping choices
+ * that could not have caused the failure (conflict-directed backjumping).
+ */
+public final class CrosswordFiller {
+
+    /** The outcome of one fill. */
+    public static final class Result {
+        public final boolean filled;
+        public final boolean timedOut;
+        /** Letters by cell, 0 for black squares, or null if not filled. */
+        public final char[] letters;
+        /** Word in each slot, or null if not filled. */
+        public final String[] words;
+        public final long nodes;
+        public final long backjumps;
+        public final long millis;
+
+        Result(boolean filled, boolean timedOut, char[] letters, String[] words, long nodes, long backjumps, long millis) {
+            this.filled = filled;
+            this.timedOut = timedOut;
+            this.letters = letters;
+            this.words = words;
+            this.nodes = nodes;
+            this.backjumps = backjumps;
+            this.millis = millis;
+        }
+    }
+
+    private final CrosswordGrid grid;
+    private final WordIndex index;
+    private final int slots;
+    private final int depthWords;
+    private final long[][] domain;
+    private final int[] count;
+    /** Word placed in each slot, or -1. */
+    private final int[] word;
+    /** Depth at which each slot was filled, or -1. */
+    private final int[] depthOf;
+    private final char[] letters;
+    /** Depth that placed each word id, per length, or -1 if unused. */
+    private final int[][] usedAt;
+
+    // Undo trail of replaced candidate bitsets
+    private int[] trailSlot;
+    private long[][] trailDomain;
+    private int[] trailCount;
+    private int trailSize;
+
+    private SplittableRandom random;
+    private long nodes;
+    private long backjumps;
+    private long deadline;
+    private boolean timedOut;
+
+    public CrosswordFiller(CrosswordGrid grid, WordIndex index) {
+        this.grid = grid;
+        this.index = index;
+        slots = grid.slots;
+        depthWords = (slots + 63) >>> 6;
+        domain = new long[slots][];
+        count = new int[slots];
+        word = new int[slots];
+        depthOf = new int[slots];
+        letters = new char[grid.rows * grid.cols];
+        usedAt = new int[WordIndex.MAX_LENGTH + 1][];
+        for (int length = 0; length <= WordIndex.MAX_LENGTH; length++) {
+            usedAt[length] = new int[index.count(length)];
+        }
+        trailSlot = new int[64];
+        trailDomain = new long[64][];
+        trailCount = new int[64];
+    }
+
+    /** Fills the grid, trying words in an order set by seed, giving up after millis. */
+    public Result fill(long seed, long millis) {
+        long begin = System.nanoTime();
+        random = new SplittableRandom(seed);
+        nodes = 0;
+        backjumps = 0;
+        timedOut = false;
+        deadline = begin + millis * 1_000_000;
+        trailSize = 0;
+        for (int[] used : usedAt) {
+            Arrays.fill(used, -1);
+        }
+        Arrays.fill(word, -1);
+        Arrays.fill(depthOf, -1);
+        System.arraycopy(grid.given, 0, letters, 0, letters.length);
+
+        boolean possible = true;
+        for (int s = 0; s < slots; s++) {
+            int length = grid.length(s);
+            long[] d = length <= WordIndex.MAX_LENGTH ? index.allWords(length).clone() : new long[0];
+            for (int p = 0; p < length; p++) {
+                char given = letters[grid.cell(s, p)];
+                if (given != 0) {
+                    and(d, index.withLetter(length, p, given));
+                }
+            }
+            domain[s] = d;
+            count[s] = popcount(d);
+            possible &= count[s] > 0;
+        }
+        boolean filled = possible && search(0) == null && !timedOut;
+        long elapsed = (System.nanoTime() - begin) / 1_000_000;
+        if (!filled) {
+            return new Result(false, timedOut, null, null, nodes, backjumps, elapsed);
+        }
+        String[] placed = new String[slots];
+        for (int s = 0; s < slots; s++) {
+            placed[s] = index.word(grid.length(s), word[s]);
+        }
+        return new Result(true, false, letters.clone(), placed, nodes, backjumps, elapsed);
+    }
+
+    /**
+     * Fills the open slots from depth on. Returns null once the grid is full,
+     * or else the conflict set: the depths of the earlier choices that caused
+     * the failure.
+     */
+    private long[] search(int depth) {
+        if (++nodes % 1024 == 0 && System.nanoTime() > deadline) {
+            timedOut = true;
+        }
+        if (timedOut) {
+            return new long[depthWords];
+        }
+        int slot = -1;
+        for (int s = 0; s < slots; s++) {
+            if (word[s] < 0 && (slot < 0 || count[s] < count[slot]
+                    || count[s] == count[slot] && grid.length(s) > grid.length(slot))) {
+                slot = s;
+            }
+        }
+        if (slot < 0) {
+            return null;
+        }
+
+        int length = grid.length(slot);
+        long[] conflict = new long[depthWords];
+        crossers(slot, -1, conflict);
+        // Bitsets are replaced, never changed, so this one stays as it is while we work through it
+        long[] candidates = domain[slot];
+        // Start at a random word and wrap round, so different seeds give different grids
+        int start = candidates.length == 0 ? 0 : random.nextInt(candidates.length);
+        for (int k = 0; k < candidates.length; k++) {
+            int w = (start + k) % candidates.length;
+            for (long bits = candidates[w]; bits != 0; bits &= bits - 1) {
+                int id = w << 6 | Long.numberOfTrailingZeros(bits);
+                if (usedAt[length][id] >= 0) {
+                    setBit(conflict, usedAt[length][id]);
+                    continue;
+                }
+                int mark = trailSize;
+                int wiped = place(slot, id, depth);
+                if (wiped >= 0) {
+                    // The crossing slot's other narrowers share the blame
+                    crossers(wiped, depth, conflict);
+                    unplace(slot, id, mark);
+                    continue;
+                }
+                long[] below = search(depth + 1);
+                if (below == null) {
+                    return null;
+                }
+                unplace(slot, id, mark);
+                if (timedOut) {
+                    return below;
+                }
+                if ((below[depth >>> 6] & 1L << depth) == 0) {
+                    // This slot's word played no part in the failure below, so jump past it
+                    backjumps++;
+                    return below;
+                }
+                below[depth >>> 6] &= ~(1L << depth);
+                for (int i = 0; i < depthWords; i++) {
+                    conflict[i] |= below[i];
+                }
+            }
+        }
+        return conflict;
+    }
+
+    /** Places a word and narrows the crossing slots. Returns a slot left with no words, or -1. */
+    private int place(int slot, int id, int depth) {
+        int length = grid.length(slot);
+        String w = index.word(length, id);
+        word[slot] = id;
+        depthOf[slot] = depth;
+        usedAt[length][id] = depth;
+        int wiped = -1;
+        for (int p = 0; p < length; p++) {
+            int cell = grid.cell(slot, p);
+            if (letters[cell] != 0) {
+                continue;
+            }
+            char letter = w.charAt(p);
+            letters[cell] = letter;
+            int cross = grid.crossing(slot, p);
+            int other = cross >>> 5, at = cross & 31;
+            if (word[other] >= 0 || wiped >= 0) {
+                continue;
+            }
+            long[] narrowed = domain[other].clone();
+            and(narrowed, index.withLetter(grid.length(other), at, letter));
+            push(other);
+            domain[other] = narrowed;
+            count[other] = popcount(narrowed);
+            if (count[other] == 0) {
+                wiped = other;
+            }
+        }
+        return wiped;
+    }
+
+    private void unplace(int slot, int id, int mark) {
+        while (trailSize > mark) {
+            trailSize--;
+            int s = trailSlot[trailSize];
+            domain[s] = trailDomain[trailSize];
+            count[s] = trailCount[trailSize];
+            trailDomain[trailSize] = null;
+        }
+        int depth = depthOf[slot];
+        for (int p = 0; p < grid.length(slot); p++) {
+            int cell = grid.cell(slot, p);
+            int other = grid.crossing(slot, p) >>> 5;
+            // A letter stays if it was given or the crossing word was placed first
+            if (grid.given[cell] == 0 && (word[other] < 0 || depthOf[other] > depth)) {
+                letters[cell] = 0;
+            }
+        }
+        usedAt[grid.length(slot)][id] = -1;
+        word[slot] = -1;
+        depthOf[slot] = -1;
+    }
+
+    private void push(int slot) {
+        if (trailSize == trailSlot.length) {
+            trailSlot = Arrays.copyOf(trailSlot, trailSize * 2);
+            trailDomain = Arrays.copyOf(trailDomain, trailSize * 2);
+            trailCount = Arrays.copyOf(trailCount, trailSize * 2);
+        }
+        trailSlot[trailSize] = slot;
+        trailDomain[trailSize] = domain[slot];
+        trailCount[trailSize++] = count[slot];
+    }
+
+    /** Adds the depths of the filled slots crossing slot, except skip, to conflict. */
+    private void crossers(int slot, int skip, long[] conflict) {
+        for (int p = 0; p < grid.length(slot); p++) {
+            int other = grid.crossing(slot, p) >>> 5;
+            int d = depthOf[other];
+            if (d >= 0 && d != skip) {
+                setBit(conflict, d);
+            }
+        }
+    }
+
+    private static void setBit(long[] bits, int i) {
+        bits[i >>> 6] |= 1L << i;
+    }
+
+    private static void and(long[] bits, long[] mask) {
+        for (int w = 0; w < bits.length; w++) {
+            bits[w] &= mask[w];
+        }
+    }
+
+    private static int popcount(long[] bits) {
+        int n = 0;
+        for (long b : bits) {
+            n += Long.bitCount(b);
+        }
+        return n;
+    }
+}
@@ -0,0 +1,215 @@
+package org.example;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * An American-style crossword diagram: '#' is a black square, '.' an open
+ * one, and a letter an open square already filled in. Cell i is row i / cols,
+ * column i % cols.
+ *
+ * Every run of open squares across or down is a slot. Every open square must
+ * be in an across slot and a down slot of at least {@value #MIN_WORD} letters,
+ * and the black squares must look the same when the grid is turned half way
+ * round. Each cell records the slot and position it has in both directions, so
+ * the filler can go from a letter to the crossing slot at once.
+ */
+public final class CrosswordGrid {
+
+    public static final int MIN_WORD = 3;
+
+    /** Built-in diagrams by name. */
+    public static final Map<String, String[]> TEMPLATES = new LinkedHashMap<>();
+
+    static {
+        TEMPLATES.put("5x5", new String[]{
+                "#....",
+                ".....",
+                ".....",
+                ".....",
+                "....#"});
+        TEMPLATES.put("9x9", new String[]{
+                "...#.....",
+                "...#.....",
+                ".........",
+                "#....#...",
+                "....#....",
+                "...#....#",
+                ".........",
+                ".....#...",
+                ".....#..."});
+        TEMPLATES.put("15x15", new String[]{
+                "....#.....#....",
+                "....#.....#....",
+                "....#.....#....",
+                ".......#.......",
+                "###....#....###",
+                "......#....#...",
+                ".....#.....#...",
+                "....#.....#....",
+                "...#.....#.....",
+                "...#....#......",
+                "###....#....###",
+                ".......#.......",
+                "....#.....#....",
+                "....#.....#....",
+                "....#.....#...."});
+    }
+
+    final int rows;
+    final int cols;
+    final boolean[] block;
+    /** Letter given in each cell, or 0. */
+    final char[] given;
+    final int slots;
+    /** Cells of slot s are slotCells[slotStart[s]] up to slotStart[s + 1], in reading order. */
+    final int[] slotStart;
+    final int[] slotCells;
+    final boolean[] across;
+    /** The clue number of each slot. */
+    final int[] number;
+    /** For cell c and direction d (0 across, 1 down), the slot holding it and its position in that slot. */
+    final int[] slotAt;
+    final int[] positionAt;
+
+    public CrosswordGrid(String... diagram) {
+        rows = diagram.length;
+        cols = diagram[0].length();
+        int cells = rows * cols;
+        block = new boolean[cells];
+        given = new char[cells];
+        for (int r = 0; r < rows; r++) {
+            if (diagram[r].length() != cols) {
+                throw new IllegalArgumentException("row " + r + " is not " + cols + " squares long");
+            }
+            for (int c = 0; c < cols; c++) {
+                char ch = Character.toUpperCase(diagram[r].charAt(c));
+                if (ch == '#') {
+                    block[r * cols + c] = true;
+                } else if (ch >= 'A' && ch <= 'Z') {
+                    given[r * cols + c] = ch;
+                } else if (ch != '.') {
+                    throw new IllegalArgumentException("unexpected '" + ch + "' in row " + r);
+                }
+            }
+        }
+        for (int c = 0; c < cells; c++) {
+            if (block[c] != block[cells - 1 - c]) {
+                throw new IllegalArgumentException("black squares are not symmetric at row " + c / cols + ", column " + c % cols);
+            }
+        }
+
+        slotAt = new int[2 * cells];
+        positionAt = new int[2 * cells];
+        Arrays.fill(slotAt, -1);
+        int[] start = new int[cells + 1], list = new int[2 * cells], numbers = new int[cells];
+        boolean[] isAcross = new boolean[cells];
+        int count = 0, filled = 0, clue = 0;
+        for (int cell = 0; cell < cells; cell++) {
+            if (block[cell]) {
+                continue;
+            }
+            int r = cell / cols, c = cell % cols;
+            boolean startsAcross = (c == 0 || block[cell - 1]) && c + 1 < cols && !block[cell + 1];
+            boolean startsDown = (r == 0 || block[cell - cols]) && r + 1 < rows && !block[cell + cols];
+            if (startsAcross || startsDown) {
+                clue++;
+            }
+            for (int d = 0; d < 2; d++) {
+                if (d == 0 ? !startsAcross : !startsDown) {
+                    continue;
+                }
+                int step = d == 0 ? 1 : cols;
+                start[count] = filled;
+                numbers[count] = clue;
+                isAcross[count] = d == 0;
+                int p = 0;
+                for (int at = cell; at < cells && !block[at] && (d == 1 || at / cols == r); at += step) {
+                    list[filled++] = at;
+                    slotAt[2 * at + d] = count;
+                    positionAt[2 * at + d] = p++;
+                }
+                if (p < MIN_WORD) {
+                    throw new IllegalArgumentException((d == 0 ? "across" : "down") + " word at row " + r
+                            + ", column " + c + " is shorter than " + MIN_WORD);
+                }
+                count++;
+            }
+        }
+        for (int cell = 0; cell < cells; cell++) {
+            if (!block[cell] && (slotAt[2 * cell] < 0 || slotAt[2 * cell + 1] < 0)) {
+                throw new IllegalArgumentException("square at row " + cell / cols + ", column " + cell % cols
+                        + " is not in both an across and a down word");
+            }
+        }
+        slots = count;
+        start[count] = filled;
+        slotStart = Arrays.copyOf(start, count + 1);
+        slotCells = Arrays.copyOf(list, filled);
+        across = Arrays.copyOf(isAcross, count);
+        number = Arrays.copyOf(numbers, count);
+    }
+
+    /** A built-in diagram by name, such as "15x15". */
+    public static CrosswordGrid template(String name) {
+        String[] diagram = TEMPLATES.get(name);
+        if (diagram == null) {
+            throw new IllegalArgumentException("no template " + name + "; there are " + TEMPLATES.keySet());
+        }
+        return new CrosswordGrid(diagram);
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public int getSlots() {
+        return slots;
+    }
+
+    public int length(int slot) {
+        return slotStart[slot + 1] - slotStart[slot];
+    }
+
+    public boolean isAcross(int slot) {
+        return across[slot];
+    }
+
+    public int getNumber(int slot) {
+        return number[slot];
+    }
+
+    /** The cell at position p of slot. */
+    public int cell(int slot, int p) {
+        return slotCells[slotStart[slot] + p];
+    }
+
+    public boolean isBlock(int cell) {
+        return block[cell];
+    }
+
+    /** The slot crossing slot at its position p, and that slot's position there, as slot * 32 + position. */
+    int crossing(int slot, int p) {
+        int cell = cell(slot, p);
+        int d = across[slot] ? 1 : 0;
+        return slotAt[2 * cell + d] << 5 | positionAt[2 * cell + d];
+    }
+
+    /** The grid's letters, with '#' for black squares and '.' for empty ones. */
+    public String toString(char[] letters) {
+        StringBuilder out = new StringBuilder();
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                int cell = r * cols + c;
+                out.append(block[cell] ? '#' : letters[cell] != 0 ? letters[cell] : '.');
+            }
+            out.append('\n');
+        }
+        return out.toString();
+    }
+}
@@ -1,5 +1,8 @@
 package org.example;
 
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
 import java.util.*;
 
 public class CrosswordPuzzleGenerator {
@@ -71,6 +74,45 @@ public class CrosswordPuzzleGenerator {
         fillEmptySpaces();
     }
 
+    /**
+     * Builds a real interlocking puzzle: fills the built-in 15x15 diagram from
+     * a word list file and takes the placed words as the word list. Returns
+     * false if no fill was found within millis.
+     */
+    public boolean generateFromDictionary(String dictionary, long seed, long millis) throws IOException {
+        long begin = System.nanoTime();
+        WordIndex index;
+        try (Reader reader = new FileReader(dictionary)) {
+            index = WordIndex.read(reader);
+        }
+        System.out.printf("Indexed %d words in %.0f ms%n", index.size(), (System.nanoTime() - begin) / 1e6);
+        CrosswordGrid diagram = CrosswordGrid.template(SIZE + "x" + SIZE);
+        CrosswordFiller.Result result = new CrosswordFiller(diagram, index).fill(seed, millis);
+        System.out.printf("Fill: %s in %d ms, %d nodes, %d backjumps%n",
+                result.filled ? "found" : result.timedOut ? "timed out" : "impossible",
+                result.millis, result.nodes, result.backjumps);
+        if (!result.filled) {
+            return false;
+        }
+        wordList = new ArrayList<>();
+        wordCoordinates.clear();
+        for (int s = 0; s < diagram.getSlots(); s++) {
+            String word = result.words[s];
+            wordList.add(word);
+            for (int p = 0; p < word.length(); p++) {
+                int cell = diagram.cell(s, p);
+                wordCoordinates.computeIfAbsent(word, k -> new ArrayList<>())
+                        .add(new int[]{cell / SIZE, cell % SIZE});
+            }
+        }
+        for (int i = 0; i < SIZE; i++) {
+            for (int j = 0; j < SIZE; j++) {
+                grid[i][j] = diagram.isBlock(i * SIZE + j) ? '#' : result.letters[i * SIZE + j];
+            }
+        }
+        return true;
+    }
+
     private void fillEmptySpaces() {
         Random rand = new Random();
         for (int i = 0; i < SIZE; i++) {
@@ -161,10 +203,15 @@ public class CrosswordPuzzleGenerator {
         scanner.close();
     }
 
-    public static void main(String[] args) {
-        List<String> words = Arrays.asList("JAVA", "PUZZLE", "PROGRAMMING", "CROSSWORD", "JAVADEVELOPER", "CODING", "COMPUTER", "ALGORITHM");
+    // Usage: java org.example.CrosswordPuzzleGenerator [dictionary.txt [seed]]
+    // With a word list the grid is a filled crossword; without one it is the word search below
+    public static void main(String[] args) throws IOException {
+        List<String> words = new ArrayList<>(Arrays.asList("JAVA", "PUZZLE", "PROGRAMMING", "CROSSWORD", "JAVADEVELOPER", "CODING", "COMPUTER", "ALGORITHM"));
         CrosswordPuzzleGenerator generator = new CrosswordPuzzleGenerator(words);
-        generator.generatePuzzle();
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : System.nanoTime();
+        if (args.length == 0 || !generator.generateFromDictionary(args[0], seed, 60_000)) {
+            generator.generatePuzzle();
+        }
         generator.printGrid();
         generator.printHints();
         generator.interactivePuzzleGame();
@@ -0,0 +1,168 @@
+package org.example;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A dictionary indexed for crossword fill. Words are split by length, and
+ * within a length word i is bit i of a bitset. For every position and letter
+ * there is a bitset of the words with that letter there, so the words that
+ * match a pattern such as ?A??E are the AND of two bitsets, and counting them
+ * is a popcount.
+ *
+ * Words are kept in upper case, A to Z only, from {@value #MIN_LENGTH} to
+ * {@value #MAX_LENGTH} letters.
+ */
+public final class WordIndex {
+
+    public static final int MIN_LENGTH = 3;
+    public static final int MAX_LENGTH = 21;
+
+    private final String[][] words = new String[MAX_LENGTH + 1][];
+    /** letterAt[length][position * 26 + letter] is the bitset of words with that letter there. */
+    private final long[][][] letterAt = new long[MAX_LENGTH + 1][][];
+    private final long[][] all = new long[MAX_LENGTH + 1][];
+    private final int size;
+
+    public WordIndex(Collection<String> source) {
+        List<List<String>> byLength = new ArrayList<>();
+        for (int length = 0; length <= MAX_LENGTH; length++) {
+            byLength.add(new ArrayList<>());
+        }
+        Set<String> seen = new HashSet<>();
+        for (String word : source) {
+            String w = normalise(word);
+            if (w != null && seen.add(w)) {
+                byLength.get(w.length()).add(w);
+            }
+        }
+        size = seen.size();
+        for (int length = 0; length <= MAX_LENGTH; length++) {
+            String[] list = byLength.get(length).toArray(new String[0]);
+            int wordsLong = (list.length + 63) >>> 6;
+            words[length] = list;
+            all[length] = new long[wordsLong];
+            for (int i = 0; i < list.length; i++) {
+                all[length][i >>> 6] |= 1L << i;
+            }
+            letterAt[length] = new long[length * 26][wordsLong];
+            for (int i = 0; i < list.length; i++) {
+                for (int p = 0; p < length; p++) {
+                    letterAt[length][p * 26 + list[i].charAt(p) - 'A'][i >>> 6] |= 1L << i;
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads one word per line. Anything after a ';' or whitespace is ignored,
+     * so scored lists such as "WORD;50" load too.
+     */
+    public static WordIndex read(Reader source) throws IOException {
+        BufferedReader reader = new BufferedReader(source);
+        List<String> list = new ArrayList<>();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            int end = 0;
+            while (end < line.length() && line.charAt(end) != ';' && !Character.isWhitespace(line.charAt(end))) {
+                end++;
+            }
+            if (end > 0) {
+                list.add(line.substring(0, end));
+            }
+        }
+        return new WordIndex(list);
+    }
+
+    /** The word in upper case, or null if it has other characters or is too short or long. */
+    private static String normalise(String word) {
+        if (word.length() < MIN_LENGTH || word.length() > MAX_LENGTH) {
+            return null;
+        }
+        char[] letters = new char[word.length()];
+        for (int i = 0; i < letters.length; i++) {
+            char c = Character.toUpperCase(word.charAt(i));
+            if (c < 'A' || c > 'Z') {
+                return null;
+            }
+            letters[i] = c;
+        }
+        return new String(letters);
+    }
+
+    /** Number of words in the index. */
+    public int size() {
+        return size;
+    }
+
+    public int count(int length) {
+        return length <= MAX_LENGTH ? words[length].length : 0;
+    }
+
+    public String word(int length, int id) {
+        return words[length][id];
+    }
+
+    /** Longs in a bitset over the words of this length. */
+    int bitsetWords(int length) {
+        return all[length].length;
+    }
+
+    /** Every word of this length. Shared; do not change it. */
+    long[] allWords(int length) {
+        return all[length];
+    }
+
+    /** The words of this length with letter at position. Shared; do not change it. */
+    long[] withLetter(int length, int position, char letter) {
+        return letterAt[length][position * 26 + letter - 'A'];
+    }
+
+    /** The words matching a pattern of letters and '?' (or '.') wildcards, as a bitset over its length. */
+    public long[] match(String pattern) {
+        int length = pattern.length();
+        if (length > MAX_LENGTH) {
+            return new long[0];
+        }
+        long[] result = all[length].clone();
+        for (int p = 0; p < length; p++) {
+            char c = Character.toUpperCase(pattern.charAt(p));
+            if (c >= 'A' && c <= 'Z') {
+                long[] mask = letterAt[length][p * 26 + c - 'A'];
+                for (int w = 0; w < result.length; w++) {
+                    result[w] &= mask[w];
+                }
+            }
+        }
+        return result;
+    }
+
+    /** Up to limit words matching a pattern, in index order. */
+    public List<String> matches(String pattern, int limit) {
+        long[] bits = match(pattern);
+        List<String> out = new ArrayList<>();
+        for (int w = 0; w < bits.length && out.size() < limit; w++) {
+            long b = bits[w];
+            while (b != 0 && out.size() < limit) {
+                out.add(words[pattern.length()][w << 6 | Long.numberOfTrailingZeros(b)]);
+                b &= b - 1;
+            }
+        }
+        return out;
+    }
+
+    /** Approximate bytes held by the bitsets. */
+    public long indexBytes() {
+        long bytes = 0;
+        for (int length = 0; length <= MAX_LENGTH; length++) {
+            bytes += (long) (length * 26 + 1) * all[length].length * Long.BYTES;
+        }
+        return bytes;
+    }
+}
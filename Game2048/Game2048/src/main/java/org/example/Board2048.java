@@ -0,0 +1,180 @@
+package org.example;
+
+import java.util.SplittableRandom;
+
+/**
+ * A 4x4 board packed into a long, four bits per cell holding the tile's
+ * exponent (0 empty, 1 for 2, 2 for 4, ...). Cell (r, c) is bits
+ * 4 * (4r + c), so each row is one 16-bit chunk with column 0 lowest.
+ *
+ * Every possible row is moved once up front into 65,536-entry tables. A move is
+ * then four table lookups: rows go through the left/right tables directly, and
+ * for up/down the board is transposed, each column looked up, and the result
+ * spread back into column positions.
+ */
+public final class Board2048 {
+
+    public static final int UP = 0, DOWN = 1, LEFT = 2, RIGHT = 3;
+    public static final String[] MOVE_NAMES = {"Up", "Down", "Left", "Right"};
+    /** Chance that a new tile is a 4 rather than a 2; {@link Game2048} picks either with equal odds. */
+    public static final double FOUR_PROBABILITY = 0.5;
+
+    private static final long ROW_MASK = 0xFFFFL;
+    private static final char[] ROW_LEFT = new char[65536];
+    private static final char[] ROW_RIGHT = new char[65536];
+    private static final long[] COLUMN_UP = new long[65536];
+    private static final long[] COLUMN_DOWN = new long[65536];
+
+    static {
+        for (int row = 0; row < 65536; row++) {
+            int left = moveRowLeft(row);
+            int right = reverseRow(moveRowLeft(reverseRow(row)));
+            ROW_LEFT[row] = (char) left;
+            ROW_RIGHT[row] = (char) right;
+            COLUMN_UP[row] = unpackColumn(left);
+            COLUMN_DOWN[row] = unpackColumn(right);
+        }
+    }
+
+    private Board2048() {
+    }
+
+    /** Slides a row towards column 0, merging each equal pair once; exponent 15 does not merge further. */
+    private static int moveRowLeft(int row) {
+        int[] line = new int[4];
+        int n = 0;
+        for (int i = 0; i < 4; i++) {
+            int v = row >> 4 * i & 0xF;
+            if (v != 0) {
+                line[n++] = v;
+            }
+        }
+        int[] out = new int[4];
+        int k = 0;
+        for (int i = 0; i < n; i++) {
+            if (i + 1 < n && line[i] == line[i + 1] && line[i] != 15) {
+                out[k++] = line[i] + 1;
+                i++;
+            } else {
+                out[k++] = line[i];
+            }
+        }
+        return out[0] | out[1] << 4 | out[2] << 8 | out[3] << 12;
+    }
+
+    static int reverseRow(int row) {
+        return (row >> 12 & 0xF) | (row >> 4 & 0xF0) | (row << 4 & 0xF00) | (row << 12 & 0xF000);
+    }
+
+    /** A row's four nibbles spread down column 0. */
+    static long unpackColumn(int row) {
+        long r = row;
+        return (r & 0xF) | (r & 0xF0) << 12 | (r & 0xF00) << 24 | (r & 0xF000) << 36;
+    }
+
+    public static long transpose(long x) {
+        long a1 = x & 0xF0F00F0FF0F00F0FL;
+        long a2 = x & 0x0000F0F00000F0F0L;
+        long a3 = x & 0x0F0F00000F0F0000L;
+        long a = a1 | a2 << 12 | a3 >>> 12;
+        long b1 = a & 0xFF00FF0000FF00FFL;
+        long b2 = a & 0x00FF00FF00000000L;
+        long b3 = a & 0x00000000FF00FF00L;
+        return b1 | b2 >>> 24 | b3 << 24;
+    }
+
+    /** The board after a move; equal to the board if nothing moved. */
+    public static long move(long board, int direction) {
+        switch (direction) {
+            case LEFT:
+                return (long) ROW_LEFT[(int) (board & ROW_MASK)]
+                        | (long) ROW_LEFT[(int) (board >>> 16 & ROW_MASK)] << 16
+                        | (long) ROW_LEFT[(int) (board >>> 32 & ROW_MASK)] << 32
+                        | (long) ROW_LEFT[(int) (board >>> 48)] << 48;
+            case RIGHT:
+                return (long) ROW_RIGHT[(int) (board & ROW_MASK)]
+                        | (long) ROW_RIGHT[(int) (board >>> 16 & ROW_MASK)] << 16
+                        | (long) ROW_RIGHT[(int) (board >>> 32 & ROW_MASK)] << 32
+                        | (long) ROW_RIGHT[(int) (board >>> 48)] << 48;
+            case UP: {
+                long t = transpose(board);
+                return COLUMN_UP[(int) (t & ROW_MASK)]
+                        | COLUMN_UP[(int) (t >>> 16 & ROW_MASK)] << 4
+                        | COLUMN_UP[(int) (t >>> 32 & ROW_MASK)] << 8
+                        | COLUMN_UP[(int) (t >>> 48)] << 12;
+            }
+            case DOWN: {
+                long t = transpose(board);
+                return COLUMN_DOWN[(int) (t & ROW_MASK)]
+                        | COLUMN_DOWN[(int) (t >>> 16 & ROW_MASK)] << 4
+                        | COLUMN_DOWN[(int) (t >>> 32 & ROW_MASK)] << 8
+                        | COLUMN_DOWN[(int) (t >>> 48)] << 12;
+            }
+            default:
+                throw new IllegalArgumentException("direction " + direction);
+        }
+    }
+
+    public static int countEmpty(long board) {
+        long x = board | board >>> 2 & 0x3333333333333333L;
+        x |= x >>> 1;
+        return Long.bitCount(~x & 0x1111111111111111L);
+    }
+
+    public static int maxRank(long board) {
+        int max = 0;
+        for (; board != 0; board >>>= 4) {
+            max = Math.max(max, (int) (board & 0xF));
+        }
+        return max;
+    }
+
+    public static int rank(long board, int row, int column) {
+        return (int) (board >>> 4 * (4 * row + column) & 0xF);
+    }
+
+    public static boolean isGameOver(long board) {
+        for (int d = 0; d < 4; d++) {
+            if (move(board, d) != board) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** The board with a 2 or a 4 in a random empty cell, or unchanged if it is full. */
+    public static long spawn(long board, SplittableRandom random) {
+        int empty = countEmpty(board);
+        if (empty == 0) {
+            return board;
+        }
+        int pick = random.nextInt(empty);
+        long tile = random.nextDouble() < FOUR_PROBABILITY ? 2 : 1;
+        for (int shift = 0; ; shift += 4) {
+            if ((board >>> shift & 0xF) == 0 && pick-- == 0) {
+                return board | tile << shift;
+            }
+        }
+    }
+
+    public static long fromGrid(int[][] grid) {
+        long board = 0;
+        for (int r = 0; r < 4; r++) {
+            for (int c = 0; c < 4; c++) {
+                int value = grid[r][c];
+                long rank = value == 0 ? 0 : Integer.numberOfTrailingZeros(value);
+                board |= rank << 4 * (4 * r + c);
+            }
+        }
+        return board;
+    }
+
+    public static void toGrid(long board, int[][] grid) {
+        for (int r = 0; r < 4; r++) {
+            for (int c = 0; c < 4; c++) {
+                int rank = rank(board, r, c);
+                grid[r][c] = rank == 0 ? 0 : 1 << rank;
+            }
+        }
+    }
+}
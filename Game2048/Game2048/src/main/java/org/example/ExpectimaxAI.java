@@ -0,0 +1,182 @@
+package org.example;
+
+import java.util.Arrays;
+
+/**
+ * Expectimax over {@link Board2048} boards: the player's move maximises, and
+ * the new tile averages over every empty cell and both tile values.
+ *
+ * The search depth grows as the board fills up. Branches whose probability
+ * drops below {@value #MIN_PROBABILITY} are cut off and scored by the
+ * heuristic. A transposition cache keyed by the board keeps the value of each
+ * chance node searched during the current move, reused where it was searched
+ * at least as deep.
+ *
+ * The heuristic is a sum over the 4 rows and 4 columns of a per-row score
+ * precomputed for all 65,536 rows. It rewards empty cells and adjacent equal
+ * tiles, and penalises rows that are not monotonic and large tiles in general.
+ * An instance is not thread-safe; use one per thread.
+ */
+public final class ExpectimaxAI {
+
+    private static final double MIN_PROBABILITY = 1e-4;
+
+    private static final float LOST_PENALTY = 200000f;
+    private static final double MONOTONICITY_POWER = 4;
+    private static final float MONOTONICITY_WEIGHT = 47;
+    private static final double SUM_POWER = 3.5;
+    private static final float SUM_WEIGHT = 11;
+    private static final float MERGES_WEIGHT = 700;
+    private static final float EMPTY_WEIGHT = 270;
+
+    private static final float[] ROW_SCORE = new float[65536];
+
+    static {
+        for (int row = 0; row < 65536; row++) {
+            int[] line = {row & 0xF, row >> 4 & 0xF, row >> 8 & 0xF, row >> 12 & 0xF};
+            double sum = 0;
+            int empty = 0, merges = 0, previous = 0, counter = 0;
+            for (int rank : line) {
+                sum += Math.pow(rank, SUM_POWER);
+                if (rank == 0) {
+                    empty++;
+                } else {
+                    if (previous == rank) {
+                        counter++;
+                    } else if (counter > 0) {
+                        merges += 1 + counter;
+                        counter = 0;
+                    }
+                    previous = rank;
+                }
+            }
+            if (counter > 0) {
+                merges += 1 + counter;
+            }
+            double left = 0, right = 0;
+            for (int i = 1; i < 4; i++) {
+                double a = Math.pow(line[i - 1], MONOTONICITY_POWER), b = Math.pow(line[i], MONOTONICITY_POWER);
+                if (line[i - 1] > line[i]) {
+                    left += a - b;
+                } else {
+                    right += b - a;
+                }
+            }
+            ROW_SCORE[row] = (float) (LOST_PENALTY + EMPTY_WEIGHT * empty + MERGES_WEIGHT * merges
+                    - MONOTONICITY_WEIGHT * Math.min(left, right) - SUM_WEIGHT * sum);
+        }
+    }
+
+    private final int mask;
+    private final long[] cacheBoard;
+    private final int[] cacheStamp;
+    private final byte[] cacheDepth;
+    private final float[] cacheScore;
+    private int stamp;
+    private int depthLimit;
+    private long nodes;
+
+    /** @param cacheBits log2 of the number of cache slots */
+    public ExpectimaxAI(int cacheBits) {
+        mask = (1 << cacheBits) - 1;
+        cacheBoard = new long[1 << cacheBits];
+        cacheStamp = new int[1 << cacheBits];
+        cacheDepth = new byte[1 << cacheBits];
+        cacheScore = new float[1 << cacheBits];
+    }
+
+    public ExpectimaxAI() {
+        this(18);
+    }
+
+    /** Positions evaluated so far. */
+    public long getNodes() {
+        return nodes;
+    }
+
+    public static float heuristic(long board) {
+        long t = Board2048.transpose(board);
+        return ROW_SCORE[(int) (board & 0xFFFF)] + ROW_SCORE[(int) (board >>> 16 & 0xFFFF)]
+                + ROW_SCORE[(int) (board >>> 32 & 0xFFFF)] + ROW_SCORE[(int) (board >>> 48)]
+                + ROW_SCORE[(int) (t & 0xFFFF)] + ROW_SCORE[(int) (t >>> 16 & 0xFFFF)]
+                + ROW_SCORE[(int) (t >>> 32 & 0xFFFF)] + ROW_SCORE[(int) (t >>> 48)];
+    }
+
+    /** Moves searched ahead: more as the board fills up and holds more kinds of tile. */
+    static int depthFor(long board) {
+        int empty = Board2048.countEmpty(board);
+        int byEmpty = empty >= 8 ? 2 : empty >= 4 ? 3 : 4;
+        int distinct = Integer.bitCount(distinctRanks(board)) - 1;
+        return Math.max(byEmpty, Math.min(distinct - 3, 5));
+    }
+
+    private static int distinctRanks(long board) {
+        int seen = 0;
+        for (int i = 0; i < 16; i++, board >>>= 4) {
+            seen |= 1 << (board & 0xF);
+        }
+        return seen;
+    }
+
+    /** Best direction, or -1 if no move changes the board. */
+    public int bestMove(long board) {
+        if (++stamp == 0) {
+            Arrays.fill(cacheStamp, 0);
+            stamp = 1;
+        }
+        depthLimit = depthFor(board);
+        int best = -1;
+        float bestScore = Float.NEGATIVE_INFINITY;
+        for (int d = 0; d < 4; d++) {
+            long next = Board2048.move(board, d);
+            if (next == board) {
+                continue;
+            }
+            float score = chance(next, 1, 1.0);
+            if (score > bestScore) {
+                bestScore = score;
+                best = d;
+            }
+        }
+        return best;
+    }
+
+    private float chance(long board, int depth, double probability) {
+        nodes++;
+        if (depth >= depthLimit || probability < MIN_PROBABILITY) {
+            return heuristic(board);
+        }
+        int remaining = depthLimit - depth;
+        int slot = (int) ((board * 0x9E3779B97F4A7C15L) >>> 40) & mask;
+        if (cacheStamp[slot] == stamp && cacheBoard[slot] == board && cacheDepth[slot] >= remaining) {
+            return cacheScore[slot];
+        }
+        int empty = Board2048.countEmpty(board);
+        double each = probability / empty;
+        double total = 0;
+        for (int shift = 0; shift < 64; shift += 4) {
+            if ((board >>> shift & 0xF) != 0) {
+                continue;
+            }
+            total += (1 - Board2048.FOUR_PROBABILITY) * max(board | 1L << shift, depth, each * (1 - Board2048.FOUR_PROBABILITY));
+            total += Board2048.FOUR_PROBABILITY * max(board | 2L << shift, depth, each * Board2048.FOUR_PROBABILITY);
+        }
+        float score = (float) (total / empty);
+        cacheStamp[slot] = stamp;
+        cacheBoard[slot] = board;
+        cacheDepth[slot] = (byte) remaining;
+        cacheScore[slot] = score;
+        return score;
+    }
+
+    private float max(long board, int depth, double probability) {
+        float best = 0;
+        for (int d = 0; d < 4; d++) {
+            long next = Board2048.move(board, d);
+            if (next != board) {
+                best = Math.max(best, chance(next, depth + 1, probability));
+            }
+        }
+        return best;
+    }
+}
@@ -7,35 +7,52 @@ public class Game2048 {
     static final int SIZE = 4;
     static int[][] board = new int[SIZE][SIZE];
     static boolean gameOver = false;
+    static final Random rand = new Random();
+    static final ExpectimaxAI ai = new ExpectimaxAI();
 
     public static void main(String[] args) {
+        boolean autoplay = args.length > 0 && args[0].equalsIgnoreCase("ai");
         initializeBoard();
         printBoard();
 
-        Scanner scanner = new Scanner(System.in);
+        Scanner scanner = autoplay ? null : new Scanner(System.in);
 
         while (!gameOver) {
-            System.out.println("Enter move (W/A/S/D): ");
-            String move = scanner.nextLine().toUpperCase();
-
-            switch (move) {
-                case "W":
-                    moveUp();
-                    break;
-                case "A":
-                    moveLeft();
-                    break;
-                case "S":
-                    moveDown();
-                    break;
-                case "D":
-                    moveRight();
-                    break;
-                default:
-                    System.out.println("Invalid move! Use W, A, S, or D.");
-                    continue;
+            boolean moved;
+            if (autoplay) {
+                int best = ai.bestMove(Board2048.fromGrid(board));
+                System.out.println("AI plays " + Board2048.MOVE_NAMES[best]);
+                moved = move(best);
+            } else {
+                System.out.println("Enter move (W/A/S/D, H for a hint): ");
+                String move = scanner.nextLine().toUpperCase();
+
+                switch (move) {
+                    case "W":
+                        moved = move(Board2048.UP);
+                        break;
+                    case "A":
+                        moved = move(Board2048.LEFT);
+                        break;
+                    case "S":
+                        moved = move(Board2048.DOWN);
+                        break;
+                    case "D":
+                        moved = move(Board2048.RIGHT);
+                        break;
+                    case "H":
+                        System.out.println("Hint: " + Board2048.MOVE_NAMES[ai.bestMove(Board2048.fromGrid(board))]);
+                        continue;
+                    default:
+                        System.out.println("Invalid move! Use W, A, S, or D.");
+                        continue;
+                }
             }
 
+            // A move that changes nothing does not count and adds no tile
+            if (!moved) {
+                continue;
+            }
             addRandomTile();
             printBoard();
 
@@ -44,7 +61,9 @@ public class Game2048 {
                 gameOver = true;
             }
         }
-        scanner.close();
+        if (scanner != null) {
+            scanner.close();
+        }
     }
 
     // Initialize the board with two random tiles
@@ -60,7 +79,6 @@ public class Game2048 {
 
     // Add a random tile (either 2 or 4) to an empty spot on the board
     public static void addRandomTile() {
-        Random rand = new Random();
         int emptySpaces = 0;
 
         // Count empty spaces
@@ -96,118 +114,35 @@ public class Game2048 {
 
     // Check if the game is over (no more moves available)
     public static boolean isGameOver() {
-        // Check for empty spaces
-        for (int i = 0; i < SIZE; i++) {
-            for (int j = 0; j < SIZE; j++) {
-                if (board[i][j] == 0) {
-                    return false;
-                }
-            }
-        }
-
-        // Check for adjacent tiles with the same value
-        for (int i = 0; i < SIZE; i++) {
-            for (int j = 0; j < SIZE; j++) {
-                if (i < SIZE - 1 && board[i][j] == board[i + 1][j]) {
-                    return false;
-                }
-                if (j < SIZE - 1 && board[i][j] == board[i][j + 1]) {
-                    return false;
-                }
-            }
-        }
+        return Board2048.isGameOver(Board2048.fromGrid(board));
+    }
 
-        return true;
+    // Apply a move through the packed board's lookup tables; true if any tile moved
+    static boolean move(int direction) {
+        long before = Board2048.fromGrid(board);
+        long after = Board2048.move(before, direction);
+        Board2048.toGrid(after, board);
+        return after != before;
     }
 
     // Move all tiles to the left
     public static void moveLeft() {
-        for (int i = 0; i < SIZE; i++) {
-            int[] row = board[i];
-            mergeLeft(row);
-        }
-    }
-
-    // Merge tiles to the left
-    private static void mergeLeft(int[] row) {
-        int[] newRow = new int[SIZE];
-        int newIndex = 0;
-
-        // Shift non-zero tiles to the left
-        for (int i = 0; i < SIZE; i++) {
-            if (row[i] != 0) {
-                newRow[newIndex++] = row[i];
-            }
-        }
-
-        // Merge adjacent equal tiles
-        for (int i = 0; i < SIZE - 1; i++) {
-            if (newRow[i] == newRow[i + 1] && newRow[i] != 0) {
-                newRow[i] *= 2;
-                newRow[i + 1] = 0;
-                i++; // Skip the next tile after merging
-            }
-        }
-
-        // Shift merged tiles to the left
-        int[] finalRow = new int[SIZE];
-        newIndex = 0;
-        for (int i = 0; i < SIZE; i++) {
-            if (newRow[i] != 0) {
-                finalRow[newIndex++] = newRow[i];
-            }
-        }
-
-        // Update the row
-        System.arraycopy(finalRow, 0, row, 0, SIZE);
+        move(Board2048.LEFT);
     }
 
     // Move all tiles to the right
     public static void moveRight() {
-        for (int i = 0; i < SIZE; i++) {
-            reverseRow(board[i]);
-            mergeLeft(board[i]);
-            reverseRow(board[i]);
-        }
-    }
-
-    // Reverse the order of a row
-    private static void reverseRow(int[] row) {
-        for (int i = 0; i < SIZE / 2; i++) {
-            int temp = row[i];
-            row[i] = row[SIZE - 1 - i];
-            row[SIZE - 1 - i] = temp;
-        }
+        move(Board2048.RIGHT);
     }
 
     // Move all tiles up
     public static void moveUp() {
-        for (int j = 0; j < SIZE; j++) {
-            int[] column = new int[SIZE];
-            for (int i = 0; i < SIZE; i++) {
-                column[i] = board[i][j];
-            }
-            mergeLeft(column);
-            for (int i = 0; i < SIZE; i++) {
-                board[i][j] = column[i];
-            }
-        }
+        move(Board2048.UP);
     }
 
     // Move all tiles down
     public static void moveDown() {
-        for (int j = 0; j < SIZE; j++) {
-            int[] column = new int[SIZE];
-            for (int i = 0; i < SIZE; i++) {
-                column[i] = board[i][j];
-            }
-            reverseRow(column);
-            mergeLeft(column);
-            reverseRow(column);
-            for (int i = 0; i < SIZE; i++) {
-                board[i][j] = column[i];
-            }
-        }
+        move(Board2048.DOWN);
     }
 
     // Print the current board
@@ -221,4 +156,4 @@ public class Game2048 {
         }
         System.out.println();
     }
-}
\ No newline at end of file
+}
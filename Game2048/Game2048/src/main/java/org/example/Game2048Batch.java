@@ -0,0 +1,70 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Plays games with {@link ExpectimaxAI} headless, spread over a thread pool,
+ * and reports moves per second and how often each tile was the largest
+ * reached. Game i is seeded from the base seed and i, so results do not depend
+ * on the thread count.
+ *
+ * Usage: java org.example.Game2048Batch [games] [threads] [seed]
+ */
+public class Game2048Batch {
+
+    public static void main(String[] args) throws InterruptedException, ExecutionException {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 1;
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        ThreadLocal<ExpectimaxAI> ais = ThreadLocal.withInitial(ExpectimaxAI::new);
+        List<Future<long[]>> results = new ArrayList<>();
+        long begin = System.nanoTime();
+        for (int g = 0; g < games; g++) {
+            long gameSeed = seed * 1_000_003L + g;
+            results.add(pool.submit(() -> play(ais.get(), gameSeed)));
+        }
+        long[] maxTileCount = new long[16];
+        long moves = 0;
+        for (Future<long[]> f : results) {
+            long[] r = f.get();
+            moves += r[0];
+            maxTileCount[(int) r[1]]++;
+        }
+        pool.shutdown();
+        double seconds = (System.nanoTime() - begin) / 1e9;
+
+        System.out.printf("%d games, %d threads: %d moves in %.2f s, %.0f moves/sec%n",
+                games, threads, moves, seconds, moves / seconds);
+        System.out.println("max tile  games");
+        for (int rank = 15; rank > 0; rank--) {
+            if (maxTileCount[rank] > 0) {
+                System.out.printf("%8d  %5d (%.1f%%)%n", 1 << rank, maxTileCount[rank],
+                        100.0 * maxTileCount[rank] / games);
+            }
+        }
+    }
+
+    /** Returns {moves, largest tile's exponent}. */
+    static long[] play(ExpectimaxAI ai, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        long board = Board2048.spawn(Board2048.spawn(0, random), random);
+        long moves = 0;
+        while (true) {
+            int move = ai.bestMove(board);
+            if (move < 0) {
+                break;
+            }
+            board = Board2048.spawn(Board2048.move(board, move), random);
+            moves++;
+        }
+        return new long[]{moves, Board2048.maxRank(board)};
+    }
+}
@@ -0,0 +1,450 @@
+package org.example;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Go board with union-find stone groups and incrementally maintained liberties.
+ *
+ * The board is stored with a one-point border so neighbour lookups never need
+ * bounds checks. Each group root keeps its stone count and its pseudo-liberty
+ * count (number of stone/empty adjacencies, counting a shared liberty once per
+ * adjacent stone). Pseudo-liberties drop to zero exactly when the group has no
+ * real liberties, so capture detection is a single lookup on the root.
+ * Stones of a group are chained in a circular list so a capture visits only the
+ * captured stones.
+ */
+public class GoBoard {
+
+    public static final byte EMPTY = 0, BLACK = 1, WHITE = 2, BORDER = 3;
+    public static final int PASS = -1;
+    public static final int MAX_SIZE = 19;
+
+    private static final long[][] ZOBRIST = new long[3][(MAX_SIZE + 2) * (MAX_SIZE + 2)];
+
+    static {
+        Random random = new Random(0x60BEEFL);
+        for (long[] keys : ZOBRIST) {
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = random.nextLong();
+            }
+        }
+    }
+
+    private final int size;
+    private final int stride;
+    private final int[] offsets;
+    private final int[] diagonals;
+    private final byte[] color;
+    private final int[] parent;
+    private final int[] next;
+    private final int[] stones;
+    private final int[] liberties;
+
+    // Empty points in an unordered array with reverse index, for O(1) random picks
+    private final int[] empties;
+    private final int[] emptyIndex;
+    private int emptyCount;
+
+    private byte toMove = BLACK;
+    private int koPoint = PASS;
+    private int consecutivePasses;
+    private long hash;
+    private final int[] captures = new int[3];
+    private boolean superko;
+    private Set<Long> history = new HashSet<>();
+
+    public GoBoard(int size) {
+        if (size < 2 || size > MAX_SIZE) {
+            throw new IllegalArgumentException("Board size must be between 2 and " + MAX_SIZE + ": " + size);
+        }
+        this.size = size;
+        this.stride = size + 2;
+        int points = stride * stride;
+        this.offsets = new int[]{-stride, 1, stride, -1};
+        this.diagonals = new int[]{-stride - 1, -stride + 1, stride - 1, stride + 1};
+        this.color = new byte[points];
+        this.parent = new int[points];
+        this.next = new int[points];
+        this.stones = new int[points];
+        this.liberties = new int[points];
+        this.empties = new int[points];
+        this.emptyIndex = new int[points];
+        for (int p = 0; p < points; p++) {
+            int row = p / stride, col = p % stride;
+            boolean inside = row >= 1 && row <= size && col >= 1 && col <= size;
+            color[p] = inside ? EMPTY : BORDER;
+            emptyIndex[p] = -1;
+            if (inside) {
+                emptyIndex[p] = emptyCount;
+                empties[emptyCount++] = p;
+            }
+        }
+        history.add(hash);
+    }
+
+    private GoBoard(GoBoard other) {
+        this.size = other.size;
+        this.stride = other.stride;
+        this.offsets = other.offsets;
+        this.diagonals = other.diagonals;
+        this.color = other.color.clone();
+        this.parent = other.parent.clone();
+        this.next = other.next.clone();
+        this.stones = other.stones.clone();
+        this.liberties = other.liberties.clone();
+        this.empties = other.empties.clone();
+        this.emptyIndex = other.emptyIndex.clone();
+        this.emptyCount = other.emptyCount;
+        this.toMove = other.toMove;
+        this.koPoint = other.koPoint;
+        this.consecutivePasses = other.consecutivePasses;
+        this.hash = other.hash;
+        System.arraycopy(other.captures, 0, this.captures, 0, 3);
+        this.superko = false;
+    }
+
+    /** Copy for playouts; superko history is not carried over. */
+    public GoBoard copy() {
+        return new GoBoard(this);
+    }
+
+    /** Enables positional superko: a move may not recreate any earlier board position. */
+    public void setSuperko(boolean superko) {
+        this.superko = superko;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int point(int row, int col) {
+        return (row + 1) * stride + col + 1;
+    }
+
+    public int rowOf(int point) {
+        return point / stride - 1;
+    }
+
+    public int colOf(int point) {
+        return point % stride - 1;
+    }
+
+    public byte colorAt(int row, int col) {
+        return color[point(row, col)];
+    }
+
+    public byte getToMove() {
+        return toMove;
+    }
+
+    public long getHash() {
+        return hash;
+    }
+
+    public int getCaptures(byte player) {
+        return captures[player];
+    }
+
+    public int getConsecutivePasses() {
+        return consecutivePasses;
+    }
+
+    /** Real liberties of the group at the point, counted by walking the group (for display only). */
+    public int libertiesOf(int row, int col) {
+        int p = point(row, col);
+        if (color[p] != BLACK && color[p] != WHITE) {
+            return 0;
+        }
+        Set<Integer> libs = new HashSet<>();
+        int s = p;
+        do {
+            for (int d : offsets) {
+                if (color[s + d] == EMPTY) {
+                    libs.add(s + d);
+                }
+            }
+            s = next[s];
+        } while (s != p);
+        return libs.size();
+    }
+
+    private int find(int p) {
+        while (parent[p] != p) {
+            parent[p] = parent[parent[p]];
+            p = parent[p];
+        }
+        return p;
+    }
+
+    private static byte opponent(byte c) {
+        return (byte) (BLACK + WHITE - c);
+    }
+
+    /**
+     * Checks suicide and simple ko without touching the board; superko is only
+     * checked here when enabled because it needs the hash of the resulting position.
+     */
+    public boolean isLegal(int p) {
+        if (p == PASS) {
+            return true;
+        }
+        if (color[p] != EMPTY || p == koPoint) {
+            return false;
+        }
+        byte us = toMove, them = opponent(us);
+        boolean legal = false;
+        for (int d : offsets) {
+            int q = p + d;
+            byte c = color[q];
+            if (c == EMPTY) {
+                legal = true;
+            } else if (c == us || c == them) {
+                int remaining = liberties[find(q)] - adjacency(p, find(q));
+                if (c == us ? remaining > 0 : remaining == 0) {
+                    legal = true;
+                }
+            }
+        }
+        if (legal && superko) {
+            return !history.contains(hashAfter(p));
+        }
+        return legal;
+    }
+
+    /** Number of stones of the group rooted at {@code root} that touch point p. */
+    private int adjacency(int p, int root) {
+        int n = 0;
+        for (int d : offsets) {
+            byte c = color[p + d];
+            if ((c == BLACK || c == WHITE) && find(p + d) == root) {
+                n++;
+            }
+        }
+        return n;
+    }
+
+    private long hashAfter(int p) {
+        byte us = toMove, them = opponent(us);
+        long h = hash ^ ZOBRIST[us][p];
+        int[] seen = new int[4];
+        int seenCount = 0;
+        for (int d : offsets) {
+            int q = p + d;
+            if (color[q] != them) {
+                continue;
+            }
+            int root = find(q);
+            boolean duplicate = false;
+            for (int i = 0; i < seenCount; i++) {
+                duplicate |= seen[i] == root;
+            }
+            if (duplicate || liberties[root] - adjacency(p, root) != 0) {
+                continue;
+            }
+            seen[seenCount++] = root;
+            int s = root;
+            do {
+                h ^= ZOBRIST[them][s];
+                s = next[s];
+            } while (s != root);
+        }
+        return h;
+    }
+
+    public boolean play(int row, int col) {
+        return play(point(row, col));
+    }
+
+    /** Plays a move for the side to move; returns false (and changes nothing) if it is illegal. */
+    public boolean play(int p) {
+        if (p == PASS) {
+            consecutivePasses++;
+            koPoint = PASS;
+            toMove = opponent(toMove);
+            return true;
+        }
+        if (!isLegal(p)) {
+            return false;
+        }
+        byte us = toMove, them = opponent(us);
+        consecutivePasses = 0;
+
+        color[p] = us;
+        removeEmpty(p);
+        hash ^= ZOBRIST[us][p];
+        parent[p] = p;
+        next[p] = p;
+        stones[p] = 1;
+        int libs = 0;
+        for (int d : offsets) {
+            if (color[p + d] == EMPTY) {
+                libs++;
+            }
+        }
+        liberties[p] = libs;
+
+        int captured = 0;
+        int lastCapturedPoint = PASS;
+        for (int d : offsets) {
+            int q = p + d;
+            byte c = color[q];
+            if (c != us && c != them) {
+                continue;
+            }
+            int root = find(q);
+            liberties[root]--;
+            if (c == us) {
+                union(find(p), root);
+            } else if (liberties[root] == 0) {
+                lastCapturedPoint = root;
+                captured += removeGroup(root);
+            }
+        }
+
+        int myRoot = find(p);
+        koPoint = captured == 1 && stones[myRoot] == 1 && liberties[myRoot] == 1 ? lastCapturedPoint : PASS;
+        captures[us] += captured;
+        toMove = them;
+        if (superko) {
+            history.add(hash);
+        }
+        return true;
+    }
+
+    private void union(int a, int b) {
+        if (a == b) {
+            return;
+        }
+        if (stones[a] < stones[b]) {
+            int t = a;
+            a = b;
+            b = t;
+        }
+        parent[b] = a;
+        stones[a] += stones[b];
+        liberties[a] += liberties[b];
+        int t = next[a];
+        next[a] = next[b];
+        next[b] = t;
+    }
+
+    private int removeGroup(int root) {
+        byte them = color[root];
+        byte us = opponent(them);
+        int count = 0;
+        int s = root;
+        do {
+            int following = next[s];
+            color[s] = EMPTY;
+            addEmpty(s);
+            hash ^= ZOBRIST[them][s];
+            for (int d : offsets) {
+                if (color[s + d] == us) {
+                    liberties[find(s + d)]++;
+                }
+            }
+            parent[s] = s;
+            count++;
+            s = following;
+        } while (s != root);
+        return count;
+    }
+
+    private void removeEmpty(int p) {
+        int i = emptyIndex[p];
+        int last = empties[--emptyCount];
+        empties[i] = last;
+        emptyIndex[last] = i;
+        emptyIndex[p] = -1;
+    }
+
+    private void addEmpty(int p) {
+        emptyIndex[p] = emptyCount;
+        empties[emptyCount++] = p;
+    }
+
+    /**
+     * True if the point is a real eye of the given colour: all four neighbours are
+     * that colour or the edge, and the diagonals don't make it a false eye (at most
+     * one enemy diagonal in the middle of the board, none on the edge).
+     */
+    public boolean isEyeLike(int p, byte c) {
+        for (int d : offsets) {
+            byte n = color[p + d];
+            if (n != c && n != BORDER) {
+                return false;
+            }
+        }
+        byte enemy = opponent(c);
+        int enemies = 0, edges = 0;
+        for (int d : diagonals) {
+            byte n = color[p + d];
+            if (n == enemy) {
+                enemies++;
+            } else if (n == BORDER) {
+                edges++;
+            }
+        }
+        return edges > 0 ? enemies == 0 : enemies < 2;
+    }
+
+    /**
+     * Uniformly random legal move that does not fill one of the mover's own eyes,
+     * or {@link #PASS} if there is none. Allocation-free.
+     */
+    public int randomMove(Random random) {
+        if (emptyCount == 0) {
+            return PASS;
+        }
+        int start = random.nextInt(emptyCount);
+        for (int i = 0; i < emptyCount; i++) {
+            int p = empties[(start + i) % emptyCount];
+            if (!isEyeLike(p, toMove) && isLegal(p)) {
+                return p;
+            }
+        }
+        return PASS;
+    }
+
+    /** Area score (stones plus surrounded empty regions) for Black minus White, before komi. */
+    public int areaScore() {
+        int score = 0;
+        boolean[] visited = new boolean[color.length];
+        int[] stack = new int[color.length];
+        for (int p = 0; p < color.length; p++) {
+            if (color[p] == BLACK) {
+                score++;
+            } else if (color[p] == WHITE) {
+                score--;
+            } else if (color[p] == EMPTY && !visited[p]) {
+                int top = 0, region = 0;
+                boolean touchesBlack = false, touchesWhite = false;
+                stack[top++] = p;
+                visited[p] = true;
+                while (top > 0) {
+                    int s = stack[--top];
+                    region++;
+                    for (int d : offsets) {
+                        int q = s + d;
+                        if (color[q] == EMPTY && !visited[q]) {
+                            visited[q] = true;
+                            stack[top++] = q;
+                        } else if (color[q] == BLACK) {
+                            touchesBlack = true;
+                        } else if (color[q] == WHITE) {
+                            touchesWhite = true;
+                        }
+                    }
+                }
+                if (touchesBlack && !touchesWhite) {
+                    score += region;
+                } else if (touchesWhite && !touchesBlack) {
+                    score -= region;
+                }
+            }
+        }
+        return score;
+    }
+}
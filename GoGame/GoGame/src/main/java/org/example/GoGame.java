@@ -1,31 +1,38 @@
 package org.example;
 
-import java.util.Arrays;
 import java.util.Scanner;
 
 class GoGame {
     private static final int BOARD_SIZE = 9;
-    private char[][] board;
+    private final GoBoard board;
     private char currentPlayer;
     private int blackCaptures;
     private int whiteCaptures;
 
     public GoGame() {
-        board = new char[BOARD_SIZE][BOARD_SIZE];
-        for (char[] row : board) {
-            Arrays.fill(row, '.');
-        }
+        this(BOARD_SIZE);
+    }
+
+    public GoGame(int boardSize) {
+        board = new GoBoard(boardSize);
+        board.setSuperko(true);
         currentPlayer = 'B';
         blackCaptures = 0;
         whiteCaptures = 0;
     }
 
     public void displayBoard() {
-        System.out.println("  0 1 2 3 4 5 6 7 8");
-        for (int i = 0; i < BOARD_SIZE; i++) {
-            System.out.print(i + " ");
-            for (int j = 0; j < BOARD_SIZE; j++) {
-                System.out.print(board[i][j] + " ");
+        int size = board.getSize();
+        StringBuilder header = new StringBuilder("  ");
+        for (int j = 0; j < size; j++) {
+            header.append(j % 10).append(' ');
+        }
+        System.out.println(header);
+        for (int i = 0; i < size; i++) {
+            System.out.print((i % 10) + " ");
+            for (int j = 0; j < size; j++) {
+                byte c = board.colorAt(i, j);
+                System.out.print((c == GoBoard.BLACK ? 'B' : c == GoBoard.WHITE ? 'W' : '.') + " ");
             }
             System.out.println();
         }
@@ -33,82 +40,24 @@ class GoGame {
     }
 
     public boolean placeStone(int x, int y) {
-        if (!isValidMove(x, y)) {
+        if (!isInsideBoard(x, y) || !board.play(x, y)) {
             System.out.println("Invalid move! Try again.");
             return false;
         }
-        board[x][y] = currentPlayer;
-        int capturedStones = checkCapture(x, y);
-        updateCaptureCount(capturedStones);
+        blackCaptures = board.getCaptures(GoBoard.BLACK);
+        whiteCaptures = board.getCaptures(GoBoard.WHITE);
         switchPlayer();
         return true;
     }
 
-    private boolean isValidMove(int x, int y) {
-        return x >= 0 && x < BOARD_SIZE && y >= 0 && y < BOARD_SIZE && board[x][y] == '.';
+    private boolean isInsideBoard(int x, int y) {
+        return x >= 0 && x < board.getSize() && y >= 0 && y < board.getSize();
     }
 
     private void switchPlayer() {
         currentPlayer = (currentPlayer == 'B') ? 'W' : 'B';
     }
 
-    private int checkCapture(int x, int y) {
-        char opponent = (currentPlayer == 'B') ? 'W' : 'B';
-        int totalCaptured = 0;
-        totalCaptured += tryCapture(x - 1, y, opponent);
-        totalCaptured += tryCapture(x + 1, y, opponent);
-        totalCaptured += tryCapture(x, y - 1, opponent);
-        totalCaptured += tryCapture(x, y + 1, opponent);
-        return totalCaptured;
-    }
-
-    private int tryCapture(int x, int y, char opponent) {
-        if (isInsideBoard(x, y) && board[x][y] == opponent && isSurrounded(x, y)) {
-            return removeGroup(x, y);
-        }
-        return 0;
-    }
-
-    private boolean isInsideBoard(int x, int y) {
-        return x >= 0 && x < BOARD_SIZE && y >= 0 && y < BOARD_SIZE;
-    }
-
-    private boolean isSurrounded(int x, int y) {
-        boolean[][] visited = new boolean[BOARD_SIZE][BOARD_SIZE];
-        return isSurroundedDFS(x, y, board[x][y], visited);
-    }
-
-    private boolean isSurroundedDFS(int x, int y, char color, boolean[][] visited) {
-        if (!isInsideBoard(x, y)) return false;
-        if (visited[x][y] || board[x][y] == '.') return false;
-        if (board[x][y] != color) return true;
-        visited[x][y] = true;
-        return isSurroundedDFS(x - 1, y, color, visited) &&
-                isSurroundedDFS(x + 1, y, color, visited) &&
-                isSurroundedDFS(x, y - 1, color, visited) &&
-                isSurroundedDFS(x, y + 1, color, visited);
-    }
-
-    private int removeGroup(int x, int y) {
-        char color = board[x][y];
-        return removeDFS(x, y, color);
-    }
-
-    private int removeDFS(int x, int y, char color) {
-        if (!isInsideBoard(x, y) || board[x][y] != color) return 0;
-        board[x][y] = '.';
-        return 1 + removeDFS(x - 1, y, color) + removeDFS(x + 1, y, color) +
-                removeDFS(x, y - 1, color) + removeDFS(x, y + 1, color);
-    }
-
-    private void updateCaptureCount(int captured) {
-        if (currentPlayer == 'B') {
-            blackCaptures += captured;
-        } else {
-            whiteCaptures += captured;
-        }
-    }
-
     public void startGame() {
         Scanner scanner = new Scanner(System.in);
         while (true) {
@@ -125,7 +74,8 @@ class GoGame {
     }
 
     public static void main(String[] args) {
-        GoGame game = new GoGame();
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : BOARD_SIZE;
+        GoGame game = new GoGame(size);
         game.startGame();
     }
 }
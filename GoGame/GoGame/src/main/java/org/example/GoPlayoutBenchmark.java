@@ -0,0 +1,53 @@
+package org.example;
+
+import java.util.Random;
+
+/**
+ * Plays uniformly random games (never filling own eyes) on a fresh board and
+ * reports random playouts per second. Usage: GoPlayoutBenchmark [size] [seconds]
+ */
+public class GoPlayoutBenchmark {
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 19;
+        double seconds = args.length > 1 ? Double.parseDouble(args[1]) : 5;
+        GoBoard empty = new GoBoard(size);
+        Random random = new Random(1);
+        int maxMoves = size * size * 3;
+
+        // Warm up the JIT before timing
+        runPlayouts(empty, random, maxMoves, 2000);
+
+        long start = System.nanoTime();
+        long deadline = start + (long) (seconds * 1e9);
+        long playouts = 0, moves = 0, blackWins = 0;
+        while (System.nanoTime() < deadline) {
+            GoBoard board = empty.copy();
+            moves += playout(board, random, maxMoves);
+            if (board.areaScore() > 0) {
+                blackWins++;
+            }
+            playouts++;
+        }
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%dx%d: %d playouts in %.2fs = %.0f playouts/sec, %.0f moves/sec, avg %.1f moves, black wins %.1f%%%n",
+                size, size, playouts, elapsed, playouts / elapsed, moves / elapsed,
+                (double) moves / playouts, 100.0 * blackWins / playouts);
+    }
+
+    private static void runPlayouts(GoBoard empty, Random random, int maxMoves, int count) {
+        for (int i = 0; i < count; i++) {
+            playout(empty.copy(), random, maxMoves);
+        }
+    }
+
+    /** Plays until two consecutive passes or the move limit; returns the number of moves. */
+    static int playout(GoBoard board, Random random, int maxMoves) {
+        int moves = 0;
+        while (board.getConsecutivePasses() < 2 && moves < maxMoves) {
+            board.play(board.randomMove(random));
+            moves++;
+        }
+        return moves;
+    }
+}
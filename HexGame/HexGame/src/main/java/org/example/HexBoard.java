@@ -0,0 +1,142 @@
+package org.example;
+
+import java.util.Arrays;
+
+/**
+ * Hex position with union-find connectivity. Besides the n*n cells there are four
+ * virtual edge nodes; a stone touching its player's edge is joined to that node,
+ * so "has X connected left to right" is one {@code find} comparison.
+ *
+ * X connects the left and right columns, O connects the top and bottom rows.
+ */
+public class HexBoard {
+
+    public static final byte EMPTY = 0, X = 1, O = 2;
+
+    private static final int[][] DIRECTIONS = {{-1, 0}, {-1, 1}, {0, -1}, {0, 1}, {1, -1}, {1, 0}};
+
+    private final int size;
+    private final int cells;
+    private final int left, right, top, bottom;
+    private final int[][] neighbors;
+    private final byte[] board;
+    private final int[] parent;
+    private int stones;
+
+    public HexBoard(int size) {
+        this.size = size;
+        this.cells = size * size;
+        this.left = cells;
+        this.right = cells + 1;
+        this.top = cells + 2;
+        this.bottom = cells + 3;
+        this.board = new byte[cells];
+        this.parent = new int[cells + 4];
+        this.neighbors = new int[cells][];
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                int[] tmp = new int[6];
+                int n = 0;
+                for (int[] d : DIRECTIONS) {
+                    int nr = r + d[0], nc = c + d[1];
+                    if (nr >= 0 && nr < size && nc >= 0 && nc < size) {
+                        tmp[n++] = nr * size + nc;
+                    }
+                }
+                neighbors[r * size + c] = Arrays.copyOf(tmp, n);
+            }
+        }
+        clear();
+    }
+
+    public void clear() {
+        Arrays.fill(board, EMPTY);
+        for (int i = 0; i < parent.length; i++) {
+            parent[i] = i;
+        }
+        stones = 0;
+    }
+
+    /** Overwrites this board with another of the same size, without allocating. */
+    public void copyFrom(HexBoard other) {
+        System.arraycopy(other.board, 0, board, 0, cells);
+        System.arraycopy(other.parent, 0, parent, 0, parent.length);
+        stones = other.stones;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getCellCount() {
+        return cells;
+    }
+
+    public int getStoneCount() {
+        return stones;
+    }
+
+    public byte get(int cell) {
+        return board[cell];
+    }
+
+    public byte get(int row, int col) {
+        return board[row * size + col];
+    }
+
+    public boolean isEmpty(int cell) {
+        return board[cell] == EMPTY;
+    }
+
+    public void play(int row, int col, byte player) {
+        play(row * size + col, player);
+    }
+
+    public void play(int cell, byte player) {
+        board[cell] = player;
+        stones++;
+        for (int n : neighbors[cell]) {
+            if (board[n] == player) {
+                union(cell, n);
+            }
+        }
+        int row = cell / size, col = cell % size;
+        if (player == X) {
+            if (col == 0) union(cell, left);
+            if (col == size - 1) union(cell, right);
+        } else {
+            if (row == 0) union(cell, top);
+            if (row == size - 1) union(cell, bottom);
+        }
+    }
+
+    /** The player whose edges are connected, or EMPTY while the game is undecided. */
+    public byte winner() {
+        if (find(left) == find(right)) {
+            return X;
+        }
+        if (find(top) == find(bottom)) {
+            return O;
+        }
+        return EMPTY;
+    }
+
+    private int find(int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+
+    private void union(int a, int b) {
+        int ra = find(a), rb = find(b);
+        if (ra != rb) {
+            parent[ra] = rb;
+        }
+    }
+
+    public static byte opponent(byte player) {
+        return player == X ? O : X;
+    }
+}
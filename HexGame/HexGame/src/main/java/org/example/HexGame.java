@@ -9,9 +9,11 @@ class HexGame {
     private final char PLAYER1 = 'X';
     private final char PLAYER2 = 'O';
     private char currentPlayer;
+    private final HexBoard hexBoard;
 
     public HexGame(int size) {
         this.size = size;
+        this.hexBoard = new HexBoard(size);
         this.board = new char[size][size];
         for (int i = 0; i < size; i++) {
             Arrays.fill(board[i], EMPTY);
@@ -38,43 +40,24 @@ class HexGame {
             return false;
         }
         board[row][col] = currentPlayer;
+        hexBoard.play(row, col, currentPlayer == PLAYER1 ? HexBoard.X : HexBoard.O);
         return true;
     }
 
-    public boolean checkWinner() {
-        boolean[][] visited = new boolean[size][size];
-        if (currentPlayer == PLAYER1) {
-            for (int i = 0; i < size; i++) {
-                if (board[i][0] == PLAYER1 && dfs(i, 0, visited, PLAYER1)) {
-                    return true;
-                }
-            }
-        } else {
-            for (int i = 0; i < size; i++) {
-                if (board[0][i] == PLAYER2 && dfs(0, i, visited, PLAYER2)) {
-                    return true;
-                }
-            }
-        }
-        return false;
+    /** Lets the MCTS player choose and play a move for the current player. */
+    public int[] computerMove(HexMcts mcts, long timeMillis) {
+        byte me = currentPlayer == PLAYER1 ? HexBoard.X : HexBoard.O;
+        HexMcts.Result result = mcts.search(hexBoard, me, timeMillis, 0);
+        int row = result.getMove() / size;
+        int col = result.getMove() % size;
+        System.out.println("Computer plays " + row + " " + col + " (" + result + ")");
+        makeMove(row, col);
+        return new int[]{row, col};
     }
 
-    private boolean dfs(int row, int col, boolean[][] visited, char player) {
-        if ((player == PLAYER1 && col == size - 1) || (player == PLAYER2 && row == size - 1)) {
-            return true;
-        }
-        visited[row][col] = true;
-        int[][] directions = {{-1, 0}, {-1, 1}, {0, -1}, {0, 1}, {1, -1}, {1, 0}};
-        for (int[] dir : directions) {
-            int newRow = row + dir[0];
-            int newCol = col + dir[1];
-            if (newRow >= 0 && newRow < size && newCol >= 0 && newCol < size && !visited[newRow][newCol] && board[newRow][newCol] == player) {
-                if (dfs(newRow, newCol, visited, player)) {
-                    return true;
-                }
-            }
-        }
-        return false;
+    public boolean checkWinner() {
+        byte winner = hexBoard.winner();
+        return winner != HexBoard.EMPTY && winner == (currentPlayer == PLAYER1 ? HexBoard.X : HexBoard.O);
     }
 
     public void switchPlayer() {
@@ -90,13 +73,22 @@ class HexGame {
         System.out.println("Enter the board size: ");
         int size = scanner.nextInt();
         HexGame game = new HexGame(size);
+        System.out.println("Play against the computer as X? (y/n): ");
+        HexMcts mcts = scanner.next().equalsIgnoreCase("y") ? new HexMcts() : null;
 
         while (true) {
             game.printBoard();
-            System.out.println("Player " + game.getCurrentPlayer() + "'s turn. Enter row and column:");
-            int row = scanner.nextInt();
-            int col = scanner.nextInt();
-            if (game.makeMove(row, col)) {
+            boolean moved;
+            if (mcts != null && game.getCurrentPlayer() == 'O') {
+                game.computerMove(mcts, 2000);
+                moved = true;
+            } else {
+                System.out.println("Player " + game.getCurrentPlayer() + "'s turn. Enter row and column:");
+                int row = scanner.nextInt();
+                int col = scanner.nextInt();
+                moved = game.makeMove(row, col);
+            }
+            if (moved) {
                 if (game.checkWinner()) {
                     game.printBoard();
                     System.out.println("Player " + game.getCurrentPlayer() + " wins!");
@@ -106,5 +98,8 @@ class HexGame {
             }
         }
         scanner.close();
+        if (mcts != null) {
+            mcts.shutdown();
+        }
     }
 }
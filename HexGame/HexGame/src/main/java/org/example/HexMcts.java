@@ -0,0 +1,264 @@
+package org.example;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monte Carlo tree search for Hex using UCT blended with RAVE (all-moves-as-first)
+ * statistics. All workers of a fork-join pool share one tree; a worker adds a
+ * virtual loss to every child it descends into so concurrent workers spread
+ * over different lines instead of piling onto the same one.
+ *
+ * Since stones are never removed in Hex, the final playout board tells exactly
+ * which player occupied each cell, which is all RAVE needs.
+ */
+public class HexMcts {
+
+    public static class Result {
+        private final int move;
+        private final long playouts;
+        private final long elapsedNanos;
+        private final double winRate;
+
+        Result(int move, long playouts, long elapsedNanos, double winRate) {
+            this.move = move;
+            this.playouts = playouts;
+            this.elapsedNanos = elapsedNanos;
+            this.winRate = winRate;
+        }
+
+        /** Chosen cell index (row * size + col). */
+        public int getMove() {
+            return move;
+        }
+
+        public long getPlayouts() {
+            return playouts;
+        }
+
+        public double getPlayoutsPerSecond() {
+            return elapsedNanos == 0 ? 0 : playouts * 1e9 / elapsedNanos;
+        }
+
+        /** Estimated win probability of the chosen move for the side to move. */
+        public double getWinRate() {
+            return winRate;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("move=%d playouts=%d (%.0f/sec) winRate=%.3f",
+                    move, playouts, getPlayoutsPerSecond(), winRate);
+        }
+    }
+
+    private static final double EXPLORATION = 0.25;
+    private static final double RAVE_EQUIVALENCE = 1000;
+    private static final int EXPAND_THRESHOLD = 2;
+
+    static final class Node {
+        final int move;
+        final byte player;
+        Node[] children;
+        int visits;
+        double wins;
+        int raveVisits;
+        double raveWins;
+
+        Node(int move, byte player) {
+            this.move = move;
+            this.player = player;
+        }
+    }
+
+    private final ForkJoinPool pool;
+    private final int threads;
+
+    public HexMcts() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public HexMcts(int threads) {
+        this.threads = threads;
+        this.pool = new ForkJoinPool(threads);
+    }
+
+    /**
+     * Searches for {@code toMove} until the time budget or the playout budget is used
+     * up (either may be 0 to mean "no limit", but not both).
+     */
+    public Result search(HexBoard position, byte toMove, long timeMillis, long maxPlayouts) {
+        if (timeMillis <= 0 && maxPlayouts <= 0) {
+            throw new IllegalArgumentException("Need a time or playout budget");
+        }
+        long start = System.nanoTime();
+        long deadline = timeMillis > 0 ? start + timeMillis * 1_000_000L : Long.MAX_VALUE;
+        long limit = maxPlayouts > 0 ? maxPlayouts : Long.MAX_VALUE;
+        Node root = new Node(-1, HexBoard.opponent(toMove));
+        expand(root, position, toMove);
+        AtomicLong playouts = new AtomicLong();
+        SplittableRandom seed = new SplittableRandom(start);
+
+        RecursiveAction[] workers = new RecursiveAction[threads];
+        for (int i = 0; i < threads; i++) {
+            SplittableRandom random = seed.split();
+            workers[i] = new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    HexBoard scratch = new HexBoard(position.getSize());
+                    Node[] path = new Node[position.getCellCount() + 1];
+                    int[] empties = new int[position.getCellCount()];
+                    while (System.nanoTime() < deadline && playouts.getAndIncrement() < limit) {
+                        simulate(root, position, toMove, scratch, path, empties, random);
+                    }
+                }
+            };
+        }
+        pool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                invokeAll(workers);
+            }
+        });
+
+        Node best = null;
+        for (Node child : root.children) {
+            if (best == null || child.visits > best.visits) {
+                best = child;
+            }
+        }
+        long done = Math.min(playouts.get(), limit);
+        return new Result(best == null ? -1 : best.move, done, System.nanoTime() - start,
+                best == null || best.visits == 0 ? 0 : best.wins / best.visits);
+    }
+
+    private static void expand(Node node, HexBoard board, byte toMove) {
+        Node[] children = new Node[board.getCellCount() - board.getStoneCount()];
+        int n = 0;
+        for (int cell = 0; cell < board.getCellCount(); cell++) {
+            if (board.isEmpty(cell)) {
+                children[n++] = new Node(cell, toMove);
+            }
+        }
+        node.children = children;
+    }
+
+    private void simulate(Node root, HexBoard position, byte toMove, HexBoard scratch,
+                          Node[] path, int[] empties, SplittableRandom random) {
+        scratch.copyFrom(position);
+        int depth = 0;
+        path[depth++] = root;
+        synchronized (root) {
+            root.visits++;
+        }
+        Node node = root;
+        byte player = toMove;
+        byte winner = HexBoard.EMPTY;
+
+        // Selection and expansion
+        while (true) {
+            Node child;
+            synchronized (node) {
+                if (node.children == null) {
+                    if (node.visits < EXPAND_THRESHOLD) {
+                        break;
+                    }
+                    expand(node, scratch, player);
+                }
+                if (node.children.length == 0) {
+                    break;
+                }
+                child = select(node);
+            }
+            synchronized (child) {
+                child.visits++; // virtual loss until the result is added
+            }
+            scratch.play(child.move, player);
+            path[depth++] = child;
+            node = child;
+            player = HexBoard.opponent(player);
+            if ((winner = scratch.winner()) != HexBoard.EMPTY) {
+                break;
+            }
+        }
+
+        // Random playout; a full Hex board always has exactly one winner
+        if (winner == HexBoard.EMPTY) {
+            int n = 0;
+            for (int cell = 0; cell < scratch.getCellCount(); cell++) {
+                if (scratch.isEmpty(cell)) {
+                    empties[n++] = cell;
+                }
+            }
+            for (int i = 0; i < n && winner == HexBoard.EMPTY; i++) {
+                int j = i + random.nextInt(n - i);
+                int cell = empties[j];
+                empties[j] = empties[i];
+                scratch.play(cell, player);
+                player = HexBoard.opponent(player);
+                winner = scratch.winner();
+            }
+        }
+
+        // Backpropagation with AMAF updates for siblings played later by the same player
+        for (int i = 0; i < depth; i++) {
+            Node n = path[i];
+            synchronized (n) {
+                if (i > 0 && n.player == winner) {
+                    n.wins++;
+                }
+                if (n.children != null) {
+                    for (Node c : n.children) {
+                        if (scratch.get(c.move) == c.player) {
+                            c.raveVisits++;
+                            if (c.player == winner) {
+                                c.raveWins++;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static Node select(Node node) {
+        double logParent = Math.log(node.visits + 1);
+        Node best = null;
+        double bestValue = Double.NEGATIVE_INFINITY;
+        for (Node c : node.children) {
+            int n = c.visits;
+            double q = n > 0 ? c.wins / n : 0.5;
+            double amaf = c.raveVisits > 0 ? c.raveWins / c.raveVisits : 0.5;
+            double beta = Math.sqrt(RAVE_EQUIVALENCE / (3.0 * n + RAVE_EQUIVALENCE));
+            double value = (1 - beta) * q + beta * amaf + EXPLORATION * Math.sqrt(logParent / (n + 1));
+            if (value > bestValue) {
+                bestValue = value;
+                best = c;
+            }
+        }
+        return best;
+    }
+
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /** Usage: HexMcts [seconds]. Reports playouts/sec on empty 11x11 and 13x13 boards. */
+    public static void main(String[] args) {
+        long millis = (long) ((args.length > 0 ? Double.parseDouble(args[0]) : 3) * 1000);
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int size : new int[]{11, 13}) {
+            HexBoard board = new HexBoard(size);
+            for (int threads : cores == 1 ? new int[]{1} : new int[]{1, cores}) {
+                HexMcts mcts = new HexMcts(threads);
+                mcts.search(board, HexBoard.X, 500, 0);
+                Result result = mcts.search(board, HexBoard.X, millis, 0);
+                System.out.printf("%dx%d, %d thread(s): %s (row %d, col %d)%n", size, size, threads, result,
+                        result.getMove() / size, result.getMove() % size);
+                mcts.shutdown();
+            }
+        }
+    }
+}
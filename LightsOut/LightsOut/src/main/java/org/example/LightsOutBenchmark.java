@@ -0,0 +1,54 @@
+package org.example;
+
+import java.util.SplittableRandom;
+
+/**
+ * Times {@link LightsOutSolver} against board size. For each size it reports
+ * the one-off setup (chasing every top-row press and eliminating the matrix),
+ * the average time to solve a random solvable board, the nullity, and the
+ * average number of presses. Every solution is checked by playing it.
+ *
+ * Usage: java org.example.LightsOutBenchmark [size]...
+ * With no arguments it runs square boards from 5 to 1000.
+ */
+public class LightsOutBenchmark {
+
+    public static void main(String[] args) {
+        int[] sizes = {5, 10, 20, 50, 100, 200, 500, 1000};
+        if (args.length > 0) {
+            sizes = new int[args.length];
+            for (int i = 0; i < args.length; i++) {
+                sizes[i] = Integer.parseInt(args[i]);
+            }
+        }
+        SplittableRandom random = new SplittableRandom(1);
+        System.out.printf("%6s %10s %10s %8s %10s%n", "size", "setup ms", "solve ms", "nullity", "presses");
+        for (int size : sizes) {
+            long begin = System.nanoTime();
+            LightsOutSolver solver = new LightsOutSolver(size, size);
+            double setup = (System.nanoTime() - begin) / 1e6;
+
+            int boards = Math.max(3, Math.min(1000, 2_000_000 / (size * size)));
+            LightsOutBoard board = new LightsOutBoard(size, size);
+            long solving = 0, presses = 0;
+            for (int b = 0; b < boards; b++) {
+                board.randomize(random);
+                begin = System.nanoTime();
+                long[] solution = solver.solve(board);
+                solving += System.nanoTime() - begin;
+                if (solution == null) {
+                    throw new IllegalStateException("a random board made by pressing buttons had no solution");
+                }
+                for (long w : solution) {
+                    presses += Long.bitCount(w);
+                }
+                board.apply(solution);
+                if (!board.isDark()) {
+                    throw new IllegalStateException("solution for " + size + "x" + size + " left lights on");
+                }
+            }
+            System.out.printf("%6d %10.2f %10.3f %8d %10.1f%n", size, setup, solving / 1e6 / boards,
+                    solver.getNullity(), (double) presses / boards);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package org.example;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * A Lights Out board of any size. Each row is a bitset of its lights spread
+ * over {@link #words} longs, so pressing a whole row of buttons at once is a
+ * few shifts and XORs per word. Row r is words [r * words, (r + 1) * words),
+ * column c is bit c % 64 of word c / 64. Press patterns use the same layout.
+ */
+public final class LightsOutBoard {
+
+    final int rows;
+    final int cols;
+    final int words;
+    /** Bits of the last word of a row that are real columns. */
+    final long lastMask;
+    final long[] lights;
+
+    public LightsOutBoard(int rows, int cols) {
+        if (rows < 1 || cols < 1) {
+            throw new IllegalArgumentException("a board needs at least one row and one column");
+        }
+        this.rows = rows;
+        this.cols = cols;
+        words = (cols + 63) >>> 6;
+        lastMask = (cols & 63) == 0 ? -1L : (1L << cols) - 1;
+        lights = new long[rows * words];
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public boolean isOn(int row, int col) {
+        return (lights[row * words + (col >>> 6)] & 1L << col) != 0;
+    }
+
+    /** Toggles one light on its own, which is not a move. */
+    public void toggle(int row, int col) {
+        lights[row * words + (col >>> 6)] ^= 1L << col;
+    }
+
+    /** Presses a button: the light and its four neighbours toggle. */
+    public void press(int row, int col) {
+        toggle(row, col);
+        if (row > 0) toggle(row - 1, col);
+        if (row < rows - 1) toggle(row + 1, col);
+        if (col > 0) toggle(row, col - 1);
+        if (col < cols - 1) toggle(row, col + 1);
+    }
+
+    /** Presses every button set in a pattern, a row at a time. */
+    public void apply(long[] presses) {
+        for (int r = 0; r < rows; r++) {
+            int at = r * words;
+            spread(presses, at, lights, at, words, lastMask);
+            if (r > 0) {
+                xor(presses, at, lights, at - words, words);
+            }
+            if (r < rows - 1) {
+                xor(presses, at, lights, at + words, words);
+            }
+        }
+    }
+
+    public boolean isDark() {
+        for (long w : lights) {
+            if (w != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int countOn() {
+        int n = 0;
+        for (long w : lights) {
+            n += Long.bitCount(w);
+        }
+        return n;
+    }
+
+    public void clear() {
+        Arrays.fill(lights, 0);
+    }
+
+    /**
+     * Sets up a random board that can be solved. It starts dark and presses
+     * each button with probability one half, so it is the result of some moves.
+     */
+    public void randomize(SplittableRandom random) {
+        clear();
+        long[] presses = new long[rows * words];
+        for (int r = 0; r < rows; r++) {
+            for (int w = 0; w < words; w++) {
+                presses[r * words + w] = random.nextLong() & (w == words - 1 ? lastMask : -1L);
+            }
+        }
+        apply(presses);
+    }
+
+    /** dst ^= src, over one row. */
+    static void xor(long[] src, int from, long[] dst, int to, int words) {
+        for (int w = 0; w < words; w++) {
+            dst[to + w] ^= src[from + w];
+        }
+    }
+
+    /** dst ^= src with each bit also toggling its left and right neighbours, over one row. */
+    static void spread(long[] src, int from, long[] dst, int to, int words, long lastMask) {
+        for (int w = 0; w < words; w++) {
+            long bits = src[from + w];
+            long left = bits << 1 | (w > 0 ? src[from + w - 1] >>> 63 : 0);
+            long right = bits >>> 1 | (w < words - 1 ? src[from + w + 1] << 63 : 0);
+            long out = bits ^ left ^ right;
+            dst[to + w] ^= w == words - 1 ? out & lastMask : out;
+        }
+    }
+}
@@ -2,115 +2,155 @@ package org.example;
 
 import java.awt.*;
 import java.awt.event.*;
+import java.awt.image.BufferedImage;
+import java.util.SplittableRandom;
 import javax.swing.*;
 
 public class LightsOutGame extends JFrame {
-    private static final int GRID_SIZE = 5;
-    private static final int BUTTON_SIZE = 100;
-    private JButton[][] buttons;
-    private boolean[][] lightState; // True for ON, false for OFF
-
-    public LightsOutGame() {
-        setTitle("Lights Out Game");
-        setSize(GRID_SIZE * BUTTON_SIZE, GRID_SIZE * BUTTON_SIZE);
+    private static final int MAX_CELL_SIZE = 100;
+    private static final int MAX_BOARD_PIXELS = 800;
+    private static final int ON = Color.RED.getRGB();
+    private static final int OFF = Color.BLACK.getRGB();
+    private static final int ON_HINT = Color.ORANGE.getRGB();
+    private static final int OFF_HINT = new Color(0x40, 0x40, 0x90).getRGB();
+
+    private final LightsOutBoard board;
+    private final LightsOutSolver solver;
+    private final SplittableRandom random = new SplittableRandom();
+    // One pixel per cell, scaled up when painted, so even a 1000x1000 board paints in one call
+    private final BufferedImage image;
+    private final int cellSize;
+    private final BoardPanel panel;
+    private long[] hint; // Presses that would solve the board, when shown
+
+    public LightsOutGame(int rows, int cols) {
+        setTitle("Lights Out Game - " + rows + "x" + cols + " (H: hint, R: new board)");
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-        setLayout(new GridLayout(GRID_SIZE, GRID_SIZE));
-
-        buttons = new JButton[GRID_SIZE][GRID_SIZE];
-        lightState = new boolean[GRID_SIZE][GRID_SIZE];
-
-        // Initialize buttons and add action listeners
-        for (int i = 0; i < GRID_SIZE; i++) {
-            for (int j = 0; j < GRID_SIZE; j++) {
-                buttons[i][j] = new JButton();
-                buttons[i][j].setPreferredSize(new Dimension(BUTTON_SIZE, BUTTON_SIZE));
-                buttons[i][j].setBackground(Color.RED);
-                buttons[i][j].setOpaque(true);
-                buttons[i][j].addActionListener(new ButtonListener(i, j));
-                add(buttons[i][j]);
-                lightState[i][j] = true; // Initially, all lights are ON
-            }
-        }
 
+        board = new LightsOutBoard(rows, cols);
+        solver = new LightsOutSolver(rows, cols);
+        image = new BufferedImage(cols, rows, BufferedImage.TYPE_INT_RGB);
+        cellSize = Math.max(1, Math.min(MAX_CELL_SIZE, MAX_BOARD_PIXELS / Math.max(rows, cols)));
+
+        panel = new BoardPanel();
+        add(panel);
+        resetGame();
+        pack();
         setLocationRelativeTo(null);
         setVisible(true);
+        panel.requestFocusInWindow();
     }
 
-    // Action listener for the buttons
-    private class ButtonListener implements ActionListener {
-        private int x, y;
-
-        public ButtonListener(int x, int y) {
-            this.x = x;
-            this.y = y;
+    // Paints the board image and takes clicks and keys
+    private class BoardPanel extends JPanel {
+        BoardPanel() {
+            setPreferredSize(new Dimension(board.getCols() * cellSize, board.getRows() * cellSize));
+            setFocusable(true);
+            addMouseListener(new MouseAdapter() {
+                @Override
+                public void mousePressed(MouseEvent e) {
+                    int x = e.getY() / cellSize;
+                    int y = e.getX() / cellSize;
+                    if (x < board.getRows() && y < board.getCols()) {
+                        pressButton(x, y);
+                    }
+                }
+            });
+            addKeyListener(new KeyAdapter() {
+                @Override
+                public void keyPressed(KeyEvent e) {
+                    if (e.getKeyCode() == KeyEvent.VK_H) {
+                        toggleHint();
+                    } else if (e.getKeyCode() == KeyEvent.VK_R) {
+                        resetGame();
+                    }
+                }
+            });
         }
 
         @Override
-        public void actionPerformed(ActionEvent e) {
-            toggleLight(x, y);
-            if (x > 0) toggleLight(x - 1, y); // Toggle above
-            if (x < GRID_SIZE - 1) toggleLight(x + 1, y); // Toggle below
-            if (y > 0) toggleLight(x, y - 1); // Toggle left
-            if (y < GRID_SIZE - 1) toggleLight(x, y + 1); // Toggle right
-
-            checkWinCondition();
+        protected void paintComponent(Graphics g) {
+            super.paintComponent(g);
+            g.drawImage(image, 0, 0, board.getCols() * cellSize, board.getRows() * cellSize, null);
+            if (cellSize >= 8) {
+                g.setColor(Color.DARK_GRAY);
+                for (int i = 0; i <= board.getRows(); i++) {
+                    g.drawLine(0, i * cellSize, board.getCols() * cellSize, i * cellSize);
+                }
+                for (int j = 0; j <= board.getCols(); j++) {
+                    g.drawLine(j * cellSize, 0, j * cellSize, board.getRows() * cellSize);
+                }
+            }
         }
     }
 
-    private void toggleLight(int x, int y) {
-        lightState[x][y] = !lightState[x][y];
-        if (lightState[x][y]) {
-            buttons[x][y].setBackground(Color.RED); // ON state
+    private void pressButton(int x, int y) {
+        board.press(x, y);
+        if (hint != null) {
+            // Pressing twice cancels, so the hint stays a solution with this button flipped
+            hint[x * board.words + (y >>> 6)] ^= 1L << y;
+        }
+        for (int i = Math.max(0, x - 1); i <= Math.min(board.getRows() - 1, x + 1); i++) {
+            for (int j = Math.max(0, y - 1); j <= Math.min(board.getCols() - 1, y + 1); j++) {
+                updateCell(i, j);
+            }
+        }
+        panel.repaint();
+        checkWinCondition();
+    }
+
+    private void toggleHint() {
+        hint = hint == null ? solver.solve(board) : null;
+        updateAll();
+        panel.repaint();
+    }
+
+    private boolean isHinted(int x, int y) {
+        return hint != null && (hint[x * board.words + (y >>> 6)] & 1L << y) != 0;
+    }
+
+    private void updateCell(int x, int y) {
+        boolean hinted = isHinted(x, y);
+        if (board.isOn(x, y)) {
+            image.setRGB(y, x, hinted ? ON_HINT : ON); // ON state
         } else {
-            buttons[x][y].setBackground(Color.BLACK); // OFF state
+            image.setRGB(y, x, hinted ? OFF_HINT : OFF); // OFF state
         }
     }
 
-    private void checkWinCondition() {
-        boolean win = true;
-        for (int i = 0; i < GRID_SIZE; i++) {
-            for (int j = 0; j < GRID_SIZE; j++) {
-                if (lightState[i][j]) { // If any light is ON
-                    win = false;
-                    break;
-                }
+    private void updateAll() {
+        for (int i = 0; i < board.getRows(); i++) {
+            for (int j = 0; j < board.getCols(); j++) {
+                updateCell(i, j);
             }
         }
+    }
 
-        if (win) {
+    private void checkWinCondition() {
+        if (board.isDark()) {
             JOptionPane.showMessageDialog(this, "You Win!");
             resetGame();
         }
     }
 
+    // Start again from a random board, made by pressing random buttons so it can always be solved
     private void resetGame() {
-        for (int i = 0; i < GRID_SIZE; i++) {
-            for (int j = 0; j < GRID_SIZE; j++) {
-                lightState[i][j] = true; // Reset all lights to ON
-                buttons[i][j].setBackground(Color.RED);
-            }
-        }
+        do {
+            board.randomize(random);
+        } while (board.isDark());
+        hint = null;
+        updateAll();
+        panel.repaint();
     }
 
     public static void main(String[] args) {
-        // Optionally, randomize the initial state of the grid
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        int cols = args.length > 1 ? Integer.parseInt(args[1]) : rows;
         SwingUtilities.invokeLater(new Runnable() {
             @Override
             public void run() {
-                LightsOutGame game = new LightsOutGame();
-                game.randomizeGrid();
+                new LightsOutGame(rows, cols);
             }
         });
     }
-
-    private void randomizeGrid() {
-        // Randomize some lights to be off at the start of the game
-        for (int i = 0; i < GRID_SIZE; i++) {
-            for (int j = 0; j < GRID_SIZE; j++) {
-                if (Math.random() < 0.5) {
-                    toggleLight(i, j);
-                }
-            }
-        }
-    }
 }
\ No newline at end of file
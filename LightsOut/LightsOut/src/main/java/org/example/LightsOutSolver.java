@@ -0,0 +1,236 @@
+package org.example;
+
+import java.util.Arrays;
+
+/**
+ * Solves Lights Out boards of one size by linear algebra over GF(2), where
+ * pressing a button twice is the same as not pressing it and XOR is addition.
+ *
+ * Light chasing turns a rows x cols system into a cols x cols one. Once the
+ * top row's presses x are chosen, every light left on in a row can only be
+ * put out by pressing the button below it, so each later row's presses
+ * follow from the rows above:
+ *
+ *     p[r + 1] = lights[r] ^ p[r - 1] ^ spread(p[r])
+ *
+ * The board is solved when the row past the bottom, p[rows], comes out empty.
+ * p[rows] is an affine function of x: the effect of each top-row press is
+ * found by chasing it alone through an empty board, once per board size, and
+ * the constant part by chasing the board's lights with x = 0. Gaussian
+ * elimination of the cols x cols matrix, done once and kept as the
+ * transform it applied, then gives x for any board in O(cols^2 / 64), and a
+ * last chase gives every row's presses.
+ *
+ * Some sizes have boards with no solution (the matrix is singular) and
+ * several solutions for the rest. When there are few enough, the fewest
+ * presses among all of them are returned.
+ */
+public final class LightsOutSolver {
+
+    /** Largest number of free top-row presses whose combinations are all tried for the shortest solution. */
+    static final int MINIMISE_NULLITY = 12;
+
+    final int rows;
+    final int cols;
+    final int words;
+    final long lastMask;
+    /** Row i is equation i: the reduced matrix in words [0, words), the transform in [words, 2 * words). */
+    private final long[] reduced;
+    /** Column of row i's leading 1, or -1 if the row reduced to nothing. */
+    private final int[] pivot;
+    private final int rank;
+    /** Full press patterns that leave every board unchanged, one per free column. */
+    private final long[][] quietPatterns;
+
+    public LightsOutSolver(int rows, int cols) {
+        LightsOutBoard shape = new LightsOutBoard(rows, cols);
+        this.rows = rows;
+        this.cols = cols;
+        words = shape.words;
+        lastMask = shape.lastMask;
+
+        // Chase each top-row press through an empty board; column j of the matrix is where press j ends up in p[rows]
+        int stride = 2 * words;
+        reduced = new long[cols * stride];
+        long[] before = new long[words], current = new long[words], next = new long[words];
+        for (int j = 0; j < cols; j++) {
+            Arrays.fill(before, 0);
+            Arrays.fill(current, 0);
+            current[j >>> 6] = 1L << j;
+            for (int r = 0; r < rows; r++) {
+                System.arraycopy(before, 0, next, 0, words);
+                LightsOutBoard.spread(current, 0, next, 0, words, lastMask);
+                long[] t = before;
+                before = current;
+                current = next;
+                next = t;
+            }
+            for (int w = 0; w < words; w++) {
+                long bits = current[w];
+                while (bits != 0) {
+                    int i = w << 6 | Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    reduced[i * stride + (j >>> 6)] |= 1L << j;
+                }
+            }
+            reduced[j * stride + words + (j >>> 6)] |= 1L << j;
+        }
+
+        // Reduced row echelon form, carrying the identity along to record the transform
+        pivot = new int[cols];
+        Arrays.fill(pivot, -1);
+        int r = 0;
+        for (int col = 0; col < cols && r < cols; col++) {
+            int word = col >>> 6;
+            long bit = 1L << col;
+            int found = r;
+            while (found < cols && (reduced[found * stride + word] & bit) == 0) {
+                found++;
+            }
+            if (found == cols) {
+                continue;
+            }
+            if (found != r) {
+                for (int w = 0; w < stride; w++) {
+                    long t = reduced[r * stride + w];
+                    reduced[r * stride + w] = reduced[found * stride + w];
+                    reduced[found * stride + w] = t;
+                }
+            }
+            for (int i = 0; i < cols; i++) {
+                if (i != r && (reduced[i * stride + word] & bit) != 0) {
+                    // Columns before word are already clear in both rows
+                    for (int w = word; w < stride; w++) {
+                        reduced[i * stride + w] ^= reduced[r * stride + w];
+                    }
+                }
+            }
+            pivot[r++] = col;
+        }
+        rank = r;
+
+        // Each free column gives a top row that chases out to nothing
+        int nullity = cols - rank;
+        quietPatterns = new long[nullity <= MINIMISE_NULLITY ? nullity : 0][];
+        if (quietPatterns.length > 0) {
+            boolean[] isPivot = new boolean[cols];
+            for (int i = 0; i < rank; i++) {
+                isPivot[pivot[i]] = true;
+            }
+            int q = 0;
+            for (int free = 0; free < cols; free++) {
+                if (isPivot[free]) {
+                    continue;
+                }
+                long[] top = new long[words];
+                top[free >>> 6] |= 1L << free;
+                for (int i = 0; i < rank; i++) {
+                    if ((reduced[i * stride + (free >>> 6)] & 1L << free) != 0) {
+                        top[pivot[i] >>> 6] |= 1L << pivot[i];
+                    }
+                }
+                quietPatterns[q++] = chase(null, top);
+            }
+        }
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    /** The number of free top-row presses: there are 2^nullity solutions to each solvable board. */
+    public int getNullity() {
+        return cols - rank;
+    }
+
+    public boolean isSolvable(LightsOutBoard board) {
+        return solve(board) != null;
+    }
+
+    /**
+     * A press pattern that turns every light off, in the board's row layout,
+     * or null if there is none. With few enough solutions it has the fewest presses.
+     */
+    public long[] solve(LightsOutBoard board) {
+        if (board.rows != rows || board.cols != cols) {
+            throw new IllegalArgumentException("solver is for " + rows + "x" + cols + " boards");
+        }
+        // The constant part of p[rows]: chase the lights with nothing pressed on top
+        long[] presses = chase(board.lights, new long[words]);
+        long[] target = Arrays.copyOfRange(presses, rows * words, (rows + 1) * words);
+
+        // Apply the transform to the target: the matrix times x must cancel it
+        int stride = 2 * words;
+        long[] top = new long[words];
+        for (int i = 0; i < cols; i++) {
+            int parity = 0;
+            for (int w = 0; w < words; w++) {
+                parity ^= Long.bitCount(reduced[i * stride + words + w] & target[w]) & 1;
+            }
+            if (i >= rank) {
+                if (parity != 0) {
+                    return null;
+                }
+            } else if (parity != 0) {
+                top[pivot[i] >>> 6] |= 1L << pivot[i];
+            }
+        }
+        long[] solution = chase(board.lights, top);
+        solution = Arrays.copyOf(solution, rows * words);
+        if (quietPatterns.length > 0) {
+            solution = fewestPresses(solution);
+        }
+        return solution;
+    }
+
+    /**
+     * Presses for rows 0 to rows, row 0 being top, by chasing the lights
+     * (none if null) down the board. Row rows is empty when the board is solved.
+     */
+    private long[] chase(long[] lights, long[] top) {
+        long[] p = new long[(rows + 1) * words];
+        System.arraycopy(top, 0, p, 0, words);
+        for (int r = 0; r < rows; r++) {
+            int next = (r + 1) * words;
+            if (lights != null) {
+                LightsOutBoard.xor(lights, r * words, p, next, words);
+            }
+            if (r > 0) {
+                LightsOutBoard.xor(p, (r - 1) * words, p, next, words);
+            }
+            LightsOutBoard.spread(p, r * words, p, next, words, lastMask);
+        }
+        return p;
+    }
+
+    /** Tries every combination of the quiet patterns, in Gray code order, and keeps the fewest presses. */
+    private long[] fewestPresses(long[] solution) {
+        long[] current = solution.clone();
+        long[] best = solution;
+        int bestCount = count(solution);
+        for (int i = 1; i < 1 << quietPatterns.length; i++) {
+            long[] flip = quietPatterns[Integer.numberOfTrailingZeros(i)];
+            for (int w = 0; w < current.length; w++) {
+                current[w] ^= flip[w];
+            }
+            int n = count(current);
+            if (n < bestCount) {
+                bestCount = n;
+                best = current.clone();
+            }
+        }
+        return best;
+    }
+
+    private static int count(long[] bits) {
+        int n = 0;
+        for (long w : bits) {
+            n += Long.bitCount(w);
+        }
+        return n;
+    }
+}
@@ -0,0 +1,303 @@
+package org.example;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * A match-3 board kept as one byte per cell, cell i being row i / cols and
+ * column i % cols, with row 0 at the top.
+ *
+ * A swap only looks for runs through the two swapped cells. Matched cells are
+ * removed by compacting each affected column downwards and dropping new tiles
+ * in at the top, and the next pass of the cascade only looks at the cells that
+ * moved or were added. The board never holds a match between swaps: a new
+ * board is dealt without any, and every cascade runs until none is left.
+ */
+public final class Match3Engine {
+
+    /** A swap with the cell to the right. */
+    public static final int RIGHT = 0;
+    /** A swap with the cell below. */
+    public static final int DOWN = 1;
+
+    final int rows;
+    final int cols;
+    final int types;
+    final byte[] tiles;
+
+    private final SplittableRandom random;
+    private final int[] marked;
+    private final int[] markStamp;
+    private final int[] dirty;
+    private final int[] lowestMarked;
+    private int stamp;
+    private int markedCount;
+
+    private int lastCascades;
+    private int lastCleared;
+
+    public Match3Engine(int rows, int cols, int types, long seed) {
+        if (types < 3) {
+            throw new IllegalArgumentException("need at least 3 tile types to deal a board without matches");
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.types = types;
+        int cells = rows * cols;
+        tiles = new byte[cells];
+        random = new SplittableRandom(seed);
+        marked = new int[cells];
+        markStamp = new int[cells];
+        dirty = new int[cells];
+        lowestMarked = new int[cols];
+        deal();
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public int get(int row, int col) {
+        return tiles[row * cols + col];
+    }
+
+    /** Cascade passes in the last successful swap; the first match counts as one. */
+    public int getLastCascades() {
+        return lastCascades;
+    }
+
+    /** Tiles cleared over all passes of the last successful swap. */
+    public int getLastCleared() {
+        return lastCleared;
+    }
+
+    /**
+     * Swaps two neighbouring cells and resolves the cascade. If neither cell
+     * ends up in a run of three, the swap is undone.
+     *
+     * @return tiles cleared, 0 if the swap made no match
+     */
+    public int swap(int row1, int col1, int row2, int col2) {
+        if (Math.abs(row1 - row2) + Math.abs(col1 - col2) != 1) {
+            throw new IllegalArgumentException("cells are not neighbours");
+        }
+        int a = row1 * cols + col1, b = row2 * cols + col2;
+        if (tiles[a] == tiles[b]) {
+            return 0;
+        }
+        exchange(a, b);
+        if (!matchesAt(a) && !matchesAt(b)) {
+            exchange(a, b);
+            return 0;
+        }
+        dirty[0] = a;
+        dirty[1] = b;
+        resolve(2);
+        return lastCleared;
+    }
+
+    /**
+     * Every swap that would make a match, as cell * 2 + {@link #RIGHT} or
+     * {@link #DOWN}.
+     *
+     * @return number of swaps written to out, which needs 2 * rows * cols room
+     */
+    public int findSwaps(int[] out) {
+        int n = 0;
+        for (int cell = 0; cell < tiles.length; cell++) {
+            if (cell % cols + 1 < cols && wouldMatch(cell, cell + 1)) {
+                out[n++] = cell << 1 | RIGHT;
+            }
+            if (cell + cols < tiles.length && wouldMatch(cell, cell + cols)) {
+                out[n++] = cell << 1 | DOWN;
+            }
+        }
+        return n;
+    }
+
+    /** True if no swap makes a match. */
+    public boolean isDeadlocked() {
+        for (int cell = 0; cell < tiles.length; cell++) {
+            if (cell % cols + 1 < cols && wouldMatch(cell, cell + 1)
+                    || cell + cols < tiles.length && wouldMatch(cell, cell + cols)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Reshuffles the tiles in place until there is no match and at least one move. */
+    public void shuffle() {
+        do {
+            for (int i = tiles.length - 1; i > 0; i--) {
+                exchange(i, random.nextInt(i + 1));
+            }
+        } while (hasAnyMatch() || isDeadlocked());
+    }
+
+    /** Deals a fresh board with no match on it and at least one move. */
+    public void deal() {
+        do {
+            for (int cell = 0; cell < tiles.length; cell++) {
+                int type;
+                do {
+                    type = random.nextInt(types);
+                } while (closesRun(cell, type));
+                tiles[cell] = (byte) type;
+            }
+        } while (isDeadlocked());
+    }
+
+    /** Whether placing type at cell would complete a run with the two cells to its left or above. */
+    private boolean closesRun(int cell, int type) {
+        int col = cell % cols;
+        return col >= 2 && tiles[cell - 1] == type && tiles[cell - 2] == type
+                || cell >= 2 * cols && tiles[cell - cols] == type && tiles[cell - 2 * cols] == type;
+    }
+
+    private boolean wouldMatch(int a, int b) {
+        if (tiles[a] == tiles[b]) {
+            return false;
+        }
+        exchange(a, b);
+        boolean match = matchesAt(a) || matchesAt(b);
+        exchange(a, b);
+        return match;
+    }
+
+    private boolean hasAnyMatch() {
+        for (int cell = 0; cell < tiles.length; cell++) {
+            if (matchesAt(cell)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void exchange(int a, int b) {
+        byte t = tiles[a];
+        tiles[a] = tiles[b];
+        tiles[b] = t;
+    }
+
+    private boolean matchesAt(int cell) {
+        int col = cell % cols;
+        return rowRunStart(cell, col) + 2 <= rowRunEnd(cell, col) || columnRunStart(cell) + 2 * cols <= columnRunEnd(cell);
+    }
+
+    private int rowRunStart(int cell, int col) {
+        byte t = tiles[cell];
+        int start = cell;
+        for (int c = col; c > 0 && tiles[start - 1] == t; c--) {
+            start--;
+        }
+        return start;
+    }
+
+    private int rowRunEnd(int cell, int col) {
+        byte t = tiles[cell];
+        int end = cell;
+        for (int c = col; c + 1 < cols && tiles[end + 1] == t; c++) {
+            end++;
+        }
+        return end;
+    }
+
+    private int columnRunStart(int cell) {
+        byte t = tiles[cell];
+        int start = cell;
+        while (start >= cols && tiles[start - cols] == t) {
+            start -= cols;
+        }
+        return start;
+    }
+
+    private int columnRunEnd(int cell) {
+        byte t = tiles[cell];
+        int end = cell;
+        while (end + cols < tiles.length && tiles[end + cols] == t) {
+            end += cols;
+        }
+        return end;
+    }
+
+    private void mark(int cell) {
+        if (markStamp[cell] != stamp) {
+            markStamp[cell] = stamp;
+            marked[markedCount++] = cell;
+        }
+    }
+
+    /** Marks every run of three or more through the first count cells of the dirty list. */
+    private void markRuns(int count) {
+        if (++stamp == 0) {
+            Arrays.fill(markStamp, 0);
+            stamp = 1;
+        }
+        markedCount = 0;
+        for (int i = 0; i < count; i++) {
+            // A cell already marked by a row run may still start a column run, so check both
+            int cell = dirty[i];
+            int col = cell % cols;
+            int start = rowRunStart(cell, col), end = rowRunEnd(cell, col);
+            if (end - start >= 2) {
+                for (int c = start; c <= end; c++) {
+                    mark(c);
+                }
+            }
+            start = columnRunStart(cell);
+            end = columnRunEnd(cell);
+            if (end - start >= 2 * cols) {
+                for (int c = start; c <= end; c += cols) {
+                    mark(c);
+                }
+            }
+        }
+    }
+
+    private void resolve(int dirtyCount) {
+        lastCascades = 0;
+        lastCleared = 0;
+        while (true) {
+            markRuns(dirtyCount);
+            if (markedCount == 0) {
+                return;
+            }
+            lastCascades++;
+            lastCleared += markedCount;
+
+            Arrays.fill(lowestMarked, -1);
+            for (int i = 0; i < markedCount; i++) {
+                int cell = marked[i];
+                int col = cell % cols;
+                lowestMarked[col] = Math.max(lowestMarked[col], cell / cols);
+            }
+            // Each column with a gap drops its survivors down, refills from the
+            // top, and everything from its lowest gap upwards is checked next pass
+            dirtyCount = 0;
+            for (int col = 0; col < cols; col++) {
+                int lowest = lowestMarked[col];
+                if (lowest < 0) {
+                    continue;
+                }
+                int write = lowest * cols + col;
+                for (int read = write; read >= 0; read -= cols) {
+                    if (markStamp[read] != stamp) {
+                        tiles[write] = tiles[read];
+                        write -= cols;
+                    }
+                }
+                for (; write >= 0; write -= cols) {
+                    tiles[write] = (byte) random.nextInt(types);
+                }
+                for (int cell = lowest * cols + col; cell >= 0; cell -= cols) {
+                    dirty[dirtyCount++] = cell;
+                }
+            }
+        }
+    }
+}
@@ -6,20 +6,23 @@ public class Match3Game {
     static final int ROWS = 8;
     static final int COLS = 8;
     static final int NUM_TYPES = 5; // Number of different tile types
-    static Tile[][] board = new Tile[ROWS][COLS];
+    static Match3Engine board = new Match3Engine(ROWS, COLS, NUM_TYPES, System.nanoTime());
     static Scanner scanner = new Scanner(System.in);
 
     public static void main(String[] args) {
-        initializeBoard();
         displayBoard();
 
         while (true) {
-            System.out.println("\nEnter a swap (row1 col1 row2 col2) or 'exit' to quit:");
+            System.out.println("\nEnter a swap (row1 col1 row2 col2), 'hint' or 'exit' to quit:");
             String input = scanner.nextLine();
             if (input.equals("exit")) {
                 System.out.println("Game Over!");
                 break;
             }
+            if (input.equals("hint")) {
+                showHint();
+                continue;
+            }
 
             String[] tokens = input.split(" ");
             if (tokens.length == 4) {
@@ -29,13 +32,16 @@ public class Match3Game {
                 int col2 = Integer.parseInt(tokens[3]);
 
                 if (isValidSwap(row1, col1, row2, col2)) {
-                    swapTiles(row1, col1, row2, col2);
-                    if (checkMatches()) {
-                        removeMatches();
-                        fillBoard();
+                    // The engine swaps back by itself if nothing matches
+                    int cleared = board.swap(row1, col1, row2, col2);
+                    if (cleared > 0) {
+                        System.out.println("Cleared " + cleared + " tiles in " + board.getLastCascades() + " cascade(s)");
+                        if (board.isDeadlocked()) {
+                            System.out.println("No moves left, shuffling");
+                            board.shuffle();
+                        }
                     } else {
-                        // Swap back if no match
-                        swapTiles(row1, col1, row2, col2);
+                        System.out.println("No match!");
                     }
                 } else {
                     System.out.println("Invalid swap! Try again.");
@@ -45,12 +51,16 @@ public class Match3Game {
         }
     }
 
-    // Initialize the board with random tiles
-    public static void initializeBoard() {
-        for (int i = 0; i < ROWS; i++) {
-            for (int j = 0; j < COLS; j++) {
-                board[i][j] = new Tile(randomTileType());
-            }
+    // Print one swap that makes a match
+    public static void showHint() {
+        int[] swaps = new int[2 * ROWS * COLS];
+        int n = board.findSwaps(swaps);
+        int cell = swaps[0] >> 1;
+        int row = cell / COLS, col = cell % COLS;
+        if ((swaps[0] & 1) == Match3Engine.RIGHT) {
+            System.out.println("Hint: " + row + " " + col + " " + row + " " + (col + 1) + " (" + n + " moves available)");
+        } else {
+            System.out.println("Hint: " + row + " " + col + " " + (row + 1) + " " + col + " (" + n + " moves available)");
         }
     }
 
@@ -58,121 +68,17 @@ public class Match3Game {
     public static void displayBoard() {
         for (int i = 0; i < ROWS; i++) {
             for (int j = 0; j < COLS; j++) {
-                System.out.print(board[i][j] + " ");
+                System.out.print(board.get(i, j) + " ");
             }
             System.out.println();
         }
     }
 
-    // Check if the swap is valid (adjacent tiles)
+    // Check if the swap is valid (adjacent tiles on the board)
     public static boolean isValidSwap(int row1, int col1, int row2, int col2) {
-        return (Math.abs(row1 - row2) == 1 && col1 == col2) || (Math.abs(col1 - col2) == 1 && row1 == row2);
-    }
-
-    // Swap the tiles on the board
-    public static void swapTiles(int row1, int col1, int row2, int col2) {
-        Tile temp = board[row1][col1];
-        board[row1][col1] = board[row2][col2];
-        board[row2][col2] = temp;
-    }
-
-    // Check if there are any matching tiles in rows or columns
-    public static boolean checkMatches() {
-        boolean hasMatch = false;
-
-        // Check rows
-        for (int i = 0; i < ROWS; i++) {
-            for (int j = 0; j < COLS - 2; j++) {
-                if (board[i][j].getType() == board[i][j + 1].getType() && board[i][j].getType() == board[i][j + 2].getType()) {
-                    hasMatch = true;
-                }
-            }
-        }
-
-        // Check columns
-        for (int j = 0; j < COLS; j++) {
-            for (int i = 0; i < ROWS - 2; i++) {
-                if (board[i][j].getType() == board[i + 1][j].getType() && board[i][j].getType() == board[i + 2][j].getType()) {
-                    hasMatch = true;
-                }
-            }
-        }
-
-        return hasMatch;
-    }
-
-    // Remove matched tiles
-    public static void removeMatches() {
-        // Mark tiles for removal
-        boolean[][] toRemove = new boolean[ROWS][COLS];
-
-        // Check rows for matches
-        for (int i = 0; i < ROWS; i++) {
-            for (int j = 0; j < COLS - 2; j++) {
-                if (board[i][j].getType() == board[i][j + 1].getType() && board[i][j].getType() == board[i][j + 2].getType()) {
-                    toRemove[i][j] = toRemove[i][j + 1] = toRemove[i][j + 2] = true;
-                }
-            }
-        }
-
-        // Check columns for matches
-        for (int j = 0; j < COLS; j++) {
-            for (int i = 0; i < ROWS - 2; i++) {
-                if (board[i][j].getType() == board[i + 1][j].getType() && board[i][j].getType() == board[i + 2][j].getType()) {
-                    toRemove[i][j] = toRemove[i + 1][j] = toRemove[i + 2][j] = true;
-                }
-            }
+        if (row1 < 0 || row1 >= ROWS || row2 < 0 || row2 >= ROWS || col1 < 0 || col1 >= COLS || col2 < 0 || col2 >= COLS) {
+            return false;
         }
-
-        // Remove matched tiles
-        for (int i = 0; i < ROWS; i++) {
-            for (int j = 0; j < COLS; j++) {
-                if (toRemove[i][j]) {
-                    board[i][j] = new Tile(randomTileType());
-                }
-            }
-        }
-    }
-
-    // Fill the board with new tiles after removal
-    public static void fillBoard() {
-        for (int i = 0; i < ROWS; i++) {
-            for (int j = 0; j < COLS; j++) {
-                if (board[i][j] == null || board[i][j].getType() == null) {
-                    board[i][j] = new Tile(randomTileType());
-                }
-            }
-        }
-    }
-
-    // Get a random tile type
-    public static int randomTileType() {
-        return (int) (Math.random() * NUM_TYPES);
-    }
-}
-2.
-
-Tile Class(e.g ., Tile.java)
-
-java
-        Kopieren
-
-public static class Tile {
-    private int type;
-
-    public Tile(int type) {
-        this.type = type;
-    }
-
-    public int getType() {
-        return type;
-    }
-
-    @Override
-    public String toString() {
-        return String.valueOf(type);
+        return (Math.abs(row1 - row2) == 1 && col1 == col2) || (Math.abs(col1 - col2) == 1 && row1 == row2);
     }
 }
-
-public void main() {
-}
@@ -0,0 +1,84 @@
+package org.example;
+
+import java.util.SplittableRandom;
+
+/**
+ * Plays random swaps on a {@link Match3Engine} with no display and reports how
+ * many made a match, how deep the cascades went, how many tiles they cleared
+ * and how often the board deadlocked and had to be shuffled. Each swap picks a
+ * random cell and a random neighbour to the right or below.
+ *
+ * Usage: java org.example.Match3Simulator [swaps] [rows] [cols] [types] [seed]
+ */
+public class Match3Simulator {
+
+    static final int MAX_DEPTH = 10;
+
+    public static void main(String[] args) {
+        long swaps = args.length > 0 ? Long.parseLong(args[0]) : 5_000_000;
+        int rows = args.length > 1 ? Integer.parseInt(args[1]) : Match3Game.ROWS;
+        int cols = args.length > 2 ? Integer.parseInt(args[2]) : Match3Game.COLS;
+        int types = args.length > 3 ? Integer.parseInt(args[3]) : Match3Game.NUM_TYPES;
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : 1;
+
+        checkCascadeShapes();
+        Match3Engine engine = new Match3Engine(rows, cols, types, seed);
+        SplittableRandom random = new SplittableRandom(seed + 1);
+        long matched = 0, cleared = 0, deadlocks = 0;
+        long[] depthCount = new long[MAX_DEPTH + 1];
+        long begin = System.nanoTime();
+        for (long s = 0; s < swaps; s++) {
+            // Any cell but the bottom-right one has a neighbour to the right or below
+            int cell = random.nextInt(rows * cols - 1);
+            int row = cell / cols, col = cell % cols;
+            boolean right = row + 1 == rows || col + 1 < cols && random.nextBoolean();
+            int n = right ? engine.swap(row, col, row, col + 1) : engine.swap(row, col, row + 1, col);
+            if (n == 0) {
+                continue;
+            }
+            matched++;
+            cleared += n;
+            depthCount[Math.min(engine.getLastCascades(), MAX_DEPTH)]++;
+            if (engine.isDeadlocked()) {
+                deadlocks++;
+                engine.shuffle();
+            }
+        }
+        double seconds = (System.nanoTime() - begin) / 1e9;
+
+        System.out.printf("%dx%d board, %d types: %d swaps in %.2f s, %.2f M swaps/sec%n",
+                rows, cols, types, swaps, seconds, swaps / seconds / 1e6);
+        System.out.printf("%d matched (%.1f%%), %.2f tiles cleared per match, %d deadlocks%n",
+                matched, 100.0 * matched / swaps, (double) cleared / Math.max(1, matched), deadlocks);
+        System.out.println("cascade passes  matches");
+        for (int depth = 1; depth <= MAX_DEPTH; depth++) {
+            if (depthCount[depth] > 0) {
+                System.out.printf("%14s  %7.3f%%%n", depth == MAX_DEPTH ? MAX_DEPTH + "+" : String.valueOf(depth),
+                        100.0 * depthCount[depth] / matched);
+            }
+        }
+    }
+
+    /**
+     * Plays a swap whose first match drops tiles into an L: a row of three
+     * whose right end is the top of a column of three that did not move. Both
+     * legs must go in the second pass. Throws if they do not.
+     */
+    static void checkCascadeShapes() {
+        // 0-3 are tile types; swapping (3,0) with (4,0) makes an L of 1s, and the 0s fall into a second L
+        byte[] layout = {
+                0, 3, 2,
+                1, 2, 3,
+                1, 0, 0,
+                2, 1, 1,
+                1, 3, 0,
+                3, 2, 0};
+        Match3Engine engine = new Match3Engine(6, 3, 4, 2);
+        System.arraycopy(layout, 0, engine.tiles, 0, layout.length);
+        int cleared = engine.swap(3, 0, 4, 0);
+        if (cleared != 10 || engine.getLastCascades() != 2) {
+            throw new IllegalStateException("L-shaped cascade cleared " + cleared + " tiles in "
+                    + engine.getLastCascades() + " passes, expected 10 in 2");
+        }
+    }
+}
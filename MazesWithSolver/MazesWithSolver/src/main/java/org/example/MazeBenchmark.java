@@ -0,0 +1,50 @@
+package org.example;
+
+import java.util.Random;
+
+/**
+ * Reports cells/sec for every generator and every solver on a large maze, and
+ * for Eller's algorithm streaming a much larger maze without storing it.
+ * Usage: MazeBenchmark [rooms per side] [streamed rooms per side]
+ */
+public class MazeBenchmark {
+
+    public static void main(String[] args) {
+        int rooms = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int streamedRooms = args.length > 1 ? Integer.parseInt(args[1]) : 10000;
+        Random random = new Random(42);
+
+        for (int round = 0; round < 2; round++) {
+            String label = round == 0 ? "warm-up " : "";
+            for (MazeGenerator.Algorithm algorithm : MazeGenerator.Algorithm.values()) {
+                long start = System.nanoTime();
+                MazeGrid grid = MazeGenerator.generate(algorithm, rooms, rooms, random);
+                double seconds = (System.nanoTime() - start) / 1e9;
+                System.out.printf("%s%-7s %dx%d grid: %.2f s, %.1f M cells/sec%n", label, algorithm,
+                        grid.getRows(), grid.getCols(), seconds, grid.getCellCount() / seconds / 1e6);
+
+                MazePathfinder pathfinder = new MazePathfinder(grid);
+                int goal = grid.getCellCount() - 1;
+                for (MazePathfinder.Algorithm solver : MazePathfinder.Algorithm.values()) {
+                    MazePathfinder.Result result = pathfinder.solve(solver, 0, goal);
+                    double solveSeconds = result.getElapsedNanos() / 1e9;
+                    System.out.printf("%s    %-17s %s, %.1f M cells/sec (%.1f M expanded/sec)%n", label, solver,
+                            result, grid.getCellCount() / solveSeconds / 1e6, result.getExpanded() / solveSeconds / 1e6);
+                }
+            }
+        }
+
+        // Streamed: rows are counted and dropped, memory stays O(width)
+        long[] openCells = new long[1];
+        long start = System.nanoTime();
+        MazeGenerator.eller(streamedRooms, streamedRooms, random, (row, bits) -> {
+            for (long word : bits) {
+                openCells[0] += Long.bitCount(word);
+            }
+        });
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long cells = (2L * streamedRooms - 1) * (2L * streamedRooms - 1);
+        System.out.printf("ELLER streamed %dx%d rooms: %.2f s, %.1f M cells/sec, %d open cells%n",
+                streamedRooms, streamedRooms, seconds, cells / seconds / 1e6, openCells[0]);
+    }
+}
@@ -0,0 +1,237 @@
+package org.example;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Perfect-maze generators over a {@link MazeGrid}. All of them work on room
+ * indices ({@code roomRow * roomCols + roomCol}) with primitive arrays only, so
+ * mazes of millions of rooms don't allocate per step.
+ *
+ * <ul>
+ *   <li>DFS: recursive backtracker with an explicit int stack; long winding corridors.</li>
+ *   <li>WILSON: loop-erased random walks; a uniform spanning tree, no directional bias.</li>
+ *   <li>ELLER: one room row at a time with set labels for that row only, so it can
+ *       stream mazes of any height through a {@link RowSink} in O(width) memory.</li>
+ * </ul>
+ */
+public final class MazeGenerator {
+
+    public enum Algorithm {
+        DFS, WILSON, ELLER
+    }
+
+    /** Receives the grid rows of a streamed maze in order, as bit sets over the columns. */
+    public interface RowSink {
+        void row(int gridRow, long[] bits);
+    }
+
+    private MazeGenerator() {
+    }
+
+    public static MazeGrid generate(Algorithm algorithm, int roomRows, int roomCols, Random random) {
+        MazeGrid grid = MazeGrid.forRooms(roomRows, roomCols);
+        switch (algorithm) {
+            case DFS:
+                depthFirst(grid, roomRows, roomCols, random);
+                break;
+            case WILSON:
+                wilson(grid, roomRows, roomCols, random);
+                break;
+            default:
+                eller(roomRows, roomCols, random, grid::openRow);
+                break;
+        }
+        return grid;
+    }
+
+    private static int cellOf(MazeGrid grid, int room, int roomCols) {
+        return grid.index(room / roomCols * 2, room % roomCols * 2);
+    }
+
+    /** Opens two neighbouring rooms and the wall cell between them. */
+    private static void carve(MazeGrid grid, int room, int next, int roomCols) {
+        int a = cellOf(grid, room, roomCols), b = cellOf(grid, next, roomCols);
+        grid.open(a);
+        grid.open((a + b) >>> 1);
+        grid.open(b);
+    }
+
+    static void depthFirst(MazeGrid grid, int roomRows, int roomCols, Random random) {
+        int[] stack = new int[roomRows * roomCols];
+        int[] candidates = new int[4];
+        int top = 0;
+        stack[top++] = 0;
+        grid.open(0);
+        while (top > 0) {
+            int room = stack[top - 1];
+            int r = room / roomCols, c = room % roomCols;
+            int n = 0;
+            // a room is visited exactly when its grid cell is open
+            if (r > 0 && !grid.isOpen(cellOf(grid, room - roomCols, roomCols))) {
+                candidates[n++] = room - roomCols;
+            }
+            if (r < roomRows - 1 && !grid.isOpen(cellOf(grid, room + roomCols, roomCols))) {
+                candidates[n++] = room + roomCols;
+            }
+            if (c > 0 && !grid.isOpen(cellOf(grid, room - 1, roomCols))) {
+                candidates[n++] = room - 1;
+            }
+            if (c < roomCols - 1 && !grid.isOpen(cellOf(grid, room + 1, roomCols))) {
+                candidates[n++] = room + 1;
+            }
+            if (n == 0) {
+                top--;
+            } else {
+                int next = candidates[random.nextInt(n)];
+                carve(grid, room, next, roomCols);
+                stack[top++] = next;
+            }
+        }
+    }
+
+    static void wilson(MazeGrid grid, int roomRows, int roomCols, Random random) {
+        int rooms = roomRows * roomCols;
+        // last exit taken from each room during the current walk; later visits overwrite
+        // earlier ones, which is what erases the loops
+        int[] exit = new int[rooms];
+        int remaining = rooms - 1;
+        grid.open(cellOf(grid, random.nextInt(rooms), roomCols));
+        for (int start = 0; remaining > 0; start++) {
+            if (grid.isOpen(cellOf(grid, start, roomCols))) {
+                continue;
+            }
+            int room = start;
+            while (!grid.isOpen(cellOf(grid, room, roomCols))) {
+                int next = randomNeighbour(room, roomRows, roomCols, random);
+                exit[room] = next;
+                room = next;
+            }
+            // retrace the loop-erased walk; carving also opens the next room, so test it first
+            for (room = start; ; room = exit[room]) {
+                boolean reachesTree = grid.isOpen(cellOf(grid, exit[room], roomCols));
+                carve(grid, room, exit[room], roomCols);
+                remaining--;
+                if (reachesTree) {
+                    break;
+                }
+            }
+        }
+    }
+
+    private static int randomNeighbour(int room, int roomRows, int roomCols, Random random) {
+        int r = room / roomCols, c = room % roomCols;
+        while (true) {
+            switch (random.nextInt(4)) {
+                case 0:
+                    if (r > 0) {
+                        return room - roomCols;
+                    }
+                    break;
+                case 1:
+                    if (r < roomRows - 1) {
+                        return room + roomCols;
+                    }
+                    break;
+                case 2:
+                    if (c > 0) {
+                        return room - 1;
+                    }
+                    break;
+                default:
+                    if (c < roomCols - 1) {
+                        return room + 1;
+                    }
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Eller's algorithm. Rooms of the current row carry set labels in [0, 2 * roomCols):
+     * rooms connected to the row above keep a label below roomCols, fresh rooms get
+     * roomCols + column. Joins within a row use a union-find over those labels.
+     */
+    public static void eller(int roomRows, int roomCols, Random random, RowSink sink) {
+        int width = 2 * roomCols - 1;
+        int words = (width + 63) >>> 6;
+        int[] label = new int[roomCols];
+        int[] parent = new int[2 * roomCols];
+        int[] setSize = new int[2 * roomCols];
+        int[] relabel = new int[2 * roomCols];
+        boolean[] down = new boolean[roomCols];
+        boolean[] setGoesDown = new boolean[2 * roomCols];
+        long[] roomRow = new long[words];
+        long[] wallRow = new long[words];
+        for (int c = 0; c < roomCols; c++) {
+            label[c] = roomCols + c;
+        }
+        for (int r = 0; r < roomRows; r++) {
+            boolean last = r == roomRows - 1;
+            Arrays.fill(roomRow, 0);
+            Arrays.fill(wallRow, 0);
+            for (int i = 0; i < parent.length; i++) {
+                parent[i] = i;
+            }
+            for (int c = 0; c < roomCols; c++) {
+                setBit(roomRow, 2 * c);
+            }
+            // join neighbours of different sets; on the last row join all of them
+            for (int c = 0; c < roomCols - 1; c++) {
+                int a = find(parent, label[c]), b = find(parent, label[c + 1]);
+                if (a != b && (last || random.nextBoolean())) {
+                    parent[b] = a;
+                    setBit(roomRow, 2 * c + 1);
+                }
+            }
+            if (last) {
+                sink.row(2 * r, roomRow);
+                break;
+            }
+            // every set sends at least one room down: its last room goes if none has yet
+            for (int c = 0; c < roomCols; c++) {
+                int s = find(parent, label[c]);
+                label[c] = s;
+                setSize[s] = 0;
+                setGoesDown[s] = false;
+            }
+            for (int c = 0; c < roomCols; c++) {
+                setSize[label[c]]++;
+            }
+            for (int c = 0; c < roomCols; c++) {
+                int s = label[c];
+                boolean lastOfSet = --setSize[s] == 0;
+                down[c] = random.nextBoolean() || (lastOfSet && !setGoesDown[s]);
+                if (down[c]) {
+                    setGoesDown[s] = true;
+                    setBit(wallRow, 2 * c);
+                }
+            }
+            sink.row(2 * r, roomRow);
+            sink.row(2 * r + 1, wallRow);
+            Arrays.fill(relabel, -1);
+            for (int c = 0; c < roomCols; c++) {
+                if (down[c]) {
+                    if (relabel[label[c]] < 0) {
+                        relabel[label[c]] = c;
+                    }
+                    label[c] = relabel[label[c]];
+                } else {
+                    label[c] = roomCols + c;
+                }
+            }
+        }
+    }
+
+    private static int find(int[] parent, int x) {
+        while (parent[x] != x) {
+            parent[x] = parent[parent[x]];
+            x = parent[x];
+        }
+        return x;
+    }
+
+    private static void setBit(long[] bits, int i) {
+        bits[i >>> 6] |= 1L << i;
+    }
+}
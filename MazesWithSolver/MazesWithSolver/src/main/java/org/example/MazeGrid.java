@@ -0,0 +1,81 @@
+package org.example;
+
+/**
+ * Maze stored one bit per grid cell (1 = open), row-major, in a long[]. Rooms sit
+ * on even rows and columns and the cells between them are walls or passages, so
+ * a maze of R x C rooms is a (2R - 1) x (2C - 1) grid. A 4001 x 4001 grid (four
+ * million rooms, sixteen million cells) takes 2 MB.
+ *
+ * Cells are addressed by index {@code row * cols + col}.
+ */
+public class MazeGrid {
+
+    private final int rows;
+    private final int cols;
+    private final long[] bits;
+
+    public MazeGrid(int rows, int cols) {
+        if ((long) rows * cols > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Grid too large: " + rows + "x" + cols);
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.bits = new long[(int) (((long) rows * cols + 63) >>> 6)];
+    }
+
+    /** Grid for a maze of {@code roomRows} x {@code roomCols} rooms. */
+    public static MazeGrid forRooms(int roomRows, int roomCols) {
+        return new MazeGrid(2 * roomRows - 1, 2 * roomCols - 1);
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public int getCellCount() {
+        return rows * cols;
+    }
+
+    public int index(int row, int col) {
+        return row * cols + col;
+    }
+
+    public boolean isOpen(int row, int col) {
+        return row >= 0 && col >= 0 && row < rows && col < cols && isOpen(row * cols + col);
+    }
+
+    /** Unchecked test by cell index. */
+    public boolean isOpen(int index) {
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    public void open(int index) {
+        bits[index >>> 6] |= 1L << index;
+    }
+
+    public void open(int row, int col) {
+        open(row * cols + col);
+    }
+
+    /** Opens the cells of one grid row given as a bit set over its columns. */
+    public void openRow(int row, long[] rowBits) {
+        int base = row * cols;
+        for (int w = 0; w < rowBits.length; w++) {
+            for (long word = rowBits[w]; word != 0; word &= word - 1) {
+                open(base + (w << 6) + Long.numberOfTrailingZeros(word));
+            }
+        }
+    }
+
+    public int countOpen() {
+        int n = 0;
+        for (long word : bits) {
+            n += Long.bitCount(word);
+        }
+        return n;
+    }
+}
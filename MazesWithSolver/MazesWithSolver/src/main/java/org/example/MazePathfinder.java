@@ -0,0 +1,276 @@
+package org.example;
+
+/**
+ * Shortest paths on a {@link MazeGrid} (4-connected, unit steps) with primitive
+ * arrays only: per-cell state is one byte holding the direction the cell was
+ * reached from, plus an int distance, and open lists are int arrays or a
+ * {@link LongMinHeap} of (f << 32 | cell).
+ *
+ * <ul>
+ *   <li>A_STAR: Manhattan-distance A*.</li>
+ *   <li>JPS: jump point search for 4-connected grids. A straight jump keeps going
+ *       until the goal or a cell with an open side passage, so the corridors of a
+ *       maze are crossed without putting their cells on the heap.</li>
+ *   <li>BIDIRECTIONAL_BFS: breadth-first search from both ends, one level at a
+ *       time from the smaller frontier.</li>
+ * </ul>
+ */
+public final class MazePathfinder {
+
+    public enum Algorithm {
+        A_STAR, JPS, BIDIRECTIONAL_BFS
+    }
+
+    public static class Result {
+        private final int[] path;
+        private final long expanded;
+        private final long elapsedNanos;
+
+        Result(int[] path, long expanded, long elapsedNanos) {
+            this.path = path;
+            this.expanded = expanded;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        /** Cell indices from start to goal, empty if the goal is unreachable. */
+        public int[] getPath() {
+            return path;
+        }
+
+        /** Number of steps, or -1 if there is no path. */
+        public int getLength() {
+            return path.length - 1;
+        }
+
+        public long getExpanded() {
+            return expanded;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("length=%d expanded=%d time=%.1f ms", getLength(), expanded, elapsedNanos / 1e6);
+        }
+    }
+
+    private static final byte UP = 1, DOWN = 2, LEFT = 3, RIGHT = 4, START = 5;
+    private static final int DIRECTION_MASK = 7;
+    private static final int CLOSED = 8;
+    private static final int BACKWARD = 16;
+
+    private final MazeGrid grid;
+    private final int cols;
+    private final int cells;
+
+    public MazePathfinder(MazeGrid grid) {
+        this.grid = grid;
+        this.cols = grid.getCols();
+        this.cells = grid.getCellCount();
+    }
+
+    public Result solve(Algorithm algorithm, int start, int goal) {
+        switch (algorithm) {
+            case A_STAR:
+                return aStar(start, goal, false);
+            case JPS:
+                return aStar(start, goal, true);
+            default:
+                return bidirectionalBfs(start, goal);
+        }
+    }
+
+    /** Neighbour of {@code cell} in direction {@code d}, or -1 off the grid. */
+    private int step(int cell, int d) {
+        switch (d) {
+            case UP:
+                return cell >= cols ? cell - cols : -1;
+            case DOWN:
+                return cell + cols < cells ? cell + cols : -1;
+            case LEFT:
+                return cell % cols > 0 ? cell - 1 : -1;
+            default:
+                return cell % cols < cols - 1 ? cell + 1 : -1;
+        }
+    }
+
+    private static int opposite(int d) {
+        return d == UP ? DOWN : d == DOWN ? UP : d == LEFT ? RIGHT : LEFT;
+    }
+
+    private boolean open(int cell) {
+        return cell >= 0 && grid.isOpen(cell);
+    }
+
+    private int heuristic(int cell, int goal) {
+        return Math.abs(cell / cols - goal / cols) + Math.abs(cell % cols - goal % cols);
+    }
+
+    private Result aStar(int start, int goal, boolean jump) {
+        long begin = System.nanoTime();
+        if (!open(start) || !open(goal)) {
+            return new Result(new int[0], 0, System.nanoTime() - begin);
+        }
+        byte[] state = new byte[cells];
+        int[] g = new int[cells];
+        LongMinHeap heap = new LongMinHeap(1024);
+        state[start] = START;
+        heap.push((long) heuristic(start, goal) << 32 | start);
+        long expanded = 0;
+        boolean found = false;
+        while (!heap.isEmpty()) {
+            long entry = heap.pop();
+            int cell = (int) entry;
+            if ((state[cell] & CLOSED) != 0) {
+                continue;
+            }
+            state[cell] |= CLOSED;
+            expanded++;
+            if (cell == goal) {
+                found = true;
+                break;
+            }
+            for (int d = UP; d <= RIGHT; d++) {
+                int next = jump ? jump(cell, d, goal) : step(cell, d);
+                if (!open(next)) {
+                    continue;
+                }
+                int cost = g[cell] + (jump ? heuristic(cell, next) : 1);
+                int s = state[next];
+                if (s == 0 || ((s & CLOSED) == 0 && cost < g[next])) {
+                    state[next] = (byte) d;
+                    g[next] = cost;
+                    heap.push((long) (cost + heuristic(next, goal)) << 32 | next);
+                }
+            }
+        }
+        int[] path = found ? tracePath(state, start, goal) : new int[0];
+        return new Result(path, expanded, System.nanoTime() - begin);
+    }
+
+    /**
+     * Next jump point from {@code cell} in direction {@code d}: the goal, or the first
+     * cell with an open neighbour to either side. -1 if the corridor dead-ends first.
+     */
+    private int jump(int cell, int d, int goal) {
+        boolean vertical = d == UP || d == DOWN;
+        int side1 = vertical ? LEFT : UP, side2 = vertical ? RIGHT : DOWN;
+        int cur = step(cell, d);
+        while (open(cur)) {
+            if (cur == goal || open(step(cur, side1)) || open(step(cur, side2))) {
+                return cur;
+            }
+            cur = step(cur, d);
+        }
+        return -1;
+    }
+
+    /**
+     * Walks back from the goal. Cells skipped by a jump were never reached themselves,
+     * so they keep the direction of the jump point in front of them.
+     */
+    private int[] tracePath(byte[] state, int start, int goal) {
+        int length = 1;
+        for (int cell = goal, d = 0; cell != start; length++) {
+            int s = state[cell] & DIRECTION_MASK;
+            if (s != 0) {
+                d = s;
+            }
+            cell = step(cell, opposite(d));
+        }
+        int[] path = new int[length];
+        int i = length - 1;
+        for (int cell = goal, d = 0; ; ) {
+            path[i--] = cell;
+            if (cell == start) {
+                break;
+            }
+            int s = state[cell] & DIRECTION_MASK;
+            if (s != 0) {
+                d = s;
+            }
+            cell = step(cell, opposite(d));
+        }
+        return path;
+    }
+
+    private Result bidirectionalBfs(int start, int goal) {
+        long begin = System.nanoTime();
+        if (!open(start) || !open(goal)) {
+            return new Result(new int[0], 0, System.nanoTime() - begin);
+        }
+        if (start == goal) {
+            return new Result(new int[]{start}, 1, System.nanoTime() - begin);
+        }
+        // state: direction reached from, plus BACKWARD for cells found from the goal side
+        byte[] state = new byte[cells];
+        int[] dist = new int[cells];
+        int[] forward = new int[cells];
+        int[] backward = new int[cells];
+        int fHead = 0, fTail = 0, bHead = 0, bTail = 0;
+        forward[fTail++] = start;
+        backward[bTail++] = goal;
+        state[start] = START;
+        state[goal] = START | BACKWARD;
+        long expanded = 0;
+        int best = Integer.MAX_VALUE, meetFrom = -1, meetTo = -1;
+
+        while (fHead < fTail && bHead < bTail && best == Integer.MAX_VALUE) {
+            boolean fromStart = fTail - fHead <= bTail - bHead;
+            int[] queue = fromStart ? forward : backward;
+            int head = fromStart ? fHead : bHead;
+            int tail = fromStart ? fTail : bTail;
+            int side = fromStart ? 0 : BACKWARD;
+            int levelEnd = tail;
+            // finish the whole level so the shortest of all meetings is kept
+            for (; head < levelEnd; head++) {
+                int cell = queue[head];
+                expanded++;
+                for (int d = UP; d <= RIGHT; d++) {
+                    int next = step(cell, d);
+                    if (!open(next)) {
+                        continue;
+                    }
+                    int s = state[next];
+                    if (s == 0) {
+                        state[next] = (byte) (d | side);
+                        dist[next] = dist[cell] + 1;
+                        queue[tail++] = next;
+                    } else if ((s & BACKWARD) != side && dist[cell] + 1 + dist[next] < best) {
+                        best = dist[cell] + 1 + dist[next];
+                        meetFrom = fromStart ? cell : next;
+                        meetTo = fromStart ? next : cell;
+                    }
+                }
+            }
+            if (fromStart) {
+                fHead = head;
+                fTail = tail;
+            } else {
+                bHead = head;
+                bTail = tail;
+            }
+        }
+        if (best == Integer.MAX_VALUE) {
+            return new Result(new int[0], expanded, System.nanoTime() - begin);
+        }
+        int[] path = new int[best + 1];
+        int i = dist[meetFrom];
+        for (int cell = meetFrom; ; cell = step(cell, opposite(state[cell] & DIRECTION_MASK))) {
+            path[i--] = cell;
+            if (cell == start) {
+                break;
+            }
+        }
+        i = dist[meetFrom] + 1;
+        for (int cell = meetTo; ; cell = step(cell, opposite(state[cell] & DIRECTION_MASK))) {
+            path[i++] = cell;
+            if (cell == goal) {
+                break;
+            }
+        }
+        return new Result(path, expanded, System.nanoTime() - begin);
+    }
+}
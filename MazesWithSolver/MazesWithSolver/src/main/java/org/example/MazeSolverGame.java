@@ -4,94 +4,44 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
-import java.util.*;
-import java.util.List;
+import java.util.Random;
 
 public class MazeSolverGame extends JPanel {
     private static final int SIZE = 20;
-    private static final int ROWS = 25, COLS = 25;
-    private final int[][] maze = new int[ROWS][COLS];
-    private final boolean[][] visited = new boolean[ROWS][COLS];
-    private final int[][] solution;
+    private final MazeGrid maze;
+    private final int rows, cols;
+    private final int[] solution;
+    private boolean showSolution;
     private int playerRow = 0, playerCol = 0;
-    private final int exitRow = ROWS - 1, exitCol = COLS - 1;
+    private final int exitRow, exitCol;
 
     public MazeSolverGame() {
-        generateMaze();
-        solution = solveMaze();
+        this(13, 13, MazeGenerator.Algorithm.DFS);
+    }
+
+    public MazeSolverGame(int roomRows, int roomCols, MazeGenerator.Algorithm algorithm) {
+        maze = MazeGenerator.generate(algorithm, roomRows, roomCols, new Random());
+        rows = maze.getRows();
+        cols = maze.getCols();
+        exitRow = rows - 1;
+        exitCol = cols - 1;
+        solution = new MazePathfinder(maze)
+                .solve(MazePathfinder.Algorithm.JPS, 0, maze.index(exitRow, exitCol)).getPath();
+        setPreferredSize(new Dimension(cols * SIZE, rows * SIZE));
         setFocusable(true);
         addKeyListener(new KeyAdapter() {
             public void keyPressed(KeyEvent e) {
-                movePlayer(e.getKeyCode());
+                if (e.getKeyCode() == KeyEvent.VK_S) {
+                    showSolution = !showSolution;
+                } else {
+                    movePlayer(e.getKeyCode());
+                    scrollRectToVisible(new Rectangle((playerCol - 5) * SIZE, (playerRow - 5) * SIZE, 11 * SIZE, 11 * SIZE));
+                }
                 repaint();
             }
         });
     }
 
-    private void generateMaze() {
-        Stack<int[]> stack = new Stack<>();
-        stack.push(new int[]{0, 0});
-        maze[0][0] = 1;
-
-        while (!stack.isEmpty()) {
-            int[] cell = stack.peek();
-            int r = cell[0], c = cell[1];
-            visited[r][c] = true;
-            List<int[]> neighbors = new ArrayList<>();
-
-            int[][] directions = {{0, 2}, {0, -2}, {2, 0}, {-2, 0}};
-            for (int[] d : directions) {
-                int nr = r + d[0], nc = c + d[1];
-                if (nr >= 0 && nc >= 0 && nr < ROWS && nc < COLS && !visited[nr][nc]) {
-                    neighbors.add(new int[]{nr, nc});
-                }
-            }
-
-            if (!neighbors.isEmpty()) {
-                int[] next = neighbors.get(new Random().nextInt(neighbors.size()));
-                maze[(r + next[0]) / 2][(c + next[1]) / 2] = 1;
-                maze[next[0]][next[1]] = 1;
-                stack.push(next);
-            } else {
-                stack.pop();
-            }
-        }
-    }
-
-    private int[][] solveMaze() {
-        int[][] parent = new int[ROWS * COLS][2];
-        for (int i = 0; i < parent.length; i++) {
-            parent[i] = new int[]{-1, -1};
-        }
-        Queue<int[]> queue = new LinkedList<>();
-        queue.add(new int[]{0, 0});
-        parent[0] = new int[]{-1, -1};
-
-        while (!queue.isEmpty()) {
-            int[] cell = queue.poll();
-            int r = cell[0], c = cell[1];
-            if (r == exitRow && c == exitCol) break;
-
-            for (int[] d : new int[][]{{0, 1}, {1, 0}, {0, -1}, {-1, 0}}) {
-                int nr = r + d[0], nc = c + d[1];
-                if (nr >= 0 && nc >= 0 && nr < ROWS && nc < COLS && maze[nr][nc] == 1 && parent[nr * COLS + nc][0] == -1) {
-                    parent[nr * COLS + nc] = new int[]{r, c};
-                    queue.add(new int[]{nr, nc});
-                }
-            }
-        }
-
-        List<int[]> pathList = new ArrayList<>();
-        for (int r = exitRow, c = exitCol; r != -1 && c != -1; ) {
-            pathList.add(new int[]{r, c});
-            int[] p = parent[r * COLS + c];
-            r = p[0];
-            c = p[1];
-        }
-        Collections.reverse(pathList);
-        return pathList.toArray(new int[0][0]);
-    }
-
     private void movePlayer(int keyCode) {
         int newRow = playerRow, newCol = playerCol;
         if (keyCode == KeyEvent.VK_UP) newRow--;
@@ -99,7 +49,7 @@ public class MazeSolverGame extends JPanel {
         else if (keyCode == KeyEvent.VK_LEFT) newCol--;
         else if (keyCode == KeyEvent.VK_RIGHT) newCol++;
 
-        if (newRow >= 0 && newRow < ROWS && newCol >= 0 && newCol < COLS && maze[newRow][newCol] == 1) {
+        if (maze.isOpen(newRow, newCol)) {
             playerRow = newRow;
             playerCol = newCol;
         }
@@ -108,11 +58,30 @@ public class MazeSolverGame extends JPanel {
     @Override
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
-        for (int r = 0; r < ROWS; r++) {
-            for (int c = 0; c < COLS; c++) {
-                if (maze[r][c] == 0) g.setColor(Color.BLACK);
-                else g.setColor(Color.WHITE);
-                g.fillRect(c * SIZE, r * SIZE, SIZE, SIZE);
+        // Only the cells inside the clip (the visible part of the scroll pane) are drawn
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) {
+            clip = new Rectangle(0, 0, getWidth(), getHeight());
+        }
+        int firstRow = Math.max(0, clip.y / SIZE), lastRow = Math.min(rows - 1, (clip.y + clip.height) / SIZE);
+        int firstCol = Math.max(0, clip.x / SIZE), lastCol = Math.min(cols - 1, (clip.x + clip.width) / SIZE);
+        g.setColor(Color.BLACK);
+        g.fillRect(clip.x, clip.y, clip.width, clip.height);
+        g.setColor(Color.WHITE);
+        for (int r = firstRow; r <= lastRow; r++) {
+            for (int c = firstCol; c <= lastCol; c++) {
+                if (maze.isOpen(r, c)) {
+                    g.fillRect(c * SIZE, r * SIZE, SIZE, SIZE);
+                }
+            }
+        }
+        if (showSolution) {
+            g.setColor(Color.GREEN);
+            for (int cell : solution) {
+                int r = cell / cols, c = cell % cols;
+                if (r >= firstRow && r <= lastRow && c >= firstCol && c <= lastCol) {
+                    g.fillRect(c * SIZE + SIZE / 4, r * SIZE + SIZE / 4, SIZE / 2, SIZE / 2);
+                }
             }
         }
         g.setColor(Color.BLUE);
@@ -121,10 +90,14 @@ public class MazeSolverGame extends JPanel {
         g.fillRect(exitCol * SIZE, exitRow * SIZE, SIZE, SIZE);
     }
 
+    /** Usage: MazeSolverGame [rooms per side] [dfs|wilson|eller]. Press S to show the solution. */
     public static void main(String[] args) {
+        int rooms = args.length > 0 ? Integer.parseInt(args[0]) : 13;
+        MazeGenerator.Algorithm algorithm = args.length > 1
+                ? MazeGenerator.Algorithm.valueOf(args[1].toUpperCase()) : MazeGenerator.Algorithm.DFS;
         JFrame frame = new JFrame("Maze Solver Game");
-        MazeSolverGame game = new MazeSolverGame();
-        frame.add(game);
+        MazeSolverGame game = new MazeSolverGame(rooms, rooms, algorithm);
+        frame.add(new JScrollPane(game));
         frame.setSize(520, 540);
         frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         frame.setVisible(true);
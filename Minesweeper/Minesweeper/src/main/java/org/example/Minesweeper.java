@@ -9,16 +9,22 @@ public class Minesweeper {
     private static char[][] board = new char[BOARD_SIZE][BOARD_SIZE];
     private static boolean[][] revealed = new boolean[BOARD_SIZE][BOARD_SIZE];
     private static boolean[][] mines = new boolean[BOARD_SIZE][BOARD_SIZE];
+    private static int[][] adjacent = new int[BOARD_SIZE][BOARD_SIZE];
 
     public static void main(String[] args) {
         initializeBoard();
         placeMines();
+        countMines();
         printBoard();
 
         Scanner scanner = new Scanner(System.in);
         while (true) {
-            System.out.println("Enter row (0 to " + (BOARD_SIZE - 1) + "): ");
+            System.out.println("Enter row (0 to " + (BOARD_SIZE - 1) + ", or -1 for a hint): ");
             int row = scanner.nextInt();
+            if (row == -1) {
+                showHint();
+                continue;
+            }
             System.out.println("Enter column (0 to " + (BOARD_SIZE - 1) + "): ");
             int col = scanner.nextInt();
 
@@ -28,6 +34,7 @@ public class Minesweeper {
                     break;
                 } else {
                     revealCell(row, col);
+                    printBoard();
                     if (checkWin()) {
                         System.out.println("Congratulations! You've won the game.");
                         break;
@@ -80,29 +87,45 @@ public class Minesweeper {
         return row >= 0 && row < BOARD_SIZE && col >= 0 && col < BOARD_SIZE && !revealed[row][col];
     }
 
+    // Flood fill from the cell with an explicit stack, so a large opening cannot overflow the call stack
     private static void revealCell(int row, int col) {
         if (revealed[row][col]) {
             return;
         }
-
-        int adjacentMines = countAdjacentMines(row, col);
+        int[] stack = new int[BOARD_SIZE * BOARD_SIZE];
+        int top = 0;
+        stack[top++] = row * BOARD_SIZE + col;
         revealed[row][col] = true;
-        board[row][col] = (adjacentMines == 0) ? ' ' : (char) ('0' + adjacentMines);
-
-        if (adjacentMines == 0) {
-            // If no adjacent mines, recursively reveal neighboring cells
+        while (top > 0) {
+            int cell = stack[--top];
+            int r = cell / BOARD_SIZE;
+            int c = cell % BOARD_SIZE;
+            board[r][c] = (adjacent[r][c] == 0) ? ' ' : (char) ('0' + adjacent[r][c]);
+            if (adjacent[r][c] != 0) {
+                continue;
+            }
             for (int i = -1; i <= 1; i++) {
                 for (int j = -1; j <= 1; j++) {
-                    int newRow = row + i;
-                    int newCol = col + j;
+                    int newRow = r + i;
+                    int newCol = c + j;
                     if (isValidMove(newRow, newCol) && !mines[newRow][newCol]) {
-                        revealCell(newRow, newCol);
+                        revealed[newRow][newCol] = true;
+                        stack[top++] = newRow * BOARD_SIZE + newCol;
                     }
                 }
             }
         }
     }
 
+    // Adjacent mine counts never change once the mines are placed, so count them once
+    private static void countMines() {
+        for (int i = 0; i < BOARD_SIZE; i++) {
+            for (int j = 0; j < BOARD_SIZE; j++) {
+                adjacent[i][j] = countAdjacentMines(i, j);
+            }
+        }
+    }
+
     private static int countAdjacentMines(int row, int col) {
         int count = 0;
         for (int i = -1; i <= 1; i++) {
@@ -117,6 +140,21 @@ public class Minesweeper {
         return count;
     }
 
+    // Print the hidden cell least likely to hold a mine
+    private static void showHint() {
+        int[] view = new int[BOARD_SIZE * BOARD_SIZE];
+        for (int i = 0; i < BOARD_SIZE; i++) {
+            for (int j = 0; j < BOARD_SIZE; j++) {
+                view[i * BOARD_SIZE + j] = revealed[i][j] ? adjacent[i][j] : MinesweeperBoard.HIDDEN;
+            }
+        }
+        MinesweeperSolver solver = new MinesweeperSolver(BOARD_SIZE, BOARD_SIZE, NUM_MINES);
+        solver.solve(view);
+        int cell = solver.safestCell(view);
+        System.out.printf("Hint: row %d, column %d (%.0f%% chance of a mine)%n",
+                cell / BOARD_SIZE, cell % BOARD_SIZE, 100 * solver.getProbability(cell));
+    }
+
     private static boolean checkWin() {
         for (int i = 0; i < BOARD_SIZE; i++) {
             for (int j = 0; j < BOARD_SIZE; j++) {
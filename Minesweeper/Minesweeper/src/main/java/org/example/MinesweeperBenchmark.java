@@ -0,0 +1,85 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Plays Minesweeper headless with {@link MinesweeperSolver}, spread over a
+ * thread pool, and reports the win rate and games per second. The first click
+ * is in the centre. After that every cell the solver proves safe is revealed,
+ * and when there are none it clicks the safest cell. Game i is seeded from the
+ * base seed and i, so results do not depend on the thread count.
+ *
+ * Usage: java org.example.MinesweeperBenchmark [games] [threads] [rows cols mines] [seed]
+ * The default is 100,000 expert games: 16 rows, 30 columns, 99 mines.
+ */
+public class MinesweeperBenchmark {
+
+    public static void main(String[] args) throws InterruptedException, ExecutionException {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        int rows = args.length > 4 ? Integer.parseInt(args[2]) : 16;
+        int cols = args.length > 4 ? Integer.parseInt(args[3]) : 30;
+        int mines = args.length > 4 ? Integer.parseInt(args[4]) : 99;
+        long seed = args.length > 5 ? Long.parseLong(args[5]) : 1;
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        ThreadLocal<MinesweeperSolver> solvers = ThreadLocal.withInitial(() -> new MinesweeperSolver(rows, cols, mines));
+        // One task per block of games keeps the queue short
+        int block = 256;
+        List<Future<long[]>> results = new ArrayList<>();
+        long begin = System.nanoTime();
+        for (int first = 0; first < games; first += block) {
+            int from = first, to = Math.min(games, first + block);
+            results.add(pool.submit(() -> {
+                long[] totals = new long[3];
+                for (int g = from; g < to; g++) {
+                    MinesweeperBoard board = new MinesweeperBoard(rows, cols, mines, seed * 1_000_003L + g);
+                    totals[1] += play(board, solvers.get());
+                    if (board.isWon()) {
+                        totals[0]++;
+                    }
+                }
+                return totals;
+            }));
+        }
+        long won = 0, guesses = 0;
+        for (Future<long[]> f : results) {
+            long[] r = f.get();
+            won += r[0];
+            guesses += r[1];
+        }
+        pool.shutdown();
+        double seconds = (System.nanoTime() - begin) / 1e9;
+
+        System.out.printf("%d games of %dx%d with %d mines, %d threads%n", games, rows, cols, mines, threads);
+        System.out.printf("won %d (%.2f%%), %.2f guesses per game%n", won, 100.0 * won / games, (double) guesses / games);
+        System.out.printf("%.2f s, %.0f games/sec%n", seconds, games / seconds);
+    }
+
+    /** Plays one game to the end and returns how many clicks were guesses. */
+    static int play(MinesweeperBoard board, MinesweeperSolver solver) {
+        int[] view = board.view();
+        board.reveal(board.getRows() / 2 * board.getCols() + board.getCols() / 2);
+        int guesses = 0;
+        while (!board.isOver()) {
+            solver.solve(view);
+            boolean progress = false;
+            for (int c = 0; c < board.getCells(); c++) {
+                if (view[c] == MinesweeperBoard.HIDDEN && solver.getProbability(c) == 0) {
+                    board.reveal(c);
+                    progress = true;
+                }
+            }
+            if (!progress) {
+                guesses++;
+                board.reveal(solver.safestCell(view));
+            }
+        }
+        return guesses;
+    }
+}
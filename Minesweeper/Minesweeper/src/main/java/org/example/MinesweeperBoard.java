@@ -0,0 +1,192 @@
+package org.example;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * A Minesweeper game on a rows x cols grid. Cell i is row i / cols, column
+ * i % cols. Mines are laid on the first reveal, away from that cell and its
+ * neighbours, so every game starts with an opening. Adjacent mine counts are
+ * computed once when the mines are laid.
+ *
+ * What the player can see is kept as an int per cell, {@link #HIDDEN} or the
+ * revealed count, which is what {@link MinesweeperSolver} reads. Revealing a
+ * zero floods outward with an explicit stack, so board size is not limited by
+ * recursion depth.
+ */
+public final class MinesweeperBoard {
+
+    public static final int HIDDEN = -1;
+
+    final int rows;
+    final int cols;
+    final int cells;
+    final int mines;
+    /** Neighbours of cell c are neighbourIds[neighbourStart[c]] up to neighbourStart[c + 1]. */
+    final int[] neighbourStart;
+    final int[] neighbourIds;
+
+    private final boolean[] mine;
+    private final byte[] adjacent;
+    private final int[] view;
+    private final int[] stack;
+    private final int[] candidates;
+    private final SplittableRandom random;
+    private boolean laid;
+    private boolean exploded;
+    private int hiddenSafe;
+
+    public MinesweeperBoard(int rows, int cols, int mines, long seed) {
+        if (mines < 1 || mines > rows * cols - 1) {
+            throw new IllegalArgumentException("mines must be between 1 and one less than the number of cells");
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.mines = mines;
+        cells = rows * cols;
+        int[][] table = neighbours(rows, cols);
+        neighbourStart = table[0];
+        neighbourIds = table[1];
+        mine = new boolean[cells];
+        adjacent = new byte[cells];
+        view = new int[cells];
+        stack = new int[cells];
+        candidates = new int[cells];
+        random = new SplittableRandom(seed);
+        reset();
+    }
+
+    /** The neighbour table for a rows x cols grid, as {start, ids}. */
+    static int[][] neighbours(int rows, int cols) {
+        int cells = rows * cols;
+        int[] start = new int[cells + 1];
+        int[] ids = new int[8 * cells];
+        int n = 0;
+        for (int c = 0; c < cells; c++) {
+            start[c] = n;
+            int r = c / cols, col = c % cols;
+            for (int dr = -1; dr <= 1; dr++) {
+                for (int dc = -1; dc <= 1; dc++) {
+                    int nr = r + dr, nc = col + dc;
+                    if ((dr != 0 || dc != 0) && nr >= 0 && nr < rows && nc >= 0 && nc < cols) {
+                        ids[n++] = nr * cols + nc;
+                    }
+                }
+            }
+        }
+        start[cells] = n;
+        return new int[][]{start, ids};
+    }
+
+    /** Starts a new game; the mines are laid on the first reveal. */
+    public void reset() {
+        Arrays.fill(mine, false);
+        Arrays.fill(view, HIDDEN);
+        laid = false;
+        exploded = false;
+        hiddenSafe = cells - mines;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public int getMines() {
+        return mines;
+    }
+
+    public int getCells() {
+        return cells;
+    }
+
+    /** What the player sees: {@link #HIDDEN} or the cell's count. The array is live and must not be changed. */
+    public int[] view() {
+        return view;
+    }
+
+    public boolean isWon() {
+        return hiddenSafe == 0 && !exploded;
+    }
+
+    public boolean isLost() {
+        return exploded;
+    }
+
+    public boolean isOver() {
+        return hiddenSafe == 0 || exploded;
+    }
+
+    /** Reveals a hidden cell, flooding out from zeros. Returns false if it was a mine. */
+    public boolean reveal(int cell) {
+        if (!laid) {
+            lay(cell);
+        }
+        if (view[cell] != HIDDEN) {
+            return true;
+        }
+        if (mine[cell]) {
+            exploded = true;
+            return false;
+        }
+        int top = 0;
+        stack[top++] = cell;
+        view[cell] = adjacent[cell];
+        hiddenSafe--;
+        while (top > 0) {
+            int c = stack[--top];
+            if (adjacent[c] != 0) {
+                continue;
+            }
+            for (int i = neighbourStart[c]; i < neighbourStart[c + 1]; i++) {
+                int n = neighbourIds[i];
+                if (view[n] == HIDDEN) {
+                    view[n] = adjacent[n];
+                    hiddenSafe--;
+                    stack[top++] = n;
+                }
+            }
+        }
+        return true;
+    }
+
+    /** Lays the mines at random, keeping clear of first and, if there is room, its neighbours. */
+    private void lay(int first) {
+        boolean roomy = cells - (neighbourStart[first + 1] - neighbourStart[first]) - 1 >= mines;
+        int count = 0;
+        for (int c = 0; c < cells; c++) {
+            if (c != first && !(roomy && isNeighbour(first, c))) {
+                candidates[count++] = c;
+            }
+        }
+        // Partial Fisher-Yates shuffle: the first mines candidates get the mines
+        for (int i = 0; i < mines; i++) {
+            int j = i + random.nextInt(count - i);
+            int t = candidates[i];
+            candidates[i] = candidates[j];
+            candidates[j] = t;
+            mine[candidates[i]] = true;
+        }
+        for (int c = 0; c < cells; c++) {
+            int n = 0;
+            for (int i = neighbourStart[c]; i < neighbourStart[c + 1]; i++) {
+                if (mine[neighbourIds[i]]) {
+                    n++;
+                }
+            }
+            adjacent[c] = (byte) n;
+        }
+        laid = true;
+    }
+
+    private boolean isNeighbour(int a, int b) {
+        return Math.abs(a / cols - b / cols) <= 1 && Math.abs(a % cols - b % cols) <= 1;
+    }
+
+    public boolean isMine(int cell) {
+        return mine[cell];
+    }
+}
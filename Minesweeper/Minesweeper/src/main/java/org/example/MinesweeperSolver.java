@@ -0,0 +1,515 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Exact mine probabilities for every hidden cell of a Minesweeper view.
+ *
+ * - Cells settled by a single count (all its hidden neighbours are mines, or
+ *   it already has all of its mines) are marked first, which shrinks the rest.
+ * - The remaining hidden cells next to a revealed number form the frontier.
+ *   It splits into components that share no count, and each is enumerated on
+ *   its own by backtracking over a bitset of its cells. Every count is a mask
+ *   over the same bits, so checking one is two popcounts. Cells on exactly
+ *   the same counts are interchangeable, so only one arrangement of mines
+ *   among them is tried and weighted by the number of ways to place them.
+ * - Each component records, for every number of mines k it could hold, how
+ *   many arrangements there are and how often each cell is a mine in them.
+ * - The components are then combined with the cells off the frontier. A total
+ *   of K frontier mines leaves the rest spread over those cells in
+ *   C(off-frontier cells, mines left - K) ways, which weights every arrangement.
+ *
+ * One solver can be reused for any number of views of the same board size.
+ */
+public final class MinesweeperSolver {
+
+    private static final byte UNKNOWN = 0, SAFE = 1, MINE = 2;
+
+    private final int cells;
+    private final int mines;
+    private final int[] neighbourStart;
+    private final int[] neighbourIds;
+    private final double[] probability;
+    private final double[] logFactorial;
+    private final byte[] known;
+    private final int[] queue;
+    private final boolean[] queued;
+    private final int[] stamp;
+    private final int[] local;
+    private int stampValue;
+
+    // The component being enumerated
+    private int[] vars;
+    private int varCount;
+    private int words;
+    private long[] masks;
+    private int[] need;
+    private int[] varConsStart;
+    private int[] varCons;
+    /** Cells on exactly the same counts are interchangeable and form a group. */
+    private int[] groupOf;
+    private int[] groupSize;
+    private int[] groupMines;
+    /** The group's previous cell, which must be a mine before this one may be, or -1. */
+    private int[] previousInGroup;
+    private long[] assignment;
+    private int minesLeft;
+    private double[] ways;
+    private double[] cellWays;
+
+    public MinesweeperSolver(int rows, int cols, int mines) {
+        cells = rows * cols;
+        this.mines = mines;
+        int[][] table = MinesweeperBoard.neighbours(rows, cols);
+        neighbourStart = table[0];
+        neighbourIds = table[1];
+        probability = new double[cells];
+        logFactorial = new double[cells + 1];
+        for (int i = 1; i <= cells; i++) {
+            logFactorial[i] = logFactorial[i - 1] + Math.log(i);
+        }
+        known = new byte[cells];
+        queue = new int[cells];
+        queued = new boolean[cells];
+        stamp = new int[cells];
+        local = new int[cells];
+        vars = new int[cells];
+    }
+
+    /** The chance that cell is a mine, from the last {@link #solve}. Revealed cells are 0. */
+    public double getProbability(int cell) {
+        return probability[cell];
+    }
+
+    /** The hidden cell least likely to be a mine, ties going to the cell with fewest neighbours, or -1. */
+    public int safestCell(int[] view) {
+        int best = -1;
+        for (int c = 0; c < cells; c++) {
+            if (view[c] != MinesweeperBoard.HIDDEN) {
+                continue;
+            }
+            if (best < 0 || probability[c] < probability[best] - 1e-12
+                    || probability[c] < probability[best] + 1e-12 && degree(c) < degree(best)) {
+                best = c;
+            }
+        }
+        return best;
+    }
+
+    private int degree(int cell) {
+        return neighbourStart[cell + 1] - neighbourStart[cell];
+    }
+
+    /** Fills in the mine probability of every cell of view, which holds {@link MinesweeperBoard#HIDDEN} or counts. */
+    public void solve(int[] view) {
+        int determinedMines = deduce(view);
+        int left = mines - determinedMines;
+
+        // Enumerate each frontier component
+        List<int[]> componentVars = new ArrayList<>();
+        List<double[]> componentWays = new ArrayList<>();
+        List<double[]> componentCellWays = new ArrayList<>();
+        int frontier = 0;
+        int hiddenUnknown = 0;
+        nextStamp();
+        int component = stampValue;
+        for (int c = 0; c < cells; c++) {
+            if (view[c] != MinesweeperBoard.HIDDEN || known[c] != UNKNOWN) {
+                continue;
+            }
+            hiddenUnknown++;
+            if (stamp[c] == component || !onFrontier(view, c)) {
+                continue;
+            }
+            collect(view, c, component);
+            enumerate(Math.max(0, left));
+            componentVars.add(Arrays.copyOf(vars, varCount));
+            componentWays.add(ways);
+            componentCellWays.add(cellWays);
+            frontier += varCount;
+        }
+        int offFrontier = hiddenUnknown - frontier;
+
+        // Number of frontier mines over all components, and the same leaving out each one
+        int count = componentWays.size();
+        double[] total = {1};
+        for (double[] w : componentWays) {
+            total = convolve(total, w);
+        }
+        double[] weight = new double[total.length];
+        double maxLog = Double.NEGATIVE_INFINITY;
+        for (int k = 0; k < total.length; k++) {
+            int rest = left - k;
+            weight[k] = rest < 0 || rest > offFrontier ? Double.NEGATIVE_INFINITY
+                    : logFactorial[offFrontier] - logFactorial[rest] - logFactorial[offFrontier - rest];
+            maxLog = Math.max(maxLog, weight[k]);
+        }
+        if (maxLog == Double.NEGATIVE_INFINITY) {
+            maxLog = 0;
+        }
+        double norm = 0, offMines = 0;
+        for (int k = 0; k < total.length; k++) {
+            weight[k] = Math.exp(weight[k] - maxLog);
+            norm += total[k] * weight[k];
+            offMines += total[k] * weight[k] * (left - k);
+        }
+
+        Arrays.fill(probability, 0);
+        for (int c = 0; c < cells; c++) {
+            if (view[c] == MinesweeperBoard.HIDDEN) {
+                probability[c] = known[c] == MINE ? 1 : known[c] == SAFE ? 0 : Double.NaN;
+            }
+        }
+        if (norm == 0) {
+            // The view contradicts itself; fall back to the plain mine density
+            for (int c = 0; c < cells; c++) {
+                if (Double.isNaN(probability[c])) {
+                    probability[c] = hiddenUnknown == 0 ? 0 : Math.max(0, Math.min(1, (double) left / hiddenUnknown));
+                }
+            }
+            return;
+        }
+        for (int i = 0; i < count; i++) {
+            double[] rest = {1};
+            for (int j = 0; j < count; j++) {
+                if (j != i) {
+                    rest = convolve(rest, componentWays.get(j));
+                }
+            }
+            // scale[k]: weight of this component holding k mines, summed over the others
+            double[] own = componentWays.get(i);
+            double[] scale = new double[own.length];
+            for (int k = 0; k < own.length; k++) {
+                for (int j = 0; j < rest.length && k + j < weight.length; j++) {
+                    scale[k] += rest[j] * weight[k + j];
+                }
+            }
+            int[] cellsOf = componentVars.get(i);
+            double[] perCell = componentCellWays.get(i);
+            for (int v = 0; v < cellsOf.length; v++) {
+                double p = 0;
+                for (int k = 0; k < own.length; k++) {
+                    p += perCell[v * own.length + k] * scale[k];
+                }
+                probability[cellsOf[v]] = p / norm;
+            }
+        }
+        double offProbability = offFrontier == 0 ? 0 : offMines / norm / offFrontier;
+        for (int c = 0; c < cells; c++) {
+            if (Double.isNaN(probability[c])) {
+                probability[c] = offProbability;
+            }
+        }
+    }
+
+    /**
+     * Marks the hidden cells that a single count settles, working from each
+     * count whose neighbours changed. Returns how many mines were found.
+     */
+    private int deduce(int[] view) {
+        Arrays.fill(known, UNKNOWN);
+        int head = 0, tail = 0;
+        for (int c = 0; c < cells; c++) {
+            queued[c] = view[c] > 0;
+            if (queued[c]) {
+                queue[tail++] = c;
+            }
+        }
+        int found = 0;
+        while (head != tail) {
+            int r = queue[head];
+            head = head + 1 == cells ? 0 : head + 1;
+            queued[r] = false;
+            int unknown = 0, minesAround = 0;
+            for (int i = neighbourStart[r]; i < neighbourStart[r + 1]; i++) {
+                int n = neighbourIds[i];
+                if (view[n] == MinesweeperBoard.HIDDEN) {
+                    if (known[n] == MINE) {
+                        minesAround++;
+                    } else if (known[n] == UNKNOWN) {
+                        unknown++;
+                    }
+                }
+            }
+            int missing = view[r] - minesAround;
+            if (unknown == 0 || missing != 0 && missing != unknown) {
+                continue;
+            }
+            byte mark = missing == 0 ? SAFE : MINE;
+            for (int i = neighbourStart[r]; i < neighbourStart[r + 1]; i++) {
+                int n = neighbourIds[i];
+                if (view[n] != MinesweeperBoard.HIDDEN || known[n] != UNKNOWN) {
+                    continue;
+                }
+                known[n] = mark;
+                if (mark == MINE) {
+                    found++;
+                }
+                // Counts next to a newly settled cell may now settle more
+                for (int j = neighbourStart[n]; j < neighbourStart[n + 1]; j++) {
+                    int m = neighbourIds[j];
+                    if (view[m] > 0 && !queued[m]) {
+                        queued[m] = true;
+                        queue[tail] = m;
+                        tail = tail + 1 == cells ? 0 : tail + 1;
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    private boolean onFrontier(int[] view, int cell) {
+        for (int i = neighbourStart[cell]; i < neighbourStart[cell + 1]; i++) {
+            if (view[neighbourIds[i]] > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void nextStamp() {
+        if (++stampValue == Integer.MAX_VALUE) {
+            Arrays.fill(stamp, 0);
+            stampValue = 1;
+        }
+    }
+
+    /**
+     * Gathers the frontier component holding start, in breadth-first order so
+     * counts close early in the search, and builds its count masks.
+     */
+    private void collect(int[] view, int start, int component) {
+        varCount = 0;
+        vars[varCount++] = start;
+        stamp[start] = component;
+        for (int head = 0; head < varCount; head++) {
+            int v = vars[head];
+            for (int i = neighbourStart[v]; i < neighbourStart[v + 1]; i++) {
+                int r = neighbourIds[i];
+                if (view[r] <= 0) {
+                    continue;
+                }
+                for (int j = neighbourStart[r]; j < neighbourStart[r + 1]; j++) {
+                    int u = neighbourIds[j];
+                    if (view[u] == MinesweeperBoard.HIDDEN && known[u] == UNKNOWN && stamp[u] != component) {
+                        stamp[u] = component;
+                        vars[varCount++] = u;
+                    }
+                }
+            }
+        }
+        for (int v = 0; v < varCount; v++) {
+            local[vars[v]] = v;
+        }
+
+        // The counts next to the component, each seen once
+        nextStamp();
+        int seen = stampValue;
+        int[] counts = new int[varCount * 8];
+        int countCount = 0;
+        for (int v = 0; v < varCount; v++) {
+            int cell = vars[v];
+            for (int i = neighbourStart[cell]; i < neighbourStart[cell + 1]; i++) {
+                int r = neighbourIds[i];
+                if (view[r] > 0 && stamp[r] != seen) {
+                    stamp[r] = seen;
+                    counts[countCount++] = r;
+                }
+            }
+        }
+
+        words = (varCount + 63) >>> 6;
+        masks = new long[countCount * words];
+        need = new int[countCount];
+        int[] perVar = new int[varCount + 1];
+        for (int c = 0; c < countCount; c++) {
+            int r = counts[c];
+            need[c] = view[r];
+            for (int i = neighbourStart[r]; i < neighbourStart[r + 1]; i++) {
+                int n = neighbourIds[i];
+                if (view[n] != MinesweeperBoard.HIDDEN) {
+                    continue;
+                }
+                if (known[n] == MINE) {
+                    need[c]--;
+                } else if (known[n] == UNKNOWN) {
+                    int v = local[n];
+                    masks[c * words + (v >>> 6)] |= 1L << v;
+                    perVar[v + 1]++;
+                }
+            }
+        }
+        varConsStart = new int[varCount + 1];
+        for (int v = 0; v < varCount; v++) {
+            varConsStart[v + 1] = varConsStart[v] + perVar[v + 1];
+        }
+        varCons = new int[varConsStart[varCount]];
+        int[] fill = new int[varCount];
+        for (int c = 0; c < countCount; c++) {
+            for (int w = 0; w < words; w++) {
+                long bits = masks[c * words + w];
+                while (bits != 0) {
+                    int v = w << 6 | Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    varCons[varConsStart[v] + fill[v]++] = c;
+                }
+            }
+        }
+
+        groupOf = new int[varCount];
+        groupSize = new int[varCount];
+        previousInGroup = new int[varCount];
+        int[] lastInGroup = new int[varCount];
+        int groups = 0;
+        for (int v = 0; v < varCount; v++) {
+            int g = 0;
+            while (g < groups && !sameCounts(lastInGroup[g], v)) {
+                g++;
+            }
+            if (g == groups) {
+                groups++;
+                previousInGroup[v] = -1;
+            } else {
+                previousInGroup[v] = lastInGroup[g];
+            }
+            groupOf[v] = g;
+            groupSize[g]++;
+            lastInGroup[g] = v;
+        }
+        groupMines = new int[groups];
+    }
+
+    private boolean sameCounts(int a, int b) {
+        int length = varConsStart[a + 1] - varConsStart[a];
+        if (length != varConsStart[b + 1] - varConsStart[b]) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (varCons[varConsStart[a] + i] != varCons[varConsStart[b] + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Enumerates the collected component, holding at most maxMines mines. */
+    private void enumerate(int maxMines) {
+        assignment = new long[words];
+        minesLeft = maxMines;
+        ways = new double[varCount + 1];
+        cellWays = new double[varCount * (varCount + 1)];
+        search(0, 0, 1);
+        // Only the first cells of a group were made mines; share the tallies across it
+        double[] share = new double[varCount + 1];
+        for (int v = 0; v < varCount; v++) {
+            if (previousInGroup[v] >= 0) {
+                continue;
+            }
+            Arrays.fill(share, 0);
+            for (int u = v; u < varCount; u++) {
+                if (groupOf[u] == groupOf[v]) {
+                    for (int k = 0; k <= varCount; k++) {
+                        share[k] += cellWays[u * (varCount + 1) + k];
+                    }
+                }
+            }
+            int size = groupSize[groupOf[v]];
+            for (int u = v; u < varCount; u++) {
+                if (groupOf[u] == groupOf[v]) {
+                    for (int k = 0; k <= varCount; k++) {
+                        cellWays[u * (varCount + 1) + k] = share[k] / size;
+                    }
+                }
+            }
+        }
+        // Trim to the largest mine count that occurs
+        int top = varCount;
+        while (top > 0 && ways[top] == 0) {
+            top--;
+        }
+        if (top < varCount) {
+            double[] trimmed = new double[varCount * (top + 1)];
+            for (int v = 0; v < varCount; v++) {
+                System.arraycopy(cellWays, v * (varCount + 1), trimmed, v * (top + 1), top + 1);
+            }
+            cellWays = trimmed;
+            ways = Arrays.copyOf(ways, top + 1);
+        }
+    }
+
+    /**
+     * Assigns cells from v onward, with placed mines so far. Within a group
+     * mines go to the earliest cells only, and weight counts the ways to
+     * spread them over the whole group.
+     */
+    private void search(int v, int placed, double weight) {
+        if (v == varCount) {
+            ways[placed] += weight;
+            for (int w = 0; w < words; w++) {
+                long bits = assignment[w];
+                while (bits != 0) {
+                    int u = w << 6 | Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    cellWays[u * (varCount + 1) + placed] += weight;
+                }
+            }
+            return;
+        }
+        if (fits(v)) {
+            search(v + 1, placed, weight);
+        }
+        int previous = previousInGroup[v];
+        if (placed < minesLeft && (previous < 0 || (assignment[previous >>> 6] & 1L << previous) != 0)) {
+            assignment[v >>> 6] |= 1L << v;
+            int g = groupOf[v];
+            int m = ++groupMines[g];
+            if (fits(v)) {
+                // C(size, m) = C(size, m - 1) * (size - m + 1) / m
+                search(v + 1, placed + 1, weight * (groupSize[g] - m + 1) / m);
+            }
+            groupMines[g]--;
+            assignment[v >>> 6] &= ~(1L << v);
+        }
+    }
+
+    /** Whether every count on cell v, cells up to v assigned, can still be met. */
+    private boolean fits(int v) {
+        int word = v >>> 6;
+        // Cells after v, which are still open
+        long openInWord = (v & 63) == 63 ? 0 : -1L << (v + 1);
+        for (int i = varConsStart[v]; i < varConsStart[v + 1]; i++) {
+            int c = varCons[i];
+            int base = c * words;
+            int placed = 0, open = 0;
+            for (int w = 0; w < words; w++) {
+                long mask = masks[base + w];
+                placed += Long.bitCount(assignment[w] & mask);
+                if (w > word) {
+                    open += Long.bitCount(mask);
+                } else if (w == word) {
+                    open += Long.bitCount(mask & openInWord);
+                }
+            }
+            if (placed > need[c] || placed + open < need[c]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static double[] convolve(double[] a, double[] b) {
+        double[] out = new double[a.length + b.length - 1];
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == 0) {
+                continue;
+            }
+            for (int j = 0; j < b.length; j++) {
+                out[i + j] += a[i] * b[j];
+            }
+        }
+        return out;
+    }
+}
@@ -0,0 +1,296 @@
+package org.example;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * The maze as a graph, built once when it is loaded. Every open tile reachable
+ * from Pac-Man's start is a node, numbered in reading order, with up to four
+ * neighbours; a row whose both ends are open wraps round as a tunnel.
+ *
+ * A breadth-first search from every node fills a table of shortest distances
+ * between all pairs of nodes, one short each, so an AI asking how far one node
+ * is from another does a single array read. For the 300-odd nodes of the
+ * standard maze this is about 180 KB. Tiles that are not nodes, including ones
+ * off the board, map to the nearest node so a target can be anywhere.
+ *
+ * Layout characters: '#' wall, '.' pellet, 'o' power pellet, '-' ghost-house
+ * door, 'P' Pac-Man's start, 'G' a ghost's start, anything else open floor.
+ */
+public final class Maze {
+
+    public static final int RIGHT = 0, UP = 1, LEFT = 2, DOWN = 3;
+    static final int[] DX = {1, 0, -1, 0};
+    static final int[] DY = {0, -1, 0, 1};
+
+    public static final String[] STANDARD = {
+            "############################",
+            "#............##............#",
+            "#.####.#####.##.#####.####.#",
+            "#o####.#####.##.#####.####o#",
+            "#.####.#####.##.#####.####.#",
+            "#..........................#",
+            "#.####.##.########.##.####.#",
+            "#.####.##.########.##.####.#",
+            "#......##....##....##......#",
+            "######.##### ## #####.######",
+            "     #.##### ## #####.#     ",
+            "     #.##          ##.#     ",
+            "     #.## ###--### ##.#     ",
+            "######.## #      # ##.######",
+            "      .   # G  G #   .      ",
+            "######.## # G  G # ##.######",
+            "     #.## ######## ##.#     ",
+            "     #.##          ##.#     ",
+            "     #.## ######## ##.#     ",
+            "######.## ######## ##.######",
+            "#............##............#",
+            "#.####.#####.##.#####.####.#",
+            "#.####.#####.##.#####.####.#",
+            "#o..##.......P........##..o#",
+            "###.##.##.########.##.##.###",
+            "###.##.##.########.##.##.###",
+            "#......##....##....##......#",
+            "#.##########.##.##########.#",
+            "#.##########.##.##########.#",
+            "#..........................#",
+            "############################",
+    };
+
+    final int width;
+    final int height;
+    final int nodes;
+    final int[] nodeOfTile;
+    final int[] tileOfNode;
+    /** Neighbour of node n in direction d at 4n + d, or -1. */
+    final int[] neighbour;
+    final boolean[] wall;
+    final boolean[] door;
+    /** Nodes on the door or behind it, where a ghost's only target is the way out. */
+    final boolean[] inHouse;
+    final short[] distance;
+    final int[] nearestNode;
+    final BitSet pellets = new BitSet();
+    final BitSet powerPellets = new BitSet();
+    final int pacManStart;
+    final int[] ghostStarts;
+    /** The node just outside the ghost-house door. */
+    final int houseExit;
+
+    public Maze(String[] layout) {
+        height = layout.length;
+        width = layout[0].length();
+        int tiles = width * height;
+        boolean[] open = new boolean[tiles];
+        wall = new boolean[tiles];
+        door = new boolean[tiles];
+        int pacTile = -1, doorTile = -1;
+        int[] ghostTiles = new int[tiles];
+        int ghosts = 0;
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                char c = x < layout[y].length() ? layout[y].charAt(x) : '#';
+                int tile = y * width + x;
+                open[tile] = c != '#';
+                wall[tile] = c == '#';
+                switch (c) {
+                    case '.':
+                        pellets.set(tile);
+                        break;
+                    case 'o':
+                        powerPellets.set(tile);
+                        break;
+                    case '-':
+                        door[tile] = true;
+                        if (doorTile < 0) {
+                            doorTile = tile;
+                        }
+                        break;
+                    case 'P':
+                        pacTile = tile;
+                        break;
+                    case 'G':
+                        ghostTiles[ghosts++] = tile;
+                        break;
+                    default:
+                        break;
+                }
+            }
+        }
+        if (pacTile < 0 || doorTile < 0) {
+            throw new IllegalArgumentException("layout needs a 'P' start and a '-' door");
+        }
+
+        // Number the open tiles reachable from Pac-Man's start
+        nodeOfTile = new int[tiles];
+        Arrays.fill(nodeOfTile, -1);
+        int[] queue = new int[tiles];
+        int head = 0, tail = 0;
+        queue[tail++] = pacTile;
+        nodeOfTile[pacTile] = 0;
+        while (head < tail) {
+            int tile = queue[head++];
+            for (int d = 0; d < 4; d++) {
+                int next = step(open, tile, d);
+                if (next >= 0 && nodeOfTile[next] < 0) {
+                    nodeOfTile[next] = 0;
+                    queue[tail++] = next;
+                }
+            }
+        }
+        int count = 0;
+        for (int tile = 0; tile < tiles; tile++) {
+            if (nodeOfTile[tile] == 0) {
+                queue[count] = tile;
+                nodeOfTile[tile] = count++;
+            } else {
+                // Unreachable pockets of floor are not part of the maze
+                pellets.clear(tile);
+                powerPellets.clear(tile);
+            }
+        }
+        nodes = count;
+        tileOfNode = Arrays.copyOf(queue, nodes);
+        neighbour = new int[4 * nodes];
+        for (int n = 0; n < nodes; n++) {
+            for (int d = 0; d < 4; d++) {
+                int next = step(open, tileOfNode[n], d);
+                neighbour[4 * n + d] = next < 0 ? -1 : nodeOfTile[next];
+            }
+        }
+
+        distance = new short[nodes * nodes];
+        Arrays.fill(distance, Short.MAX_VALUE);
+        for (int from = 0; from < nodes; from++) {
+            int row = from * nodes;
+            head = 0;
+            tail = 0;
+            queue[tail++] = from;
+            distance[row + from] = 0;
+            while (head < tail) {
+                int n = queue[head++];
+                short next = (short) (distance[row + n] + 1);
+                for (int d = 0; d < 4; d++) {
+                    int m = neighbour[4 * n + d];
+                    if (m >= 0 && distance[row + m] == Short.MAX_VALUE) {
+                        distance[row + m] = next;
+                        queue[tail++] = m;
+                    }
+                }
+            }
+        }
+
+        // Multi-source search over the whole grid, walls included, from every node
+        nearestNode = new int[tiles];
+        Arrays.fill(nearestNode, -1);
+        head = 0;
+        tail = 0;
+        for (int n = 0; n < nodes; n++) {
+            nearestNode[tileOfNode[n]] = n;
+            queue[tail++] = tileOfNode[n];
+        }
+        while (head < tail) {
+            int tile = queue[head++];
+            int x = tile % width, y = tile / width;
+            for (int d = 0; d < 4; d++) {
+                int nx = x + DX[d], ny = y + DY[d];
+                if (nx >= 0 && nx < width && ny >= 0 && ny < height && nearestNode[ny * width + nx] < 0) {
+                    nearestNode[ny * width + nx] = nearestNode[tile];
+                    queue[tail++] = ny * width + nx;
+                }
+            }
+        }
+
+        pacManStart = nodeOfTile[pacTile];
+        ghostStarts = new int[ghosts];
+        for (int g = 0; g < ghosts; g++) {
+            ghostStarts[g] = nodeOfTile[ghostTiles[g]];
+        }
+        houseExit = nodeOfTile[doorTile - width];
+
+        // The house is the door plus whatever can be reached from it without going up through it
+        inHouse = new boolean[nodes];
+        head = 0;
+        tail = 0;
+        queue[tail++] = nodeOfTile[doorTile];
+        inHouse[nodeOfTile[doorTile]] = true;
+        while (head < tail) {
+            int n = queue[head++];
+            for (int d = 0; d < 4; d++) {
+                int m = neighbour[4 * n + d];
+                if (m >= 0 && !inHouse[m] && !(d == UP && door[tileOfNode[n]])) {
+                    inHouse[m] = true;
+                    queue[tail++] = m;
+                }
+            }
+        }
+    }
+
+    /** The open tile one step from tile in direction d, wrapping through tunnels, or -1. */
+    private int step(boolean[] open, int tile, int d) {
+        int x = tile % width + DX[d], y = tile / width + DY[d];
+        if (x < 0) {
+            x = width - 1;
+        } else if (x >= width) {
+            x = 0;
+        }
+        if (y < 0 || y >= height) {
+            return -1;
+        }
+        int next = y * width + x;
+        return open[next] ? next : -1;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getNodes() {
+        return nodes;
+    }
+
+    /** Node one step from n in direction d, or -1 if that is a wall. */
+    public int next(int n, int d) {
+        return neighbour[4 * n + d];
+    }
+
+    /** Steps on the shortest path between two nodes. */
+    public int distance(int from, int to) {
+        return distance[from * nodes + to];
+    }
+
+    /** Nearest node to tile (x, y); the coordinates are clamped to the board. */
+    public int nodeNear(int x, int y) {
+        x = Math.max(0, Math.min(width - 1, x));
+        y = Math.max(0, Math.min(height - 1, y));
+        return nearestNode[y * width + x];
+    }
+
+    public int x(int node) {
+        return tileOfNode[node] % width;
+    }
+
+    public int y(int node) {
+        return tileOfNode[node] / width;
+    }
+
+    public int tile(int node) {
+        return tileOfNode[node];
+    }
+
+    public boolean isDoor(int node) {
+        return door[tileOfNode[node]];
+    }
+
+    public boolean isInHouse(int node) {
+        return inHouse[node];
+    }
+
+    public boolean isWall(int x, int y) {
+        return wall[y * width + x];
+    }
+}
@@ -3,66 +3,32 @@ package org.example;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
-import java.util.ArrayList;
 
 public class PacManClone extends JPanel implements ActionListener, KeyListener {
+    static final int TILE = 20;
+    static final Color[] GHOST_COLORS = {Color.RED, Color.PINK, Color.CYAN, Color.ORANGE};
     Timer timer = new Timer(100, this);
-    int pacManX = 300, pacManY = 300, pacManDirection = 0, pacManSpeed = 5;
-    ArrayList<Rectangle> walls = new ArrayList<>();
-    ArrayList<Point> pellets = new ArrayList<>();
-    ArrayList<Point> ghosts = new ArrayList<>();
-    int score = 0;
-    boolean gameOver = false;
+    final Maze maze = new Maze(Maze.STANDARD);
+    PacManEngine engine;
 
     public PacManClone() {
-        setPreferredSize(new Dimension(600, 600));
+        setPreferredSize(new Dimension(maze.getWidth() * TILE, maze.getHeight() * TILE + 30));
         setBackground(Color.BLACK);
         addKeyListener(this);
         setFocusable(true);
-        timer.start();
         initGame();
+        timer.start();
     }
 
     public void initGame() {
-        // Initial pac-man position
-        pacManX = 300;
-        pacManY = 300;
-        pacManDirection = 0;
-
-        // Initial walls (just a few blocks for simplicity)
-        walls.clear();
-        walls.add(new Rectangle(100, 100, 400, 10));  // Top wall
-        walls.add(new Rectangle(100, 500, 400, 10));  // Bottom wall
-        walls.add(new Rectangle(100, 100, 10, 400));  // Left wall
-        walls.add(new Rectangle(500, 100, 10, 400));  // Right wall
-
-        // Initial pellet positions
-        pellets.clear();
-        for (int i = 100; i < 500; i += 40) {
-            for (int j = 100; j < 500; j += 40) {
-                if (i != 300 && j != 300) pellets.add(new Point(i, j));
-            }
-        }
-
-        // Initial ghosts positions
-        ghosts.clear();
-        ghosts.add(new Point(200, 200));
-        ghosts.add(new Point(400, 200));
-        ghosts.add(new Point(200, 400));
-        ghosts.add(new Point(400, 400));
-
-        score = 0;
-        gameOver = false;
+        engine = new PacManEngine(maze, System.nanoTime());
     }
 
     @Override
     public void actionPerformed(ActionEvent e) {
-        if (gameOver) return;
+        if (engine.isGameOver()) return;
 
-        movePacMan();
-        checkCollisions();
-        moveGhosts();
-        checkPelletCollision();
+        engine.tick();
         repaint();
     }
 
@@ -70,100 +36,60 @@ public class PacManClone extends JPanel implements ActionListener, KeyListener {
     public void paintComponent(Graphics g) {
         super.paintComponent(g);
 
-        if (gameOver) {
+        if (engine.isGameOver()) {
             g.setColor(Color.WHITE);
             g.setFont(new Font("Arial", Font.BOLD, 30));
-            g.drawString("GAME OVER", 200, 300);
-            g.drawString("Score: " + score, 230, 350);
+            g.drawString("GAME OVER", getWidth() / 2 - 90, getHeight() / 2);
+            g.drawString("Score: " + engine.getScore(), getWidth() / 2 - 70, getHeight() / 2 + 50);
             return;
         }
 
-        // Draw Pac-Man
-        g.setColor(Color.YELLOW);
-        g.fillArc(pacManX, pacManY, 40, 40, pacManDirection * 45, 270);
-
-        // Draw walls
-        g.setColor(Color.BLUE);
-        for (Rectangle wall : walls) {
-            g.fillRect(wall.x, wall.y, wall.width, wall.height);
+        // Draw walls and pellets
+        for (int y = 0; y < maze.getHeight(); y++) {
+            for (int x = 0; x < maze.getWidth(); x++) {
+                int tile = y * maze.getWidth() + x;
+                if (maze.isWall(x, y)) {
+                    g.setColor(Color.BLUE);
+                    g.fillRect(x * TILE, y * TILE, TILE, TILE);
+                } else if (engine.hasPellet(tile)) {
+                    g.setColor(Color.WHITE);
+                    g.fillRect(x * TILE + TILE / 2 - 2, y * TILE + TILE / 2 - 2, 4, 4);
+                } else if (engine.hasPowerPellet(tile)) {
+                    g.setColor(Color.WHITE);
+                    g.fillOval(x * TILE + 3, y * TILE + 3, TILE - 6, TILE - 6);
+                }
+            }
         }
 
-        // Draw pellets
-        g.setColor(Color.WHITE);
-        for (Point pellet : pellets) {
-            g.fillRect(pellet.x, pellet.y, 10, 10);
-        }
+        // Draw Pac-Man
+        int pac = engine.getPacNode();
+        g.setColor(Color.YELLOW);
+        g.fillArc(maze.x(pac) * TILE, maze.y(pac) * TILE, TILE, TILE, engine.getPacDirection() * 90 + 45, 270);
 
         // Draw ghosts
-        g.setColor(Color.RED);
-        for (Point ghost : ghosts) {
-            g.fillOval(ghost.x, ghost.y, 40, 40);
+        for (int i = 0; i < PacManEngine.GHOSTS; i++) {
+            int ghost = engine.getGhostNode(i);
+            g.setColor(engine.isFrightened(i) ? Color.BLUE.brighter() : GHOST_COLORS[i]);
+            g.fillOval(maze.x(ghost) * TILE, maze.y(ghost) * TILE, TILE, TILE);
         }
 
         // Draw score
         g.setColor(Color.WHITE);
-        g.drawString("Score: " + score, 10, 20);
-    }
-
-    public void movePacMan() {
-        if (pacManDirection == 0) pacManX += pacManSpeed; // Right
-        if (pacManDirection == 1) pacManY -= pacManSpeed; // Up
-        if (pacManDirection == 2) pacManX -= pacManSpeed; // Left
-        if (pacManDirection == 3) pacManY += pacManSpeed; // Down
-
-        // Handle wall collisions
-        for (Rectangle wall : walls) {
-            if (new Rectangle(pacManX, pacManY, 40, 40).intersects(wall)) {
-                if (pacManDirection == 0) pacManX -= pacManSpeed;
-                if (pacManDirection == 1) pacManY += pacManSpeed;
-                if (pacManDirection == 2) pacManX += pacManSpeed;
-                if (pacManDirection == 3) pacManY -= pacManSpeed;
-            }
-        }
-
-        // Wrap around screen
-        if (pacManX > getWidth()) pacManX = 0;
-        if (pacManX < 0) pacManX = getWidth() - 40;
-        if (pacManY > getHeight()) pacManY = 0;
-        if (pacManY < 0) pacManY = getHeight() - 40;
-    }
-
-    public void moveGhosts() {
-        for (Point ghost : ghosts) {
-            if (pacManX > ghost.x) ghost.x += 2;
-            if (pacManX < ghost.x) ghost.x -= 2;
-            if (pacManY > ghost.y) ghost.y += 2;
-            if (pacManY < ghost.y) ghost.y -= 2;
-        }
-    }
-
-    public void checkCollisions() {
-        // Check for ghost collision
-        for (Point ghost : ghosts) {
-            if (new Rectangle(pacManX, pacManY, 40, 40).intersects(new Rectangle(ghost.x, ghost.y, 40, 40))) {
-                gameOver = true;
-            }
-        }
-    }
-
-    public void checkPelletCollision() {
-        ArrayList<Point> toRemove = new ArrayList<>();
-        for (Point pellet : pellets) {
-            if (new Rectangle(pacManX, pacManY, 40, 40).intersects(new Rectangle(pellet.x, pellet.y, 10, 10))) {
-                toRemove.add(pellet);
-                score += 10;
-            }
-        }
-        pellets.removeAll(toRemove);
+        g.drawString("Score: " + engine.getScore() + "   Lives: " + engine.getLives() + "   Level: " + engine.getLevel(),
+                10, maze.getHeight() * TILE + 20);
     }
 
     @Override
     public void keyPressed(KeyEvent e) {
         int key = e.getKeyCode();
-        if (key == KeyEvent.VK_LEFT && pacManDirection != 0) pacManDirection = 2;
-        if (key == KeyEvent.VK_UP && pacManDirection != 3) pacManDirection = 1;
-        if (key == KeyEvent.VK_RIGHT && pacManDirection != 2) pacManDirection = 0;
-        if (key == KeyEvent.VK_DOWN && pacManDirection != 1) pacManDirection = 3;
+        if (key == KeyEvent.VK_LEFT) engine.setDirection(Maze.LEFT);
+        if (key == KeyEvent.VK_UP) engine.setDirection(Maze.UP);
+        if (key == KeyEvent.VK_RIGHT) engine.setDirection(Maze.RIGHT);
+        if (key == KeyEvent.VK_DOWN) engine.setDirection(Maze.DOWN);
+        if (key == KeyEvent.VK_SPACE && engine.isGameOver()) {
+            initGame();
+            repaint();
+        }
     }
 
     @Override
@@ -0,0 +1,329 @@
+package org.example;
+
+import java.util.BitSet;
+import java.util.SplittableRandom;
+
+/**
+ * The game rules on a {@link Maze}, one tile per tick, with no drawing.
+ *
+ * Each ghost picks its way at every tile: of the directions open to it, not
+ * counting going back, it takes the one whose next tile is closest to its
+ * target by the maze's distance table. Targets follow the arcade game. In
+ * chase mode Blinky aims at Pac-Man, Pinky four tiles ahead of him, Inky at
+ * the point twice as far from Blinky as two tiles ahead of Pac-Man, and Clyde
+ * at Pac-Man until he is within eight steps, then at his corner. In scatter
+ * mode each heads for its own corner, and when frightened they wander at
+ * random at half speed. The game alternates scatter and chase on a timer.
+ *
+ * Pellets are bits in a set indexed by tile, so eating one is a single test
+ * and clear. Given the same seed and the same inputs a game always plays out
+ * the same way.
+ */
+public final class PacManEngine {
+
+    public static final int GHOSTS = 4;
+    public static final int PELLET_POINTS = 10, POWER_POINTS = 50, GHOST_POINTS = 200;
+    public static final int FRIGHTENED_TICKS = 60;
+    static final int CHASE_RANGE = 8;
+    /** Ticks spent in scatter, chase, scatter, ...; chase lasts forever after the last one. */
+    static final int[] MODE_TICKS = {70, 200, 70, 200, 50, 200, 50};
+    static final int[] RELEASE_TICKS = {0, 20, 60, 100};
+
+    static final byte IN_HOUSE = 0, ACTIVE = 1;
+
+    final Maze maze;
+    private final SplittableRandom random;
+    private final int[] cornerX;
+    private final int[] cornerY;
+    final BitSet pellets = new BitSet();
+    final BitSet powerPellets = new BitSet();
+
+    int pacNode;
+    int pacDirection = Maze.LEFT;
+    int wantedDirection = Maze.LEFT;
+    final int[] ghostNode = new int[GHOSTS];
+    final int[] ghostDirection = new int[GHOSTS];
+    final byte[] ghostState = new byte[GHOSTS];
+    final int[] ghostRelease = new int[GHOSTS];
+    final boolean[] ghostFrightened = new boolean[GHOSTS];
+
+    int score;
+    int lives = 3;
+    int level = 1;
+    long ticks;
+    int modeTicks;
+    int modeIndex;
+    int frightenedTicks;
+    int ghostsEatenInRow;
+    boolean gameOver;
+
+    public PacManEngine(Maze maze, long seed) {
+        this.maze = maze;
+        random = new SplittableRandom(seed);
+        cornerX = new int[]{maze.width - 3, 2, maze.width - 1, 0};
+        cornerY = new int[]{-3, -3, maze.height, maze.height};
+        refill();
+        resetPositions();
+    }
+
+    public Maze getMaze() {
+        return maze;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getLives() {
+        return lives;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    public int getPacNode() {
+        return pacNode;
+    }
+
+    public int getPacDirection() {
+        return pacDirection;
+    }
+
+    public int getGhostNode(int ghost) {
+        return ghostNode[ghost];
+    }
+
+    public boolean isFrightened(int ghost) {
+        return ghostFrightened[ghost];
+    }
+
+    public boolean isActive(int ghost) {
+        return ghostState[ghost] == ACTIVE;
+    }
+
+    public boolean hasPellet(int tile) {
+        return pellets.get(tile);
+    }
+
+    public boolean hasPowerPellet(int tile) {
+        return powerPellets.get(tile);
+    }
+
+    public int getPelletsLeft() {
+        return pellets.cardinality() + powerPellets.cardinality();
+    }
+
+    /** Pac-Man turns this way as soon as the maze lets him. */
+    public void setDirection(int direction) {
+        wantedDirection = direction;
+    }
+
+    private void refill() {
+        pellets.clear();
+        pellets.or(maze.pellets);
+        powerPellets.clear();
+        powerPellets.or(maze.powerPellets);
+    }
+
+    private void resetPositions() {
+        pacNode = maze.pacManStart;
+        pacDirection = Maze.LEFT;
+        wantedDirection = Maze.LEFT;
+        for (int g = 0; g < GHOSTS; g++) {
+            sendHome(g, RELEASE_TICKS[g]);
+        }
+        frightenedTicks = 0;
+        modeTicks = 0;
+        modeIndex = 0;
+    }
+
+    private void sendHome(int g, int delay) {
+        ghostNode[g] = maze.ghostStarts[g % maze.ghostStarts.length];
+        ghostDirection[g] = Maze.UP;
+        ghostState[g] = IN_HOUSE;
+        ghostRelease[g] = delay;
+        ghostFrightened[g] = false;
+    }
+
+    /** Advances the game one tick. */
+    public void tick() {
+        if (gameOver) {
+            return;
+        }
+        ticks++;
+        movePacMan();
+        eat();
+        if (!checkGhosts()) {
+            return;
+        }
+        updateModes();
+        moveGhosts();
+        if (!checkGhosts()) {
+            return;
+        }
+        if (pellets.isEmpty() && powerPellets.isEmpty()) {
+            level++;
+            refill();
+            resetPositions();
+        }
+    }
+
+    private void movePacMan() {
+        int next = maze.next(pacNode, wantedDirection);
+        if (next >= 0 && !maze.isDoor(next)) {
+            pacDirection = wantedDirection;
+            pacNode = next;
+            return;
+        }
+        next = maze.next(pacNode, pacDirection);
+        if (next >= 0 && !maze.isDoor(next)) {
+            pacNode = next;
+        }
+    }
+
+    private void eat() {
+        int tile = maze.tile(pacNode);
+        if (pellets.get(tile)) {
+            pellets.clear(tile);
+            score += PELLET_POINTS;
+        } else if (powerPellets.get(tile)) {
+            powerPellets.clear(tile);
+            score += POWER_POINTS;
+            frightenedTicks = FRIGHTENED_TICKS;
+            ghostsEatenInRow = 0;
+            for (int g = 0; g < GHOSTS; g++) {
+                if (ghostState[g] == ACTIVE) {
+                    ghostFrightened[g] = true;
+                    ghostDirection[g] ^= 2;
+                }
+            }
+        }
+    }
+
+    /** Resolves Pac-Man meeting a ghost; false if he lost a life. */
+    private boolean checkGhosts() {
+        for (int g = 0; g < GHOSTS; g++) {
+            if (ghostNode[g] != pacNode || ghostState[g] != ACTIVE) {
+                continue;
+            }
+            if (ghostFrightened[g]) {
+                score += GHOST_POINTS << ghostsEatenInRow++;
+                sendHome(g, RELEASE_TICKS[1]);
+            } else {
+                lives--;
+                if (lives <= 0) {
+                    gameOver = true;
+                } else {
+                    resetPositions();
+                }
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void updateModes() {
+        if (frightenedTicks > 0) {
+            if (--frightenedTicks == 0) {
+                for (int g = 0; g < GHOSTS; g++) {
+                    ghostFrightened[g] = false;
+                }
+            }
+            return;
+        }
+        if (modeIndex < MODE_TICKS.length && ++modeTicks >= MODE_TICKS[modeIndex]) {
+            modeIndex++;
+            modeTicks = 0;
+            // Ghosts turn round whenever the mode changes
+            for (int g = 0; g < GHOSTS; g++) {
+                if (ghostState[g] == ACTIVE) {
+                    ghostDirection[g] ^= 2;
+                }
+            }
+        }
+    }
+
+    /** Even mode indexes are scatter. */
+    private boolean isScatter() {
+        return modeIndex < MODE_TICKS.length && (modeIndex & 1) == 0;
+    }
+
+    private void moveGhosts() {
+        for (int g = 0; g < GHOSTS; g++) {
+            if (ghostState[g] == IN_HOUSE) {
+                if (--ghostRelease[g] <= 0) {
+                    ghostState[g] = ACTIVE;
+                }
+                continue;
+            }
+            if (ghostFrightened[g] && (ticks & 1) == 0) {
+                continue;
+            }
+            int node = ghostNode[g];
+            int back = ghostDirection[g] ^ 2;
+            int target = ghostFrightened[g] ? -1 : target(g);
+            int best = -1, bestDistance = Integer.MAX_VALUE, options = 0;
+            for (int d = 0; d < 4; d++) {
+                int next = maze.next(node, d);
+                // Once out, a ghost never goes back in through the door
+                if (next < 0 || d == back || maze.isDoor(next) && d == Maze.DOWN) {
+                    continue;
+                }
+                if (target < 0) {
+                    if (random.nextInt(++options) == 0) {
+                        best = d;
+                    }
+                } else {
+                    int dist = maze.distance(next, target);
+                    if (dist < bestDistance) {
+                        bestDistance = dist;
+                        best = d;
+                    }
+                }
+            }
+            if (best < 0) {
+                // Dead end: the only way is back
+                best = maze.next(node, back) >= 0 ? back : ghostDirection[g];
+            }
+            int next = maze.next(node, best);
+            if (next >= 0) {
+                ghostDirection[g] = best;
+                ghostNode[g] = next;
+            }
+        }
+    }
+
+    /** The node ghost g is heading for; only called when it is not frightened. */
+    int target(int g) {
+        int node = ghostNode[g];
+        if (maze.isInHouse(node)) {
+            return maze.houseExit;
+        }
+        if (isScatter()) {
+            return maze.nodeNear(cornerX[g], cornerY[g]);
+        }
+        int px = maze.x(pacNode), py = maze.y(pacNode);
+        int dx = Maze.DX[pacDirection], dy = Maze.DY[pacDirection];
+        switch (g) {
+            case 0:
+                return pacNode;
+            case 1:
+                return maze.nodeNear(px + 4 * dx, py + 4 * dy);
+            case 2: {
+                int bx = maze.x(ghostNode[0]), by = maze.y(ghostNode[0]);
+                return maze.nodeNear(2 * (px + 2 * dx) - bx, 2 * (py + 2 * dy) - by);
+            }
+            default:
+                return maze.distance(node, pacNode) > CHASE_RANGE ? pacNode : maze.nodeNear(cornerX[g], cornerY[g]);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package org.example;
+
+/**
+ * Plays games of {@link PacManEngine} with no window, for tuning the ghosts.
+ * Pac-Man is steered by a simple autopilot that heads for the nearest pellet
+ * and keeps away from ghosts, both by the maze's distance table. Its input on
+ * every frame is recorded, then replayed into a fresh engine with the same
+ * seed, which must end in exactly the same state. Reports frames per second
+ * for both runs and the average score.
+ *
+ * Usage: java org.example.PacManReplay [games] [frames] [seed]
+ */
+public class PacManReplay {
+
+    static final int DANGER = 3;
+
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int maxFrames = args.length > 1 ? Integer.parseInt(args[1]) : 20000;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 1;
+
+        long begin = System.nanoTime();
+        Maze maze = new Maze(Maze.STANDARD);
+        System.out.printf("%d nodes, distance table built in %.1f ms%n", maze.getNodes(),
+                (System.nanoTime() - begin) / 1e6);
+
+        byte[] inputs = new byte[maxFrames];
+        long playFrames = 0, replayFrames = 0, playNanos = 0, replayNanos = 0, totalScore = 0;
+        int bestScore = 0, bestLevel = 0;
+        for (int g = 0; g < games; g++) {
+            PacManEngine engine = new PacManEngine(maze, seed + g);
+            int frames = 0;
+            long t0 = System.nanoTime();
+            while (!engine.isGameOver() && frames < maxFrames) {
+                int direction = autopilot(engine);
+                inputs[frames++] = (byte) direction;
+                engine.setDirection(direction);
+                engine.tick();
+            }
+            long t1 = System.nanoTime();
+            PacManEngine replay = new PacManEngine(maze, seed + g);
+            for (int f = 0; f < frames; f++) {
+                replay.setDirection(inputs[f]);
+                replay.tick();
+            }
+            long t2 = System.nanoTime();
+            if (replay.getScore() != engine.getScore() || replay.getPacNode() != engine.getPacNode()
+                    || replay.getLives() != engine.getLives() || replay.getTicks() != engine.getTicks()) {
+                throw new IllegalStateException("replay of game " + g + " diverged");
+            }
+            playFrames += frames;
+            replayFrames += frames;
+            playNanos += t1 - t0;
+            replayNanos += t2 - t1;
+            totalScore += engine.getScore();
+            bestScore = Math.max(bestScore, engine.getScore());
+            bestLevel = Math.max(bestLevel, engine.getLevel());
+        }
+
+        System.out.printf("%d games, average score %d, best %d, best level %d%n",
+                games, totalScore / games, bestScore, bestLevel);
+        System.out.printf("autopilot: %d frames, %.0f frames/sec%n", playFrames, playFrames / (playNanos / 1e9));
+        System.out.printf("replay:    %d frames, %.0f frames/sec, all replays matched%n",
+                replayFrames, replayFrames / (replayNanos / 1e9));
+    }
+
+    /**
+     * The open direction that leads closest to a pellet, skipping any that
+     * brings Pac-Man within {@value #DANGER} steps of a ghost that is not
+     * frightened, unless every direction does.
+     */
+    static int autopilot(PacManEngine engine) {
+        Maze maze = engine.getMaze();
+        int pac = engine.getPacNode();
+        int best = engine.getPacDirection();
+        long bestCost = Long.MAX_VALUE;
+        for (int d = 0; d < 4; d++) {
+            int next = maze.next(pac, d);
+            if (next < 0 || maze.isDoor(next)) {
+                continue;
+            }
+            long cost = nearestPellet(engine, next);
+            for (int g = 0; g < PacManEngine.GHOSTS; g++) {
+                if (engine.isActive(g) && !engine.isFrightened(g)
+                        && maze.distance(next, engine.getGhostNode(g)) < DANGER) {
+                    cost += 1_000_000;
+                }
+            }
+            if (cost < bestCost) {
+                bestCost = cost;
+                best = d;
+            }
+        }
+        return best;
+    }
+
+    private static int nearestPellet(PacManEngine engine, int from) {
+        Maze maze = engine.getMaze();
+        int best = Short.MAX_VALUE;
+        for (int tile = engine.pellets.nextSetBit(0); tile >= 0; tile = engine.pellets.nextSetBit(tile + 1)) {
+            best = Math.min(best, maze.distance(from, maze.nodeOfTile[tile]));
+        }
+        for (int tile = engine.powerPellets.nextSetBit(0); tile >= 0; tile = engine.powerPellets.nextSetBit(tile + 1)) {
+            best = Math.min(best, maze.distance(from, maze.nodeOfTile[tile]));
+        }
+        return best;
+    }
+}
@@ -0,0 +1,311 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Steps a {@link PopulationStore} one tick at a time on a thread pool.
+ *
+ * Each tick: every agent moves and infected agents count towards recovery; the
+ * infectious agents are put into a {@link SpatialHashGrid} with cells the size of
+ * the contact radius; then every susceptible agent counts the infectious agents in
+ * its 3x3 cells within the radius and is infected with 1 - (1 - p)^k, as if each
+ * contact were tried separately. Agents infected in a tick become infectious in
+ * the next one.
+ *
+ * The agents are split into fixed chunks and each chunk has its own random
+ * generator split from the seed, and only ever writes its own agents, so a run is
+ * the same for any number of threads.
+ */
+public final class ContactEngine implements AutoCloseable {
+
+    public static final int CHUNK = 16384;
+
+    public static class Config {
+        int population = 200;
+        float width = 800;
+        float height = 600;
+        float contactRadius = 10;
+        double infectionProbability = 0.05;
+        int recoveryTicks = 500;
+        int initialInfected = 1;
+        long seed = 1;
+        int threads = Runtime.getRuntime().availableProcessors();
+
+        public Config population(int population) {
+            this.population = population;
+            return this;
+        }
+
+        public Config world(float width, float height) {
+            this.width = width;
+            this.height = height;
+            return this;
+        }
+
+        /** World scaled so there is one agent per {@code area} square units, keeping width:height at 4:3. */
+        public Config density(double area) {
+            double total = area * population;
+            this.width = (float) Math.sqrt(total * 4 / 3);
+            this.height = (float) (total / width);
+            return this;
+        }
+
+        public Config contactRadius(float contactRadius) {
+            this.contactRadius = contactRadius;
+            return this;
+        }
+
+        public Config infectionProbability(double infectionProbability) {
+            this.infectionProbability = infectionProbability;
+            return this;
+        }
+
+        public Config recoveryTicks(int recoveryTicks) {
+            this.recoveryTicks = recoveryTicks;
+            return this;
+        }
+
+        public Config initialInfected(int initialInfected) {
+            this.initialInfected = initialInfected;
+            return this;
+        }
+
+        public Config seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public Config threads(int threads) {
+            this.threads = threads;
+            return this;
+        }
+    }
+
+    private final Config config;
+    private final PopulationStore population;
+    private final SpatialHashGrid grid;
+    private final SplittableRandom[] chunkRandom;
+    private final ExecutorService pool;
+    /** (1 - p)^k: chance of escaping k contacts. */
+    private final double[] escape = new double[64];
+
+    private int[] infectious = new int[16];
+    private long tick;
+    private int susceptible, infected, recovered;
+
+    public ContactEngine(Config config) {
+        this.config = config;
+        population = new PopulationStore(config.population, config.width, config.height);
+        grid = new SpatialHashGrid(config.contactRadius, config.width, config.height);
+        int chunks = (config.population + CHUNK - 1) / CHUNK;
+        chunkRandom = new SplittableRandom[chunks];
+        SplittableRandom root = new SplittableRandom(config.seed);
+        for (int c = 0; c < chunks; c++) {
+            chunkRandom[c] = root.split();
+        }
+        for (int k = 0; k < escape.length; k++) {
+            escape[k] = Math.pow(1 - config.infectionProbability, k);
+        }
+        pool = Executors.newFixedThreadPool(Math.max(1, config.threads), r -> {
+            Thread t = new Thread(r, "contact-engine");
+            t.setDaemon(true);
+            return t;
+        });
+        forEachChunk((c, from, to) -> {
+            population.randomize(from, to, chunkRandom[c]);
+            return null;
+        });
+        for (int i = 0; i < Math.min(config.initialInfected, config.population); i++) {
+            population.state[i] = PopulationStore.INFECTED;
+        }
+        count();
+    }
+
+    public PopulationStore getPopulation() {
+        return population;
+    }
+
+    public long getTick() {
+        return tick;
+    }
+
+    public int getSusceptible() {
+        return susceptible;
+    }
+
+    public int getInfected() {
+        return infected;
+    }
+
+    public int getRecovered() {
+        return recovered;
+    }
+
+    private interface ChunkTask {
+        int[] run(int chunk, int from, int to);
+    }
+
+    /** Runs the task on every chunk and waits; returns the per-chunk results in chunk order. */
+    private List<int[]> forEachChunk(ChunkTask task) {
+        List<Callable<int[]>> jobs = new ArrayList<>();
+        for (int c = 0; c < chunkRandom.length; c++) {
+            int chunk = c, from = c * CHUNK, to = Math.min(config.population, from + CHUNK);
+            jobs.add(() -> task.run(chunk, from, to));
+        }
+        List<int[]> results = new ArrayList<>();
+        try {
+            for (Future<int[]> f : pool.invokeAll(jobs)) {
+                results.add(f.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+        return results;
+    }
+
+    public void step() {
+        PopulationStore p = population;
+        // move, recover, and collect the infectious agents of each chunk
+        List<int[]> lists = forEachChunk((c, from, to) -> {
+            int[] list = new int[16];
+            int n = 0;
+            for (int i = from; i < to; i++) {
+                byte s = p.state[i];
+                if (s == PopulationStore.EXPOSED) {
+                    s = p.state[i] = PopulationStore.INFECTED;
+                }
+                if (s == PopulationStore.INFECTED && ++p.infectedTicks[i] > config.recoveryTicks) {
+                    s = p.state[i] = PopulationStore.RECOVERED;
+                }
+                if (s != PopulationStore.RECOVERED) {
+                    move(p, i);
+                }
+                if (s == PopulationStore.INFECTED) {
+                    if (n + 1 >= list.length) {
+                        list = Arrays.copyOf(list, list.length * 2);
+                    }
+                    list[++n] = i;
+                }
+            }
+            list[0] = n;
+            return list;
+        });
+        int total = 0;
+        for (int[] list : lists) {
+            total += list[0];
+        }
+        if (infectious.length < total) {
+            infectious = new int[Math.max(total, infectious.length * 2)];
+        }
+        int k = 0;
+        for (int[] list : lists) {
+            System.arraycopy(list, 1, infectious, k, list[0]);
+            k += list[0];
+        }
+        grid.build(infectious, total, p.x, p.y);
+
+        if (total > 0) {
+            forEachChunk((c, from, to) -> {
+                infect(c, from, to);
+                return null;
+            });
+        }
+        tick++;
+        count();
+    }
+
+    private static void move(PopulationStore p, int i) {
+        float nx = p.x[i] + p.dx[i], ny = p.y[i] + p.dy[i];
+        if (nx < 0 || nx > p.width) {
+            p.dx[i] = -p.dx[i];
+            nx = Math.max(0, Math.min(p.width, nx));
+        }
+        if (ny < 0 || ny > p.height) {
+            p.dy[i] = -p.dy[i];
+            ny = Math.max(0, Math.min(p.height, ny));
+        }
+        p.x[i] = nx;
+        p.y[i] = ny;
+    }
+
+    private void infect(int chunk, int from, int to) {
+        PopulationStore p = population;
+        SplittableRandom random = chunkRandom[chunk];
+        float r2 = config.contactRadius * config.contactRadius;
+        int[] buckets = new int[9];
+        for (int i = from; i < to; i++) {
+            if (p.state[i] != PopulationStore.SUSCEPTIBLE) {
+                continue;
+            }
+            float px = p.x[i], py = p.y[i];
+            int cx = grid.cell(px), cy = grid.cell(py);
+            if (!grid.anyNear(cx, cy)) {
+                continue;
+            }
+            int distinct = 0;
+            for (int ox = -1; ox <= 1; ox++) {
+                for (int oy = -1; oy <= 1; oy++) {
+                    int b = grid.bucket(cx + ox, cy + oy);
+                    if (grid.isEmpty(b)) {
+                        continue;
+                    }
+                    boolean seen = false;
+                    for (int j = 0; j < distinct && !seen; j++) {
+                        seen = buckets[j] == b;
+                    }
+                    if (!seen) {
+                        buckets[distinct++] = b;
+                    }
+                }
+            }
+            int contacts = 0;
+            for (int j = 0; j < distinct; j++) {
+                for (int e = grid.start(buckets[j]), end = grid.end(buckets[j]); e < end; e++) {
+                    int other = grid.item(e);
+                    float ddx = p.x[other] - px, ddy = p.y[other] - py;
+                    if (ddx * ddx + ddy * ddy < r2) {
+                        contacts++;
+                    }
+                }
+            }
+            if (contacts > 0) {
+                double stay = escape[Math.min(contacts, escape.length - 1)];
+                if (random.nextDouble() >= stay) {
+                    p.state[i] = PopulationStore.EXPOSED;
+                }
+            }
+        }
+    }
+
+    private void count() {
+        int s = 0, inf = 0, r = 0;
+        for (byte b : population.state) {
+            if (b == PopulationStore.SUSCEPTIBLE) {
+                s++;
+            } else if (b == PopulationStore.RECOVERED) {
+                r++;
+            } else {
+                inf++;
+            }
+        }
+        susceptible = s;
+        infected = inf;
+        recovered = r;
+    }
+
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+}
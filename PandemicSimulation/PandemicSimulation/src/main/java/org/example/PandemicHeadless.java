@@ -0,0 +1,54 @@
+package org.example;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+/**
+ * Runs the simulation without a window and streams one line of daily
+ * susceptible/infected/recovered counts per simulated day to a CSV file.
+ * The world keeps the density of the Swing version (one agent per 2400 square
+ * units), so a larger population gets a proportionally larger world.
+ * Usage: PandemicHeadless [agents] [days] [csv file] [threads] [seed]
+ */
+public class PandemicHeadless {
+
+    static final int TICKS_PER_DAY = 50;
+    static final double AREA_PER_AGENT = 2400;
+
+    public static void main(String[] args) throws IOException {
+        int agents = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int days = args.length > 1 ? Integer.parseInt(args[1]) : 60;
+        String file = args.length > 2 ? args[2] : "pandemic.csv";
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : 1;
+
+        ContactEngine.Config config = new ContactEngine.Config()
+                .population(agents)
+                .density(AREA_PER_AGENT)
+                .initialInfected(Math.max(1, agents / 10000))
+                .threads(threads)
+                .seed(seed);
+        long start = System.nanoTime();
+        try (ContactEngine engine = new ContactEngine(config);
+             BufferedWriter out = Files.newBufferedWriter(Paths.get(file))) {
+            out.write("day,susceptible,infected,recovered");
+            out.newLine();
+            for (int day = 0; day <= days; day++) {
+                if (day > 0) {
+                    for (int t = 0; t < TICKS_PER_DAY; t++) {
+                        engine.step();
+                    }
+                }
+                out.write(day + "," + engine.getSusceptible() + "," + engine.getInfected() + "," + engine.getRecovered());
+                out.newLine();
+                out.flush();
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("%d agents, %d days (%d ticks) on %d threads: %.1f s, %.1f M agent-ticks/sec -> %s%n",
+                    agents, days, engine.getTick(), threads, seconds,
+                    (double) agents * engine.getTick() / seconds / 1e6, file);
+        }
+    }
+}
@@ -2,98 +2,97 @@ package org.example;
 
 import javax.swing.*;
 import java.awt.*;
-import java.util.ArrayList;
-import java.util.Random;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
 
+/**
+ * Window onto a {@link ContactEngine} world that is larger than the window: drag
+ * to pan. Each frame only the agents inside the viewport are drawn, thinned out
+ * to at most MAX_DRAWN when the view is crowded.
+ * Usage: PandemicSimulation [population]
+ */
 public class PandemicSimulation extends JPanel {
     private static final int WIDTH = 800;
     private static final int HEIGHT = 600;
-    private static final int POPULATION = 200;
+    private static final int POPULATION = 20000;
     private static final int PERSON_SIZE = 5;
     private static final double INFECTION_PROBABILITY = 0.05;
     private static final int RECOVERY_TIME = 500;
+    private static final int MAX_DRAWN = 20000;
 
-    private final ArrayList<Person> people;
-    private final Random random;
+    private final ContactEngine engine;
+    private float viewX, viewY;
+    private int lastVisible;
 
-    public PandemicSimulation() {
-        this.people = new ArrayList<>();
-        this.random = new Random();
+    public PandemicSimulation(int population) {
+        this.engine = new ContactEngine(new ContactEngine.Config()
+                .population(population)
+                .density(PandemicHeadless.AREA_PER_AGENT)
+                .infectionProbability(INFECTION_PROBABILITY)
+                .recoveryTicks(RECOVERY_TIME)
+                .initialInfected(Math.max(1, population / 1000)) // Patient zero
+                .seed(System.nanoTime()));
+        MouseAdapter pan = new MouseAdapter() {
+            private int lastX, lastY;
 
-        for (int i = 0; i < POPULATION; i++) {
-            people.add(new Person(random.nextInt(WIDTH), random.nextInt(HEIGHT), random.nextBoolean()));
-        }
-        people.get(0).infected = true; // Patient zero
+            @Override
+            public void mousePressed(MouseEvent e) {
+                lastX = e.getX();
+                lastY = e.getY();
+            }
+
+            @Override
+            public void mouseDragged(MouseEvent e) {
+                PopulationStore p = engine.getPopulation();
+                viewX = Math.max(0, Math.min(p.getWidth() - getWidth(), viewX - (e.getX() - lastX)));
+                viewY = Math.max(0, Math.min(p.getHeight() - getHeight(), viewY - (e.getY() - lastY)));
+                lastX = e.getX();
+                lastY = e.getY();
+                repaint();
+            }
+        };
+        addMouseListener(pan);
+        addMouseMotionListener(pan);
 
         new Timer(20, e -> updateSimulation()).start();
     }
 
+    public PandemicSimulation() {
+        this(POPULATION);
+    }
+
     private void updateSimulation() {
-        for (Person p : people) {
-            p.move();
-            p.updateInfectionStatus();
-            for (Person other : people) {
-                if (p != other && p.isCloseTo(other) && p.infected && !other.recovered) {
-                    if (random.nextDouble() < INFECTION_PROBABILITY) {
-                        other.infected = true;
-                    }
-                }
-            }
-        }
+        engine.step();
         repaint();
     }
 
     @Override
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
-        for (Person p : people) {
-            g.setColor(p.recovered ? Color.BLUE : (p.infected ? Color.RED : Color.GREEN));
-            g.fillOval(p.x, p.y, PERSON_SIZE, PERSON_SIZE);
-        }
-    }
-
-    private static class Person {
-        int x, y, dx, dy, infectionTime;
-        boolean infected, recovered;
-
-        public Person(int x, int y, boolean moving) {
-            this.x = x;
-            this.y = y;
-            this.dx = moving ? (int) (Math.random() * 3 - 1) : 0;
-            this.dy = moving ? (int) (Math.random() * 3 - 1) : 0;
-            this.infected = false;
-            this.recovered = false;
-            this.infectionTime = 0;
-        }
-
-        public void move() {
-            if (!recovered) {
-                x += dx;
-                y += dy;
-                if (x < 0 || x > WIDTH) dx = -dx;
-                if (y < 0 || y > HEIGHT) dy = -dy;
-            }
-        }
-
-        public boolean isCloseTo(Person other) {
-            int distance = (x - other.x) * (x - other.x) + (y - other.y) * (y - other.y);
-            return distance < 100;
-        }
-
-        public void updateInfectionStatus() {
-            if (infected) {
-                infectionTime++;
-                if (infectionTime > RECOVERY_TIME) {
-                    infected = false;
-                    recovered = true;
-                }
+        PopulationStore p = engine.getPopulation();
+        float right = viewX + getWidth(), bottom = viewY + getHeight();
+        int stride = Math.max(1, lastVisible / MAX_DRAWN);
+        int visible = 0;
+        for (int i = 0; i < p.size(); i++) {
+            float x = p.getX(i), y = p.getY(i);
+            if (x < viewX || x >= right || y < viewY || y >= bottom || visible++ % stride != 0) {
+                continue;
             }
+            byte state = p.getState(i);
+            g.setColor(state == PopulationStore.RECOVERED ? Color.BLUE
+                    : (state == PopulationStore.INFECTED ? Color.RED : Color.GREEN));
+            g.fillOval((int) (x - viewX), (int) (y - viewY), PERSON_SIZE, PERSON_SIZE);
         }
+        lastVisible = visible;
+        g.setColor(Color.BLACK);
+        g.drawString(String.format("day %d  S %d  I %d  R %d  view (%.0f, %.0f)",
+                engine.getTick() / PandemicHeadless.TICKS_PER_DAY, engine.getSusceptible(), engine.getInfected(),
+                engine.getRecovered(), viewX, viewY), 10, 15);
     }
 
     public static void main(String[] args) {
         JFrame frame = new JFrame("Pandemic Simulation");
-        PandemicSimulation simulation = new PandemicSimulation();
+        PandemicSimulation simulation = new PandemicSimulation(args.length > 0 ? Integer.parseInt(args[0]) : POPULATION);
         frame.add(simulation);
         frame.setSize(WIDTH, HEIGHT);
         frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
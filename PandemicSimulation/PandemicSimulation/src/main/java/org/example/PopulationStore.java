@@ -0,0 +1,76 @@
+package org.example;
+
+import java.util.SplittableRandom;
+
+/**
+ * The population as parallel primitive arrays (struct of arrays): agent i is at
+ * (x[i], y[i]) moving by (dx[i], dy[i]) per tick, in health state state[i] and
+ * infected for infectedTicks[i] ticks.
+ */
+public final class PopulationStore {
+
+    public static final byte SUSCEPTIBLE = 0;
+    public static final byte INFECTED = 1;
+    public static final byte RECOVERED = 2;
+    /** Infected during the current tick: not infectious until the next one. */
+    static final byte EXPOSED = 3;
+
+    final int size;
+    final float width;
+    final float height;
+    final float[] x;
+    final float[] y;
+    final float[] dx;
+    final float[] dy;
+    final byte[] state;
+    final int[] infectedTicks;
+
+    public PopulationStore(int size, float width, float height) {
+        this.size = size;
+        this.width = width;
+        this.height = height;
+        x = new float[size];
+        y = new float[size];
+        dx = new float[size];
+        dy = new float[size];
+        state = new byte[size];
+        infectedTicks = new int[size];
+    }
+
+    /** Places agents [from, to) uniformly; about half of them move at up to one unit per tick. */
+    void randomize(int from, int to, SplittableRandom random) {
+        for (int i = from; i < to; i++) {
+            x[i] = (float) (random.nextDouble() * width);
+            y[i] = (float) (random.nextDouble() * height);
+            if (random.nextBoolean()) {
+                dx[i] = (float) (random.nextDouble() * 2 - 1);
+                dy[i] = (float) (random.nextDouble() * 2 - 1);
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public float getWidth() {
+        return width;
+    }
+
+    public float getHeight() {
+        return height;
+    }
+
+    public float getX(int i) {
+        return x[i];
+    }
+
+    public float getY(int i) {
+        return y[i];
+    }
+
+    /** SUSCEPTIBLE, INFECTED or RECOVERED. */
+    public byte getState(int i) {
+        return state[i] == EXPOSED ? INFECTED : state[i];
+    }
+}
@@ -0,0 +1,126 @@
+package org.example;
+
+import java.util.Arrays;
+
+/**
+ * Uniform grid over the plane whose cells are hashed into a table of about twice
+ * as many buckets as points, so memory follows the number of points rather than
+ * the size of the world. Built by counting sort: bucket b holds the point indices
+ * items[start[b]] .. items[start[b + 1] - 1]. Distant cells can share a bucket,
+ * so callers still check distances.
+ *
+ * For a bounded world a map with one bit per block of 8x8 cells is kept as well,
+ * set for every block within one cell of a point. When few points are indexed,
+ * most buckets are shared with far-away cells. The map is small enough to stay
+ * in cache, so it rejects empty neighbourhoods with a single bit test.
+ */
+final class SpatialHashGrid {
+
+    private final float inverseCellSize;
+    private int mask;
+    private int[] start = new int[2];
+    private int[] items = new int[0];
+    private int[] bucketOf = new int[0];
+    private int[] fill = new int[0];
+    private static final int BLOCK_SHIFT = 3;
+    private final int blockCols;
+    private final int blockRows;
+    private final long[] near;
+    private int[] marked = new int[0];
+    private int markedCount;
+
+    /** Grid over [0, width] x [0, height]. */
+    SpatialHashGrid(float cellSize, float width, float height) {
+        this.inverseCellSize = 1 / cellSize;
+        blockCols = (cell(width) >> BLOCK_SHIFT) + 1;
+        blockRows = (cell(height) >> BLOCK_SHIFT) + 1;
+        near = new long[(blockCols * blockRows + 63) >>> 6];
+    }
+
+    /** False if no point can be within one cell of (cx, cy); true means look in the buckets. */
+    boolean anyNear(int cx, int cy) {
+        int b = (cy >> BLOCK_SHIFT) * blockCols + (cx >> BLOCK_SHIFT);
+        return (near[b >>> 6] & 1L << b) != 0;
+    }
+
+    private void markNear(int cx, int cy) {
+        int bx0 = Math.max(cx - 1, 0) >> BLOCK_SHIFT, bx1 = Math.min((cx + 1) >> BLOCK_SHIFT, blockCols - 1);
+        int by0 = Math.max(cy - 1, 0) >> BLOCK_SHIFT, by1 = Math.min((cy + 1) >> BLOCK_SHIFT, blockRows - 1);
+        for (int by = by0; by <= by1; by++) {
+            for (int bx = bx0; bx <= bx1; bx++) {
+                int b = by * blockCols + bx;
+                if ((near[b >>> 6] & 1L << b) == 0) {
+                    near[b >>> 6] |= 1L << b;
+                    marked[markedCount++] = b;
+                }
+            }
+        }
+    }
+
+    /** Cell of a coordinate; the world starts at 0, so truncation is flooring. */
+    int cell(float coordinate) {
+        return (int) (coordinate * inverseCellSize);
+    }
+
+    int bucket(int cx, int cy) {
+        int h = cx * 0x9E3779B1 ^ cy * 0x85EBCA77;
+        return (h ^ h >>> 15) & mask;
+    }
+
+    boolean isEmpty(int bucket) {
+        return start[bucket] == start[bucket + 1];
+    }
+
+    int start(int bucket) {
+        return start[bucket];
+    }
+
+    int end(int bucket) {
+        return start[bucket + 1];
+    }
+
+    int item(int index) {
+        return items[index];
+    }
+
+    /** Indexes {@code points[0..count)}, positions taken from x and y. */
+    void build(int[] points, int count, float[] x, float[] y) {
+        int buckets = Integer.highestOneBit(Math.max(2 * count, 512) - 1) << 1;
+        mask = buckets - 1;
+        if (start.length < buckets + 1) {
+            start = new int[buckets + 1];
+        } else {
+            Arrays.fill(start, 0, buckets + 1, 0);
+        }
+        if (items.length < count) {
+            items = new int[Math.max(count, items.length * 2)];
+            bucketOf = new int[items.length];
+        }
+        for (int k = 0; k < markedCount; k++) {
+            int b = marked[k];
+            near[b >>> 6] &= ~(1L << b);
+        }
+        markedCount = 0;
+        if (marked.length < 4 * count) {
+            marked = new int[4 * items.length];
+        }
+        for (int k = 0; k < count; k++) {
+            int p = points[k];
+            int cx = cell(x[p]), cy = cell(y[p]);
+            markNear(cx, cy);
+            int b = bucket(cx, cy);
+            bucketOf[k] = b;
+            start[b + 1]++;
+        }
+        for (int b = 0; b < buckets; b++) {
+            start[b + 1] += start[b];
+        }
+        if (fill.length < buckets) {
+            fill = new int[buckets];
+        }
+        System.arraycopy(start, 0, fill, 0, buckets);
+        for (int k = 0; k < count; k++) {
+            items[fill[bucketOf[k]]++] = points[k];
+        }
+    }
+}
@@ -0,0 +1,279 @@
+package org.example;
+
+import java.util.Arrays;
+
+/**
+ * The shape of a peg solitaire board on a 7x7 grid, with a position held as a
+ * single long: bit i set means hole i has a peg. Holes are numbered row by
+ * row, so the 33-hole English board uses bits 0 to 32 and the 37-hole European
+ * board bits 0 to 36.
+ *
+ * Every jump is precomputed as three single-bit masks, from, over and to. A
+ * jump is legal when from and over hold pegs and to is empty, and making it
+ * flips all three bits, so it is one XOR with {@link #moveMask}.
+ *
+ * Both boards look the same turned or mirrored in eight ways. Each symmetry
+ * is a permutation of the bits, applied a byte at a time through lookup
+ * tables. Because a symmetry just moves bits, the image of a jump's result is
+ * the image of the position XOR the image of the jump's mask, so the eight
+ * images of a child come from the parent's with eight XORs.
+ */
+public final class PegBoard {
+
+    public static final int SIZE = 7;
+    public static final int SYMMETRIES = 8;
+
+    public static final PegBoard ENGLISH = new PegBoard("English", new String[]{
+            "  ooo  ",
+            "  ooo  ",
+            "ooooooo",
+            "ooooooo",
+            "ooooooo",
+            "  ooo  ",
+            "  ooo  "});
+    public static final PegBoard EUROPEAN = new PegBoard("European", new String[]{
+            "  ooo  ",
+            " ooooo ",
+            "ooooooo",
+            "ooooooo",
+            "ooooooo",
+            " ooooo ",
+            "  ooo  "});
+
+    final String name;
+    final int holes;
+    /** Holes whose (row + col) % 3, then (row - col) % 3, is k: the position classes. */
+    final long[] colourClass = new long[6];
+    /** Hole at each grid cell, or -1; cell is row * SIZE + column. */
+    final int[] holeAt;
+    final int[] cellOf;
+    final long[] moveFrom;
+    final long[] moveOver;
+    final long[] moveTo;
+    final long[] moveMask;
+    /** Image of moveMask[m] under symmetry s is moveImage[m * SYMMETRIES + s]. */
+    final long[] moveImage;
+    /** Image of byte value v at byte k under symmetry s is byteImage[(s * bytes + k) * 256 + v]. */
+    private final long[] byteImage;
+    private final int bytes;
+
+    private PegBoard(String name, String[] layout) {
+        this.name = name;
+        holeAt = new int[SIZE * SIZE];
+        int n = 0;
+        for (int cell = 0; cell < SIZE * SIZE; cell++) {
+            holeAt[cell] = layout[cell / SIZE].charAt(cell % SIZE) == 'o' ? n++ : -1;
+        }
+        holes = n;
+        cellOf = new int[holes];
+        for (int cell = 0; cell < SIZE * SIZE; cell++) {
+            if (holeAt[cell] >= 0) {
+                cellOf[holeAt[cell]] = cell;
+            }
+        }
+
+        for (int h = 0; h < holes; h++) {
+            int r = cellOf[h] / SIZE, c = cellOf[h] % SIZE;
+            colourClass[(r + c) % 3] |= 1L << h;
+            colourClass[3 + (r - c + SIZE * 3) % 3] |= 1L << h;
+        }
+
+        int[] dr = {-1, 1, 0, 0}, dc = {0, 0, -1, 1};
+        long[] from = new long[4 * holes], over = new long[4 * holes], to = new long[4 * holes];
+        int moves = 0;
+        for (int h = 0; h < holes; h++) {
+            int r = cellOf[h] / SIZE, c = cellOf[h] % SIZE;
+            for (int d = 0; d < 4; d++) {
+                int over1 = hole(r + dr[d], c + dc[d]), to1 = hole(r + 2 * dr[d], c + 2 * dc[d]);
+                if (over1 >= 0 && to1 >= 0) {
+                    from[moves] = 1L << h;
+                    over[moves] = 1L << over1;
+                    to[moves++] = 1L << to1;
+                }
+            }
+        }
+        moveFrom = Arrays.copyOf(from, moves);
+        moveOver = Arrays.copyOf(over, moves);
+        moveTo = Arrays.copyOf(to, moves);
+        moveMask = new long[moves];
+        for (int m = 0; m < moves; m++) {
+            moveMask[m] = moveFrom[m] | moveOver[m] | moveTo[m];
+        }
+
+        bytes = (holes + 7) >>> 3;
+        byteImage = new long[SYMMETRIES * bytes * 256];
+        for (int s = 0; s < SYMMETRIES; s++) {
+            for (int k = 0; k < bytes; k++) {
+                for (int v = 0; v < 256; v++) {
+                    long image = 0;
+                    for (int b = 0; b < 8; b++) {
+                        int h = k * 8 + b;
+                        if ((v >>> b & 1) != 0 && h < holes) {
+                            image |= 1L << mapHole(h, s);
+                        }
+                    }
+                    byteImage[(s * bytes + k) * 256 + v] = image;
+                }
+            }
+        }
+        moveImage = new long[moves * SYMMETRIES];
+        for (int m = 0; m < moves; m++) {
+            for (int s = 0; s < SYMMETRIES; s++) {
+                moveImage[m * SYMMETRIES + s] = transform(moveMask[m], s);
+            }
+        }
+    }
+
+    private int hole(int r, int c) {
+        return r < 0 || r >= SIZE || c < 0 || c >= SIZE ? -1 : holeAt[r * SIZE + c];
+    }
+
+    /** Where hole h goes under symmetry s: s & 3 quarter turns, then a mirror if s >= 4. */
+    private int mapHole(int h, int s) {
+        int r = cellOf[h] / SIZE, c = cellOf[h] % SIZE;
+        for (int t = 0; t < (s & 3); t++) {
+            int nr = c;
+            c = SIZE - 1 - r;
+            r = nr;
+        }
+        if (s >= 4) {
+            c = SIZE - 1 - c;
+        }
+        return holeAt[r * SIZE + c];
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getHoles() {
+        return holes;
+    }
+
+    public int getMoveCount() {
+        return moveMask.length;
+    }
+
+    /** Every hole filled except the centre, the usual start. */
+    public long start() {
+        return full() & ~(1L << centre());
+    }
+
+    public long full() {
+        return holes == 64 ? -1L : (1L << holes) - 1;
+    }
+
+    public int centre() {
+        return holeAt[SIZE * SIZE / 2];
+    }
+
+    public boolean isHole(int row, int col) {
+        return hole(row, col) >= 0;
+    }
+
+    /** The bit of the hole at row, col; the cell must be a hole. */
+    public long bit(int row, int col) {
+        return 1L << hole(row, col);
+    }
+
+    public boolean isLegal(long pegs, int move) {
+        return (pegs & moveFrom[move]) != 0 && (pegs & moveOver[move]) != 0 && (pegs & moveTo[move]) == 0;
+    }
+
+    /** The jump from one hole to another two away, or -1 if there is none on this board. */
+    public int findMove(int fromRow, int fromCol, int toRow, int toCol) {
+        int from = hole(fromRow, fromCol), to = hole(toRow, toCol);
+        if (from < 0 || to < 0) {
+            return -1;
+        }
+        for (int m = 0; m < moveMask.length; m++) {
+            if (moveFrom[m] == 1L << from && moveTo[m] == 1L << to) {
+                return m;
+            }
+        }
+        return -1;
+    }
+
+    public boolean hasMove(long pegs) {
+        for (int m = 0; m < moveMask.length; m++) {
+            if (isLegal(pegs, m)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * A value no jump can change. Colour the holes 0, 1, 2 along diagonals;
+     * the three holes of a jump have different colours, so every colour
+     * count goes up or down by one and the parity of any two counts' sum
+     * stays the same. Doing this for both diagonal directions gives four
+     * bits. Two positions with different classes can never reach each other.
+     */
+    public int positionClass(long pegs) {
+        int bits = 0;
+        for (int k = 0; k < 2; k++) {
+            for (int i = 0; i < 2; i++) {
+                long pair = colourClass[3 * k + i] | colourClass[3 * k + i + 1];
+                bits = bits << 1 | Long.bitCount(pegs & pair) & 1;
+            }
+        }
+        return bits;
+    }
+
+    /** The image of a position under symmetry s. */
+    public long transform(long pegs, int s) {
+        long image = 0;
+        int base = s * bytes * 256;
+        for (int k = 0; k < bytes; k++) {
+            image |= byteImage[base + k * 256 + (int) (pegs >>> (k * 8) & 0xFF)];
+        }
+        return image;
+    }
+
+    /** Fills images with the position under every symmetry. */
+    void images(long pegs, long[] images) {
+        for (int s = 0; s < SYMMETRIES; s++) {
+            images[s] = transform(pegs, s);
+        }
+    }
+
+    /** The smallest of the position's images, the same for every position it can be turned into. */
+    public long canonical(long pegs) {
+        long best = pegs;
+        for (int s = 1; s < SYMMETRIES; s++) {
+            best = Math.min(best, transform(pegs, s));
+        }
+        return best;
+    }
+
+    /** Whether every symmetry maps the set of holes to itself. */
+    public boolean isSymmetric(long holesMask) {
+        for (int s = 1; s < SYMMETRIES; s++) {
+            if (transform(holesMask, s) != holesMask) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** The position drawn as rows of 'O' (peg), '.' (empty hole) and ' '. */
+    public String toString(long pegs) {
+        StringBuilder out = new StringBuilder();
+        for (int r = 0; r < SIZE; r++) {
+            for (int c = 0; c < SIZE; c++) {
+                int h = hole(r, c);
+                out.append(h < 0 ? ' ' : (pegs >>> h & 1) != 0 ? 'O' : '.').append(' ');
+            }
+            out.append('\n');
+        }
+        return out.toString();
+    }
+
+    /** Describes a jump as "row col -> row col". */
+    public String describe(int move) {
+        int from = cellOf[Long.numberOfTrailingZeros(moveFrom[move])];
+        int to = cellOf[Long.numberOfTrailingZeros(moveTo[move])];
+        return from / SIZE + " " + from % SIZE + " -> " + to / SIZE + " " + to % SIZE;
+    }
+}
@@ -0,0 +1,93 @@
+package org.example;
+
+import java.util.function.LongConsumer;
+
+/**
+ * A set of nonzero longs by open addressing with linear probing, in one long
+ * array that doubles when it is half full. Zero marks an empty slot, which is
+ * safe because a position always has at least one peg.
+ */
+final class PegPositionSet {
+
+    private long[] table;
+    private int size;
+
+    PegPositionSet(int expected) {
+        int capacity = 16;
+        while (capacity < expected * 2) {
+            capacity <<= 1;
+        }
+        table = new long[capacity];
+    }
+
+    int size() {
+        return size;
+    }
+
+    long bytes() {
+        return (long) table.length * Long.BYTES;
+    }
+
+    boolean contains(long key) {
+        int mask = table.length - 1;
+        for (int i = slot(key, mask); ; i = (i + 1) & mask) {
+            long k = table[i];
+            if (k == key) {
+                return true;
+            }
+            if (k == 0) {
+                return false;
+            }
+        }
+    }
+
+    /** Adds key and returns true if it was not already there. */
+    boolean add(long key) {
+        int mask = table.length - 1;
+        int i = slot(key, mask);
+        while (true) {
+            long k = table[i];
+            if (k == key) {
+                return false;
+            }
+            if (k == 0) {
+                break;
+            }
+            i = (i + 1) & mask;
+        }
+        table[i] = key;
+        if (++size * 2 > table.length) {
+            grow();
+        }
+        return true;
+    }
+
+    /** Calls back with every key, in table order. */
+    void forEach(LongConsumer action) {
+        for (long k : table) {
+            if (k != 0) {
+                action.accept(k);
+            }
+        }
+    }
+
+    private void grow() {
+        long[] old = table;
+        table = new long[old.length * 2];
+        int mask = table.length - 1;
+        for (long k : old) {
+            if (k != 0) {
+                int i = slot(k, mask);
+                while (table[i] != 0) {
+                    i = (i + 1) & mask;
+                }
+                table[i] = k;
+            }
+        }
+    }
+
+    private static int slot(long key, int mask) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ h >>> 29) & mask;
+    }
+}
@@ -5,90 +5,59 @@ import java.util.Scanner;
 public class PegSolitaireGame {
 
 
-    // Define board size and structure
-    private static final int BOARD_SIZE = 7;
-    private char[][] board;
+    // The English 33-hole board; each hole is one bit of the position
+    private final PegBoard board = PegBoard.ENGLISH;
+    private long pegs;
 
     public PegSolitaireGame() {
-        board = new char[BOARD_SIZE][BOARD_SIZE];
         initializeBoard();
     }
 
-    // Initialize the board with 'O' for pegs and '.' for empty spaces.
+    // Fill every hole with a peg except the centre
     private void initializeBoard() {
-        for (int row = 0; row < BOARD_SIZE; row++) {
-            for (int col = 0; col < BOARD_SIZE; col++) {
-                if ((row == 3 && col == 3)) {
-                    board[row][col] = '.'; // The starting empty spot
-                } else if ((row >= 0 && row <= 2 && col >= 0 && col <= 2) ||
-                        (row >= 4 && row <= 6 && col >= 4 && col <= 6) ||
-                        (row >= 0 && row <= 6 && col == 3)) {
-                    board[row][col] = 'O'; // Pegs
-                } else {
-                    board[row][col] = '.'; // Empty spaces
-                }
-            }
-        }
+        pegs = board.start();
     }
 
-    // Display the current board state
+    // Display the current board state: 'O' for pegs, '.' for empty holes
     public void displayBoard() {
-        for (int i = 0; i < BOARD_SIZE; i++) {
-            for (int j = 0; j < BOARD_SIZE; j++) {
-                System.out.print(board[i][j] + " ");
-            }
-            System.out.println();
+        System.out.print("  ");
+        for (int j = 0; j < PegBoard.SIZE; j++) {
+            System.out.print(j + " ");
+        }
+        System.out.println();
+        String[] rows = board.toString(pegs).split("\n");
+        for (int i = 0; i < rows.length; i++) {
+            System.out.println(i + " " + rows[i]);
         }
     }
 
-    // Check if a move is valid (moving a peg)
+    // Check if a move is valid: a peg jumps over a peg into an empty hole two away
     public boolean isValidMove(int startX, int startY, int endX, int endY) {
-        // Ensure the move is within bounds and follows the rules (2 positions jump)
-        if (startX < 0 || startX >= BOARD_SIZE || startY < 0 || startY >= BOARD_SIZE ||
-                endX < 0 || endX >= BOARD_SIZE || endY < 0 || endY >= BOARD_SIZE) {
-            return false;
-        }
-
-        if (board[startX][startY] != 'O' || board[endX][endY] != '.') {
-            return false; // No peg at start or destination is not empty
-        }
-
-        // Check if it's a valid jump (2 spaces)
-        int dx = Math.abs(startX - endX);
-        int dy = Math.abs(startY - endY);
-        if ((dx == 2 && dy == 0) || (dy == 2 && dx == 0)) {
-            int middleX = (startX + endX) / 2;
-            int middleY = (startY + endY) / 2;
-            if (board[middleX][middleY] == 'O') {
-                return true; // Valid jump, middle space has a peg
-            }
-        }
-
-        return false;
+        int move = board.findMove(startX, startY, endX, endY);
+        return move >= 0 && board.isLegal(pegs, move);
     }
 
-    // Make the move (move a peg)
+    // Make the move (move a peg); the start, middle and end holes all flip
     public void makeMove(int startX, int startY, int endX, int endY) {
-        board[startX][startY] = '.';   // Remove the peg from start
-        board[endX][endY] = 'O';       // Place the peg in the destination
-        int middleX = (startX + endX) / 2;
-        int middleY = (startY + endY) / 2;
-        board[middleX][middleY] = '.'; // Remove the jumped-over peg
+        pegs ^= board.moveMask[board.findMove(startX, startY, endX, endY)];
     }
 
     // Check if the game is over (no valid moves left)
     public boolean isGameOver() {
-        for (int i = 0; i < BOARD_SIZE; i++) {
-            for (int j = 0; j < BOARD_SIZE; j++) {
-                if (board[i][j] == 'O') {
-                    if (isValidMove(i, j, i + 2, j) || isValidMove(i, j, i - 2, j) ||
-                            isValidMove(i, j, i, j + 2) || isValidMove(i, j, i, j - 2)) {
-                        return false;
-                    }
-                }
-            }
+        return !board.hasMove(pegs);
+    }
+
+    // Print a jump that still leads to a single peg, in the centre if possible
+    public void showHint() {
+        int[] solution = new PegSolver(board, 1L << board.centre()).solve(pegs);
+        if (solution == null) {
+            solution = new PegSolver(board, board.full()).solve(pegs);
+        }
+        if (solution == null) {
+            System.out.println("No way to finish with one peg from here.");
+        } else {
+            System.out.println("Hint: " + board.describe(solution[0]));
         }
-        return true;
     }
 
     // Main game loop
@@ -96,7 +65,15 @@ public class PegSolitaireGame {
         Scanner scanner = new Scanner(System.in);
         while (!isGameOver()) {
             displayBoard();
-            System.out.println("Enter your move (e.g., 2 2 4 2 to move a peg from (2,2) to (4,2)): ");
+            System.out.println("Enter your move (e.g., 1 3 3 3 to move a peg from (1,3) to (3,3)), or h for a hint: ");
+            if (!scanner.hasNext()) {
+                break;
+            }
+            if (scanner.hasNext("[hH]")) {
+                scanner.next();
+                showHint();
+                continue;
+            }
             int startX = scanner.nextInt();
             int startY = scanner.nextInt();
             int endX = scanner.nextInt();
@@ -110,7 +87,8 @@ public class PegSolitaireGame {
         }
 
         displayBoard();
-        System.out.println("Game Over!");
+        int left = Long.bitCount(pegs);
+        System.out.println("Game Over! " + left + (left == 1 ? " peg" : " pegs") + " left.");
         scanner.close();
     }
 
@@ -0,0 +1,207 @@
+package org.example;
+
+import java.util.Arrays;
+
+/**
+ * Solves peg solitaire on a {@link PegBoard} by depth-first search over its
+ * long positions, and counts every position reachable from a start.
+ *
+ * The search remembers each position it has fully explored without success
+ * in a hash set, under the smallest of its eight symmetric images, so a dead
+ * position is never searched twice in any orientation. That takes the
+ * English board from the centre to a single peg in the centre in a fraction
+ * of a second. Symmetry is only used when the finishing holes are symmetric
+ * themselves, which the centre and "anywhere" both are. Before searching,
+ * the position classes of {@link PegBoard#positionClass} rule out finishes
+ * that no sequence of jumps can reach, such as the centre of the European
+ * board when the game starts with the centre empty.
+ *
+ * The census goes one peg count at a time, keeping one representative of each
+ * symmetry class per level, and counts every position too by adding up how
+ * many distinct images each representative has.
+ *
+ * Usage: java org.example.PegSolver [english|european] [row col] [census]
+ * row col is the starting hole, the centre by default. From the centre the
+ * last peg must finish there; from anywhere else it may finish anywhere.
+ */
+public final class PegSolver {
+
+    /** Positions reachable from a start, by number of pegs left. */
+    public static final class Census {
+        /** Positions up to symmetry. */
+        public final long[] classes;
+        /** All positions. */
+        public final long[] positions;
+        public final long millis;
+
+        Census(long[] classes, long[] positions, long millis) {
+            this.classes = classes;
+            this.positions = positions;
+            this.millis = millis;
+        }
+    }
+
+    private final PegBoard board;
+    private final long finish;
+    private final boolean symmetric;
+    private final PegPositionSet dead = new PegPositionSet(1 << 16);
+    private final int[] path;
+    private final long[][] images;
+    private long nodes;
+
+    /** A solver whose last peg must end in one of the finish holes. */
+    public PegSolver(PegBoard board, long finish) {
+        this.board = board;
+        this.finish = finish;
+        symmetric = board.isSymmetric(finish);
+        path = new int[board.holes];
+        images = new long[board.holes + 1][PegBoard.SYMMETRIES];
+    }
+
+    public static void main(String[] args) {
+        PegBoard board = args.length > 0 && args[0].equalsIgnoreCase("european") ? PegBoard.EUROPEAN : PegBoard.ENGLISH;
+        boolean census = args.length > 0 && args[args.length - 1].equalsIgnoreCase("census");
+        long start = board.start();
+        long finish = 1L << board.centre();
+        if (args.length > 2 && !args[1].equalsIgnoreCase("census")) {
+            int row = Integer.parseInt(args[1]), col = Integer.parseInt(args[2]);
+            if (!board.isHole(row, col)) {
+                throw new IllegalArgumentException(row + " " + col + " is not a hole on the " + board.getName() + " board");
+            }
+            start = board.full() & ~board.bit(row, col);
+            if (start != board.start()) {
+                finish = board.full();
+            }
+        }
+
+        PegSolver solver = new PegSolver(board, finish);
+        System.out.println(board.getName() + " board, " + board.getHoles() + " holes, " + board.getMoveCount() + " jumps");
+        System.out.print(board.toString(start));
+        long begin = System.nanoTime();
+        int[] solution = solver.solve(start);
+        double millis = (System.nanoTime() - begin) / 1e6;
+        if (solution == null) {
+            System.out.printf("no solution: %d nodes, %d dead positions, %.1f ms%n", solver.nodes, solver.dead.size(), millis);
+        } else {
+            System.out.printf("solved in %d jumps: %d nodes, %d dead positions, %.1f ms%n",
+                    solution.length, solver.nodes, solver.dead.size(), millis);
+            long pegs = start;
+            for (int move : solution) {
+                System.out.println("  " + board.describe(move));
+                pegs ^= board.moveMask[move];
+            }
+            System.out.print(board.toString(pegs));
+        }
+
+        if (census) {
+            Census result = solver.census(start);
+            System.out.printf("%5s %14s %14s%n", "pegs", "classes", "positions");
+            long classes = 0, positions = 0;
+            for (int pegs = board.holes; pegs >= 1; pegs--) {
+                if (result.positions[pegs] > 0) {
+                    System.out.printf("%5d %14d %14d%n", pegs, result.classes[pegs], result.positions[pegs]);
+                    classes += result.classes[pegs];
+                    positions += result.positions[pegs];
+                }
+            }
+            System.out.printf("total %14d %14d in %.1f s%n", classes, positions, result.millis / 1000.0);
+        }
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    /** The jumps from pegs to a single peg in a finish hole, or null if there are none. */
+    public int[] solve(long pegs) {
+        boolean reachable = false;
+        for (long rest = finish; rest != 0; rest &= rest - 1) {
+            reachable |= board.positionClass(Long.lowestOneBit(rest)) == board.positionClass(pegs);
+        }
+        if (!reachable) {
+            return null;
+        }
+        board.images(pegs, images[0]);
+        int depth = Long.bitCount(pegs) - 1;
+        if (!search(pegs, 0)) {
+            return null;
+        }
+        return Arrays.copyOf(path, depth);
+    }
+
+    private boolean search(long pegs, int depth) {
+        nodes++;
+        if (Long.bitCount(pegs) == 1) {
+            return (pegs & finish) != 0;
+        }
+        long[] own = images[depth], child = images[depth + 1];
+        long[] moveImage = board.moveImage;
+        for (int m = 0; m < board.moveMask.length; m++) {
+            if (!board.isLegal(pegs, m)) {
+                continue;
+            }
+            long next = pegs ^ board.moveMask[m];
+            long key = next;
+            if (symmetric) {
+                for (int s = 0; s < PegBoard.SYMMETRIES; s++) {
+                    child[s] = own[s] ^ moveImage[m * PegBoard.SYMMETRIES + s];
+                    key = Math.min(key, child[s]);
+                }
+            }
+            if (dead.contains(key)) {
+                continue;
+            }
+            path[depth] = m;
+            if (search(next, depth + 1)) {
+                return true;
+            }
+            dead.add(key);
+        }
+        return false;
+    }
+
+    /** Counts every position reachable from start, level by level. */
+    public Census census(long start) {
+        long begin = System.nanoTime();
+        long[] classes = new long[board.holes + 1];
+        long[] positions = new long[board.holes + 1];
+        PegPositionSet level = new PegPositionSet(1);
+        level.add(board.canonical(start));
+        long[] own = new long[PegBoard.SYMMETRIES];
+        for (int pegs = Long.bitCount(start); pegs >= 1 && level.size() > 0; pegs--) {
+            PegPositionSet next = new PegPositionSet(level.size() * 2);
+            int count = pegs;
+            level.forEach(position -> {
+                board.images(position, own);
+                classes[count]++;
+                positions[count] += distinct(own);
+                for (int m = 0; m < board.moveMask.length; m++) {
+                    if (board.isLegal(position, m)) {
+                        long key = Long.MAX_VALUE;
+                        for (int s = 0; s < PegBoard.SYMMETRIES; s++) {
+                            key = Math.min(key, own[s] ^ board.moveImage[m * PegBoard.SYMMETRIES + s]);
+                        }
+                        next.add(key);
+                    }
+                }
+            });
+            level = next;
+        }
+        return new Census(classes, positions, (System.nanoTime() - begin) / 1_000_000);
+    }
+
+    /** How many different positions are among the images. */
+    private static int distinct(long[] images) {
+        int n = 0;
+        for (int i = 0; i < images.length; i++) {
+            int j = 0;
+            while (j < i && images[j] != images[i]) {
+                j++;
+            }
+            if (j == i) {
+                n++;
+            }
+        }
+        return n;
+    }
+}
@@ -0,0 +1,122 @@
+package org.example;
+
+import java.util.Random;
+
+/**
+ * Plays random games on the char[][] {@link Board} and on {@link ReversiBitboard}
+ * with the same move sequence rule and reports moves/sec for each, then times the
+ * exact endgame solver. Usage: ReversiBenchmark [games] [endgameEmpties]
+ */
+public class ReversiBenchmark {
+
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+        int endgameEmpties = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+
+        for (int round = 0; round < 2; round++) {
+            long start = System.nanoTime();
+            long moves = playCharBoardGames(games, new Random(7));
+            double charSeconds = (System.nanoTime() - start) / 1e9;
+            start = System.nanoTime();
+            long bitMoves = playBitboardGames(games, new Random(7));
+            double bitSeconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("%s char[][]: %.0f moves/sec | bitboard: %.0f moves/sec (%.1fx)%n",
+                    round == 0 ? "warm-up" : "measured", moves / charSeconds, bitMoves / bitSeconds,
+                    (bitMoves / bitSeconds) / (moves / charSeconds));
+        }
+
+        ReversiEngine engine = new ReversiEngine();
+        engine.setEndgameEmpties(endgameEmpties);
+        Random random = new Random(11);
+        for (int i = 0; i < 3; i++) {
+            long[] position = randomPosition(random, 64 - endgameEmpties);
+            ReversiEngine.Result result = engine.search(position[0], position[1], 0);
+            System.out.println(endgameEmpties + " empties solved: " + result);
+        }
+    }
+
+    /** Move generation scans every square with isValidMove, as the console game does. */
+    static long playCharBoardGames(int games, Random random) {
+        long total = 0;
+        int[] candidates = new int[64];
+        for (int g = 0; g < games; g++) {
+            Board board = new Board();
+            char player = 'X';
+            int passes = 0;
+            while (passes < 2) {
+                int n = 0;
+                for (int r = 0; r < 8; r++) {
+                    for (int c = 0; c < 8; c++) {
+                        if (board.isValidMove(r, c, player)) {
+                            candidates[n++] = r * 8 + c;
+                        }
+                    }
+                }
+                if (n == 0) {
+                    passes++;
+                } else {
+                    passes = 0;
+                    int sq = candidates[random.nextInt(n)];
+                    board.makeMove(sq / 8, sq % 8, player);
+                    total++;
+                }
+                player = player == 'X' ? 'O' : 'X';
+            }
+        }
+        return total;
+    }
+
+    static long playBitboardGames(int games, Random random) {
+        long total = 0;
+        for (int g = 0; g < games; g++) {
+            long own = ReversiBitboard.INITIAL_BLACK, opp = ReversiBitboard.INITIAL_WHITE;
+            int passes = 0;
+            while (passes < 2) {
+                long legal = ReversiBitboard.moves(own, opp);
+                if (legal == 0) {
+                    passes++;
+                } else {
+                    passes = 0;
+                    int pick = random.nextInt(Long.bitCount(legal));
+                    for (int i = 0; i < pick; i++) {
+                        legal &= legal - 1;
+                    }
+                    int sq = Long.numberOfTrailingZeros(legal);
+                    long flipped = ReversiBitboard.flips(own, opp, sq);
+                    own |= flipped | (1L << sq);
+                    opp &= ~flipped;
+                    total++;
+                }
+                long t = own;
+                own = opp;
+                opp = t;
+            }
+        }
+        return total;
+    }
+
+    /** Random playout from the start until the disc count is reached; returns {own, opp} for the side to move. */
+    static long[] randomPosition(Random random, int discs) {
+        while (true) {
+            long own = ReversiBitboard.INITIAL_BLACK, opp = ReversiBitboard.INITIAL_WHITE;
+            while (Long.bitCount(own | opp) < discs) {
+                long legal = ReversiBitboard.moves(own, opp);
+                if (legal == 0) {
+                    break;
+                }
+                int pick = random.nextInt(Long.bitCount(legal));
+                for (int i = 0; i < pick; i++) {
+                    legal &= legal - 1;
+                }
+                int sq = Long.numberOfTrailingZeros(legal);
+                long flipped = ReversiBitboard.flips(own, opp, sq);
+                long next = opp & ~flipped;
+                opp = own | flipped | (1L << sq);
+                own = next;
+            }
+            if (Long.bitCount(own | opp) == discs && ReversiBitboard.moves(own, opp) != 0) {
+                return new long[]{own, opp};
+            }
+        }
+    }
+}
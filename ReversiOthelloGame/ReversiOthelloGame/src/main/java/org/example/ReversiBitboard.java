@@ -0,0 +1,76 @@
+package org.example;
+
+/**
+ * 64-bit Reversi move generation and flipping. Square index is row * 8 + col,
+ * so shifting left by 1 moves one column to the right.
+ *
+ * Every direction is handled with a Kogge-Stone occluded fill: starting from the
+ * opponent discs next to our discs (or next to the move), the run is extended
+ * through opponent discs in three doubling steps (1, 2, 4), which covers the
+ * longest possible run of six discs without a per-square loop.
+ */
+final class ReversiBitboard {
+
+    static final long NOT_A = 0xFEFEFEFEFEFEFEFEL;
+    static final long NOT_H = 0x7F7F7F7F7F7F7F7FL;
+
+    /** Shift per direction: E, W, S, N, SE, SW, NE, NW (positive is a left shift). */
+    private static final int[] SHIFTS = {1, -1, 8, -8, 9, 7, -7, -9};
+    /** Squares a shift in that direction may legitimately land on (kills file wrap-around). */
+    private static final long[] MASKS = {NOT_A, NOT_H, -1L, -1L, NOT_A, NOT_H, NOT_A, NOT_H};
+
+    static final long INITIAL_BLACK = (1L << 28) | (1L << 35);
+    static final long INITIAL_WHITE = (1L << 27) | (1L << 36);
+
+    private ReversiBitboard() {
+    }
+
+    private static long shift(long b, int s) {
+        return s > 0 ? b << s : b >>> -s;
+    }
+
+    /** Run of opponent discs reachable from {@code gen} in one direction. */
+    private static long fill(long gen, long opp, int s, long mask) {
+        long pro = opp & mask;
+        gen = shift(gen, s) & pro;
+        gen |= pro & shift(gen, s);
+        pro &= shift(pro, s);
+        gen |= pro & shift(gen, 2 * s);
+        pro &= shift(pro, 2 * s);
+        gen |= pro & shift(gen, 4 * s);
+        return gen;
+    }
+
+    /** All legal moves for the player owning {@code own}. */
+    static long moves(long own, long opp) {
+        long empty = ~(own | opp);
+        long moves = 0;
+        for (int d = 0; d < 8; d++) {
+            moves |= shift(fill(own, opp, SHIFTS[d], MASKS[d]), SHIFTS[d]) & MASKS[d];
+        }
+        return moves & empty;
+    }
+
+    /** Opponent discs flipped by playing on {@code square}; 0 means the move is illegal. */
+    static long flips(long own, long opp, int square) {
+        long move = 1L << square;
+        long flipped = 0;
+        for (int d = 0; d < 8; d++) {
+            long run = fill(move, opp, SHIFTS[d], MASKS[d]);
+            if ((shift(run, SHIFTS[d]) & MASKS[d] & own) != 0) {
+                flipped |= run;
+            }
+        }
+        return flipped;
+    }
+
+    static int square(int row, int col) {
+        return row * 8 + col;
+    }
+
+    /** Spreads the bits so neighbouring squares get unrelated table slots. */
+    static long hash(long own, long opp) {
+        long h = own * 0x9E3779B97F4A7C15L ^ Long.rotateLeft(opp * 0xC2B2AE3D27D4EB4FL, 31);
+        return h ^ (h >>> 29);
+    }
+}
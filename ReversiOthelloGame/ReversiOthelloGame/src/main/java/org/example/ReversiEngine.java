@@ -0,0 +1,379 @@
+package org.example;
+
+/**
+ * Negamax alpha-beta player on {@link ReversiBitboard}s with a transposition table.
+ *
+ * Above {@link #getEndgameEmpties()} empty squares it runs an iterative-deepening
+ * search with a positional evaluation under a time budget. At or below that
+ * threshold it switches to an exact solver that searches to the end of the game
+ * and returns the final disc differential, ordering moves fastest-first (fewest
+ * replies for the opponent). The default of 14 empties solves in well under a
+ * second; 18-20 is feasible but can take tens of seconds per move.
+ */
+public class ReversiEngine {
+
+    public static class Result {
+        private final int move;
+        private final int score;
+        private final int depth;
+        private final boolean exact;
+        private final long nodes;
+        private final long elapsedNanos;
+
+        Result(int move, int score, int depth, boolean exact, long nodes, long elapsedNanos) {
+            this.move = move;
+            this.score = score;
+            this.depth = depth;
+            this.exact = exact;
+            this.nodes = nodes;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        /** Square (row * 8 + col), or -1 if the side to move must pass. */
+        public int getMove() {
+            return move;
+        }
+
+        /** Evaluation, or the exact final disc differential when {@link #isExact()}. */
+        public int getScore() {
+            return score;
+        }
+
+        public int getDepth() {
+            return depth;
+        }
+
+        public boolean isExact() {
+            return exact;
+        }
+
+        public long getNodes() {
+            return nodes;
+        }
+
+        public double getNodesPerSecond() {
+            return elapsedNanos == 0 ? 0 : nodes * 1e9 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("move=%d score=%d depth=%d%s nodes=%d nps=%.0f",
+                    move, score, depth, exact ? " (exact)" : "", nodes, getNodesPerSecond());
+        }
+    }
+
+    private static final int EXACT = 0, LOWER = 1, UPPER = 2;
+    private static final int WIN_SCALE = 400;
+    private static final int INFINITY = 100_000;
+    private static final int TT_BITS = 22;
+    private static final long CORNERS = 0x8100000000000081L;
+    /** Squares diagonally next to a corner; giving them up early hands the corner away. */
+    private static final long X_SQUARES = 0x0042000000004200L;
+
+    private static final int[] SQUARE_WEIGHTS = {
+            100, -20, 10, 5, 5, 10, -20, 100,
+            -20, -50, -2, -2, -2, -2, -50, -20,
+            10, -2, 1, 1, 1, 1, -2, 10,
+            5, -2, 1, 0, 0, 1, -2, 5,
+            5, -2, 1, 0, 0, 1, -2, 5,
+            10, -2, 1, 1, 1, 1, -2, 10,
+            -20, -50, -2, -2, -2, -2, -50, -20,
+            100, -20, 10, 5, 5, 10, -20, 100
+    };
+
+    private final long[] ttKeys = new long[1 << TT_BITS];
+    private final long[] ttData = new long[1 << TT_BITS];
+    private final int[][] moveBuffer = new int[130][32];
+    private final int[][] orderBuffer = new int[130][32];
+
+    private int endgameEmpties = 14;
+    private long nodes;
+    private long deadline;
+    private boolean stopped;
+
+    public int getEndgameEmpties() {
+        return endgameEmpties;
+    }
+
+    /** Number of empty squares at which the exact solver takes over (clamped to 0..20). */
+    public void setEndgameEmpties(int empties) {
+        this.endgameEmpties = Math.max(0, Math.min(20, empties));
+    }
+
+    public Result search(long own, long opp, long timeMillis) {
+        long start = System.nanoTime();
+        nodes = 0;
+        stopped = false;
+        deadline = start + timeMillis * 1_000_000L;
+        long legal = ReversiBitboard.moves(own, opp);
+        if (legal == 0) {
+            return new Result(-1, 0, 0, false, 0, 0);
+        }
+        int empties = 64 - Long.bitCount(own | opp);
+        if (empties <= endgameEmpties) {
+            deadline = Long.MAX_VALUE;
+            int[] best = new int[1];
+            int score = solveRoot(own, opp, best);
+            return new Result(best[0], score, empties, true, nodes, System.nanoTime() - start);
+        }
+
+        int bestMove = Long.numberOfTrailingZeros(legal), bestScore = 0, completed = 0;
+        for (int depth = 1; depth <= empties; depth++) {
+            int[] best = new int[]{bestMove};
+            int score = negamax(own, opp, depth, -INFINITY, INFINITY, 0, best);
+            if (stopped) {
+                break;
+            }
+            bestMove = best[0];
+            bestScore = score;
+            completed = depth;
+            if (System.nanoTime() > start + (deadline - start) / 2) {
+                break;
+            }
+        }
+        return new Result(bestMove, bestScore, completed, false, nodes, System.nanoTime() - start);
+    }
+
+    // ---------------------------------------------------------------- midgame
+
+    private int negamax(long own, long opp, int depth, int alpha, int beta, int ply, int[] rootBest) {
+        if ((++nodes & 4095) == 0 && System.nanoTime() > deadline) {
+            stopped = true;
+        }
+        if (stopped) {
+            return 0;
+        }
+        long legal = ReversiBitboard.moves(own, opp);
+        if (legal == 0) {
+            if (ReversiBitboard.moves(opp, own) == 0) {
+                return finalScore(own, opp) * WIN_SCALE;
+            }
+            return -negamax(opp, own, depth, -beta, -alpha, ply + 1, null);
+        }
+        if (depth == 0) {
+            return evaluate(own, opp, legal);
+        }
+
+        long key = ReversiBitboard.hash(own, opp);
+        int slot = (int) key & (ttKeys.length - 1);
+        int ttMove = -1;
+        if (ttKeys[slot] == key) {
+            long data = ttData[slot];
+            ttMove = (int) (data & 0xFF) - 1;
+            if (rootBest == null && ((data >>> 8) & 0xFF) >= depth) {
+                int score = (short) (data >>> 16);
+                int bound = (int) (data >>> 32) & 3;
+                if (bound == EXACT || (bound == LOWER && score >= beta) || (bound == UPPER && score <= alpha)) {
+                    return score;
+                }
+            }
+        }
+
+        int count = orderMoves(own, opp, legal, ttMove, ply);
+        int[] list = moveBuffer[ply];
+        int originalAlpha = alpha;
+        int best = -INFINITY, bestMove = list[0];
+        for (int i = 0; i < count; i++) {
+            int sq = list[i];
+            long flipped = ReversiBitboard.flips(own, opp, sq);
+            int score = -negamax(opp & ~flipped, own | flipped | (1L << sq), depth - 1, -beta, -alpha, ply + 1, null);
+            if (stopped) {
+                return 0;
+            }
+            if (score > best) {
+                best = score;
+                bestMove = sq;
+                if (score > alpha) {
+                    alpha = score;
+                }
+                if (alpha >= beta) {
+                    break;
+                }
+            }
+        }
+        if (rootBest != null) {
+            rootBest[0] = bestMove;
+        }
+        int bound = best >= beta ? LOWER : best > originalAlpha ? EXACT : UPPER;
+        store(slot, key, bestMove, best, depth, bound);
+        return best;
+    }
+
+    /** Square weights plus mobility; positive favours {@code own}. */
+    static int evaluate(long own, long opp, long ownMoves) {
+        int score = 0;
+        for (long b = own; b != 0; b &= b - 1) {
+            score += SQUARE_WEIGHTS[Long.numberOfTrailingZeros(b)];
+        }
+        for (long b = opp; b != 0; b &= b - 1) {
+            score -= SQUARE_WEIGHTS[Long.numberOfTrailingZeros(b)];
+        }
+        int oppMoves = Long.bitCount(ReversiBitboard.moves(opp, own));
+        score += 8 * (Long.bitCount(ownMoves) - oppMoves);
+        return score;
+    }
+
+    /**
+     * Writes the legal moves into the ply's buffer, TT move first, then corners,
+     * then by square weight, and returns the count.
+     */
+    private int orderMoves(long own, long opp, long legal, int ttMove, int ply) {
+        int[] list = moveBuffer[ply];
+        int[] keys = orderBuffer[ply];
+        int n = 0;
+        for (long b = legal; b != 0; b &= b - 1) {
+            int sq = Long.numberOfTrailingZeros(b);
+            int key = SQUARE_WEIGHTS[sq];
+            if (sq == ttMove) {
+                key = 1000;
+            } else if (((1L << sq) & X_SQUARES) != 0 && (CORNERS & ~(own | opp)) != 0) {
+                key -= 50;
+            }
+            int j = n++;
+            while (j > 0 && keys[j - 1] < key) {
+                keys[j] = keys[j - 1];
+                list[j] = list[j - 1];
+                j--;
+            }
+            keys[j] = key;
+            list[j] = sq;
+        }
+        return n;
+    }
+
+    // ---------------------------------------------------------------- endgame
+
+    private int solveRoot(long own, long opp, int[] best) {
+        int empties = 64 - Long.bitCount(own | opp);
+        int count = orderFastestFirst(own, opp, ReversiBitboard.moves(own, opp), empties);
+        int[] list = moveBuffer[empties].clone();
+        int alpha = -65;
+        best[0] = list[0];
+        for (int i = 0; i < count; i++) {
+            int sq = list[i];
+            long flipped = ReversiBitboard.flips(own, opp, sq);
+            int score = -solve(opp & ~flipped, own | flipped | (1L << sq), -64, -alpha, false);
+            if (score > alpha) {
+                alpha = score;
+                best[0] = sq;
+            }
+        }
+        return alpha;
+    }
+
+    /** Exact final disc differential for the side owning {@code own}. */
+    private int solve(long own, long opp, int alpha, int beta, boolean passed) {
+        nodes++;
+        long legal = ReversiBitboard.moves(own, opp);
+        if (legal == 0) {
+            if (passed) {
+                return finalScore(own, opp);
+            }
+            return -solve(opp, own, -beta, -alpha, true);
+        }
+        int empties = 64 - Long.bitCount(own | opp);
+        if (empties <= 6) {
+            return solveShallow(own, opp, legal, alpha, beta);
+        }
+
+        long key = ReversiBitboard.hash(own, opp) ^ 0x5A5A5A5A5A5A5A5AL;
+        int slot = (int) key & (ttKeys.length - 1);
+        if (ttKeys[slot] == key) {
+            long data = ttData[slot];
+            if (((data >>> 8) & 0xFF) == 0xFF) {
+                int score = (short) (data >>> 16);
+                int bound = (int) (data >>> 32) & 3;
+                if (bound == EXACT || (bound == LOWER && score >= beta) || (bound == UPPER && score <= alpha)) {
+                    return score;
+                }
+            }
+        }
+
+        int count = orderFastestFirst(own, opp, legal, empties);
+        int[] list = moveBuffer[empties];
+        int originalAlpha = alpha;
+        int best = -65, bestMove = list[0];
+        for (int i = 0; i < count; i++) {
+            int sq = list[i];
+            long flipped = ReversiBitboard.flips(own, opp, sq);
+            int score = -solve(opp & ~flipped, own | flipped | (1L << sq), -beta, -alpha, false);
+            if (score > best) {
+                best = score;
+                bestMove = sq;
+                if (score > alpha) {
+                    alpha = score;
+                }
+                if (alpha >= beta) {
+                    break;
+                }
+            }
+        }
+        int bound = best >= beta ? LOWER : best > originalAlpha ? EXACT : UPPER;
+        store(slot, key, bestMove, best, 0xFF, bound);
+        return best;
+    }
+
+    /** Near the end ordering costs more than it saves, so moves are tried in bit order. */
+    private int solveShallow(long own, long opp, long legal, int alpha, int beta) {
+        int best = -65;
+        for (long b = legal; b != 0; b &= b - 1) {
+            int sq = Long.numberOfTrailingZeros(b);
+            long flipped = ReversiBitboard.flips(own, opp, sq);
+            int score = -solve(opp & ~flipped, own | flipped | (1L << sq), -beta, -alpha, false);
+            if (score > best) {
+                best = score;
+                if (score > alpha) {
+                    alpha = score;
+                }
+                if (alpha >= beta) {
+                    break;
+                }
+            }
+        }
+        return best;
+    }
+
+    /** Sorts moves by how few replies they leave the opponent, corners breaking ties. */
+    private int orderFastestFirst(long own, long opp, long legal, int ply) {
+        int[] list = moveBuffer[ply];
+        int[] keys = orderBuffer[ply];
+        int n = 0;
+        for (long b = legal; b != 0; b &= b - 1) {
+            int sq = Long.numberOfTrailingZeros(b);
+            long flipped = ReversiBitboard.flips(own, opp, sq);
+            long newOwn = own | flipped | (1L << sq);
+            int key = Long.bitCount(ReversiBitboard.moves(opp & ~flipped, newOwn)) * 2
+                    - (((1L << sq) & CORNERS) != 0 ? 1 : 0);
+            int j = n++;
+            while (j > 0 && keys[j - 1] > key) {
+                keys[j] = keys[j - 1];
+                list[j] = list[j - 1];
+                j--;
+            }
+            keys[j] = key;
+            list[j] = sq;
+        }
+        return n;
+    }
+
+    /** Disc differential with empty squares credited to the winner. */
+    static int finalScore(long own, long opp) {
+        int mine = Long.bitCount(own), theirs = Long.bitCount(opp);
+        int empties = 64 - mine - theirs;
+        if (mine > theirs) {
+            return mine - theirs + empties;
+        }
+        if (mine < theirs) {
+            return mine - theirs - empties;
+        }
+        return 0;
+    }
+
+    private void store(int slot, long key, int move, int score, int depth, int bound) {
+        ttKeys[slot] = key;
+        ttData[slot] = ((move + 1) & 0xFFL)
+                | ((long) (depth & 0xFF) << 8)
+                | ((score & 0xFFFFL) << 16)
+                | ((long) bound << 32);
+    }
+}
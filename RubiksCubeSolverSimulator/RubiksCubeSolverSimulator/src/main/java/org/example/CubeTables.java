@@ -0,0 +1,337 @@
+package org.example;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Move and pruning tables of the two-phase solver, indexed by the {@link CubieCube}
+ * coordinates. Move tables hold {@code coordinate * 18 + move}; pruning tables hold
+ * the exact number of moves needed to solve a pair of coordinates (a lower bound
+ * for the whole cube).
+ *
+ * Building takes a second or two, so the tables are written to a binary file once
+ * and memory-mapped on later starts.
+ */
+public final class CubeTables {
+
+    public static final String DEFAULT_FILE = "rubiks-two-phase-tables.bin";
+
+    static final int N_TWIST = 2187;
+    static final int N_FLIP = 2048;
+    static final int N_SLICE1 = 495;
+    static final int N_SLICE2 = 24;
+    static final int N_FRtoBR = 11880;
+    static final int N_URFtoDLF = 20160;
+    static final int N_URtoDF = 20160;
+    static final int N_URtoUL = 1320;
+    static final int N_UBtoDF = 1320;
+    static final int N_MERGE = 336;
+
+    private static final int MAGIC = 0x32504B44; // bump when the table layout changes
+    private static final int N = CubieCube.N_MOVES;
+
+    /** Lengths of the tables {@link #build} makes, in file order; {@link #load} rejects any other. */
+    private static final int[] MOVE_SIZES = {N_TWIST * N, N_FLIP * N, N_FRtoBR * N, N_URFtoDLF * N,
+            N_URtoDF * N, N_URtoUL * N, N_UBtoDF * N, N_MERGE * N_MERGE};
+    private static final int[] PRUNE_SIZES = {N_SLICE1 * N_TWIST, N_SLICE1 * N_FLIP, N_TWIST * N_FLIP,
+            N_SLICE2 * N_URFtoDLF * 2, N_SLICE2 * N_URtoDF * 2};
+
+    /** Moves allowed in phase 2: U*, D* and half turns of the side faces. */
+    static final boolean[] PHASE2_MOVE = new boolean[N];
+    /** Permutation parity after a move: quarter turns flip it. */
+    static final int[][] PARITY_MOVE = new int[2][N];
+
+    static {
+        for (int m : new int[]{0, 1, 2, 4, 7, 9, 10, 11, 13, 16}) {
+            PHASE2_MOVE[m] = true;
+        }
+        for (int m = 0; m < N; m++) {
+            int quarter = m % 3 == 1 ? 0 : 1;
+            PARITY_MOVE[0][m] = quarter;
+            PARITY_MOVE[1][m] = 1 - quarter;
+        }
+    }
+
+    private interface Coordinate {
+        int get(CubieCube cube);
+
+        void set(CubieCube cube, int value);
+    }
+
+    final short[] twistMove;
+    final short[] flipMove;
+    final short[] frToBrMove;
+    final short[] urfToDlfMove;
+    final short[] urToDfMove;
+    final short[] urToUlMove;
+    final short[] ubToDfMove;
+    final short[] mergeUrToDf;
+    final byte[] sliceTwistPrune;
+    final byte[] sliceFlipPrune;
+    final byte[] twistFlipPrune;
+    final byte[] sliceUrfToDlfParityPrune;
+    final byte[] sliceUrToDfParityPrune;
+
+    private CubeTables(short[][] moves, byte[][] prunes) {
+        twistMove = moves[0];
+        flipMove = moves[1];
+        frToBrMove = moves[2];
+        urfToDlfMove = moves[3];
+        urToDfMove = moves[4];
+        urToUlMove = moves[5];
+        ubToDfMove = moves[6];
+        mergeUrToDf = moves[7];
+        sliceTwistPrune = prunes[0];
+        sliceFlipPrune = prunes[1];
+        twistFlipPrune = prunes[2];
+        sliceUrfToDlfParityPrune = prunes[3];
+        sliceUrToDfParityPrune = prunes[4];
+    }
+
+    private short[][] moveTables() {
+        return new short[][]{twistMove, flipMove, frToBrMove, urfToDlfMove, urToDfMove, urToUlMove,
+                ubToDfMove, mergeUrToDf};
+    }
+
+    private byte[][] pruneTables() {
+        return new byte[][]{sliceTwistPrune, sliceFlipPrune, twistFlipPrune, sliceUrfToDlfParityPrune, sliceUrToDfParityPrune};
+    }
+
+    /** Maps the table file if it exists and is valid, otherwise builds the tables and writes it. */
+    public static CubeTables loadOrBuild(Path file) throws IOException {
+        if (Files.exists(file)) {
+            CubeTables tables = load(file);
+            if (tables != null) {
+                return tables;
+            }
+        }
+        CubeTables tables = build();
+        tables.save(file);
+        return tables;
+    }
+
+    /** Returns null if the file is not a complete table file of the sizes {@link #build} makes. */
+    static CubeTables load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (channel.size() < 12 || buffer.getInt() != MAGIC || buffer.getInt() != MOVE_SIZES.length) {
+                return null;
+            }
+            // every length is checked before allocating, so a stale or damaged file is rebuilt, not trusted
+            short[][] moves = new short[MOVE_SIZES.length][];
+            for (int i = 0; i < moves.length; i++) {
+                if (buffer.remaining() < 4 || buffer.getInt() != MOVE_SIZES[i] || buffer.remaining() < 2L * MOVE_SIZES[i]) {
+                    return null;
+                }
+                moves[i] = new short[MOVE_SIZES[i]];
+                buffer.asShortBuffer().get(moves[i]);
+                buffer.position(buffer.position() + 2 * moves[i].length);
+            }
+            if (buffer.remaining() < 4 || buffer.getInt() != PRUNE_SIZES.length) {
+                return null;
+            }
+            byte[][] prunes = new byte[PRUNE_SIZES.length][];
+            for (int i = 0; i < prunes.length; i++) {
+                if (buffer.remaining() < 4 || buffer.getInt() != PRUNE_SIZES[i] || buffer.remaining() < PRUNE_SIZES[i]) {
+                    return null;
+                }
+                prunes[i] = new byte[PRUNE_SIZES[i]];
+                buffer.get(prunes[i]);
+            }
+            return buffer.hasRemaining() ? null : new CubeTables(moves, prunes);
+        } catch (RuntimeException e) {
+            // foreign file: rebuild
+            return null;
+        }
+    }
+
+    void save(Path file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            short[][] moves = moveTables();
+            out.writeInt(moves.length);
+            for (short[] table : moves) {
+                out.writeInt(table.length);
+                ByteBuffer bytes = ByteBuffer.allocate(table.length * 2);
+                bytes.asShortBuffer().put(table);
+                out.write(bytes.array());
+            }
+            byte[][] prunes = pruneTables();
+            out.writeInt(prunes.length);
+            for (byte[] table : prunes) {
+                out.writeInt(table.length);
+                out.write(table);
+            }
+        }
+    }
+
+    public static CubeTables build() {
+        short[] twistMove = moveTable(N_TWIST, false, new Coordinate() {
+            public int get(CubieCube c) {
+                return c.getTwist();
+            }
+
+            public void set(CubieCube c, int v) {
+                c.setTwist(v);
+            }
+        });
+        short[] flipMove = moveTable(N_FLIP, false, new Coordinate() {
+            public int get(CubieCube c) {
+                return c.getFlip();
+            }
+
+            public void set(CubieCube c, int v) {
+                c.setFlip(v);
+            }
+        });
+        short[] frToBrMove = moveTable(N_FRtoBR, false, new Coordinate() {
+            public int get(CubieCube c) {
+                return c.getFRtoBR();
+            }
+
+            public void set(CubieCube c, int v) {
+                c.setFRtoBR(v);
+            }
+        });
+        short[] urfToDlfMove = moveTable(N_URFtoDLF, false, new Coordinate() {
+            public int get(CubieCube c) {
+                return c.getURFtoDLF();
+            }
+
+            public void set(CubieCube c, int v) {
+                c.setURFtoDLF(v);
+            }
+        });
+        // outside phase 2 this coordinate does not fit a short, and is never needed
+        short[] urToDfMove = moveTable(N_URtoDF, true, new Coordinate() {
+            public int get(CubieCube c) {
+                return c.getURtoDF();
+            }
+
+            public void set(CubieCube c, int v) {
+                c.setURtoDF(v);
+            }
+        });
+        short[] urToUlMove = moveTable(N_URtoUL, false, new Coordinate() {
+            public int get(CubieCube c) {
+                return c.getURtoUL();
+            }
+
+            public void set(CubieCube c, int v) {
+                c.setURtoUL(v);
+            }
+        });
+        short[] ubToDfMove = moveTable(N_UBtoDF, false, new Coordinate() {
+            public int get(CubieCube c) {
+                return c.getUBtoDF();
+            }
+
+            public void set(CubieCube c, int v) {
+                c.setUBtoDF(v);
+            }
+        });
+        short[] merge = new short[N_MERGE * N_MERGE];
+        for (int a = 0; a < N_MERGE; a++) {
+            for (int b = 0; b < N_MERGE; b++) {
+                merge[a * N_MERGE + b] = (short) CubieCube.mergeURtoULandUBtoDF(a, b);
+            }
+        }
+
+        byte[] sliceTwist = new byte[N_SLICE1 * N_TWIST];
+        bfs(sliceTwist, false, index -> index == 0, (index, m) -> {
+            int slice = index % N_SLICE1, twist = index / N_SLICE1;
+            return N_SLICE1 * twistMove[twist * N + m] + frToBrMove[slice * 24 * N + m] / 24;
+        });
+        byte[] sliceFlip = new byte[N_SLICE1 * N_FLIP];
+        bfs(sliceFlip, false, index -> index == 0, (index, m) -> {
+            int slice = index % N_SLICE1, flip = index / N_SLICE1;
+            return N_SLICE1 * flipMove[flip * N + m] + frToBrMove[slice * 24 * N + m] / 24;
+        });
+        byte[] twistFlip = new byte[N_TWIST * N_FLIP];
+        bfs(twistFlip, false, index -> index == 0,
+                (index, m) -> N_FLIP * twistMove[index / N_FLIP * N + m] + flipMove[index % N_FLIP * N + m]);
+        byte[] sliceCorners = new byte[N_SLICE2 * N_URFtoDLF * 2];
+        bfs(sliceCorners, true, index -> index == 0, (index, m) -> {
+            int parity = index & 1, slice = (index >> 1) % N_SLICE2, corners = (index >> 1) / N_SLICE2;
+            return (N_SLICE2 * urfToDlfMove[corners * N + m] + frToBrMove[slice * N + m]) * 2
+                    + PARITY_MOVE[parity][m];
+        });
+        byte[] sliceEdges = new byte[N_SLICE2 * N_URtoDF * 2];
+        bfs(sliceEdges, true, index -> index == 0, (index, m) -> {
+            int parity = index & 1, slice = (index >> 1) % N_SLICE2, edges = (index >> 1) / N_SLICE2;
+            return (N_SLICE2 * urToDfMove[edges * N + m] + frToBrMove[slice * N + m]) * 2
+                    + PARITY_MOVE[parity][m];
+        });
+        return new CubeTables(
+                new short[][]{twistMove, flipMove, frToBrMove, urfToDlfMove, urToDfMove, urToUlMove, ubToDfMove, merge},
+                new byte[][]{sliceTwist, sliceFlip, twistFlip, sliceCorners, sliceEdges});
+    }
+
+    private static short[] moveTable(int size, boolean phase2Only, Coordinate coordinate) {
+        short[] table = new short[size * N];
+        Arrays.fill(table, (short) -1);
+        CubieCube cube = new CubieCube();
+        for (int i = 0; i < size; i++) {
+            coordinate.set(cube, i);
+            for (int face = 0; face < 6; face++) {
+                for (int k = 0; k < 3; k++) {
+                    cube.move(3 * face);
+                    if (!phase2Only || PHASE2_MOVE[3 * face + k]) {
+                        table[i * N + 3 * face + k] = (short) coordinate.get(cube);
+                    }
+                }
+                cube.move(3 * face);
+            }
+        }
+        return table;
+    }
+
+    private interface IndexTest {
+        boolean test(int index);
+    }
+
+    private interface Successor {
+        int next(int index, int move);
+    }
+
+    /** Breadth-first distances from the solved index over all moves, or phase 2 moves only. */
+    private static void bfs(byte[] table, boolean phase2, IndexTest solved, Successor successor) {
+        Arrays.fill(table, (byte) -1);
+        int done = 0;
+        for (int i = 0; i < table.length; i++) {
+            if (solved.test(i)) {
+                table[i] = 0;
+                done++;
+            }
+        }
+        for (int depth = 0; done < table.length; depth++) {
+            int before = done;
+            for (int i = 0; i < table.length; i++) {
+                if (table[i] != depth) {
+                    continue;
+                }
+                for (int m = 0; m < N; m++) {
+                    if (phase2 && !PHASE2_MOVE[m]) {
+                        continue;
+                    }
+                    int next = successor.next(i, m);
+                    if (table[next] < 0) {
+                        table[next] = (byte) (depth + 1);
+                        done++;
+                    }
+                }
+            }
+            if (done == before) {
+                break;
+            }
+        }
+    }
+}
@@ -0,0 +1,582 @@
+package org.example;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Cube state at the cubie level: which corner and edge cubie sits in each slot
+ * and how it is twisted or flipped. Slots are numbered
+ * URF UFL ULB UBR DFR DLF DBL DRB for corners and
+ * UR UF UL UB DR DF DL DB FR FL BL BR for edges.
+ *
+ * Moves are numbered 3 * face + (turns - 1) with faces U R F D L B, so move 0 is
+ * U, 1 is U2, 2 is U' and so on up to 17 (B'). The coordinate getters and setters
+ * are the ones the two-phase solver indexes its tables by.
+ */
+public class CubieCube {
+
+    public static final int N_MOVES = 18;
+    static final String FACES = "URFDLB";
+
+    static final int URF = 0, UFL = 1, ULB = 2, UBR = 3, DFR = 4, DLF = 5, DBL = 6, DRB = 7;
+    static final int UR = 0, UF = 1, UL = 2, UB = 3, DR = 4, DF = 5, DL = 6, DB = 7,
+            FR = 8, FL = 9, BL = 10, BR = 11;
+
+    // Basic face turns in "is replaced by" form: slot i receives the cubie from slot cp[i]
+    private static final CubieCube[] FACE_TURNS = {
+            new CubieCube(new int[]{UBR, URF, UFL, ULB, DFR, DLF, DBL, DRB}, new int[8],
+                    new int[]{UB, UR, UF, UL, DR, DF, DL, DB, FR, FL, BL, BR}, new int[12]),
+            new CubieCube(new int[]{DFR, UFL, ULB, URF, DRB, DLF, DBL, UBR}, new int[]{2, 0, 0, 1, 1, 0, 0, 2},
+                    new int[]{FR, UF, UL, UB, BR, DF, DL, DB, DR, FL, BL, UR}, new int[12]),
+            new CubieCube(new int[]{UFL, DLF, ULB, UBR, URF, DFR, DBL, DRB}, new int[]{1, 2, 0, 0, 2, 1, 0, 0},
+                    new int[]{UR, FL, UL, UB, DR, FR, DL, DB, UF, DF, BL, BR},
+                    new int[]{0, 1, 0, 0, 0, 1, 0, 0, 1, 1, 0, 0}),
+            new CubieCube(new int[]{URF, UFL, ULB, UBR, DLF, DBL, DRB, DFR}, new int[8],
+                    new int[]{UR, UF, UL, UB, DF, DL, DB, DR, FR, FL, BL, BR}, new int[12]),
+            new CubieCube(new int[]{URF, ULB, DBL, UBR, DFR, UFL, DLF, DRB}, new int[]{0, 1, 2, 0, 0, 2, 1, 0},
+                    new int[]{UR, UF, BL, UB, DR, DF, FL, DB, FR, UL, DL, BR}, new int[12]),
+            new CubieCube(new int[]{URF, UFL, UBR, DRB, DFR, DLF, ULB, DBL}, new int[]{0, 0, 1, 2, 0, 0, 2, 1},
+                    new int[]{UR, UF, UL, BR, DR, DF, DL, BL, FR, FL, UB, DB},
+                    new int[]{0, 0, 0, 1, 0, 0, 0, 1, 0, 0, 1, 1})
+    };
+
+    // Rotation of the whole cube by 120 degrees around the URF-DBL diagonal
+    private static final CubieCube URF3 = new CubieCube(
+            new int[]{URF, DFR, DLF, UFL, UBR, DRB, DBL, ULB}, new int[]{1, 2, 1, 2, 2, 1, 2, 1},
+            new int[]{UF, FR, DF, FL, UB, BR, DB, BL, UR, DR, DL, UL}, new int[]{1, 0, 1, 0, 1, 0, 1, 0, 1, 1, 1, 1});
+    private static final CubieCube URF3_INVERSE = URF3.inverse();
+
+    /**
+     * URF3_MOVE_BACK[n] is the move m with URF3^-1 * n * URF3 == m, so a solution n1..nk of
+     * {@link #rotateURF3()} maps back to a solution of the unrotated cube move by move.
+     */
+    static final int[] URF3_MOVE_BACK = new int[N_MOVES];
+
+    // Facelets are numbered U1..U9, R1..R9, F1..F9, D1..D9, L1..L9, B1..B9 (0..53)
+    private static final int[][] CORNER_FACELETS = {
+            {8, 9, 20}, {6, 18, 38}, {0, 36, 47}, {2, 45, 11},
+            {29, 26, 15}, {27, 44, 24}, {33, 53, 42}, {35, 17, 51}
+    };
+    private static final int[][] EDGE_FACELETS = {
+            {5, 10}, {7, 19}, {3, 37}, {1, 46}, {32, 16}, {28, 25},
+            {30, 43}, {34, 52}, {23, 12}, {21, 41}, {50, 39}, {48, 14}
+    };
+    private static final int[][] CORNER_COLORS = {
+            {0, 1, 2}, {0, 2, 4}, {0, 4, 5}, {0, 5, 1}, {3, 2, 1}, {3, 4, 2}, {3, 5, 4}, {3, 1, 5}
+    };
+    private static final int[][] EDGE_COLORS = {
+            {0, 1}, {0, 2}, {0, 4}, {0, 5}, {3, 1}, {3, 2}, {3, 4}, {3, 5}, {2, 1}, {2, 4}, {5, 4}, {5, 1}
+    };
+
+    private static final int[][] BINOMIAL = new int[12][12];
+
+    static {
+        for (int n = 0; n < 12; n++) {
+            BINOMIAL[n][0] = 1;
+            for (int k = 1; k <= n; k++) {
+                BINOMIAL[n][k] = BINOMIAL[n - 1][k - 1] + (k < n ? BINOMIAL[n - 1][k] : 0);
+            }
+        }
+    }
+
+    final int[] cp = {URF, UFL, ULB, UBR, DFR, DLF, DBL, DRB};
+    final int[] co = new int[8];
+    final int[] ep = {UR, UF, UL, UB, DR, DF, DL, DB, FR, FL, BL, BR};
+    final int[] eo = new int[12];
+
+    static {
+        for (int n = 0; n < N_MOVES; n++) {
+            CubieCube conjugate = new CubieCube(URF3_INVERSE);
+            conjugate.move(n);
+            conjugate.multiply(URF3);
+            for (int m = 0; m < N_MOVES; m++) {
+                CubieCube turn = new CubieCube();
+                turn.move(m);
+                if (turn.equals(conjugate)) {
+                    URF3_MOVE_BACK[n] = m;
+                }
+            }
+        }
+    }
+
+    public CubieCube() {
+    }
+
+    private CubieCube(int[] cp, int[] co, int[] ep, int[] eo) {
+        System.arraycopy(cp, 0, this.cp, 0, 8);
+        System.arraycopy(co, 0, this.co, 0, 8);
+        System.arraycopy(ep, 0, this.ep, 0, 12);
+        System.arraycopy(eo, 0, this.eo, 0, 12);
+    }
+
+    public CubieCube(CubieCube other) {
+        this(other.cp, other.co, other.ep, other.eo);
+    }
+
+    /** Uniformly random solvable cube. */
+    public static CubieCube random(Random random) {
+        CubieCube cube = new CubieCube();
+        do {
+            cube.setCornerPermutation(random.nextInt(40320));
+            cube.setEdgePermutation(random.nextInt(479001600));
+        } while (cube.cornerParity() != cube.edgeParity());
+        cube.setTwist(random.nextInt(2187));
+        cube.setFlip(random.nextInt(2048));
+        return cube;
+    }
+
+    public boolean isSolved() {
+        for (int i = 0; i < 8; i++) {
+            if (cp[i] != i || co[i] != 0) {
+                return false;
+            }
+        }
+        for (int i = 0; i < 12; i++) {
+            if (ep[i] != i || eo[i] != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof CubieCube)) {
+            return false;
+        }
+        CubieCube other = (CubieCube) o;
+        return Arrays.equals(cp, other.cp) && Arrays.equals(co, other.co)
+                && Arrays.equals(ep, other.ep) && Arrays.equals(eo, other.eo);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(cp) + Arrays.hashCode(ep) ^ 17 * Arrays.hashCode(co) + Arrays.hashCode(eo);
+    }
+
+    /** The state that this state undoes: this * inverse() is solved. */
+    public CubieCube inverse() {
+        CubieCube inv = new CubieCube();
+        for (int i = 0; i < 8; i++) {
+            inv.cp[cp[i]] = i;
+            inv.co[cp[i]] = (3 - co[i]) % 3;
+        }
+        for (int i = 0; i < 12; i++) {
+            inv.ep[ep[i]] = i;
+            inv.eo[ep[i]] = eo[i];
+        }
+        return inv;
+    }
+
+    /** URF3 * this * URF3^-1: the same state seen with the axes U, R, F relabelled. */
+    CubieCube rotateURF3() {
+        CubieCube rotated = new CubieCube(URF3);
+        rotated.multiply(this);
+        rotated.multiply(URF3_INVERSE);
+        return rotated;
+    }
+
+    /** Move undoing {@code move}: U becomes U', U2 stays U2. */
+    public static int inverseMove(int move) {
+        return move / 3 * 3 + 2 - move % 3;
+    }
+
+    /** this = this * other, i.e. apply {@code other} after this state. */
+    void multiply(CubieCube other) {
+        int[] ncp = new int[8], nco = new int[8], nep = new int[12], neo = new int[12];
+        for (int i = 0; i < 8; i++) {
+            ncp[i] = cp[other.cp[i]];
+            nco[i] = (co[other.cp[i]] + other.co[i]) % 3;
+        }
+        for (int i = 0; i < 12; i++) {
+            nep[i] = ep[other.ep[i]];
+            neo[i] = (eo[other.ep[i]] + other.eo[i]) & 1;
+        }
+        System.arraycopy(ncp, 0, cp, 0, 8);
+        System.arraycopy(nco, 0, co, 0, 8);
+        System.arraycopy(nep, 0, ep, 0, 12);
+        System.arraycopy(neo, 0, eo, 0, 12);
+    }
+
+    /** Applies a move 0..17. */
+    public void move(int move) {
+        for (int i = move % 3; i >= 0; i--) {
+            multiply(FACE_TURNS[move / 3]);
+        }
+    }
+
+    public void apply(int[] moves) {
+        for (int m : moves) {
+            move(m);
+        }
+    }
+
+    public static String moveName(int move) {
+        return FACES.charAt(move / 3) + (move % 3 == 0 ? "" : move % 3 == 1 ? "2" : "'");
+    }
+
+    public static String format(int[] moves) {
+        StringBuilder sb = new StringBuilder();
+        for (int m : moves) {
+            if (sb.length() > 0) {
+                sb.append(' ');
+            }
+            sb.append(moveName(m));
+        }
+        return sb.toString();
+    }
+
+    /** Parses moves like "R U2 F'" into move numbers. */
+    public static int[] parse(String text) {
+        String[] tokens = text.trim().isEmpty() ? new String[0] : text.trim().split("\\s+");
+        int[] moves = new int[tokens.length];
+        for (int i = 0; i < tokens.length; i++) {
+            String t = tokens[i];
+            int face = FACES.indexOf(t.charAt(0));
+            if (face < 0 || t.length() > 2) {
+                throw new IllegalArgumentException("Bad move: " + t);
+            }
+            int turns = t.length() == 1 ? 0 : t.charAt(1) == '2' ? 1 : t.charAt(1) == '\'' ? 2 : -1;
+            if (turns < 0) {
+                throw new IllegalArgumentException("Bad move: " + t);
+            }
+            moves[i] = face * 3 + turns;
+        }
+        return moves;
+    }
+
+    /** Colour (face index in URFDLB order) of each of the 54 facelets. */
+    public int[] toFacelets() {
+        int[] facelets = new int[54];
+        for (int face = 0; face < 6; face++) {
+            facelets[face * 9 + 4] = face;
+        }
+        for (int i = 0; i < 8; i++) {
+            for (int n = 0; n < 3; n++) {
+                facelets[CORNER_FACELETS[i][(n + co[i]) % 3]] = CORNER_COLORS[cp[i]][n];
+            }
+        }
+        for (int i = 0; i < 12; i++) {
+            for (int n = 0; n < 2; n++) {
+                facelets[EDGE_FACELETS[i][(n + eo[i]) % 2]] = EDGE_COLORS[ep[i]][n];
+            }
+        }
+        return facelets;
+    }
+
+    // ---- phase 1 coordinates ----
+
+    /** Corner orientation, 0..2186. */
+    int getTwist() {
+        int twist = 0;
+        for (int i = URF; i < DRB; i++) {
+            twist = 3 * twist + co[i];
+        }
+        return twist;
+    }
+
+    void setTwist(int twist) {
+        int sum = 0;
+        for (int i = DRB - 1; i >= URF; i--) {
+            co[i] = twist % 3;
+            sum += co[i];
+            twist /= 3;
+        }
+        co[DRB] = (3 - sum % 3) % 3;
+    }
+
+    /** Edge orientation, 0..2047. */
+    int getFlip() {
+        int flip = 0;
+        for (int i = UR; i < BR; i++) {
+            flip = 2 * flip + eo[i];
+        }
+        return flip;
+    }
+
+    void setFlip(int flip) {
+        int sum = 0;
+        for (int i = BR - 1; i >= UR; i--) {
+            eo[i] = flip & 1;
+            sum += eo[i];
+            flip >>= 1;
+        }
+        eo[BR] = sum & 1;
+    }
+
+    int cornerParity() {
+        int s = 0;
+        for (int i = DRB; i > URF; i--) {
+            for (int j = i - 1; j >= URF; j--) {
+                if (cp[j] > cp[i]) {
+                    s++;
+                }
+            }
+        }
+        return s & 1;
+    }
+
+    int edgeParity() {
+        int s = 0;
+        for (int i = BR; i > UR; i--) {
+            for (int j = i - 1; j >= UR; j--) {
+                if (ep[j] > ep[i]) {
+                    s++;
+                }
+            }
+        }
+        return s & 1;
+    }
+
+    // ---- coordinates shared by both phases: positions and order of edge/corner groups ----
+
+    /**
+     * Slots and order of the four middle-layer edges FR FL BL BR, 0..11879.
+     * Divided by 24 it is the phase 1 slice coordinate; in phase 2 it is below 24.
+     */
+    int getFRtoBR() {
+        int a = 0, x = 0;
+        int[] edge4 = new int[4];
+        for (int j = BR; j >= UR; j--) {
+            if (FR <= ep[j] && ep[j] <= BR) {
+                a += binomial(11 - j, x + 1);
+                edge4[3 - x++] = ep[j];
+            }
+        }
+        return 24 * a + permutationIndex(edge4, 3, FR);
+    }
+
+    void setFRtoBR(int idx) {
+        int[] slice = {FR, FL, BL, BR};
+        int[] other = {UR, UF, UL, UB, DR, DF, DL, DB};
+        setPermutation(slice, 3, idx % 24);
+        int a = idx / 24;
+        for (int j = 0; j < 12; j++) {
+            ep[j] = -1;
+        }
+        int x = 3;
+        for (int j = UR; j <= BR; j++) {
+            if (a - binomial(11 - j, x + 1) >= 0) {
+                ep[j] = slice[3 - x];
+                a -= binomial(11 - j, x-- + 1);
+            }
+        }
+        x = 0;
+        for (int j = UR; j <= BR; j++) {
+            if (ep[j] == -1) {
+                ep[j] = other[x++];
+            }
+        }
+    }
+
+    /** Slots and order of corners URF..DLF, 0..20159. */
+    int getURFtoDLF() {
+        int a = 0, x = 0;
+        int[] corner6 = new int[6];
+        for (int j = URF; j <= DRB; j++) {
+            if (cp[j] <= DLF) {
+                a += binomial(j, x + 1);
+                corner6[x++] = cp[j];
+            }
+        }
+        return 720 * a + permutationIndex(corner6, 5, URF);
+    }
+
+    void setURFtoDLF(int idx) {
+        int[] corner6 = {URF, UFL, ULB, UBR, DFR, DLF};
+        int[] other = {DBL, DRB};
+        setPermutation(corner6, 5, idx % 720);
+        int a = idx / 720;
+        for (int j = 0; j < 8; j++) {
+            cp[j] = -1;
+        }
+        int x = 5;
+        for (int j = DRB; j >= 0; j--) {
+            if (a - binomial(j, x + 1) >= 0) {
+                cp[j] = corner6[x];
+                a -= binomial(j, x-- + 1);
+            }
+        }
+        x = 0;
+        for (int j = URF; j <= DRB; j++) {
+            if (cp[j] == -1) {
+                cp[j] = other[x++];
+            }
+        }
+    }
+
+    /** Slots and order of edges UR..DF; below 20160 in phase 2. */
+    int getURtoDF() {
+        int a = 0, x = 0;
+        int[] edge6 = new int[6];
+        for (int j = UR; j <= BR; j++) {
+            if (0 <= ep[j] && ep[j] <= DF) {
+                a += binomial(j, x + 1);
+                edge6[x++] = ep[j];
+            }
+        }
+        return 720 * a + permutationIndex(edge6, 5, UR);
+    }
+
+    void setURtoDF(int idx) {
+        int[] edge6 = {UR, UF, UL, UB, DR, DF};
+        int[] other = {DL, DB, FR, FL, BL, BR};
+        setPermutation(edge6, 5, idx % 720);
+        int a = idx / 720;
+        for (int j = 0; j < 12; j++) {
+            ep[j] = -1;
+        }
+        int x = 5;
+        for (int j = BR; j >= 0; j--) {
+            if (a - binomial(j, x + 1) >= 0) {
+                ep[j] = edge6[x];
+                a -= binomial(j, x-- + 1);
+            }
+        }
+        x = 0;
+        for (int j = UR; j <= BR; j++) {
+            if (ep[j] == -1) {
+                ep[j] = other[x++];
+            }
+        }
+    }
+
+    /** Slots and order of edges UR UF UL, 0..1319. */
+    int getURtoUL() {
+        return getThreeEdges(UR);
+    }
+
+    /** Slots and order of edges UB DR DF, 0..1319. */
+    int getUBtoDF() {
+        return getThreeEdges(UB);
+    }
+
+    /** Places only UR UF UL; every other slot is left at -1. */
+    void setURtoUL(int idx) {
+        setThreeEdges(UR, idx);
+    }
+
+    void setUBtoDF(int idx) {
+        setThreeEdges(UB, idx);
+    }
+
+    private int getThreeEdges(int first) {
+        int a = 0, x = 0;
+        int[] edge3 = new int[3];
+        for (int j = UR; j <= BR; j++) {
+            if (first <= ep[j] && ep[j] < first + 3) {
+                a += binomial(j, x + 1);
+                edge3[x++] = ep[j];
+            }
+        }
+        return 6 * a + permutationIndex(edge3, 2, first);
+    }
+
+    private void setThreeEdges(int first, int idx) {
+        int[] edge3 = {first, first + 1, first + 2};
+        setPermutation(edge3, 2, idx % 6);
+        int a = idx / 6;
+        for (int j = 0; j < 12; j++) {
+            ep[j] = -1;
+        }
+        int x = 2;
+        for (int j = BR; j >= 0; j--) {
+            if (a - binomial(j, x + 1) >= 0) {
+                ep[j] = edge3[x];
+                a -= binomial(j, x-- + 1);
+            }
+        }
+    }
+
+    /**
+     * URtoDF from the two three-edge coordinates at the end of phase 1, or -1 if
+     * they claim the same slot. Only slots 0..7 are looked at, which is where the
+     * six edges are in phase 2.
+     */
+    static int mergeURtoULandUBtoDF(int urToUl, int ubToDf) {
+        CubieCube a = new CubieCube();
+        CubieCube b = new CubieCube();
+        a.setURtoUL(urToUl);
+        b.setUBtoDF(ubToDf);
+        for (int i = 0; i < 8; i++) {
+            if (a.ep[i] != -1) {
+                if (b.ep[i] != -1) {
+                    return -1;
+                }
+                b.ep[i] = a.ep[i];
+            }
+        }
+        return b.getURtoDF();
+    }
+
+    // ---- full permutations, for random cubes ----
+
+    void setCornerPermutation(int idx) {
+        setLehmer(cp, idx);
+    }
+
+    void setEdgePermutation(int idx) {
+        setLehmer(ep, idx);
+    }
+
+    private static void setLehmer(int[] perm, int idx) {
+        int n = perm.length;
+        int[] digits = new int[n];
+        for (int i = n - 1; i >= 0; i--) {
+            digits[i] = idx % (n - i);
+            idx /= n - i;
+        }
+        boolean[] used = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            int k = digits[i];
+            for (int v = 0; v < n; v++) {
+                if (!used[v] && k-- == 0) {
+                    perm[i] = v;
+                    used[v] = true;
+                    break;
+                }
+            }
+        }
+    }
+
+    /** Index of the order of {@code items[0..last]}, whose values are base..base+last. */
+    private static int permutationIndex(int[] items, int last, int base) {
+        int[] work = items.clone();
+        int b = 0;
+        for (int j = last; j > 0; j--) {
+            int k = 0;
+            while (work[j] != j + base) {
+                rotateLeft(work, j);
+                k++;
+            }
+            b = (j + 1) * b + k;
+        }
+        return b;
+    }
+
+    private static void setPermutation(int[] items, int last, int b) {
+        for (int j = 1; j <= last; j++) {
+            int k = b % (j + 1);
+            b /= j + 1;
+            while (k-- > 0) {
+                rotateRight(items, j);
+            }
+        }
+    }
+
+    private static void rotateLeft(int[] arr, int right) {
+        int temp = arr[0];
+        System.arraycopy(arr, 1, arr, 0, right);
+        arr[right] = temp;
+    }
+
+    private static void rotateRight(int[] arr, int right) {
+        int temp = arr[right];
+        System.arraycopy(arr, 0, arr, 1, right);
+        arr[0] = temp;
+    }
+
+    private static int binomial(int n, int k) {
+        return n < k || n < 0 ? 0 : BINOMIAL[n][k];
+    }
+}
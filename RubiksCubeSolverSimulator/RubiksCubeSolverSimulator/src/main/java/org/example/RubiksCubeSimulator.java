@@ -3,11 +3,25 @@ package org.example;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.Random;
 
 public class RubiksCubeSimulator extends JPanel implements KeyListener {
     private char[][][] cube;
     private static final char[] COLORS = {'W', 'Y', 'R', 'O', 'B', 'G'};
+    // Panel faces W Y R O B G are the solver's U D R L B F
+    private static final int[] PANEL_TO_FACE = {0, 3, 1, 4, 5, 2};
+    private static final int STEP_MILLIS = 400;
+
+    private static TwoPhaseSolver solver;
+
+    private CubieCube state;
+    private int[] solution;
+    private int solutionStep;
+    private Timer animation;
+    private boolean solving;
+    private String status = "SPACE scramble, R turn U, S solve";
 
     public RubiksCubeSimulator() {
         initializeCube();
@@ -17,35 +31,121 @@ public class RubiksCubeSimulator extends JPanel implements KeyListener {
 
     private void initializeCube() {
         cube = new char[6][3][3];
-        for (int i = 0; i < 6; i++) {
-            for (int j = 0; j < 3; j++) {
-                for (int k = 0; k < 3; k++) {
-                    cube[i][j][k] = COLORS[i];
+        state = new CubieCube();
+        updateFacelets();
+    }
+
+    /** Copies the cubie state into the facelet colours that are drawn. */
+    private void updateFacelets() {
+        int[] facelets = state.toFacelets();
+        for (int f = 0; f < 6; f++) {
+            int face = PANEL_TO_FACE[f];
+            for (int i = 0; i < 3; i++) {
+                for (int j = 0; j < 3; j++) {
+                    cube[f][i][j] = COLORS[panelFace(facelets[face * 9 + i * 3 + j])];
                 }
             }
         }
     }
 
-    public void rotateFace(int face) {
-        char[][] temp = new char[3][3];
-        for (int i = 0; i < 3; i++) {
-            for (int j = 0; j < 3; j++) {
-                temp[j][2 - i] = cube[face][i][j];
+    private static int panelFace(int face) {
+        for (int f = 0; f < 6; f++) {
+            if (PANEL_TO_FACE[f] == face) {
+                return f;
             }
         }
-        cube[face] = temp;
+        throw new IllegalArgumentException("face " + face);
+    }
+
+    public void rotateFace(int face) {
+        applyMove(3 * PANEL_TO_FACE[face]);
+    }
+
+    private void applyMove(int move) {
+        state.move(move);
+        updateFacelets();
         repaint();
     }
 
     public void scrambleCube() {
+        stopAnimation();
         Random rand = new Random();
-        for (int i = 0; i < 20; i++) {
-            rotateFace(rand.nextInt(6));
+        int[] moves = new int[20];
+        for (int i = 0; i < moves.length; i++) {
+            moves[i] = rand.nextInt(CubieCube.N_MOVES);
         }
+        state.apply(moves);
+        status = "Scramble: " + CubieCube.format(moves);
+        updateFacelets();
+        repaint();
+    }
+
+    private static synchronized TwoPhaseSolver getSolver() throws IOException {
+        if (solver == null) {
+            solver = new TwoPhaseSolver(CubeTables.loadOrBuild(Paths.get(CubeTables.DEFAULT_FILE)));
+        }
+        return solver;
+    }
+
+    /** Solves off the event thread, then plays the solution one move per step. */
+    public void solveCube() {
+        if (solving || state.isSolved()) {
+            return;
+        }
+        stopAnimation();
+        solving = true;
+        status = "Solving...";
+        repaint();
+        CubieCube start = new CubieCube(state);
+        new SwingWorker<TwoPhaseSolver.Result, Void>() {
+            @Override
+            protected TwoPhaseSolver.Result doInBackground() throws Exception {
+                return getSolver().solve(start);
+            }
+
+            @Override
+            protected void done() {
+                solving = false;
+                try {
+                    TwoPhaseSolver.Result result = get();
+                    status = result.toString();
+                    if (result.isFound() && start.equals(state)) {
+                        solution = result.getMoves();
+                        solutionStep = 0;
+                        animation = new Timer(STEP_MILLIS, e -> stepSolution());
+                        animation.start();
+                    }
+                } catch (Exception ex) {
+                    status = "Solver failed: " + ex.getMessage();
+                }
+                repaint();
+            }
+        }.execute();
+    }
+
+    private void stepSolution() {
+        if (solution == null || solutionStep >= solution.length) {
+            stopAnimation();
+            return;
+        }
+        applyMove(solution[solutionStep++]);
+    }
+
+    private void stopAnimation() {
+        if (animation != null) {
+            animation.stop();
+            animation = null;
+        }
+        solution = null;
     }
 
     public void paintComponent(Graphics g) {
         super.paintComponent(g);
+        g.setColor(Color.BLACK);
+        g.drawString(status, 20, 40);
+        if (solution != null) {
+            g.drawString("Move " + solutionStep + "/" + solution.length, 20, 60);
+        }
         drawCube(g);
     }
 
@@ -88,7 +188,10 @@ public class RubiksCubeSimulator extends JPanel implements KeyListener {
         if (e.getKeyCode() == KeyEvent.VK_SPACE) {
             scrambleCube();
         } else if (e.getKeyCode() == KeyEvent.VK_R) {
+            stopAnimation();
             rotateFace(0);
+        } else if (e.getKeyCode() == KeyEvent.VK_S) {
+            solveCube();
         }
     }
 
@@ -0,0 +1,60 @@
+package org.example;
+
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Solves random cubes and reports table load time, mean/p99/max solve time and
+ * the solution lengths. Every solution is applied to its cube and checked.
+ * Usage: TwoPhaseBenchmark [cubes] [table file]
+ */
+public class TwoPhaseBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+        String file = args.length > 1 ? args[1] : CubeTables.DEFAULT_FILE;
+
+        long start = System.nanoTime();
+        CubeTables tables = CubeTables.loadOrBuild(Paths.get(file));
+        System.out.printf("tables ready in %.0f ms (%s)%n", (System.nanoTime() - start) / 1e6, file);
+
+        TwoPhaseSolver solver = new TwoPhaseSolver(tables);
+        Random random = new Random(42);
+        // warm-up
+        for (int i = 0; i < 200; i++) {
+            solver.solve(CubieCube.random(random));
+        }
+
+        long[] nanos = new long[count];
+        int[] lengthCounts = new int[TwoPhaseSolver.DEFAULT_MAX_LENGTH + 1];
+        long totalMoves = 0;
+        int failed = 0;
+        for (int i = 0; i < count; i++) {
+            CubieCube cube = CubieCube.random(random);
+            TwoPhaseSolver.Result result = solver.solve(cube);
+            nanos[i] = result.getElapsedNanos();
+            if (!result.isFound()) {
+                failed++;
+                continue;
+            }
+            CubieCube check = new CubieCube(cube);
+            check.apply(result.getMoves());
+            if (!check.isSolved()) {
+                throw new IllegalStateException("wrong solution " + result + " for cube " + i);
+            }
+            lengthCounts[result.getLength()]++;
+            totalMoves += result.getLength();
+        }
+        Arrays.sort(nanos);
+        double mean = Arrays.stream(nanos).average().orElse(0) / 1e6;
+        System.out.printf("%d cubes: mean %.2f ms, p99 %.2f ms, max %.2f ms, %d without solution%n", count, mean,
+                nanos[(int) (count * 0.99)] / 1e6, nanos[count - 1] / 1e6, failed);
+        System.out.printf("mean length %.2f moves%n", totalMoves / (double) (count - failed));
+        for (int length = 0; length < lengthCounts.length; length++) {
+            if (lengthCounts[length] > 0) {
+                System.out.printf("  %2d moves: %d%n", length, lengthCounts[length]);
+            }
+        }
+    }
+}
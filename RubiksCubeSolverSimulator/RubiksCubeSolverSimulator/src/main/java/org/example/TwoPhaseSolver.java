@@ -0,0 +1,222 @@
+package org.example;
+
+/**
+ * Kociemba's two-phase algorithm. Phase 1 brings the cube into the subgroup
+ * generated by U, D, R2, F2, L2, B2 (no twisted corners, no flipped edges, the
+ * four middle-slice edges in the middle slice); phase 2 solves it with those moves
+ * only. Both phases are iterative-deepening searches bounded by the pruning
+ * tables in {@link CubeTables}, and the first solution within the length limit
+ * is returned.
+ *
+ * A solver keeps no state between calls, so one instance can be shared by threads.
+ */
+public final class TwoPhaseSolver {
+
+    public static final int DEFAULT_MAX_LENGTH = 21;
+
+    private static final int N = CubieCube.N_MOVES;
+    private static final int MAX_PHASE2 = 10;
+
+    public static class Result {
+        private final int[] moves;
+        private final int phase1Length;
+        private final long elapsedNanos;
+
+        Result(int[] moves, int phase1Length, long elapsedNanos) {
+            this.moves = moves;
+            this.phase1Length = phase1Length;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        /** Moves solving the cube, or null if none was found within the limits. */
+        public int[] getMoves() {
+            return moves;
+        }
+
+        public boolean isFound() {
+            return moves != null;
+        }
+
+        /** Number of moves, or -1 if no solution was found. */
+        public int getLength() {
+            return moves == null ? -1 : moves.length;
+        }
+
+        public int getPhase1Length() {
+            return phase1Length;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            if (moves == null) {
+                return String.format("no solution time=%.1f ms", elapsedNanos / 1e6);
+            }
+            return String.format("%s (%d moves, %d + %d) time=%.2f ms", CubieCube.format(moves), moves.length,
+                    phase1Length, moves.length - phase1Length, elapsedNanos / 1e6);
+        }
+    }
+
+    private final CubeTables tables;
+
+    public TwoPhaseSolver(CubeTables tables) {
+        this.tables = tables;
+    }
+
+    public Result solve(CubieCube cube) {
+        return solve(cube, DEFAULT_MAX_LENGTH, 10000);
+    }
+
+    /**
+     * Returns the first solution of at most {@code maxLength} moves found within the time limit.
+     * The cube is searched as given, rotated onto the other two axes and inverted, six
+     * searches deepened in lock-step: whichever has the luckiest phase 1 finishes first.
+     */
+    public Result solve(CubieCube cube, int maxLength, long timeoutMillis) {
+        long begin = System.nanoTime();
+        long deadline = begin + timeoutMillis * 1000000L;
+        Search[] searches = new Search[6];
+        CubieCube rotated = cube;
+        for (int axis = 0; axis < 3; axis++) {
+            searches[axis] = new Search(rotated, maxLength, deadline);
+            searches[axis + 3] = new Search(rotated.inverse(), maxLength, deadline);
+            rotated = rotated.rotateURF3();
+        }
+        for (int depth1 = 0; depth1 <= maxLength; depth1++) {
+            for (int variant = 0; variant < searches.length; variant++) {
+                Search search = searches[variant];
+                if (search.timedOut) {
+                    return new Result(null, -1, System.nanoTime() - begin);
+                }
+                if (search.phase1(0, search.twist, search.flip, search.slice, depth1)) {
+                    return new Result(search.solution(variant >= 3, variant % 3), depth1, System.nanoTime() - begin);
+                }
+            }
+        }
+        return new Result(null, -1, System.nanoTime() - begin);
+    }
+
+    /** Per-call search state: the current move sequence and the coordinates of the start cube. */
+    private final class Search {
+        final int[] moves = new int[32];
+        final int maxLength;
+        final long deadline;
+        final int twist, flip, slice;
+        final int urfToDlf, frToBr, parity, urToUl, ubToDf;
+        int length;
+        long nodes;
+        boolean timedOut;
+
+        Search(CubieCube cube, int maxLength, long deadline) {
+            this.maxLength = maxLength;
+            this.deadline = deadline;
+            twist = cube.getTwist();
+            flip = cube.getFlip();
+            frToBr = cube.getFRtoBR();
+            slice = frToBr / 24;
+            urfToDlf = cube.getURFtoDLF();
+            parity = cube.cornerParity();
+            urToUl = cube.getURtoUL();
+            ubToDf = cube.getUBtoDF();
+        }
+
+        /** The moves found, mapped back from the inverted and/or rotated cube to the original. */
+        int[] solution(boolean inverted, int rotations) {
+            int[] result = new int[length];
+            for (int i = 0; i < length; i++) {
+                int m = inverted ? CubieCube.inverseMove(moves[length - 1 - i]) : moves[i];
+                for (int r = 0; r < rotations; r++) {
+                    m = CubieCube.URF3_MOVE_BACK[m];
+                }
+                result[i] = m;
+            }
+            return result;
+        }
+
+        /** Same face twice, or opposite faces in the non-canonical order, is redundant. */
+        boolean redundant(int depth, int move) {
+            if (depth == 0) {
+                return false;
+            }
+            int face = move / 3, previous = moves[depth - 1] / 3;
+            return face == previous || face == previous - 3;
+        }
+
+        boolean phase1(int depth, int twist, int flip, int slice, int limit) {
+            if ((++nodes & 0xFFFF) == 0 && System.nanoTime() > deadline) {
+                timedOut = true;
+            }
+            if (timedOut) {
+                return false;
+            }
+            if (depth == limit) {
+                // ending on a phase 2 move would just be a shorter phase 1 searched before
+                if (twist == 0 && flip == 0 && slice == 0
+                        && (depth == 0 || !CubeTables.PHASE2_MOVE[moves[depth - 1]])) {
+                    return startPhase2(depth);
+                }
+                return false;
+            }
+            // cheapest tables first: most nodes are cut by one of them
+            int togo = limit - depth;
+            if (tables.sliceTwistPrune[CubeTables.N_SLICE1 * twist + slice] > togo
+                    || tables.sliceFlipPrune[CubeTables.N_SLICE1 * flip + slice] > togo
+                    || tables.twistFlipPrune[CubeTables.N_FLIP * twist + flip] > togo) {
+                return false;
+            }
+            for (int m = 0; m < N; m++) {
+                if (redundant(depth, m)) {
+                    continue;
+                }
+                moves[depth] = m;
+                if (phase1(depth + 1, tables.twistMove[twist * N + m], tables.flipMove[flip * N + m],
+                        tables.frToBrMove[slice * 24 * N + m] / 24, limit)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        boolean startPhase2(int depth1) {
+            int corners = urfToDlf, slice = frToBr, par = parity, a = urToUl, b = ubToDf;
+            for (int i = 0; i < depth1; i++) {
+                int m = moves[i];
+                corners = tables.urfToDlfMove[corners * N + m];
+                slice = tables.frToBrMove[slice * N + m];
+                par = CubeTables.PARITY_MOVE[par][m];
+                a = tables.urToUlMove[a * N + m];
+                b = tables.ubToDfMove[b * N + m];
+            }
+            int edges = tables.mergeUrToDf[a * CubeTables.N_MERGE + b];
+            // any solution within the limit will do, so phase 2 is a plain bounded search
+            return phase2(depth1, corners, edges, slice, par, depth1 + Math.min(MAX_PHASE2, maxLength - depth1));
+        }
+
+        boolean phase2(int depth, int corners, int edges, int slice, int par, int limit) {
+            if (corners == 0 && edges == 0 && slice == 0) {
+                length = depth;
+                return true;
+            }
+            int bound = Math.max(
+                    tables.sliceUrfToDlfParityPrune[(CubeTables.N_SLICE2 * corners + slice) * 2 + par],
+                    tables.sliceUrToDfParityPrune[(CubeTables.N_SLICE2 * edges + slice) * 2 + par]);
+            if (depth + bound > limit) {
+                return false;
+            }
+            for (int m = 0; m < N; m++) {
+                if (!CubeTables.PHASE2_MOVE[m] || redundant(depth, m)) {
+                    continue;
+                }
+                moves[depth] = m;
+                if (phase2(depth + 1, tables.urfToDlfMove[corners * N + m], tables.urToDfMove[edges * N + m],
+                        tables.frToBrMove[slice * N + m], CubeTables.PARITY_MOVE[par][m], limit)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
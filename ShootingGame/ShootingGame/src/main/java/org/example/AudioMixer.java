@@ -0,0 +1,197 @@
+package org.example;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.SourceDataLine;
+import java.util.Arrays;
+
+/**
+ * Software mixer: up to a fixed number of voices, each playing an
+ * {@link AudioSample}, summed into one 16-bit mono stream. When every voice is
+ * busy, a new sound steals the voice that has been playing longest.
+ *
+ * Game code calls {@link #play}, which only puts a command on a lock-free
+ * {@link CommandQueue}; the voices belong to whoever calls {@link #mix}. After
+ * {@link #start()} that is a low-priority daemon thread feeding a
+ * {@link SourceDataLine}. Without {@code start()}, {@code mix} can be called
+ * directly to render into a byte buffer, with no audio device.
+ */
+public final class AudioMixer implements AutoCloseable {
+
+    public static final float SAMPLE_RATE = 44100;
+    public static final AudioFormat FORMAT = new AudioFormat(SAMPLE_RATE, 16, 1, true, false);
+    /** Frames mixed per write to the line: about 12 ms. */
+    static final int BLOCK_FRAMES = 512;
+    private static final long STOP_ALL = -1;
+
+    private volatile AudioSample[] samples = new AudioSample[0];
+    private final CommandQueue commands = new CommandQueue(256);
+
+    private final AudioSample[] voiceSample;
+    private final int[] voicePosition;
+    /** Gain in 1/256ths. */
+    private final int[] voiceGain;
+    private final long[] voiceStarted;
+    private long voicesStarted;
+    private final int[] accumulator = new int[BLOCK_FRAMES];
+
+    private SourceDataLine line;
+    private Thread thread;
+    private volatile boolean running;
+
+    public AudioMixer(int voices) {
+        voiceSample = new AudioSample[voices];
+        voicePosition = new int[voices];
+        voiceGain = new int[voices];
+        voiceStarted = new long[voices];
+    }
+
+    /** Adds a sample and returns its id for {@link #play}. */
+    public synchronized int register(AudioSample sample) {
+        AudioSample[] grown = Arrays.copyOf(samples, samples.length + 1);
+        grown[samples.length] = sample;
+        samples = grown;
+        return samples.length - 1;
+    }
+
+    /**
+     * Queues a sample to start on the next mix at {@code gain} (at most 4);
+     * returns false if the queue is full and it was dropped.
+     */
+    public boolean play(int sampleId, float gain) {
+        int g = Math.max(0, Math.min(4 << 8, Math.round(gain * 256)));
+        return commands.offer((long) g << 32 | (sampleId + 1));
+    }
+
+    public void stopAll() {
+        commands.offer(STOP_ALL);
+    }
+
+    /**
+     * Applies the queued commands and mixes the next {@code frames} frames into
+     * {@code out} as 16-bit little-endian; returns the number of bytes written.
+     */
+    public int mix(byte[] out, int offset, int frames) {
+        for (long c; (c = commands.poll()) != 0; ) {
+            if (c == STOP_ALL) {
+                Arrays.fill(voiceSample, null);
+            } else {
+                startVoice((int) c - 1, (int) (c >>> 32));
+            }
+        }
+        int written = 0;
+        while (written < frames) {
+            int n = Math.min(frames - written, accumulator.length);
+            mixBlock(n);
+            for (int i = 0, b = offset + 2 * written; i < n; i++, b += 2) {
+                int s = Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, accumulator[i]));
+                out[b] = (byte) s;
+                out[b + 1] = (byte) (s >> 8);
+            }
+            written += n;
+        }
+        return 2 * frames;
+    }
+
+    private void startVoice(int sampleId, int gain) {
+        AudioSample[] registered = samples;
+        if (sampleId < 0 || sampleId >= registered.length) {
+            return;
+        }
+        int voice = 0;
+        for (int v = 0; v < voiceSample.length; v++) {
+            if (voiceSample[v] == null) {
+                voice = v;
+                break;
+            }
+            if (voiceStarted[v] < voiceStarted[voice]) {
+                voice = v;
+            }
+        }
+        voiceSample[voice] = registered[sampleId];
+        voicePosition[voice] = 0;
+        voiceGain[voice] = gain;
+        voiceStarted[voice] = voicesStarted++;
+    }
+
+    private void mixBlock(int frames) {
+        Arrays.fill(accumulator, 0, frames, 0);
+        for (int v = 0; v < voiceSample.length; v++) {
+            AudioSample sample = voiceSample[v];
+            if (sample == null) {
+                continue;
+            }
+            short[] pcm = sample.pcm;
+            int position = voicePosition[v], gain = voiceGain[v];
+            int n = Math.min(frames, pcm.length - position);
+            for (int i = 0; i < n; i++) {
+                accumulator[i] += pcm[position + i] * gain >> 8;
+            }
+            voicePosition[v] = position + n;
+            if (position + n >= pcm.length) {
+                voiceSample[v] = null;
+            }
+        }
+    }
+
+    /** Voices still playing; mixing thread only. */
+    int activeVoices() {
+        int active = 0;
+        for (AudioSample s : voiceSample) {
+            if (s != null) {
+                active++;
+            }
+        }
+        return active;
+    }
+
+    /**
+     * Opens the default output line and starts the mixing thread. Returns false,
+     * leaving the mixer silent, when there is no audio device.
+     */
+    public synchronized boolean start() {
+        if (running) {
+            return true;
+        }
+        try {
+            line = AudioSystem.getSourceDataLine(FORMAT);
+            line.open(FORMAT, 4 * BLOCK_FRAMES * 2);
+        } catch (LineUnavailableException | IllegalArgumentException e) {
+            System.err.println("No audio output: " + e.getMessage());
+            line = null;
+            return false;
+        }
+        line.start();
+        running = true;
+        thread = new Thread(this::run, "audio-mixer");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+        return true;
+    }
+
+    private void run() {
+        byte[] block = new byte[BLOCK_FRAMES * 2];
+        while (running) {
+            int bytes = mix(block, 0, BLOCK_FRAMES);
+            // blocks while the line's buffer is full, which paces the loop
+            line.write(block, 0, bytes);
+        }
+        line.drain();
+        line.close();
+    }
+
+    @Override
+    public synchronized void close() {
+        running = false;
+        if (thread != null) {
+            try {
+                thread.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            thread = null;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package org.example;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+
+/**
+ * A sound decoded once into 16-bit mono PCM at {@link AudioMixer#SAMPLE_RATE},
+ * ready to be mixed without further I/O or conversion.
+ */
+public final class AudioSample {
+
+    final short[] pcm;
+
+    public AudioSample(short[] pcm) {
+        this.pcm = pcm;
+    }
+
+    public int length() {
+        return pcm.length;
+    }
+
+    /** Decodes a classpath resource, or returns null if there is no such resource. */
+    public static AudioSample load(String resource) throws IOException, UnsupportedAudioFileException {
+        InputStream in = AudioSample.class.getResourceAsStream(resource);
+        if (in == null) {
+            return null;
+        }
+        try (AudioInputStream source = AudioSystem.getAudioInputStream(new BufferedInputStream(in))) {
+            AudioFormat from = source.getFormat();
+            int channels = from.getChannels();
+            AudioFormat pcm16 = new AudioFormat(from.getSampleRate(), 16, channels, true, false);
+            try (AudioInputStream converted = AudioSystem.getAudioInputStream(pcm16, source)) {
+                byte[] bytes = converted.readAllBytes();
+                int frames = bytes.length / (2 * channels);
+                short[] mono = new short[frames];
+                for (int f = 0; f < frames; f++) {
+                    int sum = 0;
+                    for (int c = 0; c < channels; c++) {
+                        int b = 2 * (f * channels + c);
+                        sum += (short) (bytes[b] & 0xFF | bytes[b + 1] << 8);
+                    }
+                    mono[f] = (short) (sum / channels);
+                }
+                return new AudioSample(resample(mono, from.getSampleRate()));
+            }
+        }
+    }
+
+    /** Linear resampling to the mixer rate; Java Sound does not convert rates by itself. */
+    static short[] resample(short[] pcm, float rate) {
+        if (rate == AudioMixer.SAMPLE_RATE || pcm.length == 0) {
+            return pcm;
+        }
+        double step = rate / AudioMixer.SAMPLE_RATE;
+        short[] out = new short[(int) (pcm.length / step)];
+        for (int i = 0; i < out.length; i++) {
+            double at = i * step;
+            int j = (int) at;
+            double t = at - j;
+            int next = Math.min(j + 1, pcm.length - 1);
+            out[i] = (short) Math.round(pcm[j] * (1 - t) + pcm[next] * t);
+        }
+        return out;
+    }
+
+    /** 80 ms square-wave blip falling from 1200 Hz to 400 Hz. */
+    public static AudioSample shoot() {
+        short[] pcm = new short[frames(0.08)];
+        double phase = 0;
+        for (int i = 0; i < pcm.length; i++) {
+            double t = (double) i / pcm.length;
+            phase += (1200 - 800 * t) / AudioMixer.SAMPLE_RATE;
+            pcm[i] = (short) ((phase % 1 < 0.5 ? 1 : -1) * 9000 * (1 - t));
+        }
+        return new AudioSample(pcm);
+    }
+
+    /** 400 ms of low-passed noise dying away. */
+    public static AudioSample explosion() {
+        short[] pcm = new short[frames(0.4)];
+        Random random = new Random(1);
+        double level = 0;
+        for (int i = 0; i < pcm.length; i++) {
+            double t = (double) i / pcm.length;
+            level += (random.nextDouble() * 2 - 1 - level) * 0.15;
+            pcm[i] = (short) (level * 26000 * (1 - t) * (1 - t));
+        }
+        return new AudioSample(pcm);
+    }
+
+    /** 250 ms sine rising from 600 Hz to 1200 Hz. */
+    public static AudioSample powerUp() {
+        short[] pcm = new short[frames(0.25)];
+        double phase = 0;
+        for (int i = 0; i < pcm.length; i++) {
+            double t = (double) i / pcm.length;
+            phase += (600 + 600 * t) / AudioMixer.SAMPLE_RATE;
+            pcm[i] = (short) (Math.sin(2 * Math.PI * phase) * 10000 * Math.min(1, 8 * (1 - t)));
+        }
+        return new AudioSample(pcm);
+    }
+
+    private static int frames(double seconds) {
+        return (int) (seconds * AudioMixer.SAMPLE_RATE);
+    }
+}
@@ -3,25 +3,51 @@ package org.example;
 import java.awt.Graphics;
 import java.awt.Rectangle;
 
-public class Bullet {
+public class Bullet extends Entity {
+
+    static final int WIDTH = 5, HEIGHT = 10;
 
-    int x, y;
     int speed = 10;
 
+    /** For {@link EntityPool}: a spare bullet, placed later by {@link #spawn}. */
+    Bullet() {
+    }
+
     public Bullet(int startX, int startY) {
-        this.x = startX;
-        this.y = startY;
+        place(startX, startY);
+    }
+
+    /** Reuses a pooled bullet; a negative speed moves it down. */
+    Bullet spawn(int startX, int startY, int speed) {
+        place(startX, startY);
+        this.speed = speed;
+        return this;
     }
 
     public void update() {
+        savePosition();
         y -= speed; // Move up
     }
 
     public void render(Graphics g) {
-        g.fillRect(x, y, 5, 10); // Draw bullet as a small rectangle
+        g.fillRect(x, y, WIDTH, HEIGHT); // Draw bullet as a small rectangle
+    }
+
+    public void render(Graphics g, double alpha) {
+        g.fillRect(renderX(alpha), renderY(alpha), WIDTH, HEIGHT);
     }
 
     public Rectangle getBounds() {
-        return new Rectangle(x, y, 5, 10);
+        return new Rectangle(x, y, WIDTH, HEIGHT);
+    }
+
+    @Override
+    int width() {
+        return WIDTH;
+    }
+
+    @Override
+    int height() {
+        return HEIGHT;
     }
 }
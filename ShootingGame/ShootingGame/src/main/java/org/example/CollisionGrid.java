@@ -0,0 +1,84 @@
+package org.example;
+
+import java.util.Arrays;
+
+/**
+ * Broad phase: a uniform grid over the playfield holding the indices of the
+ * entities of one pool, built each step by counting sort. An entity is listed in
+ * every cell its box touches, so cell c holds items[start(c)] .. items[end(c) - 1].
+ * Cells are clamped to the grid, so entities partly off-screen land in the edge
+ * cells. Queries still need the exact {@link Entity#overlaps} test.
+ */
+final class CollisionGrid {
+
+    private final int cellSize;
+    private final int columns;
+    private final int rows;
+    private final int[] start;
+    private final int[] fill;
+    private int[] items = new int[64];
+
+    CollisionGrid(int width, int height, int cellSize) {
+        this.cellSize = cellSize;
+        columns = (width + cellSize - 1) / cellSize;
+        rows = (height + cellSize - 1) / cellSize;
+        start = new int[columns * rows + 1];
+        fill = new int[columns * rows];
+    }
+
+    int column(int px) {
+        return Math.max(0, Math.min(columns - 1, Math.floorDiv(px, cellSize)));
+    }
+
+    int row(int py) {
+        return Math.max(0, Math.min(rows - 1, Math.floorDiv(py, cellSize)));
+    }
+
+    int cell(int column, int row) {
+        return row * columns + column;
+    }
+
+    int start(int cell) {
+        return start[cell];
+    }
+
+    int end(int cell) {
+        return start[cell + 1];
+    }
+
+    int item(int index) {
+        return items[index];
+    }
+
+    void build(EntityPool<? extends Entity> pool) {
+        Arrays.fill(start, 0);
+        int n = pool.size();
+        for (int i = 0; i < n; i++) {
+            Entity e = pool.get(i);
+            int c0 = column(e.x), c1 = column(e.x + e.width() - 1);
+            int r0 = row(e.y), r1 = row(e.y + e.height() - 1);
+            for (int r = r0; r <= r1; r++) {
+                for (int c = c0; c <= c1; c++) {
+                    start[cell(c, r) + 1]++;
+                }
+            }
+        }
+        for (int c = 0; c < fill.length; c++) {
+            start[c + 1] += start[c];
+        }
+        if (items.length < start[fill.length]) {
+            items = new int[Math.max(start[fill.length], items.length * 2)];
+        }
+        System.arraycopy(start, 0, fill, 0, fill.length);
+        for (int i = 0; i < n; i++) {
+            Entity e = pool.get(i);
+            int c0 = column(e.x), c1 = column(e.x + e.width() - 1);
+            int r0 = row(e.y), r1 = row(e.y + e.height() - 1);
+            for (int r = r0; r <= r1; r++) {
+                for (int c = c0; c <= c1; c++) {
+                    items[fill[cell(c, r)]++] = i;
+                }
+            }
+        }
+    }
+}
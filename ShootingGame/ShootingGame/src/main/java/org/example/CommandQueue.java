@@ -0,0 +1,54 @@
+package org.example;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded lock-free queue of non-zero longs for many producers and one
+ * consumer. Producers claim a slot by advancing the tail with a CAS and then
+ * publish the value into it; the consumer takes values in order until it meets
+ * an unpublished (zero) slot. Nothing is allocated after construction.
+ */
+final class CommandQueue {
+
+    private final AtomicLongArray slots;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+
+    /** @param capacity rounded up to a power of two */
+    CommandQueue(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        slots = new AtomicLongArray(size);
+        mask = size - 1;
+    }
+
+    /** Returns false, dropping the command, if the queue is full. */
+    boolean offer(long command) {
+        if (command == 0) {
+            throw new IllegalArgumentException("command must be non-zero");
+        }
+        long t;
+        do {
+            t = tail.get();
+            if (t - head > mask) {
+                return false;
+            }
+        } while (!tail.compareAndSet(t, t + 1));
+        slots.set((int) t & mask, command);
+        return true;
+    }
+
+    /** Next command, or 0 if there is none yet; consumer thread only. */
+    long poll() {
+        long h = head;
+        int index = (int) h & mask;
+        long command = slots.get(index);
+        if (command == 0) {
+            return 0;
+        }
+        slots.set(index, 0);
+        head = h + 1;
+        return command;
+    }
+}
@@ -1,22 +1,61 @@
 package org.example;
 
 import java.awt.Graphics;
+import java.awt.Rectangle;
 
-public class Enemy {
+public class Enemy extends Entity {
+
+    static final int SIZE = 50;
 
-    int x, y;
     int health = 1;
 
+    /** For {@link EntityPool}: a spare enemy, placed later by {@link #spawn}. */
+    Enemy() {
+    }
+
     public Enemy(int startX, int startY) {
-        this.x = startX;
-        this.y = startY;
+        place(startX, startY);
+    }
+
+    Enemy spawn(int startX, int startY) {
+        place(startX, startY);
+        health = 1;
+        return this;
     }
 
     public void update() {
+        savePosition();
         y += 2; // Move downward
     }
 
+    /** Returns true if this hit killed the enemy. */
+    boolean hit() {
+        if (--health <= 0) {
+            alive = false;
+            return true;
+        }
+        return false;
+    }
+
     public void render(Graphics g) {
-        g.fillRect(x, y, 50, 50); // Enemy rectangle
+        g.fillRect(x, y, SIZE, SIZE); // Enemy rectangle
+    }
+
+    public void render(Graphics g, double alpha) {
+        g.fillRect(renderX(alpha), renderY(alpha), SIZE, SIZE);
+    }
+
+    public Rectangle getBounds() {
+        return new Rectangle(x, y, SIZE, SIZE);
+    }
+
+    @Override
+    int width() {
+        return SIZE;
+    }
+
+    @Override
+    int height() {
+        return SIZE;
     }
 }
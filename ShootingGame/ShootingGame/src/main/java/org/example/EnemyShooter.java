@@ -1,12 +1,11 @@
 package org.example;
 
 import java.awt.Graphics;
-import java.util.ArrayList;
 
 public class EnemyShooter {
 
     int x, y;
-    ArrayList<Bullet> bullets = new ArrayList<>();
+    final EntityPool<Bullet> bullets = new EntityPool<>(Bullet::new, 16);
 
     public EnemyShooter(int startX, int startY) {
         this.x = startX;
@@ -14,19 +13,24 @@ public class EnemyShooter {
     }
 
     public void shoot() {
-        bullets.add(new Bullet(x + 20, y + 50)); // Shoot from bottom of enemy
+        bullets.obtain().spawn(x + 20, y + 50, -10); // Shoot down from bottom of enemy
     }
 
     public void update() {
-        for (Bullet bullet : bullets) {
+        for (int i = 0; i < bullets.size(); i++) {
+            Bullet bullet = bullets.get(i);
             bullet.update();
+            if (bullet.y > 600) {
+                bullet.alive = false;
+            }
         }
+        bullets.removeDead();
     }
 
     public void render(Graphics g) {
         g.fillRect(x, y, 50, 50); // Draw enemy
-        for (Bullet bullet : bullets) {
-            bullet.render(g);
+        for (int i = 0; i < bullets.size(); i++) {
+            bullets.get(i).render(g);
         }
     }
 }
@@ -1,24 +1,33 @@
 package org.example;
 
 import java.awt.*;
-import java.util.ArrayList;
 public class EnemySpawner {
 
-    ArrayList<Enemy> enemies = new ArrayList<>();
+    final EntityPool<Enemy> enemies = new EntityPool<>(Enemy::new);
 
     public void spawnEnemy() {
-        enemies.add(new Enemy((int)(Math.random() * 800), -50)); // Spawn at random x position
+        enemies.obtain().spawn((int)(Math.random() * 800), -50); // Spawn at random x position
     }
 
+    /** Moves the enemies and drops the ones that have left the bottom of the screen. */
     public void update() {
-        for (Enemy enemy : enemies) {
+        for (int i = 0; i < enemies.size(); i++) {
+            Enemy enemy = enemies.get(i);
             enemy.update();
+            if (enemy.y > 600) {
+                enemy.alive = false;
+            }
         }
+        enemies.removeDead();
     }
 
     public void render(Graphics g) {
-        for (Enemy enemy : enemies) {
-            enemy.render(g);
+        render(g, 1);
+    }
+
+    public void render(Graphics g, double alpha) {
+        for (int i = 0; i < enemies.size(); i++) {
+            enemies.get(i).render(g, alpha);
         }
     }
 }
@@ -0,0 +1,48 @@
+package org.example;
+
+/**
+ * A pooled game object: a box at (x, y) that is reused through an
+ * {@link EntityPool} instead of being reallocated. prevX/prevY hold the position
+ * at the start of the current step, so rendering can interpolate between steps.
+ */
+public abstract class Entity {
+
+    int x, y;
+    int prevX, prevY;
+    boolean alive;
+
+    abstract int width();
+
+    abstract int height();
+
+    /** Puts a (possibly recycled) entity at (x, y) with no motion to interpolate. */
+    void place(int x, int y) {
+        this.x = prevX = x;
+        this.y = prevY = y;
+        alive = true;
+    }
+
+    /** Called at the start of each step, before the entity moves. */
+    void savePosition() {
+        prevX = x;
+        prevY = y;
+    }
+
+    int renderX(double alpha) {
+        return (int) Math.round(prevX + (x - prevX) * alpha);
+    }
+
+    int renderY(double alpha) {
+        return (int) Math.round(prevY + (y - prevY) * alpha);
+    }
+
+    /** Same test as {@code Rectangle.intersects}, without building the rectangles. */
+    boolean overlaps(Entity other) {
+        return x < other.x + other.width() && other.x < x + width()
+                && y < other.y + other.height() && other.y < y + height();
+    }
+
+    boolean overlaps(int ox, int oy, int width, int height) {
+        return x < ox + width && ox < x + width() && y < oy + height && oy < y + height();
+    }
+}
@@ -0,0 +1,76 @@
+package org.example;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * Live entities are items[0..size) and the rest of the array are spares, so once
+ * the pool has grown to its peak nothing more is allocated. An entity dies by
+ * clearing {@code alive}; {@link #removeDead()} then moves it back to the spares,
+ * keeping the live ones in order.
+ */
+public final class EntityPool<T extends Entity> {
+
+    private final Supplier<T> factory;
+    private Entity[] items;
+    private int size;
+
+    public EntityPool(Supplier<T> factory, int capacity) {
+        this.factory = factory;
+        items = new Entity[Math.max(1, capacity)];
+        for (int i = 0; i < items.length; i++) {
+            items[i] = factory.get();
+        }
+    }
+
+    public EntityPool(Supplier<T> factory) {
+        this(factory, 64);
+    }
+
+    /** A spare entity, now live; the caller places it. */
+    @SuppressWarnings("unchecked")
+    public T obtain() {
+        if (size == items.length) {
+            int old = items.length;
+            items = Arrays.copyOf(items, old * 2);
+            for (int i = old; i < items.length; i++) {
+                items[i] = factory.get();
+            }
+        }
+        Entity e = items[size++];
+        e.alive = true;
+        return (T) e;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** Live entity i, for i < size(); indices change when dead ones are removed. */
+    @SuppressWarnings("unchecked")
+    public T get(int i) {
+        return (T) items[i];
+    }
+
+    /** Returns dead entities to the spares; returns how many there were. */
+    public int removeDead() {
+        int live = 0;
+        for (int i = 0; i < size; i++) {
+            Entity e = items[i];
+            if (e.alive) {
+                items[i] = items[live];
+                items[live++] = e;
+            }
+        }
+        int removed = size - live;
+        size = live;
+        return removed;
+    }
+
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            items[i].alive = false;
+        }
+        size = 0;
+    }
+}
@@ -2,14 +2,49 @@ package org.example;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
 
+/**
+ * Runs the {@link World} at a fixed {@value #STEPS_PER_SECOND} steps per second
+ * whatever the frame rate: real time is added to an accumulator and spent in
+ * whole steps. Frames are drawn interpolated by the leftover fraction of a step.
+ * Start with the argument {@code stress} to run {@link StressMode}.
+ */
 public class GameLoop extends JPanel implements Runnable {
+    static final int STEPS_PER_SECOND = 60;
+    private static final long STEP_NANOS = 1_000_000_000L / STEPS_PER_SECOND;
+    private static final long FRAME_NANOS = 1_000_000_000L / 120;
+    /** Longest stretch simulated after a stall, so one slow frame cannot snowball. */
+    private static final long MAX_FRAME_NANOS = 250_000_000L;
+
     private Thread thread;
-    private boolean running = false;
+    private volatile boolean running = false;
+    private final World world;
+    private final StressMode stress;
+    private double alpha;
 
     public GameLoop() {
-        setPreferredSize(new Dimension(800, 600));
+        this(false);
+    }
+
+    public GameLoop(boolean stressMode) {
+        setPreferredSize(new Dimension(World.WIDTH, World.HEIGHT));
         setBackground(Color.BLACK);
+        stress = stressMode ? new StressMode() : null;
+        world = stress != null ? stress.world : new World();
+        if (stress == null) {
+            SoundEffect.preload();
+        }
+        setFocusable(true);
+        addKeyListener(new KeyAdapter() {
+            @Override
+            public void keyPressed(KeyEvent e) {
+                synchronized (world) {
+                    world.player.keyPressed(e);
+                }
+            }
+        });
     }
 
     public void start() {
@@ -19,33 +54,65 @@ public class GameLoop extends JPanel implements Runnable {
 
     public void run() {
         running = true;
+        long previous = System.nanoTime();
+        long accumulator = 0;
         while (running) {
-            update();
+            long now = System.nanoTime();
+            accumulator += Math.min(now - previous, MAX_FRAME_NANOS);
+            previous = now;
+            synchronized (world) {
+                while (accumulator >= STEP_NANOS) {
+                    update();
+                    accumulator -= STEP_NANOS;
+                }
+                alpha = (double) accumulator / STEP_NANOS;
+            }
             repaint();
+            long sleep = (previous + FRAME_NANOS - System.nanoTime()) / 1_000_000;
             try {
-                Thread.sleep(16); // ~60 FPS
+                Thread.sleep(Math.max(1, sleep));
             } catch (InterruptedException e) {
-                e.printStackTrace();
+                Thread.currentThread().interrupt();
+                running = false;
             }
         }
     }
 
+    /** One fixed step. */
     public void update() {
-        // Update game elements like player, enemies, bullets
+        if (stress != null) {
+            stress.update();
+        } else {
+            world.update();
+        }
     }
 
     public void paintComponent(Graphics g) {
         super.paintComponent(g);
-        // Render game elements
+        synchronized (world) {
+            g.setFont(g.getFont().deriveFont(12f));
+            if (stress != null) {
+                stress.render((Graphics2D) g, alpha);
+                String report = stress.endFrame();
+                g.setColor(Color.WHITE);
+                g.drawString(report, 10, 20);
+            } else {
+                world.render(g, alpha);
+                g.setColor(Color.WHITE);
+                g.drawString("Score: " + world.score.getScore() + "  Health: " + world.player.health.getHealth(), 10, 20);
+            }
+        }
     }
 
     public static void main(String[] args) {
-        JFrame frame = new JFrame("Shooting Game");
-        GameLoop game = new GameLoop();
+        boolean stressMode = args.length > 0 && args[0].equals("stress");
+        JFrame frame = new JFrame(stressMode ? "Shooting Game - stress" : "Shooting Game");
+        GameLoop game = new GameLoop(stressMode);
         frame.add(game);
         frame.pack();
         frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         frame.setVisible(true);
+        game.requestFocusInWindow();
         game.start();
     }
 
@@ -11,6 +11,10 @@ public class Health {
         }
     }
 
+    public void heal(int amount) {
+        health = Math.min(100, health + amount);
+    }
+
     public int getHealth() {
         return health;
     }
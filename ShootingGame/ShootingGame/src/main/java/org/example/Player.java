@@ -1,29 +1,59 @@
 package org.example;
 
 import java.awt.*;
-import java.util.ArrayList;
 import java.awt.event.KeyEvent;
 public class Player {
 
+    static final int SIZE = 50;
+
     int x = 100, y = 100;
-    ArrayList<Bullet> bullets = new ArrayList<>();
+    final EntityPool<Bullet> bullets;
+    final Health health = new Health();
+
+    public Player() {
+        this(new EntityPool<>(Bullet::new));
+    }
+
+    public Player(EntityPool<Bullet> bullets) {
+        this.bullets = bullets;
+    }
 
     public void keyPressed(KeyEvent e) {
-        if (e.getKeyCode() == KeyEvent.VK_SPACE) {
-            bullets.add(new Bullet(x + 20, y));
+        int key = e.getKeyCode();
+        if (key == KeyEvent.VK_SPACE) {
+            bullets.obtain().spawn(x + 20, y, 10);
+            SoundEffect.playShootSound();
         }
+        if (key == KeyEvent.VK_W) y -= 5;
+        if (key == KeyEvent.VK_S) y += 5;
+        if (key == KeyEvent.VK_A) x -= 5;
+        if (key == KeyEvent.VK_D) x += 5;
     }
 
+    public void increaseHealth(int amount) {
+        health.heal(amount);
+    }
+
+    /** Moves the bullets and drops the ones that have left the top of the screen. */
     public void update() {
-        for (Bullet bullet : bullets) {
+        for (int i = 0; i < bullets.size(); i++) {
+            Bullet bullet = bullets.get(i);
             bullet.update();
+            if (bullet.y + Bullet.HEIGHT < 0) {
+                bullet.alive = false;
+            }
         }
+        bullets.removeDead();
     }
 
     public void render(Graphics g) {
-        g.fillRect(x, y, 50, 50); // Player rectangle
-        for (Bullet bullet : bullets) {
-            bullet.render(g);
+        render(g, 1);
+    }
+
+    public void render(Graphics g, double alpha) {
+        g.fillRect(x, y, SIZE, SIZE); // Player rectangle
+        for (int i = 0; i < bullets.size(); i++) {
+            bullets.get(i).render(g, alpha);
         }
     }
 }
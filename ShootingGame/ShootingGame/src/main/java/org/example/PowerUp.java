@@ -1,24 +1,51 @@
 package org.example;
 
-public class PowerUp {
+import java.awt.Graphics;
+
+public class PowerUp extends Entity {
+
+    static final int SIZE = 20;
 
-    int x, y;
     String type;
 
+    /** For {@link EntityPool}: a spare power-up, placed later by {@link #spawn}. */
+    PowerUp() {
+    }
+
     public PowerUp(int startX, int startY, String type) {
-        this.x = startX;
-        this.y = startY;
+        spawn(startX, startY, type);
+    }
+
+    PowerUp spawn(int startX, int startY, String type) {
+        place(startX, startY);
         this.type = type;
+        return this;
     }
 
     public void update() {
+        savePosition();
         y += 2;
     }
 
+    public void render(Graphics g, double alpha) {
+        g.fillRect(renderX(alpha), renderY(alpha), SIZE, SIZE);
+    }
+
     public void collect(Player player) {
         // Modify player based on power-up type
         if (type.equals("Health")) {
             player.increaseHealth(10);
         }
+        alive = false;
+    }
+
+    @Override
+    int width() {
+        return SIZE;
+    }
+
+    @Override
+    int height() {
+        return SIZE;
     }
 }
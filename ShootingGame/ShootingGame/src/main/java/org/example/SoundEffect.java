@@ -1,16 +1,62 @@
 package org.example;
 
-import javax.sound.sampled.*;
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.io.IOException;
+import java.util.function.Supplier;
+
+/**
+ * The game's sounds, decoded once into a shared {@link AudioMixer}. Playing one
+ * only queues a command for the mixer thread. Each sound is read from its
+ * classpath resource when there is one, and synthesized otherwise.
+ */
 public class SoundEffect {
 
-    public static void playShootSound() {
+    public static final int SHOOT = 0, EXPLOSION = 1, POWER_UP = 2;
+    private static final int VOICES = 8;
+
+    /**
+     * Holds the mixer. The JVM builds it once, when a sound is first needed,
+     * and after that reading it takes no lock, so a sound costs one enqueue.
+     */
+    private static final class Holder {
+        static final AudioMixer MIXER = create();
+    }
+
+    /** Decodes the samples and opens the output line, so the first shot does not wait for it. */
+    public static AudioMixer preload() {
+        return Holder.MIXER;
+    }
+
+    private static AudioMixer create() {
+        AudioMixer m = new AudioMixer(VOICES);
+        m.register(load("/shoot.wav", AudioSample::shoot));
+        m.register(load("/explosion.wav", AudioSample::explosion));
+        m.register(load("/powerup.wav", AudioSample::powerUp));
+        m.start();
+        return m;
+    }
+
+    private static AudioSample load(String resource, Supplier<AudioSample> fallback) {
         try {
-            Clip clip = AudioSystem.getClip();
-            AudioInputStream ais = AudioSystem.getAudioInputStream(getClass().getResource("/shoot.wav"));
-            clip.open(ais);
-            clip.start();
-        } catch (Exception e) {
+            AudioSample sample = AudioSample.load(resource);
+            if (sample != null) {
+                return sample;
+            }
+        } catch (IOException | UnsupportedAudioFileException e) {
             e.printStackTrace();
         }
+        return fallback.get();
+    }
+
+    public static void playShootSound() {
+        Holder.MIXER.play(SHOOT, 0.6f);
+    }
+
+    public static void playExplosionSound() {
+        Holder.MIXER.play(EXPLOSION, 1f);
+    }
+
+    public static void playPowerUpSound() {
+        Holder.MIXER.play(POWER_UP, 0.8f);
     }
 }
@@ -0,0 +1,143 @@
+package org.example;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Keeps {@value #BULLETS} bullets and {@value #ENEMIES} enemies in play to load
+ * the pools and the broad phase. It measures each frame: the time spent in
+ * updates, the time spent rendering, and the garbage collector time and count
+ * reported by the collector MX beans.
+ *
+ * Usage: java org.example.StressMode [frames]   (headless, renders into an image)
+ *    or: java org.example.GameLoop stress        (on screen)
+ */
+public class StressMode {
+
+    public static final int BULLETS = 10000;
+    public static final int ENEMIES = 300;
+    /** Hits each stress enemy takes, so the enemies last long enough to be tested against. */
+    public static final int ENEMY_HEALTH = 50;
+
+    final World world = new World();
+    private final List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+    private long updateNanos, renderNanos;
+    private long gcCount, gcMillis;
+    private long frames;
+    private double totalUpdateMs, totalRenderMs, maxUpdateMs, maxRenderMs;
+    private long totalGcCount, totalGcMillis;
+    private long lastGcCount;
+    private String report = "";
+
+    public StressMode() {
+        world.spawnInterval = Integer.MAX_VALUE;
+        world.sound = false;
+        gcCount = collectionCount();
+        gcMillis = collectionMillis();
+    }
+
+    /** One fixed step, after topping the bullets and enemies back up. */
+    public void update() {
+        long begin = System.nanoTime();
+        Random random = world.random;
+        EntityPool<Bullet> bullets = world.player.bullets;
+        while (bullets.size() < BULLETS) {
+            bullets.obtain().spawn(random.nextInt(World.WIDTH), random.nextInt(World.HEIGHT), 10);
+        }
+        EntityPool<Enemy> enemies = world.spawner.enemies;
+        while (enemies.size() < ENEMIES) {
+            enemies.obtain().spawn(random.nextInt(World.WIDTH - Enemy.SIZE), random.nextInt(World.HEIGHT / 2))
+                    .health = ENEMY_HEALTH;
+        }
+        world.update();
+        updateNanos += System.nanoTime() - begin;
+    }
+
+    public void render(Graphics2D g, double alpha) {
+        long begin = System.nanoTime();
+        world.render(g, alpha);
+        renderNanos += System.nanoTime() - begin;
+    }
+
+    /** Closes the frame: records its numbers and returns them as a line of text. */
+    public String endFrame() {
+        long count = collectionCount(), millis = collectionMillis();
+        long frameGcCount = count - gcCount, frameGcMillis = millis - gcMillis;
+        gcCount = count;
+        gcMillis = millis;
+        double updateMs = updateNanos / 1e6, renderMs = renderNanos / 1e6;
+        updateNanos = renderNanos = 0;
+        frames++;
+        totalUpdateMs += updateMs;
+        totalRenderMs += renderMs;
+        maxUpdateMs = Math.max(maxUpdateMs, updateMs);
+        maxRenderMs = Math.max(maxRenderMs, renderMs);
+        lastGcCount = frameGcCount;
+        totalGcCount += frameGcCount;
+        totalGcMillis += frameGcMillis;
+        report = String.format("frame %d: update %.2f ms, render %.2f ms, gc %d ms (%d collections), "
+                        + "%d bullets, %d enemies, score %d", frames, updateMs, renderMs, frameGcMillis, frameGcCount,
+                world.player.bullets.size(), world.spawner.enemies.size(), world.score.getScore());
+        return report;
+    }
+
+    public String getReport() {
+        return report;
+    }
+
+    /** Collections during the last frame. */
+    public long getLastGcCount() {
+        return lastGcCount;
+    }
+
+    public long getFrames() {
+        return frames;
+    }
+
+    public String summary() {
+        return String.format("%d frames: update %.2f ms avg / %.2f max, render %.2f ms avg / %.2f max, "
+                        + "gc %d ms in %d collections", frames, totalUpdateMs / frames, maxUpdateMs,
+                totalRenderMs / frames, maxRenderMs, totalGcMillis, totalGcCount);
+    }
+
+    private long collectionCount() {
+        long total = 0;
+        for (GarbageCollectorMXBean c : collectors) {
+            total += Math.max(0, c.getCollectionCount());
+        }
+        return total;
+    }
+
+    private long collectionMillis() {
+        long total = 0;
+        for (GarbageCollectorMXBean c : collectors) {
+            total += Math.max(0, c.getCollectionTime());
+        }
+        return total;
+    }
+
+    public static void main(String[] args) {
+        int frames = args.length > 0 ? Integer.parseInt(args[0]) : 600;
+        StressMode stress = new StressMode();
+        BufferedImage image = new BufferedImage(World.WIDTH, World.HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        for (int f = 0; f < frames; f++) {
+            stress.update();
+            g.setColor(Color.BLACK);
+            g.fillRect(0, 0, World.WIDTH, World.HEIGHT);
+            stress.render(g, 1);
+            String line = stress.endFrame();
+            // every second of play, and any frame with a collection in it
+            if (stress.getFrames() % GameLoop.STEPS_PER_SECOND == 0 || stress.getLastGcCount() > 0) {
+                System.out.println(line);
+            }
+        }
+        g.dispose();
+        System.out.println(stress.summary());
+    }
+}
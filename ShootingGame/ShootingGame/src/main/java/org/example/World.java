@@ -0,0 +1,111 @@
+package org.example;
+
+import java.awt.Color;
+import java.awt.Graphics;
+import java.util.Random;
+
+/**
+ * Everything that moves in one game: the player and their bullets, the enemies
+ * and the power-ups they drop, all kept in {@link EntityPool}s. {@link #update()}
+ * is one fixed step. Bullets are tested against the enemies in their
+ * {@link CollisionGrid} cells rather than against every enemy.
+ */
+public class World {
+
+    static final int WIDTH = 800, HEIGHT = 600;
+    private static final double DROP_CHANCE = 0.1;
+
+    final Player player = new Player(new EntityPool<>(Bullet::new, 256));
+    final EnemySpawner spawner = new EnemySpawner();
+    final EntityPool<PowerUp> powerUps = new EntityPool<>(PowerUp::new, 8);
+    final Score score = new Score();
+    final Random random = new Random();
+    /** Steps between enemies. */
+    int spawnInterval = 60;
+    boolean sound = true;
+    private final CollisionGrid grid = new CollisionGrid(WIDTH, HEIGHT, 64);
+    private long steps;
+
+    public World() {
+        player.x = (WIDTH - Player.SIZE) / 2;
+        player.y = HEIGHT - 100;
+    }
+
+    public void update() {
+        steps++;
+        if (steps % spawnInterval == 0) {
+            spawner.spawnEnemy();
+        }
+        player.update();
+        spawner.update();
+        for (int i = 0; i < powerUps.size(); i++) {
+            PowerUp p = powerUps.get(i);
+            p.update();
+            if (p.y > HEIGHT) {
+                p.alive = false;
+            } else if (p.overlaps(player.x, player.y, Player.SIZE, Player.SIZE)) {
+                p.collect(player);
+                if (sound) {
+                    SoundEffect.playPowerUpSound();
+                }
+            }
+        }
+        powerUps.removeDead();
+        collide();
+    }
+
+    /** Each bullet stops at the first live enemy it overlaps. */
+    private void collide() {
+        EntityPool<Bullet> bullets = player.bullets;
+        EntityPool<Enemy> enemies = spawner.enemies;
+        if (enemies.size() == 0 || bullets.size() == 0) {
+            return;
+        }
+        grid.build(enemies);
+        for (int i = 0; i < bullets.size(); i++) {
+            Bullet b = bullets.get(i);
+            int c0 = grid.column(b.x), c1 = grid.column(b.x + Bullet.WIDTH - 1);
+            int r0 = grid.row(b.y), r1 = grid.row(b.y + Bullet.HEIGHT - 1);
+            search:
+            for (int r = r0; r <= r1; r++) {
+                for (int c = c0; c <= c1; c++) {
+                    int cell = grid.cell(c, r);
+                    for (int k = grid.start(cell), end = grid.end(cell); k < end; k++) {
+                        Enemy e = enemies.get(grid.item(k));
+                        if (e.alive && b.overlaps(e)) {
+                            b.alive = false;
+                            if (e.hit()) {
+                                score.incrementScore();
+                                if (sound) {
+                                    SoundEffect.playExplosionSound();
+                                }
+                                if (random.nextDouble() < DROP_CHANCE) {
+                                    powerUps.obtain().spawn(e.x + 15, e.y + 15, "Health");
+                                }
+                            }
+                            break search;
+                        }
+                    }
+                }
+            }
+        }
+        bullets.removeDead();
+        enemies.removeDead();
+    }
+
+    /** Draws the world {@code alpha} of the way from the previous step to the current one. */
+    public void render(Graphics g, double alpha) {
+        g.setColor(Color.RED);
+        spawner.render(g, alpha);
+        g.setColor(Color.GREEN);
+        for (int i = 0; i < powerUps.size(); i++) {
+            powerUps.get(i).render(g, alpha);
+        }
+        g.setColor(Color.YELLOW);
+        for (int i = 0; i < player.bullets.size(); i++) {
+            player.bullets.get(i).render(g, alpha);
+        }
+        g.setColor(Color.WHITE);
+        g.fillRect(player.x, player.y, Player.SIZE, Player.SIZE);
+    }
+}
@@ -0,0 +1,66 @@
+package org.example;
+
+import java.util.Arrays;
+
+/**
+ * Headless timing of {@link CityGrid} ticks at 1024x1024 and 4096x4096, after
+ * checking that one thread and all threads give the same city and that the
+ * incremental totals match a rescan.
+ *
+ * Usage: java -Xmx1g org.example.CityBenchmark [ticks] [threads]
+ * (a 4096x4096 city is about 285 MB)
+ */
+public class CityBenchmark {
+
+    public static void main(String[] args) {
+        int ticks = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+
+        long[] single = run(256, 1, 50);
+        long[] parallel = run(256, threads, 50);
+        System.out.println("determinism (256x256, 50 ticks, 1 vs " + threads + " threads): "
+                + (Arrays.equals(single, parallel) ? "ok" : "MISMATCH " + Arrays.toString(single) + " "
+                + Arrays.toString(parallel)));
+
+        for (int size : new int[]{1024, 4096}) {
+            try (CityGrid grid = new CityGrid(size, 42, threads)) {
+                grid.tick(); // warm-up
+                long begin = System.nanoTime();
+                for (int t = 0; t < ticks; t++) {
+                    grid.tick();
+                }
+                double seconds = (System.nanoTime() - begin) / 1e9;
+                double tiles = (double) size * size * ticks;
+                System.out.printf("%dx%d, %d threads: %.2f ms/tick, %.1f M tiles/sec, "
+                                + "population=%d wealth=%d pollution=%d%n",
+                        size, size, threads, seconds * 1000 / ticks, tiles / seconds / 1e6,
+                        grid.getTotalPopulation(), grid.getTotalWealth(), grid.getTotalPollution());
+            }
+        }
+    }
+
+    /** Totals and a rescan after the given ticks; equal arrays mean equal runs. */
+    private static long[] run(int size, int threads, int ticks) {
+        try (CityGrid grid = new CityGrid(size, 7, threads)) {
+            for (int t = 0; t < ticks; t++) {
+                grid.tick();
+                if (t == ticks / 2) {
+                    grid.setTile(size / 2, size / 2, CityGrid.INDUSTRIAL);
+                }
+            }
+            long[] rescan = grid.rescanTotals();
+            if (rescan[0] != grid.getTotalPopulation() || rescan[1] != grid.getTotalWealth()
+                    || rescan[2] != grid.getTotalPollution()) {
+                throw new IllegalStateException("incremental totals drifted from " + Arrays.toString(rescan));
+            }
+            long hash = 0;
+            for (int y = 0; y < size; y++) {
+                for (int x = 0; x < size; x++) {
+                    hash = hash * 31 + grid.getPopulation(x, y) * 7L + grid.getWealth(x, y) * 13L
+                            + grid.getPollution(x, y);
+                }
+            }
+            return new long[]{rescan[0], rescan[1], rescan[2], hash};
+        }
+    }
+}
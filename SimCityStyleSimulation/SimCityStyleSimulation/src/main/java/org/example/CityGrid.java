@@ -0,0 +1,263 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Flat-array city: tile i = y * size + x has a type byte and int population,
+ * pollution and wealth. A tick runs in parallel row bands and allocates nothing
+ * per tile.
+ *
+ * Per tick, as in {@link Tile#update()}: residential tiles gain 0-4 people and
+ * 0-2 wealth and lose 0-1 people above 50 pollution; commercial tiles gain 0-9
+ * wealth plus one per residential neighbour; industrial tiles emit 0-9 pollution
+ * and gain 0-7 wealth. Pollution then diffuses: each pair of neighbours moves
+ * 1/8 of their difference, which conserves the total.
+ *
+ * Pollution is double-buffered (read from one array, written to the other) and
+ * everything else a tile reads from its neighbours is its type, which a tick
+ * never changes, so bands can run in any order. Random numbers come from a
+ * SplitMix64 hash of (seed, tick, tile) rather than a shared generator, so a
+ * run is the same for any number of threads.
+ */
+public final class CityGrid implements AutoCloseable {
+
+    public static final byte RESIDENTIAL = 0;
+    public static final byte COMMERCIAL = 1;
+    public static final byte INDUSTRIAL = 2;
+    private static final String[] TYPE_NAMES = {"Residential", "Commercial", "Industrial"};
+
+    private final int size;
+    private final long seed;
+    private final byte[] type;
+    private final int[] population;
+    private final int[] wealth;
+    private int[] pollution;
+    private int[] nextPollution;
+    private final ExecutorService pool;
+    private final int bands;
+    private long tick;
+    private long totalPopulation, totalWealth, totalPollution;
+
+    public CityGrid(int size, long seed, int threads) {
+        this.size = size;
+        this.seed = seed;
+        int tiles = size * size;
+        type = new byte[tiles];
+        population = new int[tiles];
+        wealth = new int[tiles];
+        pollution = new int[tiles];
+        nextPollution = new int[tiles];
+        // same split as City.getRandomTileType: half residential, 30% commercial, 20% industrial
+        for (int i = 0; i < tiles; i++) {
+            int r = (int) Long.remainderUnsigned(mix(seed, -1, i), 10);
+            type[i] = r < 5 ? RESIDENTIAL : r < 8 ? COMMERCIAL : INDUSTRIAL;
+        }
+        this.bands = Math.min(size, Math.max(1, threads) * 4);
+        pool = Executors.newFixedThreadPool(Math.max(1, threads), r -> {
+            Thread t = new Thread(r, "city-tick");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public CityGrid(int size, long seed) {
+        this(size, seed, Runtime.getRuntime().availableProcessors());
+    }
+
+    /** SplitMix64 finaliser over (seed, tick, tile): an independent stream per tile per tick. */
+    static long mix(long seed, long tick, int index) {
+        long z = seed + tick * 0x9E3779B97F4A7C15L + index * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /** Uniform in [0, bound) from 16 bits of a random word. */
+    private static int below(long bits, int shift, int bound) {
+        return (int) (((bits >>> shift) & 0xFFFF) * bound >>> 16);
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public long getTick() {
+        return tick;
+    }
+
+    public static byte typeOf(String name) {
+        for (byte t = 0; t < TYPE_NAMES.length; t++) {
+            if (TYPE_NAMES[t].equals(name)) {
+                return t;
+            }
+        }
+        throw new IllegalArgumentException("Unknown tile type: " + name);
+    }
+
+    public static String typeName(byte type) {
+        return TYPE_NAMES[type];
+    }
+
+    public byte getType(int x, int y) {
+        return type[y * size + x];
+    }
+
+    public int getPopulation(int x, int y) {
+        return population[y * size + x];
+    }
+
+    public int getPollution(int x, int y) {
+        return pollution[y * size + x];
+    }
+
+    public int getWealth(int x, int y) {
+        return wealth[y * size + x];
+    }
+
+    /** Rebuilds the tile as a fresh one of the given type, keeping the totals in step. */
+    public void setTile(int x, int y, byte newType) {
+        int i = y * size + x;
+        totalPopulation -= population[i];
+        totalWealth -= wealth[i];
+        totalPollution -= pollution[i];
+        type[i] = newType;
+        population[i] = 0;
+        wealth[i] = 0;
+        pollution[i] = 0;
+    }
+
+    public long getTotalPopulation() {
+        return totalPopulation;
+    }
+
+    public long getTotalWealth() {
+        return totalWealth;
+    }
+
+    public long getTotalPollution() {
+        return totalPollution;
+    }
+
+    /** Advances one tick; the totals are updated from per-band deltas, not by rescanning. */
+    public void tick() {
+        List<Callable<long[]>> jobs = new ArrayList<>(bands);
+        for (int b = 0; b < bands; b++) {
+            int from = (int) ((long) size * b / bands), to = (int) ((long) size * (b + 1) / bands);
+            jobs.add(() -> updateRows(from, to));
+        }
+        try {
+            for (Future<long[]> f : pool.invokeAll(jobs)) {
+                long[] delta = f.get();
+                totalPopulation += delta[0];
+                totalWealth += delta[1];
+                totalPollution += delta[2];
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+        int[] t = pollution;
+        pollution = nextPollution;
+        nextPollution = t;
+        tick++;
+    }
+
+    private long[] updateRows(int fromRow, int toRow) {
+        int n = size;
+        int[] cur = pollution, next = nextPollution;
+        long dPopulation = 0, dWealth = 0, dPollution = 0;
+        for (int y = fromRow; y < toRow; y++) {
+            int row = y * n;
+            for (int x = 0; x < n; x++) {
+                int i = row + x;
+                long r = mix(seed, tick, i);
+                int p = cur[i];
+                int pop = population[i], w = wealth[i], emitted = 0;
+                switch (type[i]) {
+                    case RESIDENTIAL:
+                        pop += below(r, 0, 5);
+                        w += below(r, 16, 3);
+                        if (p > 50) {
+                            pop -= below(r, 32, 2);
+                        }
+                        break;
+                    case COMMERCIAL:
+                        w += below(r, 0, 10) + residentialNeighbours(x, y, i);
+                        break;
+                    default:
+                        emitted = below(r, 0, 10);
+                        w += below(r, 16, 8);
+                        break;
+                }
+                if (pop < 0) {
+                    pop = 0;
+                }
+                if (w < 0) {
+                    w = 0;
+                }
+                dPopulation += pop - population[i];
+                dWealth += w - wealth[i];
+                population[i] = pop;
+                wealth[i] = w;
+
+                int flow = 0;
+                if (x > 0) {
+                    flow += (cur[i - 1] - p) / 8;
+                }
+                if (x < n - 1) {
+                    flow += (cur[i + 1] - p) / 8;
+                }
+                if (y > 0) {
+                    flow += (cur[i - n] - p) / 8;
+                }
+                if (y < n - 1) {
+                    flow += (cur[i + n] - p) / 8;
+                }
+                next[i] = p + flow + emitted;
+                dPollution += emitted;
+            }
+        }
+        return new long[]{dPopulation, dWealth, dPollution};
+    }
+
+    private int residentialNeighbours(int x, int y, int i) {
+        int count = 0;
+        if (x > 0 && type[i - 1] == RESIDENTIAL) {
+            count++;
+        }
+        if (x < size - 1 && type[i + 1] == RESIDENTIAL) {
+            count++;
+        }
+        if (y > 0 && type[i - size] == RESIDENTIAL) {
+            count++;
+        }
+        if (y < size - 1 && type[i + size] == RESIDENTIAL) {
+            count++;
+        }
+        return count;
+    }
+
+    /** Sum over all tiles, for checking the incremental totals. */
+    long[] rescanTotals() {
+        long p = 0, w = 0, q = 0;
+        for (int i = 0; i < type.length; i++) {
+            p += population[i];
+            w += wealth[i];
+            q += pollution[i];
+        }
+        return new long[]{p, w, q};
+    }
+
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+}
@@ -1,10 +1,10 @@
 package org.example;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Random;
 
 class Tile {
+    private static final Random RANDOM = new Random();
+
     private String type;
     private int population;
     private int pollution;
@@ -48,17 +48,17 @@ class Tile {
     public void update() {
         // Simple simulation logic
         if (type.equals("Residential")) {
-            population += new Random().nextInt(5);
-            wealth += new Random().nextInt(3);
+            population += RANDOM.nextInt(5);
+            wealth += RANDOM.nextInt(3);
         } else if (type.equals("Commercial")) {
-            wealth += new Random().nextInt(10);
+            wealth += RANDOM.nextInt(10);
         } else if (type.equals("Industrial")) {
-            pollution += new Random().nextInt(10);
-            wealth += new Random().nextInt(8);
+            pollution += RANDOM.nextInt(10);
+            wealth += RANDOM.nextInt(8);
         }
 
         if (pollution > 50 && type.equals("Residential")) {
-            population -= new Random().nextInt(2);
+            population -= RANDOM.nextInt(2);
         }
 
         if (wealth < 0) {
@@ -81,105 +81,74 @@ class Tile {
     }
 }
 
+/**
+ * A size x size city backed by a {@link CityGrid}. Tiles handed out by
+ * {@link #getTile} are snapshots; the totals are kept up to date as the city
+ * changes rather than summed on every call.
+ */
 class City {
-    private List<List<Tile>> grid;
-    private int size;
+    private final CityGrid grid;
+    private final int size;
 
     public City(int size) {
-        this.size = size;
-        this.grid = new ArrayList<>();
-        initializeGrid();
-    }
-
-    private void initializeGrid() {
-        Random random = new Random();
-        for (int i = 0; i < size; i++) {
-            List<Tile> row = new ArrayList<>();
-            for (int j = 0; j < size; j++) {
-                String type = getRandomTileType(random);
-                row.add(new Tile(type));
-            }
-            grid.add(row);
-        }
+        this(size, new Random().nextLong());
     }
 
-    private String getRandomTileType(Random random) {
-        int rand = random.nextInt(10);
-        if (rand < 5) {
-            return "Residential";
-        } else if (rand < 8) {
-            return "Commercial";
-        } else {
-            return "Industrial";
-        }
+    public City(int size, long seed) {
+        this.size = size;
+        this.grid = new CityGrid(size, seed);
     }
 
     public void update() {
-        for (List<Tile> row : grid) {
-            for (Tile tile : row) {
-                tile.update();
-            }
-        }
+        grid.tick();
     }
 
     public void display() {
-        for (List<Tile> row : grid) {
-            for (Tile tile : row) {
-                System.out.print(tile.getType().charAt(0) + " ");
+        StringBuilder line = new StringBuilder(2 * size);
+        for (int y = 0; y < size; y++) {
+            line.setLength(0);
+            for (int x = 0; x < size; x++) {
+                line.append(CityGrid.typeName(grid.getType(x, y)).charAt(0)).append(' ');
             }
-            System.out.println();
+            System.out.println(line);
         }
     }
 
     public void displayDetailed() {
-        for (List<Tile> row : grid) {
-            for (Tile tile : row) {
-                System.out.println(tile.toString());
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                System.out.println(getTile(x, y).toString());
             }
         }
     }
 
     public Tile getTile(int x, int y) {
         if (x >= 0 && x < size && y >= 0 && y < size) {
-            return grid.get(y).get(x);
+            Tile tile = new Tile(CityGrid.typeName(grid.getType(x, y)));
+            tile.setPopulation(grid.getPopulation(x, y));
+            tile.setPollution(grid.getPollution(x, y));
+            tile.setWealth(grid.getWealth(x, y));
+            return tile;
         }
         return null;
     }
 
     public void setTile(int x, int y, String type) {
         if (x >= 0 && x < size && y >= 0 && y < size) {
-            grid.get(y).set(x, new Tile(type));
+            grid.setTile(x, y, CityGrid.typeOf(type));
         }
     }
 
-    public int calculateTotalPopulation() {
-        int totalPopulation = 0;
-        for (List<Tile> row : grid) {
-            for (Tile tile : row) {
-                totalPopulation += tile.getPopulation();
-            }
-        }
-        return totalPopulation;
+    public long calculateTotalPopulation() {
+        return grid.getTotalPopulation();
     }
 
-    public int calculateTotalWealth() {
-        int totalWealth = 0;
-        for (List<Tile> row : grid) {
-            for (Tile tile : row) {
-                totalWealth += tile.getWealth();
-            }
-        }
-        return totalWealth;
+    public long calculateTotalWealth() {
+        return grid.getTotalWealth();
     }
 
-    public int calculateTotalPollution() {
-        int totalPollution = 0;
-        for (List<Tile> row : grid) {
-            for (Tile tile : row) {
-                totalPollution += tile.getPollution();
-            }
-        }
-        return totalPollution;
+    public long calculateTotalPollution() {
+        return grid.getTotalPollution();
     }
 
 }
@@ -0,0 +1,77 @@
+package org.example;
+
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Solves every level of an XSB pack with {@link SokobanSolver}, one level per
+ * task on a thread pool, and prints each level's result, pushes, states
+ * expanded and stored, memory held by the search, and time. Without a pack
+ * file it solves the bundled sample.xsb.
+ *
+ * Usage: java org.example.SokobanBatch [pack.xsb] [threads] [seconds] [maxStates]
+ */
+public class SokobanBatch {
+
+    public static void main(String[] args) throws IOException, InterruptedException, ExecutionException {
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        long millis = args.length > 2 ? Long.parseLong(args[2]) * 1000 : 60_000;
+        int maxStates = args.length > 3 ? Integer.parseInt(args[3]) : 5_000_000;
+
+        List<SokobanLevel> levels;
+        try (Reader reader = open(args.length > 0 ? args[0] : null)) {
+            levels = SokobanLevel.readPack(reader);
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r);
+            t.setDaemon(true);
+            return t;
+        });
+        List<Future<SokobanSolver.Result>> results = new ArrayList<>();
+        long begin = System.nanoTime();
+        for (SokobanLevel level : levels) {
+            results.add(pool.submit(() -> new SokobanSolver(level).solve(maxStates, millis)));
+        }
+
+        System.out.printf("%-20s %-12s %7s %10s %10s %8s %9s%n",
+                "level", "result", "pushes", "expanded", "stored", "MB", "ms");
+        int solved = 0;
+        long expanded = 0;
+        for (int i = 0; i < levels.size(); i++) {
+            SokobanSolver.Result r = results.get(i).get();
+            if (r.isSolved()) {
+                solved++;
+            }
+            expanded += r.expanded;
+            System.out.printf("%-20s %-12s %7s %10d %10d %8.1f %9d%n", levels.get(i).getTitle(), r.status,
+                    r.isSolved() ? Integer.toString(r.pushes) : "-", r.expanded, r.stored,
+                    r.bytes / (1024.0 * 1024.0), r.millis);
+        }
+        pool.shutdown();
+        double seconds = (System.nanoTime() - begin) / 1e9;
+        System.out.printf("%d of %d solved, %d threads, %d states expanded in %.2f s%n",
+                solved, levels.size(), threads, expanded, seconds);
+    }
+
+    private static Reader open(String path) throws IOException {
+        if (path != null) {
+            return new FileReader(path);
+        }
+        InputStream in = SokobanBatch.class.getResourceAsStream("/sample.xsb");
+        if (in == null) {
+            throw new IOException("sample.xsb is not on the classpath");
+        }
+        return new InputStreamReader(in, StandardCharsets.UTF_8);
+    }
+}
@@ -1,5 +1,9 @@
 package org.example;
 
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Scanner;
 
 public class SokobanGame {
@@ -16,32 +20,52 @@ public class SokobanGame {
     static char[][] map;
     static int playerRow, playerCol;
 
-    public static void main(String[] args) {
+    // Usage: java org.example.SokobanGame [pack.xsb [level]]
+    public static void main(String[] args) throws IOException {
         Scanner scanner = new Scanner(System.in);
 
-        String[] level = {
+        List<String> level = Arrays.asList(
                 "######",
-                "#@.$.#",
-                "#..#.#",
-                "#..#.#",
-                "#.###.",
+                "#@ $.#",
+                "#  # #",
+                "# $ .#",
+                "#    #",
                 "######"
-        };
+        );
+        if (args.length > 0) {
+            List<SokobanLevel> pack;
+            try (FileReader reader = new FileReader(args[0])) {
+                pack = SokobanLevel.readPack(reader);
+            }
+            int number = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+            level = pack.get(number - 1).toRows();
+        }
 
-        map = new char[level.length][level[0].length()];
-        for (int i = 0; i < level.length; i++) {
-            map[i] = level[i].toCharArray();
+        int width = 0;
+        for (String row : level) {
+            width = Math.max(width, row.length());
+        }
+        map = new char[level.size()][width];
+        for (int i = 0; i < level.size(); i++) {
+            Arrays.fill(map[i], EMPTY);
+            level.get(i).getChars(0, level.get(i).length(), map[i], 0);
         }
 
         findPlayerPosition();
 
         while (true) {
             printMap();
-            System.out.print("Enter move (WASD): ");
-            String move = scanner.nextLine();
+            System.out.print("Enter move (WASD, H for a hint, Q to quit): ");
+            if (!scanner.hasNextLine()) break;
+            String move = scanner.nextLine().trim().toLowerCase();
             if (move.length() != 1) continue;
 
             char direction = move.charAt(0);
+            if (direction == 'q') break;
+            if (direction == 'h') {
+                showHint();
+                continue;
+            }
             if (!movePlayer(direction)) {
                 System.out.println("Invalid move!");
             }
@@ -79,7 +103,7 @@ public class SokobanGame {
         }
     }
 
-    // Move the player
+    // Move the player, pushing a box if there is one in the way
     public static boolean movePlayer(char direction) {
         int newRow = playerRow;
         int newCol = playerCol;
@@ -101,35 +125,51 @@ public class SokobanGame {
                 return false;
         }
 
-        if (isValidMove(newRow, newCol)) {
-            char nextTile = map[newRow][newCol];
-
-            if (nextTile == EMPTY || nextTile == TARGET) {
-                map[playerRow][playerCol] = (map[playerRow][playerCol] == PLAYER_ON_TARGET) ? TARGET : EMPTY;
-                map[newRow][newCol] = PLAYER;
-                playerRow = newRow;
-                playerCol = newCol;
-            } else if (nextTile == BOX || nextTile == BOX_ON_TARGET) {
-                int boxNewRow = newRow + (newRow - playerRow);
-                int boxNewCol = newCol + (newCol - playerCol);
-
-                if (isValidMove(boxNewRow, boxNewCol) && map[boxNewRow][boxNewCol] == EMPTY) {
-                    map[boxNewRow][boxNewCol] = BOX;
-                    map[newRow][newCol] = (nextTile == BOX_ON_TARGET) ? TARGET : EMPTY;
-                    map[playerRow][playerCol] = (map[playerRow][playerCol] == PLAYER_ON_TARGET) ? TARGET : EMPTY;
-                    map[newRow][newCol] = PLAYER;
-                    playerRow = newRow;
-                    playerCol = newCol;
-                }
+        if (!isValidMove(newRow, newCol)) {
+            return false;
+        }
+        char nextTile = map[newRow][newCol];
+        if (nextTile == BOX || nextTile == BOX_ON_TARGET) {
+            int boxNewRow = newRow + (newRow - playerRow);
+            int boxNewCol = newCol + (newCol - playerCol);
+            if (!isValidMove(boxNewRow, boxNewCol)) {
+                return false;
             }
-            return true;
+            char beyond = map[boxNewRow][boxNewCol];
+            if (beyond != EMPTY && beyond != TARGET) {
+                return false;
+            }
+            map[boxNewRow][boxNewCol] = (beyond == TARGET) ? BOX_ON_TARGET : BOX;
+            nextTile = (nextTile == BOX_ON_TARGET) ? TARGET : EMPTY;
+        }
+        map[playerRow][playerCol] = (map[playerRow][playerCol] == PLAYER_ON_TARGET) ? TARGET : EMPTY;
+        map[newRow][newCol] = (nextTile == TARGET) ? PLAYER_ON_TARGET : PLAYER;
+        playerRow = newRow;
+        playerCol = newCol;
+        return true;
+    }
+
+    // Solve from the current position and print the next move
+    public static void showHint() {
+        String[] rows = new String[map.length];
+        for (int i = 0; i < map.length; i++) {
+            rows[i] = new String(map[i]);
+        }
+        SokobanSolver.Result result = new SokobanSolver(new SokobanLevel("current", Arrays.asList(rows)))
+                .solve(2_000_000, 10_000);
+        if (result.isSolved()) {
+            char next = "wsad".charAt("udlr".indexOf(Character.toLowerCase(result.solution.charAt(0))));
+            System.out.println("Hint: " + Character.toUpperCase(next) + " (" + result.pushes + " pushes left)");
+        } else if (result.status.equals(SokobanSolver.NO_SOLUTION)) {
+            System.out.println("No solution from here.");
+        } else {
+            System.out.println("No hint found in time.");
         }
-        return false;
     }
 
     // Check if the move is valid (within bounds)
     public static boolean isValidMove(int row, int col) {
-        return row >= 0 && row < map.length && col >= 0 && col < map[0].length && map[row][col] != WALL;
+        return row >= 0 && row < map.length && col >= 0 && col < map[row].length && map[row][col] != WALL;
     }
 
     // Check if the game is won (all boxes are on targets)
@@ -0,0 +1,174 @@
+package org.example;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One Sokoban level in the standard XSB text format: '#' wall, '@' player,
+ * '+' player on a goal, '$' box, '*' box on a goal, '.' goal, and ' ', '-' or
+ * '_' floor. Cell i is row i / width, column i % width.
+ */
+public final class SokobanLevel {
+
+    final String title;
+    final int width;
+    final int height;
+    final boolean[] wall;
+    final boolean[] goal;
+    final boolean[] box;
+    final int player;
+
+    public SokobanLevel(String title, List<String> rows) {
+        this.title = title;
+        height = rows.size();
+        int w = 0;
+        for (String row : rows) {
+            w = Math.max(w, row.length());
+        }
+        width = w;
+        wall = new boolean[width * height];
+        goal = new boolean[width * height];
+        box = new boolean[width * height];
+        int start = -1, boxes = 0, goals = 0;
+        for (int y = 0; y < height; y++) {
+            String row = rows.get(y);
+            for (int x = 0; x < width; x++) {
+                char c = x < row.length() ? row.charAt(x) : ' ';
+                int cell = y * width + x;
+                switch (c) {
+                    case '#':
+                        wall[cell] = true;
+                        break;
+                    case '@':
+                        start = cell;
+                        break;
+                    case '+':
+                        start = cell;
+                        goal[cell] = true;
+                        break;
+                    case '$':
+                        box[cell] = true;
+                        break;
+                    case '*':
+                        box[cell] = true;
+                        goal[cell] = true;
+                        break;
+                    case '.':
+                        goal[cell] = true;
+                        break;
+                    case ' ':
+                    case '-':
+                    case '_':
+                        break;
+                    default:
+                        throw new IllegalArgumentException(title + ": unexpected character '" + c + "'");
+                }
+                if (box[cell]) {
+                    boxes++;
+                }
+                if (goal[cell]) {
+                    goals++;
+                }
+            }
+        }
+        if (start < 0) {
+            throw new IllegalArgumentException(title + ": no player");
+        }
+        if (boxes != goals || boxes == 0) {
+            throw new IllegalArgumentException(title + ": " + boxes + " boxes and " + goals + " goals");
+        }
+        player = start;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /** The level as XSB rows. */
+    public List<String> toRows() {
+        List<String> rows = new ArrayList<>(height);
+        for (int y = 0; y < height; y++) {
+            StringBuilder row = new StringBuilder(width);
+            for (int x = 0; x < width; x++) {
+                int cell = y * width + x;
+                if (wall[cell]) {
+                    row.append('#');
+                } else if (cell == player) {
+                    row.append(goal[cell] ? '+' : '@');
+                } else if (box[cell]) {
+                    row.append(goal[cell] ? '*' : '$');
+                } else {
+                    row.append(goal[cell] ? '.' : ' ');
+                }
+            }
+            rows.add(row.toString());
+        }
+        return rows;
+    }
+
+    /**
+     * Reads every level in an XSB pack. A level is a run of lines made of
+     * level characters; anything else ends it. A text line just before a
+     * level, or a "Title:" line after it, names the level.
+     */
+    public static List<SokobanLevel> readPack(Reader source) throws IOException {
+        List<SokobanLevel> levels = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(source);
+        List<String> rows = new ArrayList<>();
+        String lastText = null, title = null;
+        String line;
+        while (true) {
+            line = reader.readLine();
+            if (line != null && isLevelRow(line)) {
+                if (rows.isEmpty()) {
+                    title = lastText;
+                }
+                rows.add(line);
+                continue;
+            }
+            if (!rows.isEmpty()) {
+                if (line != null && line.startsWith("Title:")) {
+                    title = line.substring(6).trim();
+                }
+                levels.add(new SokobanLevel(title != null ? title : "Level " + (levels.size() + 1), rows));
+                rows = new ArrayList<>();
+                lastText = null;
+                if (line != null && line.startsWith("Title:")) {
+                    continue;
+                }
+            }
+            if (line == null) {
+                break;
+            }
+            String text = line.trim();
+            if (!text.isEmpty()) {
+                lastText = text.startsWith(";") ? text.substring(1).trim() : text;
+            }
+        }
+        return levels;
+    }
+
+    /** A line of level characters that holds at least one wall. */
+    private static boolean isLevelRow(String line) {
+        if (line.indexOf('#') < 0) {
+            return false;
+        }
+        for (int i = 0; i < line.length(); i++) {
+            if ("#@+$*. -_".indexOf(line.charAt(i)) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
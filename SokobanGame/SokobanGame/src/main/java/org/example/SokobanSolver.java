@@ -0,0 +1,721 @@
+package org.example;
+
+import java.util.Arrays;
+
+/**
+ * A* search over box pushes for one {@link SokobanLevel}.
+ *
+ * Only the squares the player can ever stand on are kept, numbered 0 to
+ * squares - 1. A state is the set of box squares as a bitmask, plus the
+ * player's reachable area, which is stored as its lowest-numbered square.
+ * Walking between pushes is not searched: the player's reachable area is
+ * flood-filled and every box push from inside it is one move. States live in
+ * one growing long array and are found through an open-addressing hash table.
+ *
+ * Pruning:
+ * - Dead squares: a box on a square it can never be pushed from to any goal
+ *   is lost. Those squares are found once, by pulling from every goal.
+ * - Freeze deadlocks: a pushed box that can no longer move on either axis,
+ *   because of walls, dead squares or other frozen boxes, is lost unless it
+ *   and every box freezing it are on goals.
+ * - Corral deadlocks: an area the player cannot reach is a PI-corral when
+ *   every push of the boxes around it goes into it and the player can make
+ *   all of those pushes now. While one is unsolved, only its pushes are tried.
+ * - The lower bound is a minimum-cost matching of boxes to goals over
+ *   push distances. A box that can reach no free goal makes the state dead.
+ */
+public final class SokobanSolver {
+
+    public static final int UP = 0, DOWN = 1, LEFT = 2, RIGHT = 3;
+    static final String MOVES = "udlr";
+    static final String PUSHES = "UDLR";
+    static final int INF = 1 << 20;
+    public static final String SOLVED = "solved", NO_SOLUTION = "no solution", LIMIT = "limit";
+
+    /** The outcome of one solve. */
+    public static final class Result {
+        public final String status;
+        /** Moves in LURD notation, capitals being pushes, or null if not solved. */
+        public final String solution;
+        public final int pushes;
+        public final long expanded;
+        public final long stored;
+        public final long bytes;
+        public final long millis;
+
+        Result(String status, String solution, int pushes, long expanded, long stored, long bytes, long millis) {
+            this.status = status;
+            this.solution = solution;
+            this.pushes = pushes;
+            this.expanded = expanded;
+            this.stored = stored;
+            this.bytes = bytes;
+            this.millis = millis;
+        }
+
+        public boolean isSolved() {
+            return solution != null;
+        }
+    }
+
+    final SokobanLevel level;
+    final int squares;
+    final int[] cellOf;
+    final int[] squareOf;
+    /** Square next to s in direction d at 4s + d, or -1 for a wall. */
+    final int[] neighbour;
+    final boolean[] goal;
+    final int[] goalSquares;
+    final boolean[] dead;
+    /** Pushes needed to take a box from square s to goal g, ignoring other boxes, at g * squares + s. */
+    final int[] goalDistance;
+    final int boxes;
+    private final int words;
+    private final int stride;
+
+    // Search state: stride longs per state in one array
+    private long[] keys;
+    private int[] cost;
+    private int[] estimate;
+    private int[] parent;
+    private int[] push;
+    private int count;
+    private int[] table;
+    private long[] heapKey;
+    private int[] heapState;
+    private int heapSize;
+
+    // Scratch arrays for one expansion
+    private final boolean[] boxAt;
+    private final int[] boxList;
+    private final int[] reach;
+    private int reachStamp;
+    private final int[] queue;
+    private final int[] corral;
+    private final int[] pushList;
+    private final boolean[] tempWall;
+    private final int[][] matchCost;
+    private final int[] hu, hv, hp, hWay, hMin;
+    private final boolean[] hUsed;
+
+    private long expanded;
+
+    public SokobanSolver(SokobanLevel level) {
+        this.level = level;
+        int cells = level.width * level.height;
+        squareOf = new int[cells];
+        Arrays.fill(squareOf, -1);
+        int[] open = new int[cells];
+        int head = 0, tail = 0;
+        open[tail++] = level.player;
+        squareOf[level.player] = 0;
+        while (head < tail) {
+            int cell = open[head++];
+            for (int d = 0; d < 4; d++) {
+                int next = step(cell, d);
+                if (next >= 0 && !level.wall[next] && squareOf[next] < 0) {
+                    squareOf[next] = 0;
+                    open[tail++] = next;
+                }
+            }
+        }
+        int n = 0;
+        cellOf = new int[tail];
+        for (int cell = 0; cell < cells; cell++) {
+            if (squareOf[cell] == 0) {
+                cellOf[n] = cell;
+                squareOf[cell] = n++;
+            }
+        }
+        squares = n;
+        neighbour = new int[4 * squares];
+        goal = new boolean[squares];
+        int goalCount = 0, boxCount = 0;
+        for (int s = 0; s < squares; s++) {
+            for (int d = 0; d < 4; d++) {
+                int next = step(cellOf[s], d);
+                neighbour[4 * s + d] = next < 0 ? -1 : squareOf[next];
+            }
+            goal[s] = level.goal[cellOf[s]];
+            if (goal[s]) {
+                goalCount++;
+            }
+            if (level.box[cellOf[s]]) {
+                boxCount++;
+            }
+        }
+        if (goalCount != boxCount) {
+            throw new IllegalArgumentException(level.title + ": boxes or goals outside the player's area");
+        }
+        boxes = boxCount;
+        goalSquares = new int[goalCount];
+        for (int s = 0, g = 0; s < squares; s++) {
+            if (goal[s]) {
+                goalSquares[g++] = s;
+            }
+        }
+
+        queue = new int[Math.max(squares, 1) * 4];
+        goalDistance = new int[goalCount * squares];
+        dead = new boolean[squares];
+        Arrays.fill(dead, true);
+        for (int g = 0; g < goalCount; g++) {
+            pullDistances(goalSquares[g], g * squares);
+            for (int s = 0; s < squares; s++) {
+                if (goalDistance[g * squares + s] < INF) {
+                    dead[s] = false;
+                }
+            }
+        }
+
+        words = (squares + 63) >>> 6;
+        stride = words + 1;
+        boxAt = new boolean[squares];
+        boxList = new int[boxes];
+        reach = new int[squares];
+        corral = new int[squares];
+        pushList = new int[4 * boxes];
+        tempWall = new boolean[squares];
+        matchCost = new int[boxes][boxes];
+        hu = new int[boxes + 1];
+        hv = new int[boxes + 1];
+        hp = new int[boxes + 1];
+        hWay = new int[boxes + 1];
+        hMin = new int[boxes + 1];
+        hUsed = new boolean[boxes + 1];
+    }
+
+    private int step(int cell, int d) {
+        int x = cell % level.width, y = cell / level.width;
+        switch (d) {
+            case UP:
+                return y > 0 ? cell - level.width : -1;
+            case DOWN:
+                return y + 1 < level.height ? cell + level.width : -1;
+            case LEFT:
+                return x > 0 ? cell - 1 : -1;
+            default:
+                return x + 1 < level.width ? cell + 1 : -1;
+        }
+    }
+
+    /** Breadth-first pulls from a goal: a box reaches the goal from s in the stored number of pushes. */
+    private void pullDistances(int goalSquare, int offset) {
+        Arrays.fill(goalDistance, offset, offset + squares, INF);
+        goalDistance[offset + goalSquare] = 0;
+        int head = 0, tail = 0;
+        queue[tail++] = goalSquare;
+        while (head < tail) {
+            int t = queue[head++];
+            for (int d = 0; d < 4; d++) {
+                // A box pushed in direction d from s lands on t; the player stood behind s
+                int s = neighbour[4 * t + (d ^ 1)];
+                int player = s < 0 ? -1 : neighbour[4 * s + (d ^ 1)];
+                if (player >= 0 && goalDistance[offset + s] == INF) {
+                    goalDistance[offset + s] = goalDistance[offset + t] + 1;
+                    queue[tail++] = s;
+                }
+            }
+        }
+    }
+
+    public int getSquares() {
+        return squares;
+    }
+
+    public int getDeadSquares() {
+        int n = 0;
+        for (boolean d : dead) {
+            if (d) {
+                n++;
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Searches until solved, proved unsolvable, or a limit is hit.
+     *
+     * @param maxStates states stored before giving up
+     * @param millis    time allowed
+     */
+    public Result solve(int maxStates, long millis) {
+        long begin = System.nanoTime();
+        long deadline = begin + millis * 1_000_000L;
+        keys = new long[1024 * stride];
+        cost = new int[1024];
+        estimate = new int[1024];
+        parent = new int[1024];
+        push = new int[1024];
+        table = new int[4096];
+        heapKey = new long[1024];
+        heapState = new int[1024];
+        count = 0;
+        heapSize = 0;
+        expanded = 0;
+
+        long[] key = new long[stride];
+        for (int s = 0; s < squares; s++) {
+            if (level.box[cellOf[s]]) {
+                key[s >>> 6] |= 1L << s;
+            }
+        }
+        decode(key);
+        key[words] = flood(squareOf[level.player]);
+        int h = lowerBound();
+        if (h >= INF) {
+            return finish(NO_SOLUTION, -1, begin);
+        }
+        insert(key, 0, h, -1, -1);
+
+        long[] child = new long[stride];
+        while (heapSize > 0) {
+            int state = pop();
+            if (estimate[state] < 0) {
+                continue; // already expanded through a cheaper entry
+            }
+            int g = cost[state];
+            System.arraycopy(keys, state * stride, key, 0, stride);
+            decode(key);
+            if (isSolved()) {
+                return finish(SOLVED, state, begin);
+            }
+            if (count >= maxStates || (++expanded & 255) == 0 && System.nanoTime() > deadline) {
+                return finish(LIMIT, -1, begin);
+            }
+            flood((int) key[words]);
+            // Each child floods the player's area afresh, so the pushes are all found first
+            int pushes = generatePushes();
+            for (int i = 0; i < pushes; i++) {
+                int from = pushList[i] >> 2, d = pushList[i] & 3;
+                int to = neighbour[4 * from + d];
+                boxAt[from] = false;
+                boxAt[to] = true;
+                if (!isFrozenDeadlock(to)) {
+                    System.arraycopy(key, 0, child, 0, words);
+                    child[from >>> 6] &= ~(1L << from);
+                    child[to >>> 6] |= 1L << to;
+                    refreshBoxList();
+                    int bound = lowerBound();
+                    if (bound < INF) {
+                        child[words] = flood(from);
+                        insert(child, g + 1, bound, state, pushList[i]);
+                    }
+                }
+                boxAt[to] = false;
+                boxAt[from] = true;
+            }
+            refreshBoxList();
+            estimate[state] = -1;
+        }
+        return finish(NO_SOLUTION, -1, begin);
+    }
+
+    private Result finish(String status, int state, long begin) {
+        long millis = (System.nanoTime() - begin) / 1_000_000;
+        long bytes = 8L * keys.length + 4L * (cost.length + estimate.length + parent.length + push.length)
+                + 4L * table.length + 12L * heapKey.length;
+        if (state < 0) {
+            return new Result(status, null, 0, expanded, count, bytes, millis);
+        }
+        int pushes = 0;
+        for (int s = state; parent[s] >= 0; s = parent[s]) {
+            pushes++;
+        }
+        int[] sequence = new int[pushes];
+        for (int s = state, i = pushes - 1; parent[s] >= 0; s = parent[s]) {
+            sequence[i--] = push[s];
+        }
+        return new Result(status, toMoves(sequence), pushes, expanded, count, bytes, millis);
+    }
+
+    // --- state storage -------------------------------------------------------
+
+    private void decode(long[] key) {
+        for (int s = 0; s < squares; s++) {
+            boxAt[s] = (key[s >>> 6] & 1L << s) != 0;
+        }
+        refreshBoxList();
+    }
+
+    private void refreshBoxList() {
+        int n = 0;
+        for (int s = 0; s < squares && n < boxes; s++) {
+            if (boxAt[s]) {
+                boxList[n++] = s;
+            }
+        }
+    }
+
+    private boolean isSolved() {
+        for (int b : boxList) {
+            if (!goal[b]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int hash(long[] key, int offset) {
+        long h = 0;
+        for (int i = 0; i < stride; i++) {
+            h = (h ^ key[offset + i]) * 0x9E3779B97F4A7C15L;
+        }
+        return (int) (h ^ h >>> 29);
+    }
+
+    private boolean sameKey(long[] key, int state) {
+        int base = state * stride;
+        for (int i = 0; i < stride; i++) {
+            if (keys[base + i] != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Adds a state, or lowers the cost of a known one; either way it goes on the open list. */
+    private void insert(long[] key, int g, int h, int from, int move) {
+        int mask = table.length - 1;
+        int slot = hash(key, 0) & mask;
+        while (table[slot] != 0) {
+            int state = table[slot] - 1;
+            if (sameKey(key, state)) {
+                if (g < cost[state]) {
+                    cost[state] = g;
+                    estimate[state] = h;
+                    parent[state] = from;
+                    push[state] = move;
+                    heapPush(state);
+                }
+                return;
+            }
+            slot = slot + 1 & mask;
+        }
+        if (count == cost.length) {
+            int size = count * 2;
+            keys = Arrays.copyOf(keys, size * stride);
+            cost = Arrays.copyOf(cost, size);
+            estimate = Arrays.copyOf(estimate, size);
+            parent = Arrays.copyOf(parent, size);
+            push = Arrays.copyOf(push, size);
+        }
+        int state = count++;
+        System.arraycopy(key, 0, keys, state * stride, stride);
+        cost[state] = g;
+        estimate[state] = h;
+        parent[state] = from;
+        push[state] = move;
+        table[slot] = state + 1;
+        if (2 * count > table.length) {
+            rehash();
+        }
+        heapPush(state);
+    }
+
+    private void rehash() {
+        table = new int[table.length * 2];
+        int mask = table.length - 1;
+        for (int state = 0; state < count; state++) {
+            int slot = hash(keys, state * stride) & mask;
+            while (table[slot] != 0) {
+                slot = slot + 1 & mask;
+            }
+            table[slot] = state + 1;
+        }
+    }
+
+    // --- open list: a binary heap on f = g + h, deeper first on ties ---------
+
+    /** The entry's priority is fixed when it is pushed; a state reached again more cheaply gets a second entry. */
+    private void heapPush(int state) {
+        if (heapSize == heapKey.length) {
+            heapKey = Arrays.copyOf(heapKey, heapSize * 2);
+            heapState = Arrays.copyOf(heapState, heapSize * 2);
+        }
+        long key = (long) (cost[state] + estimate[state]) << 32 | (INF - cost[state]);
+        int i = heapSize++;
+        while (i > 0 && key < heapKey[(i - 1) >> 1]) {
+            heapKey[i] = heapKey[(i - 1) >> 1];
+            heapState[i] = heapState[(i - 1) >> 1];
+            i = (i - 1) >> 1;
+        }
+        heapKey[i] = key;
+        heapState[i] = state;
+    }
+
+    private int pop() {
+        int top = heapState[0];
+        long lastKey = heapKey[--heapSize];
+        int lastState = heapState[heapSize];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && heapKey[child + 1] < heapKey[child]) {
+                child++;
+            }
+            if (heapKey[child] >= lastKey) {
+                break;
+            }
+            heapKey[i] = heapKey[child];
+            heapState[i] = heapState[child];
+            i = child;
+        }
+        heapKey[i] = lastKey;
+        heapState[i] = lastState;
+        return top;
+    }
+
+    // --- expansion -------------------------------------------------------------
+
+    /** Marks the player's reachable squares with a new stamp and returns the lowest one. */
+    private int flood(int start) {
+        if (++reachStamp == 0) {
+            Arrays.fill(reach, 0);
+            reachStamp = 1;
+        }
+        int head = 0, tail = 0, lowest = start;
+        queue[tail++] = start;
+        reach[start] = reachStamp;
+        while (head < tail) {
+            int s = queue[head++];
+            lowest = Math.min(lowest, s);
+            for (int d = 0; d < 4; d++) {
+                int next = neighbour[4 * s + d];
+                if (next >= 0 && !boxAt[next] && reach[next] != reachStamp) {
+                    reach[next] = reachStamp;
+                    queue[tail++] = next;
+                }
+            }
+        }
+        return lowest;
+    }
+
+    private boolean reachable(int s) {
+        return reach[s] == reachStamp;
+    }
+
+    /** Fills pushList with legal pushes as from * 4 + direction, restricted to a PI-corral if there is one. */
+    private int generatePushes() {
+        int n = 0;
+        for (int b : boxList) {
+            for (int d = 0; d < 4; d++) {
+                int to = neighbour[4 * b + d], from = neighbour[4 * b + (d ^ 1)];
+                if (to >= 0 && from >= 0 && !boxAt[to] && !dead[to] && reachable(from)) {
+                    pushList[n++] = b << 2 | d;
+                }
+            }
+        }
+        return restrictToCorral(n);
+    }
+
+    /**
+     * Labels the areas the player cannot reach and, if one is an unsolved
+     * PI-corral, keeps only the pushes into it. Returns the new push count.
+     */
+    private int restrictToCorral(int n) {
+        Arrays.fill(corral, 0);
+        int corrals = 0;
+        int bestCorral = 0, bestPushes = Integer.MAX_VALUE;
+        for (int s = 0; s < squares; s++) {
+            if (corral[s] != 0 || boxAt[s] || reachable(s)) {
+                continue;
+            }
+            int id = ++corrals;
+            int head = 0, tail = 0;
+            queue[tail++] = s;
+            corral[s] = id;
+            boolean unsolved = false;
+            while (head < tail) {
+                int t = queue[head++];
+                unsolved |= goal[t];
+                for (int d = 0; d < 4; d++) {
+                    int next = neighbour[4 * t + d];
+                    if (next >= 0 && !boxAt[next] && corral[next] == 0) {
+                        corral[next] = id;
+                        queue[tail++] = next;
+                    }
+                }
+            }
+            // Check the barrier: every box next to the corral
+            boolean pi = true;
+            int pushes = 0;
+            for (int i = 0; i < tail && pi; i++) {
+                int t = queue[i];
+                for (int e = 0; e < 4 && pi; e++) {
+                    int b = neighbour[4 * t + e];
+                    if (b < 0 || !boxAt[b]) {
+                        continue;
+                    }
+                    unsolved |= !goal[b];
+                    for (int d = 0; d < 4 && pi; d++) {
+                        int to = neighbour[4 * b + d], from = neighbour[4 * b + (d ^ 1)];
+                        if (to < 0 || from < 0 || boxAt[to] || dead[to]) {
+                            continue;
+                        }
+                        if (corral[to] == id) {
+                            // A push into the corral must be one the player can make now
+                            pi = reachable(from);
+                            pushes++;
+                        } else if (boxAt[from] || corral[from] != id) {
+                            // Pushing out could become possible without touching this corral
+                            pi = false;
+                        }
+                    }
+                }
+            }
+            if (pi && unsolved && pushes > 0 && pushes < bestPushes) {
+                bestPushes = pushes;
+                bestCorral = id;
+            }
+        }
+        if (bestCorral == 0) {
+            return n;
+        }
+        int kept = 0;
+        for (int i = 0; i < n; i++) {
+            int b = pushList[i] >> 2, d = pushList[i] & 3;
+            int to = neighbour[4 * b + d];
+            if (corral[to] == bestCorral) {
+                pushList[kept++] = pushList[i];
+            }
+        }
+        return kept;
+    }
+
+    /** Whether the box just pushed to s is frozen with some box of the frozen group off its goal. */
+    private boolean isFrozenDeadlock(int s) {
+        offGoal = false;
+        boolean frozen = frozen(s);
+        return frozen && offGoal;
+    }
+
+    private boolean offGoal;
+
+    private boolean frozen(int s) {
+        tempWall[s] = true;
+        boolean result = blocked(s, LEFT, RIGHT) && blocked(s, UP, DOWN);
+        tempWall[s] = false;
+        if (result && !goal[s]) {
+            offGoal = true;
+        }
+        return result;
+    }
+
+    private boolean blocked(int s, int d1, int d2) {
+        int a = neighbour[4 * s + d1], b = neighbour[4 * s + d2];
+        if (a < 0 || b < 0 || tempWall[a] || tempWall[b]) {
+            return true;
+        }
+        if (dead[a] && dead[b]) {
+            return true;
+        }
+        return boxAt[a] && frozen(a) || boxAt[b] && frozen(b);
+    }
+
+    /** Minimum total push distance over all ways to give each box its own goal; INF if there is none. */
+    private int lowerBound() {
+        int n = boxes;
+        for (int i = 0; i < n; i++) {
+            int b = boxList[i];
+            boolean any = false;
+            for (int g = 0; g < n; g++) {
+                int c = goalDistance[g * squares + b];
+                matchCost[i][g] = c;
+                any |= c < INF;
+            }
+            if (!any) {
+                return INF;
+            }
+        }
+        // Hungarian algorithm with potentials, 1-based
+        Arrays.fill(hu, 0);
+        Arrays.fill(hv, 0);
+        Arrays.fill(hp, 0);
+        for (int i = 1; i <= n; i++) {
+            hp[0] = i;
+            int j0 = 0;
+            Arrays.fill(hMin, Integer.MAX_VALUE);
+            Arrays.fill(hUsed, false);
+            do {
+                hUsed[j0] = true;
+                int i0 = hp[j0], delta = Integer.MAX_VALUE, j1 = 0;
+                for (int j = 1; j <= n; j++) {
+                    if (!hUsed[j]) {
+                        int cur = matchCost[i0 - 1][j - 1] - hu[i0] - hv[j];
+                        if (cur < hMin[j]) {
+                            hMin[j] = cur;
+                            hWay[j] = j0;
+                        }
+                        if (hMin[j] < delta) {
+                            delta = hMin[j];
+                            j1 = j;
+                        }
+                    }
+                }
+                for (int j = 0; j <= n; j++) {
+                    if (hUsed[j]) {
+                        hu[hp[j]] += delta;
+                        hv[j] -= delta;
+                    } else {
+                        hMin[j] -= delta;
+                    }
+                }
+                j0 = j1;
+            } while (hp[j0] != 0);
+            do {
+                int j1 = hWay[j0];
+                hp[j0] = hp[j1];
+                j0 = j1;
+            } while (j0 != 0);
+        }
+        int total = 0;
+        for (int j = 1; j <= n; j++) {
+            total += matchCost[hp[j] - 1][j - 1];
+        }
+        return Math.min(total, INF);
+    }
+
+    // --- turning pushes back into moves ---------------------------------------
+
+    private String toMoves(int[] pushes) {
+        StringBuilder moves = new StringBuilder();
+        Arrays.fill(boxAt, false);
+        for (int s = 0; s < squares; s++) {
+            boxAt[s] = level.box[cellOf[s]];
+        }
+        int player = squareOf[level.player];
+        int[] cameFrom = new int[squares];
+        for (int p : pushes) {
+            int box = p >> 2, d = p & 3;
+            int target = neighbour[4 * box + (d ^ 1)];
+            // Breadth-first walk to the square behind the box
+            Arrays.fill(cameFrom, -2);
+            int head = 0, tail = 0;
+            queue[tail++] = player;
+            cameFrom[player] = -1;
+            while (head < tail && cameFrom[target] == -2) {
+                int s = queue[head++];
+                for (int e = 0; e < 4; e++) {
+                    int next = neighbour[4 * s + e];
+                    if (next >= 0 && !boxAt[next] && cameFrom[next] == -2) {
+                        cameFrom[next] = 4 * s + e;
+                        queue[tail++] = next;
+                    }
+                }
+            }
+            int mark = moves.length();
+            for (int s = target; cameFrom[s] >= 0; s = cameFrom[s] >> 2) {
+                moves.insert(mark, MOVES.charAt(cameFrom[s] & 3));
+            }
+            moves.append(PUSHES.charAt(d));
+            boxAt[box] = false;
+            boxAt[neighbour[4 * box + d]] = true;
+            player = box;
+        }
+        return moves.toString();
+    }
+}
@@ -8,6 +8,7 @@ public class Sudoku {
     private static final int SUBGRIDSIZE = 3;
     private int[][] board = new int[SIZE][SIZE];
     private int[][] solution = new int[SIZE][SIZE];
+    private final SudokuEngine engine = new SudokuEngine();
 
     public static void main(String[] args) {
         Sudoku game = new Sudoku();
@@ -37,7 +38,7 @@ public class Sudoku {
 
     private void generateBoard() {
         fillDiagonalSubgrids();
-        solve();
+        engine.solve(board);
     }
 
     private void fillDiagonalSubgrids() {
@@ -73,14 +74,28 @@ public class Sudoku {
         }
     }
 
+    /** Clears cells in random order, putting back any clue whose removal would allow a second solution. */
     private void removeNumbers(Random random) {
         int numbersToRemove = SIZE * SIZE / 2;
-        while (numbersToRemove > 0) {
-            int row = random.nextInt(SIZE);
-            int col = random.nextInt(SIZE);
-            if (board[row][col] != 0) {
-                board[row][col] = 0;
+        int[] cells = new int[SIZE * SIZE];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = i;
+        }
+        for (int i = cells.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = cells[i];
+            cells[i] = cells[j];
+            cells[j] = tmp;
+        }
+        for (int i = 0; i < cells.length && numbersToRemove > 0; i++) {
+            int row = cells[i] / SIZE;
+            int col = cells[i] % SIZE;
+            int value = board[row][col];
+            board[row][col] = 0;
+            if (engine.hasUniqueSolution(board)) {
                 numbersToRemove--;
+            } else {
+                board[row][col] = value;
             }
         }
     }
@@ -0,0 +1,207 @@
+package org.example;
+
+/**
+ * Constraint-propagation Sudoku solver. Every cell keeps a 9-bit candidate mask;
+ * placing a digit removes it from the 20 peers, and after each placement naked
+ * singles (one candidate left) and hidden singles (a digit with one place left in
+ * a unit) are filled in until nothing changes. Only then does the search branch,
+ * on the cell with the fewest candidates.
+ *
+ * The search state is two int[81] arrays copied once per level, which is cheaper
+ * than undoing eliminations.
+ */
+final class BitmaskSolver implements SudokuEngine.Solver {
+
+    static final int ALL = 0x1FF;
+
+    /** The 27 units: rows, columns, boxes. */
+    static final int[][] UNITS = new int[27][9];
+    static final int[][] PEERS = new int[81][20];
+
+    static {
+        for (int i = 0; i < 9; i++) {
+            for (int j = 0; j < 9; j++) {
+                UNITS[i][j] = i * 9 + j;
+                UNITS[9 + i][j] = j * 9 + i;
+                UNITS[18 + i][j] = (i / 3 * 3 + j / 3) * 9 + i % 3 * 3 + j % 3;
+            }
+        }
+        for (int cell = 0; cell < 81; cell++) {
+            int n = 0;
+            for (int other = 0; other < 81; other++) {
+                if (other != cell && (other / 9 == cell / 9 || other % 9 == cell % 9
+                        || box(other) == box(cell))) {
+                    PEERS[cell][n++] = other;
+                }
+            }
+        }
+    }
+
+    static int box(int cell) {
+        return cell / 27 * 3 + cell % 9 / 3;
+    }
+
+    // [depth][0..80] candidates, [depth][81..161] placed digit or 0
+    private final int[][] stack = new int[82][162];
+    private final int[] queue = new int[81];
+    private int limit;
+    private int found;
+    private int[] solution;
+    private long nodes;
+    private int guesses;
+    private int nakedSingles;
+    private int hiddenSingles;
+
+    @Override
+    public int countSolutions(int[] grid, int limit, int[] solution) {
+        this.limit = limit;
+        this.found = 0;
+        this.solution = solution;
+        this.nodes = 0;
+        this.guesses = 0;
+        this.nakedSingles = 0;
+        this.hiddenSingles = 0;
+        int[] state = stack[0];
+        for (int cell = 0; cell < 81; cell++) {
+            state[cell] = ALL;
+            state[81 + cell] = 0;
+        }
+        for (int cell = 0; cell < 81; cell++) {
+            int digit = grid[cell];
+            if (digit != 0 && state[81 + cell] == 0) {
+                if ((state[cell] & (1 << (digit - 1))) == 0 || !place(state, cell, digit)) {
+                    return 0;
+                }
+            } else if (digit != 0 && state[81 + cell] != digit) {
+                return 0;
+            }
+        }
+        // singles found while loading givens are not part of the difficulty
+        nakedSingles = 0;
+        search(0);
+        return found;
+    }
+
+    @Override
+    public long getNodes() {
+        return nodes;
+    }
+
+    /** Branch points of the last search. */
+    int getGuesses() {
+        return guesses;
+    }
+
+    int getNakedSingles() {
+        return nakedSingles;
+    }
+
+    int getHiddenSingles() {
+        return hiddenSingles;
+    }
+
+    private void search(int depth) {
+        nodes++;
+        int[] state = stack[depth];
+        if (!propagateHiddenSingles(state)) {
+            return;
+        }
+        int best = -1, bestCount = 10;
+        for (int cell = 0; cell < 81; cell++) {
+            if (state[81 + cell] == 0) {
+                int count = Integer.bitCount(state[cell]);
+                if (count < bestCount) {
+                    best = cell;
+                    bestCount = count;
+                    if (count == 2) {
+                        break;
+                    }
+                }
+            }
+        }
+        if (best < 0) {
+            if (found++ == 0 && solution != null) {
+                System.arraycopy(state, 81, solution, 0, 81);
+            }
+            return;
+        }
+        int[] next = stack[depth + 1];
+        for (int bits = state[best]; bits != 0 && found < limit; bits &= bits - 1) {
+            guesses++;
+            System.arraycopy(state, 0, next, 0, 162);
+            if (place(next, best, Integer.numberOfTrailingZeros(bits) + 1)) {
+                search(depth + 1);
+            }
+        }
+    }
+
+    /** Places a digit and follows every naked single it creates; false on a contradiction. */
+    private boolean place(int[] state, int cell, int digit) {
+        int head = 0, tail = 0;
+        state[cell] = 1 << (digit - 1);
+        queue[tail++] = cell;
+        while (head < tail) {
+            int c = queue[head++];
+            int bit = state[c];
+            state[81 + c] = Integer.numberOfTrailingZeros(bit) + 1;
+            for (int peer : PEERS[c]) {
+                int cand = state[peer];
+                if ((cand & bit) != 0) {
+                    if (state[81 + peer] != 0) {
+                        return false;
+                    }
+                    cand &= ~bit;
+                    state[peer] = cand;
+                    if (cand == 0) {
+                        return false;
+                    }
+                    if ((cand & (cand - 1)) == 0) {
+                        nakedSingles++;
+                        queue[tail++] = peer;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    private boolean propagateHiddenSingles(int[] state) {
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int[] unit : UNITS) {
+                int once = 0, twice = 0, placed = 0;
+                for (int cell : unit) {
+                    int cand = state[cell];
+                    twice |= once & cand;
+                    once |= cand;
+                    if (state[81 + cell] != 0) {
+                        placed |= cand;
+                    }
+                }
+                if (once != ALL) {
+                    return false;
+                }
+                int hidden = once & ~twice & ~placed;
+                for (; hidden != 0; hidden &= hidden - 1) {
+                    int bit = hidden & -hidden;
+                    for (int cell : unit) {
+                        if ((state[cell] & bit) != 0) {
+                            // an earlier placement in this pass may already have used it
+                            if (state[81 + cell] != 0) {
+                                break;
+                            }
+                            hiddenSingles++;
+                            if (!place(state, cell, Integer.numberOfTrailingZeros(bit) + 1)) {
+                                return false;
+                            }
+                            changed = true;
+                            break;
+                        }
+                    }
+                }
+            }
+        }
+        return true;
+    }
+}
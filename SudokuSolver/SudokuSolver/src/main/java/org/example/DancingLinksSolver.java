@@ -0,0 +1,182 @@
+package org.example;
+
+/**
+ * Knuth's Algorithm X over the 324-column exact-cover matrix of Sudoku (cell,
+ * row-digit, column-digit and box-digit constraints), with the dancing-links
+ * nodes stored in parallel int arrays. The matrix is built once; each puzzle
+ * covers its givens, searches, and uncovers them again.
+ */
+final class DancingLinksSolver implements SudokuEngine.Solver {
+
+    private static final int COLUMNS = 324;
+    private static final int ROWS = 729;
+    private static final int ROOT = 0;
+
+    private final int[] left;
+    private final int[] right;
+    private final int[] up;
+    private final int[] down;
+    private final int[] column;
+    private final int[] rowOf;
+    private final int[] size = new int[COLUMNS + 1];
+    /** First node of every matrix row (cell * 9 + digit - 1). */
+    private final int[] rowNode = new int[ROWS];
+
+    private final int[] chosen = new int[81];
+    private int limit;
+    private int found;
+    private int[] solution;
+    private long nodes;
+
+    DancingLinksSolver() {
+        int total = 1 + COLUMNS + ROWS * 4;
+        left = new int[total];
+        right = new int[total];
+        up = new int[total];
+        down = new int[total];
+        column = new int[total];
+        rowOf = new int[total];
+        for (int c = 0; c <= COLUMNS; c++) {
+            left[c] = c == 0 ? COLUMNS : c - 1;
+            right[c] = c == COLUMNS ? 0 : c + 1;
+            up[c] = c;
+            down[c] = c;
+            column[c] = c;
+        }
+        int node = COLUMNS + 1;
+        for (int row = 0; row < ROWS; row++) {
+            int cell = row / 9, digit = row % 9;
+            int r = cell / 9, c = cell % 9;
+            int[] columns = {
+                    1 + cell,
+                    1 + 81 + r * 9 + digit,
+                    1 + 162 + c * 9 + digit,
+                    1 + 243 + BitmaskSolver.box(cell) * 9 + digit
+            };
+            rowNode[row] = node;
+            for (int k = 0; k < 4; k++) {
+                int col = columns[k];
+                column[node] = col;
+                rowOf[node] = row;
+                up[node] = up[col];
+                down[node] = col;
+                down[up[col]] = node;
+                up[col] = node;
+                size[col]++;
+                left[node] = k == 0 ? node + 3 : node - 1;
+                right[node] = k == 3 ? node - 3 : node + 1;
+                node++;
+            }
+        }
+    }
+
+    @Override
+    public int countSolutions(int[] grid, int limit, int[] solution) {
+        this.limit = limit;
+        this.found = 0;
+        this.solution = solution;
+        this.nodes = 0;
+        int givens = 0;
+        boolean consistent = true;
+        for (int cell = 0; cell < 81 && consistent; cell++) {
+            if (grid[cell] != 0) {
+                int node = rowNode[cell * 9 + grid[cell] - 1];
+                // a given whose constraints are already covered clashes with an earlier one
+                for (int j = node, k = 0; k < 4; j = right[j], k++) {
+                    if (right[left[column[j]]] != column[j]) {
+                        consistent = false;
+                    }
+                }
+                if (consistent) {
+                    selectRow(node);
+                    chosen[givens++] = node;
+                }
+            }
+        }
+        if (consistent) {
+            search(givens);
+        }
+        for (int i = givens - 1; i >= 0; i--) {
+            deselectRow(chosen[i]);
+        }
+        return found;
+    }
+
+    @Override
+    public long getNodes() {
+        return nodes;
+    }
+
+    private void search(int depth) {
+        nodes++;
+        if (right[ROOT] == ROOT) {
+            if (found++ == 0 && solution != null) {
+                for (int i = 0; i < depth; i++) {
+                    int row = rowOf[chosen[i]];
+                    solution[row / 9] = row % 9 + 1;
+                }
+            }
+            return;
+        }
+        // smallest column first
+        int best = right[ROOT];
+        for (int c = right[best]; c != ROOT; c = right[c]) {
+            if (size[c] < size[best]) {
+                best = c;
+            }
+        }
+        if (size[best] == 0) {
+            return;
+        }
+        cover(best);
+        for (int r = down[best]; r != best && found < limit; r = down[r]) {
+            chosen[depth] = r;
+            for (int j = right[r]; j != r; j = right[j]) {
+                cover(column[j]);
+            }
+            search(depth + 1);
+            for (int j = left[r]; j != r; j = left[j]) {
+                uncover(column[j]);
+            }
+        }
+        uncover(best);
+    }
+
+    private void selectRow(int node) {
+        cover(column[node]);
+        for (int j = right[node]; j != node; j = right[j]) {
+            cover(column[j]);
+        }
+    }
+
+    private void deselectRow(int node) {
+        for (int j = left[node]; j != node; j = left[j]) {
+            uncover(column[j]);
+        }
+        uncover(column[node]);
+    }
+
+    private void cover(int c) {
+        right[left[c]] = right[c];
+        left[right[c]] = left[c];
+        for (int i = down[c]; i != c; i = down[i]) {
+            for (int j = right[i]; j != i; j = right[j]) {
+                down[up[j]] = down[j];
+                up[down[j]] = up[j];
+                size[column[j]]--;
+            }
+        }
+    }
+
+    private void uncover(int c) {
+        for (int i = up[c]; i != c; i = up[i]) {
+            for (int j = left[i]; j != i; j = left[j]) {
+                size[column[j]]++;
+                down[up[j]] = j;
+                up[down[j]] = j;
+            }
+        }
+        right[left[c]] = c;
+        left[right[c]] = c;
+    }
+}
@@ -0,0 +1,145 @@
+package org.example;
+
+import java.io.BufferedReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Solves and rates a file of puzzles, one 81-character puzzle per line (lines
+ * starting with '#' and blank lines are skipped). The file is streamed in chunks
+ * to a thread pool with a bounded number of chunks in flight, and results are
+ * written in input order as "line difficulty guesses solution".
+ *
+ * Usage: SudokuBatch puzzles.txt [threads] [bitmask|dlx] [output.txt]
+ */
+public class SudokuBatch {
+
+    private static final int CHUNK = 256;
+
+    static final class Graded {
+        final int line;
+        final SudokuEngine.Difficulty difficulty;
+        final int guesses;
+        final String solution;
+
+        Graded(int line, SudokuEngine.Difficulty difficulty, int guesses, String solution) {
+            this.line = line;
+            this.difficulty = difficulty;
+            this.guesses = guesses;
+            this.solution = solution;
+        }
+
+        @Override
+        public String toString() {
+            return line + " " + difficulty + " " + guesses + " " + solution;
+        }
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException, ExecutionException {
+        if (args.length < 1) {
+            System.out.println("Usage: SudokuBatch puzzles.txt [threads] [bitmask|dlx] [output.txt]");
+            return;
+        }
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        SudokuEngine.Mode mode = args.length > 2 && args[2].equalsIgnoreCase("dlx")
+                ? SudokuEngine.Mode.DANCING_LINKS : SudokuEngine.Mode.BITMASK;
+        PrintWriter out = args.length > 3
+                ? new PrintWriter(new FileWriter(args[3], StandardCharsets.UTF_8))
+                : new PrintWriter(System.out, false);
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        ThreadLocal<SudokuEngine> engines = ThreadLocal.withInitial(() -> new SudokuEngine(mode));
+        ArrayDeque<Future<List<Graded>>> inFlight = new ArrayDeque<>();
+        Map<SudokuEngine.Difficulty, Integer> counts = new EnumMap<>(SudokuEngine.Difficulty.class);
+        long start = System.nanoTime();
+        int puzzles = 0;
+
+        try (BufferedReader reader = Files.newBufferedReader(Paths.get(args[0]), StandardCharsets.UTF_8)) {
+            List<String> lines = new ArrayList<>(CHUNK);
+            int firstLine = 1;
+            int lineNumber = 0;
+            String line;
+            while (true) {
+                line = reader.readLine();
+                if (line != null) {
+                    lineNumber++;
+                    lines.add(line);
+                }
+                if (lines.size() == CHUNK || (line == null && !lines.isEmpty())) {
+                    List<String> chunk = lines;
+                    int offset = firstLine;
+                    inFlight.add(pool.submit(() -> grade(engines.get(), chunk, offset)));
+                    lines = new ArrayList<>(CHUNK);
+                    firstLine = lineNumber + 1;
+                    // keep memory bounded on large files
+                    while (inFlight.size() > threads * 4) {
+                        puzzles += write(inFlight.poll().get(), out, counts);
+                    }
+                }
+                if (line == null) {
+                    break;
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                puzzles += write(inFlight.poll().get(), out, counts);
+            }
+        } finally {
+            pool.shutdown();
+            out.flush();
+            if (args.length > 3) {
+                out.close();
+            }
+        }
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%d puzzles in %.2f s (%.0f puzzles/sec, %s, %d threads)%n",
+                puzzles, seconds, puzzles / seconds, mode, threads);
+        System.out.println("By difficulty: " + counts);
+    }
+
+    static List<Graded> grade(SudokuEngine engine, List<String> lines, int firstLine) {
+        List<Graded> results = new ArrayList<>(lines.size());
+        int[] solution = new int[81];
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i);
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            int[] cells = SudokuEngine.parse(line);
+            if (cells == null) {
+                results.add(new Graded(firstLine + i, SudokuEngine.Difficulty.INVALID, 0, "unreadable"));
+                continue;
+            }
+            int count = engine.countSolutions(cells, 2, solution);
+            if (count != 1) {
+                results.add(new Graded(firstLine + i, SudokuEngine.Difficulty.INVALID, 0,
+                        count == 0 ? "no solution" : "multiple solutions"));
+                continue;
+            }
+            SudokuEngine.Difficulty difficulty = engine.rateUnique(cells);
+            results.add(new Graded(firstLine + i, difficulty, engine.getLastGuesses(), SudokuEngine.format(solution)));
+        }
+        return results;
+    }
+
+    private static int write(List<Graded> results, PrintWriter out, Map<SudokuEngine.Difficulty, Integer> counts) {
+        for (Graded graded : results) {
+            out.println(graded);
+            counts.merge(graded.difficulty, 1, Integer::sum);
+        }
+        return results.size();
+    }
+}
@@ -0,0 +1,147 @@
+package org.example;
+
+/**
+ * Shared 9x9 Sudoku engine with two interchangeable search back ends: bitmask
+ * candidate sets with naked/hidden-single propagation, or dancing links. Both
+ * can stop after a given number of solutions, so uniqueness is a count up to 2.
+ *
+ * Instances keep scratch state and are not thread-safe; use one per thread.
+ */
+public class SudokuEngine {
+
+    public enum Mode {
+        BITMASK, DANCING_LINKS
+    }
+
+    /**
+     * Rating by the techniques the propagation solver needed: naked singles only,
+     * hidden singles too, a few guesses, or many guesses.
+     */
+    public enum Difficulty {
+        EASY, MEDIUM, HARD, EXPERT, INVALID
+    }
+
+    interface Solver {
+        /** Counts solutions up to {@code limit}, copying the first into {@code solution} if non-null. */
+        int countSolutions(int[] grid, int limit, int[] solution);
+
+        long getNodes();
+    }
+
+    private static final int HARD_GUESSES = 10;
+
+    private final Mode mode;
+    private final Solver solver;
+    private BitmaskSolver rater;
+
+    public SudokuEngine() {
+        this(Mode.BITMASK);
+    }
+
+    public SudokuEngine(Mode mode) {
+        this.mode = mode;
+        this.solver = mode == Mode.BITMASK ? new BitmaskSolver() : new DancingLinksSolver();
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    /** Search nodes visited by the last call. */
+    public long getNodes() {
+        return solver.getNodes();
+    }
+
+    /** Fills in the board if it has a solution; the board is left untouched otherwise. */
+    public boolean solve(int[][] board) {
+        int[] solution = new int[81];
+        if (countSolutions(toCells(board), 1, solution) == 0) {
+            return false;
+        }
+        for (int cell = 0; cell < 81; cell++) {
+            board[cell / 9][cell % 9] = solution[cell];
+        }
+        return true;
+    }
+
+    public int countSolutions(int[][] board, int limit) {
+        return countSolutions(toCells(board), limit, null);
+    }
+
+    public boolean hasUniqueSolution(int[][] board) {
+        return countSolutions(board, 2) == 1;
+    }
+
+    /** Counts solutions of an 81-cell grid (0 for empty) up to {@code limit}. */
+    public int countSolutions(int[] cells, int limit, int[] solution) {
+        for (int value : cells) {
+            if (value < 0 || value > 9) {
+                return 0;
+            }
+        }
+        return solver.countSolutions(cells, limit, solution);
+    }
+
+    /** Rates a puzzle; anything without exactly one solution is {@link Difficulty#INVALID}. */
+    public Difficulty rate(int[] cells) {
+        if (countSolutions(cells, 2, null) != 1) {
+            return Difficulty.INVALID;
+        }
+        return rateUnique(cells);
+    }
+
+    /** Rating for a puzzle already known to have one solution. */
+    Difficulty rateUnique(int[] cells) {
+        if (rater == null) {
+            rater = solver instanceof BitmaskSolver ? (BitmaskSolver) solver : new BitmaskSolver();
+        }
+        // rate on the search for the first solution only, not the proof of uniqueness
+        rater.countSolutions(cells, 1, null);
+        if (rater.getGuesses() == 0) {
+            return rater.getHiddenSingles() == 0 ? Difficulty.EASY : Difficulty.MEDIUM;
+        }
+        return rater.getGuesses() <= HARD_GUESSES ? Difficulty.HARD : Difficulty.EXPERT;
+    }
+
+    /** Guesses the propagation solver made in the last {@link #rate} call. */
+    public int getLastGuesses() {
+        return rater == null ? 0 : rater.getGuesses();
+    }
+
+    public static int[] toCells(int[][] board) {
+        int[] cells = new int[81];
+        for (int cell = 0; cell < 81; cell++) {
+            cells[cell] = board[cell / 9][cell % 9];
+        }
+        return cells;
+    }
+
+    /**
+     * Parses the usual one-line format: 81 characters, digits for clues and
+     * '0' or '.' for empty cells. Returns null for anything else.
+     */
+    public static int[] parse(String line) {
+        String s = line.trim();
+        if (s.length() < 81) {
+            return null;
+        }
+        int[] cells = new int[81];
+        for (int i = 0; i < 81; i++) {
+            char ch = s.charAt(i);
+            if (ch >= '1' && ch <= '9') {
+                cells[i] = ch - '0';
+            } else if (ch != '0' && ch != '.') {
+                return null;
+            }
+        }
+        return cells;
+    }
+
+    public static String format(int[] cells) {
+        StringBuilder sb = new StringBuilder(81);
+        for (int value : cells) {
+            sb.append(value == 0 ? '.' : (char) ('0' + value));
+        }
+        return sb.toString();
+    }
+}
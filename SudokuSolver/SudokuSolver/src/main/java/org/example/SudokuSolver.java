@@ -30,14 +30,20 @@ public class SudokuSolver {
         return true;
     }
 
+    /** Solves in place with the propagation engine; the board is unchanged if there is no solution. */
     public static boolean solveSudoku(int[][] board) {
+        return new SudokuEngine(SudokuEngine.Mode.BITMASK).solve(board);
+    }
+
+    /** Plain backtracking over {@link #isSafe}, kept for comparison with the engine. */
+    public static boolean solveSudokuBacktracking(int[][] board) {
         for (int row = 0; row < N; row++) {
             for (int col = 0; col < N; col++) {
                 if (board[row][col] == 0) {
                     for (int num = 1; num <= N; num++) {
                         if (isSafe(board, row, col, num)) {
                             board[row][col] = num;
-                            if (solveSudoku(board)) {
+                            if (solveSudokuBacktracking(board)) {
                                 return true;
                             }
                             board[row][col] = 0; // Backtrack
@@ -0,0 +1,375 @@
+package org.example;
+
+import java.util.Arrays;
+
+/**
+ * Alpha-beta search over an {@link MnkBoard} with a Zobrist-keyed
+ * transposition table.
+ *
+ * Boards of up to {@value #EXACT_CELLS} cells are searched to the end, so play
+ * is perfect. On larger boards the AI first takes a win, then blocks one, then
+ * looks for a forced win by threat-space search. That search only tries moves
+ * that leave a line one stone short of k (a "four" in gomoku). The defender
+ * has exactly one reply to each, so the tree stays narrow and can be searched
+ * many moves deep. Failing that, it runs an iterative-deepening search over the
+ * cells near existing stones, best-looking first, within a node budget, and
+ * scores the leaves by the board's line evaluation.
+ */
+public final class MnkAI {
+
+    static final int EXACT_CELLS = 16;
+    static final long WIN = 1L << 62;
+    static final int THREAT_DEPTH = 12;
+    static final int BEAM = 12;
+    static final int MAX_PLY = 64;
+
+    private static final byte EXACT = 0, LOWER = 1, UPPER = 2;
+
+    private final MnkBoard board;
+    private final boolean exact;
+    private final int mask;
+    private final long[] ttKey;
+    private final long[] ttScore;
+    private final byte[] ttDepth;
+    private final byte[] ttFlag;
+    private final short[] ttMove;
+    /** Cells within two steps of each cell, as a mask of the board's shape. */
+    private final long[] near;
+    private final int[] centreOrder;
+    private final int[][] moves;
+    private final long[][] moveScores;
+    private final int[] seen;
+    private int seenStamp;
+    /** Candidate threats for each remaining threat-search depth. */
+    private final int[][] threatCandidates;
+
+    private long nodes;
+    private long nodeBudget = 2_000_000;
+    private int maxDepth = 8;
+    private long nodeLimit;
+    private boolean aborted;
+
+    public MnkAI(MnkBoard board, int tableBits) {
+        this.board = board;
+        exact = board.cells <= EXACT_CELLS;
+        mask = (1 << tableBits) - 1;
+        ttKey = new long[1 << tableBits];
+        ttScore = new long[1 << tableBits];
+        ttDepth = new byte[1 << tableBits];
+        ttFlag = new byte[1 << tableBits];
+        ttMove = new short[1 << tableBits];
+
+        int words = board.words, cols = board.cols;
+        near = new long[board.cells * words];
+        for (int c = 0; c < board.cells; c++) {
+            int r = c / cols, col = c % cols;
+            for (int nr = Math.max(0, r - 2); nr <= Math.min(board.rows - 1, r + 2); nr++) {
+                for (int nc = Math.max(0, col - 2); nc <= Math.min(cols - 1, col + 2); nc++) {
+                    int n = nr * cols + nc;
+                    near[c * words + (n >>> 6)] |= 1L << n;
+                }
+            }
+        }
+        // Cells sorted by distance from the centre, which is the order tried on an empty board
+        Integer[] order = new Integer[board.cells];
+        for (int c = 0; c < board.cells; c++) {
+            order[c] = c;
+        }
+        double midR = (board.rows - 1) / 2.0, midC = (cols - 1) / 2.0;
+        Arrays.sort(order, (a, b) -> Double.compare(
+                Math.abs(a / cols - midR) + Math.abs(a % cols - midC),
+                Math.abs(b / cols - midR) + Math.abs(b % cols - midC)));
+        centreOrder = new int[board.cells];
+        for (int c = 0; c < board.cells; c++) {
+            centreOrder[c] = order[c];
+        }
+        int plies = Math.min(board.cells, MAX_PLY) + 1;
+        moves = new int[plies][board.cells];
+        moveScores = new long[plies][board.cells];
+        seen = new int[board.cells];
+        threatCandidates = new int[THREAT_DEPTH + 1][board.cells];
+    }
+
+    public MnkAI(MnkBoard board) {
+        this(board, 20);
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    /** Nodes a search on a large board may use before it settles for its last completed depth. */
+    public void setNodeBudget(long nodeBudget) {
+        this.nodeBudget = nodeBudget;
+    }
+
+    public void setMaxDepth(int maxDepth) {
+        this.maxDepth = Math.min(maxDepth, MAX_PLY);
+    }
+
+    /** The move for the side to move, or -1 if the game is over. */
+    public int bestMove() {
+        if (board.isOver()) {
+            return -1;
+        }
+        if (exact) {
+            aborted = false;
+            nodeLimit = Long.MAX_VALUE;
+            search(board.cells, -WIN, WIN, 0);
+            return ttMove[slot(board.getHash())];
+        }
+        int me = board.toMove();
+        int cell = board.findWin(me);
+        if (cell >= 0) {
+            return cell;
+        }
+        cell = board.findWin(me ^ 1);
+        if (cell >= 0) {
+            return cell;
+        }
+        cell = threatSearch(me, THREAT_DEPTH);
+        if (cell >= 0) {
+            return cell;
+        }
+        if (board.getMoveCount() == 0) {
+            return centreOrder[0];
+        }
+        long start = nodes;
+        int best = -1;
+        aborted = false;
+        nodeLimit = start + nodeBudget;
+        for (int depth = 1; depth <= maxDepth && !aborted; depth++) {
+            search(depth, -WIN, WIN, 0);
+            int move = ttMove[slot(board.getHash())];
+            if ((!aborted || best < 0) && board.isEmpty(move)) {
+                best = move;
+            }
+            if (nodes - start > nodeBudget / 4) {
+                // The next depth would cost several times as much
+                break;
+            }
+        }
+        if (best < 0) {
+            generate(0, -1);
+            best = moves[0][0];
+        }
+        return best;
+    }
+
+    /** Whether the current position, side to move first, is a win, loss or draw under perfect play. */
+    public int solve() {
+        aborted = false;
+        nodeLimit = Long.MAX_VALUE;
+        long score = search(board.cells, -WIN, WIN, 0);
+        return Long.signum(score);
+    }
+
+    private int slot(long hash) {
+        return (int) (hash ^ hash >>> 32) & mask;
+    }
+
+    /** Negamax score for the side to move. Wins are worth more the sooner they come. */
+    private long search(int depth, long alpha, long beta, int ply) {
+        nodes++;
+        if (board.getWinner() >= 0) {
+            return -(WIN - board.getMoveCount());
+        }
+        if (board.isFull()) {
+            return 0;
+        }
+        if (depth == 0 || ply >= MAX_PLY) {
+            return board.toMove() == MnkBoard.X ? board.getEvaluation() : -board.getEvaluation();
+        }
+        if (nodes > nodeLimit) {
+            aborted = true;
+            return 0;
+        }
+        long hash = board.getHash();
+        int slot = slot(hash);
+        int ttBest = -1;
+        if (ttKey[slot] == hash) {
+            ttBest = ttMove[slot];
+            if (ttDepth[slot] >= depth) {
+                long s = ttScore[slot];
+                if (ttFlag[slot] == EXACT || ttFlag[slot] == LOWER && s >= beta || ttFlag[slot] == UPPER && s <= alpha) {
+                    return s;
+                }
+            }
+        }
+
+        int count = generate(ply, ttBest);
+        long originalAlpha = alpha;
+        long best = -WIN;
+        int bestMove = moves[ply][0];
+        for (int i = 0; i < count; i++) {
+            int move = moves[ply][i];
+            board.play(move);
+            long score = -search(depth - 1, -beta, -alpha, ply + 1);
+            board.undo();
+            if (aborted) {
+                return 0;
+            }
+            if (score > best) {
+                best = score;
+                bestMove = move;
+            }
+            if (score > alpha) {
+                alpha = score;
+                if (alpha >= beta) {
+                    break;
+                }
+            }
+        }
+        ttKey[slot] = hash;
+        ttScore[slot] = best;
+        ttDepth[slot] = (byte) Math.min(depth, 127);
+        ttFlag[slot] = best <= originalAlpha ? UPPER : best >= beta ? LOWER : EXACT;
+        ttMove[slot] = (short) bestMove;
+        return best;
+    }
+
+    /**
+     * Fills moves[ply] and returns how many there are. A forced win or a
+     * forced block is the only move. Otherwise small boards try every empty
+     * cell from the centre out, and large boards the best few cells near a stone.
+     */
+    private int generate(int ply, int ttBest) {
+        int[] list = moves[ply];
+        int me = board.toMove();
+        if (!exact) {
+            int forced = board.findWin(me);
+            if (forced < 0) {
+                forced = board.findWin(me ^ 1);
+            }
+            if (forced >= 0) {
+                list[0] = forced;
+                return 1;
+            }
+        }
+        int count = 0;
+        if (exact) {
+            if (ttBest >= 0 && board.isEmpty(ttBest)) {
+                list[count++] = ttBest;
+            }
+            for (int cell : centreOrder) {
+                if (cell != ttBest && board.isEmpty(cell)) {
+                    list[count++] = cell;
+                }
+            }
+            return count;
+        }
+
+        long[] scores = moveScores[ply];
+        int words = board.words;
+        for (int cell = 0; cell < board.cells; cell++) {
+            if (!board.isEmpty(cell)) {
+                continue;
+            }
+            boolean close = false;
+            for (int w = 0; w < words && !close; w++) {
+                close = (near[cell * words + w] & board.occupied(w)) != 0;
+            }
+            if (!close) {
+                continue;
+            }
+            long score = cell == ttBest ? Long.MAX_VALUE : potential(cell, me);
+            // Insertion sort, best first
+            int i = count++;
+            while (i > 0 && scores[i - 1] < score) {
+                scores[i] = scores[i - 1];
+                list[i] = list[i - 1];
+                i--;
+            }
+            scores[i] = score;
+            list[i] = cell;
+        }
+        return Math.min(count, BEAM);
+    }
+
+    /** How much playing cell would add to me's open lines and take from the opponent's. */
+    private long potential(int cell, int me) {
+        long score = 0;
+        byte[] own = board.lineCount[me], other = board.lineCount[me ^ 1];
+        long[] weight = board.lineWeight;
+        for (int i = board.lineStart[cell]; i < board.lineStart[cell + 1]; i++) {
+            int l = board.lineIds[i];
+            if (other[l] == 0) {
+                score += weight[own[l] + 1];
+            }
+            if (own[l] == 0 && other[l] > 0) {
+                score += weight[other[l] + 1] / 2;
+            }
+        }
+        return score;
+    }
+
+    /**
+     * Looks for a sequence of moves, each leaving a line one short of k, that
+     * wins whatever the defender does. Returns the first move, or -1.
+     */
+    int threatSearch(int attacker, int depth) {
+        if (depth == 0) {
+            return -1;
+        }
+        int defender = attacker ^ 1;
+        int now = board.findWin(attacker);
+        if (now >= 0) {
+            return now;
+        }
+        if (++seenStamp == 0) {
+            Arrays.fill(seen, 0);
+            seenStamp = 1;
+        }
+        int stamp = seenStamp;
+        int k = board.k;
+        int[] candidates = threatCandidates[depth];
+        int count = 0;
+        for (int l = 0; l < board.lines; l++) {
+            if (board.lineCount[attacker][l] != k - 2 || board.lineCount[defender][l] != 0) {
+                continue;
+            }
+            for (int w = 0; w < board.words; w++) {
+                long free = board.lineMask[l * board.words + w] & ~board.occupied(w);
+                while (free != 0) {
+                    int cell = w << 6 | Long.numberOfTrailingZeros(free);
+                    free &= free - 1;
+                    if (seen[cell] != stamp) {
+                        seen[cell] = stamp;
+                        candidates[count++] = cell;
+                    }
+                }
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            int cell = candidates[i];
+            nodes++;
+            board.play(cell);
+            int reply = -1;
+            boolean twoThreats = false;
+            for (int j = board.lineStart[cell]; j < board.lineStart[cell + 1]; j++) {
+                int threat = board.completion(board.lineIds[j], attacker);
+                if (threat >= 0) {
+                    twoThreats |= reply >= 0 && threat != reply;
+                    reply = threat;
+                }
+            }
+            boolean win = false;
+            // The defender can only hold by winning first or blocking the one threat
+            if (reply >= 0 && board.findWin(defender) < 0) {
+                if (twoThreats) {
+                    win = true;
+                } else {
+                    board.play(reply);
+                    win = board.getWinner() < 0 && board.findWin(defender) < 0
+                            && threatSearch(attacker, depth - 1) >= 0;
+                    board.undo();
+                }
+            }
+            board.undo();
+            if (win) {
+                return cell;
+            }
+        }
+        return -1;
+    }
+}
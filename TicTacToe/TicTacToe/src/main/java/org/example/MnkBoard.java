@@ -0,0 +1,237 @@
+package org.example;
+
+import java.util.SplittableRandom;
+
+/**
+ * An m,n,k game position: m rows, n columns, and k in a row to win, so 3,3,3
+ * is tic-tac-toe and 15,15,5 is gomoku. Cell i is row i / n, column i % n.
+ * Player 0 (X) moves first.
+ *
+ * Each side's stones are a bitmask, spread over as many longs as the board
+ * needs. Every line of k cells that can win is a precomputed mask of the same
+ * shape, and each cell knows the lines through it. A move updates the number
+ * of stones each side has on those lines, so a win is seen the moment a count
+ * reaches k. The same counts keep a running evaluation, and a Zobrist hash
+ * is kept up to date for transposition tables.
+ */
+public final class MnkBoard {
+
+    public static final int X = 0, O = 1;
+
+    final int rows;
+    final int cols;
+    final int k;
+    final int cells;
+    final int words;
+    final int lines;
+    /** Mask of line l in words [l * words, (l + 1) * words). */
+    final long[] lineMask;
+    /** Lines through cell c are lineIds[lineStart[c]] up to lineStart[c + 1]. */
+    final int[] lineStart;
+    final int[] lineIds;
+    final long[][] stones;
+    final byte[][] lineCount;
+    final long[][] zobrist;
+    /** Score of a line holding c stones of one side and none of the other. */
+    final long[] lineWeight;
+
+    private final int[] history;
+    private int moveCount;
+    private int winner = -1;
+    private long hash;
+    private long evaluation;
+
+    public MnkBoard(int rows, int cols, int k) {
+        if (k < 1 || k > Math.max(rows, cols)) {
+            throw new IllegalArgumentException("k must be between 1 and the longer side");
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.k = k;
+        cells = rows * cols;
+        words = (cells + 63) >>> 6;
+
+        // Lines run right, down, down-right and down-left from their first cell
+        int[] dr = {0, 1, 1, 1}, dc = {1, 0, 1, -1};
+        int count = 0;
+        int[] first = new int[4 * cells], direction = new int[4 * cells];
+        int[] perCell = new int[cells + 1];
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                for (int d = 0; d < 4; d++) {
+                    int er = r + dr[d] * (k - 1), ec = c + dc[d] * (k - 1);
+                    if (er < rows && ec >= 0 && ec < cols) {
+                        first[count] = r * cols + c;
+                        direction[count++] = d;
+                        for (int i = 0; i < k; i++) {
+                            perCell[(r + dr[d] * i) * cols + c + dc[d] * i]++;
+                        }
+                    }
+                }
+            }
+        }
+        lines = count;
+        lineMask = new long[lines * words];
+        lineStart = new int[cells + 1];
+        for (int c = 0; c < cells; c++) {
+            lineStart[c + 1] = lineStart[c] + perCell[c];
+        }
+        lineIds = new int[lineStart[cells]];
+        int[] fill = new int[cells];
+        for (int l = 0; l < lines; l++) {
+            int r = first[l] / cols, c = first[l] % cols, d = direction[l];
+            for (int i = 0; i < k; i++) {
+                int cell = (r + dr[d] * i) * cols + c + dc[d] * i;
+                lineMask[l * words + (cell >>> 6)] |= 1L << cell;
+                lineIds[lineStart[cell] + fill[cell]++] = l;
+            }
+        }
+
+        stones = new long[2][words];
+        lineCount = new byte[2][lines];
+        zobrist = new long[2][cells];
+        SplittableRandom random = new SplittableRandom(0x9E3779B97F4A7C15L);
+        for (int p = 0; p < 2; p++) {
+            for (int c = 0; c < cells; c++) {
+                zobrist[p][c] = random.nextLong();
+            }
+        }
+        lineWeight = new long[k + 1];
+        for (int c = 1; c <= k; c++) {
+            lineWeight[c] = 1L << Math.min(60, 3 * (c - 1));
+        }
+        history = new int[cells];
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public int getK() {
+        return k;
+    }
+
+    public int getCells() {
+        return cells;
+    }
+
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+    public int getLastMove() {
+        return moveCount == 0 ? -1 : history[moveCount - 1];
+    }
+
+    /** The side to move. */
+    public int toMove() {
+        return moveCount & 1;
+    }
+
+    /** The player who completed a line, or -1. */
+    public int getWinner() {
+        return winner;
+    }
+
+    public boolean isFull() {
+        return moveCount == cells;
+    }
+
+    public boolean isOver() {
+        return winner >= 0 || moveCount == cells;
+    }
+
+    public long getHash() {
+        return hash;
+    }
+
+    /** Line score from X's point of view: open lines weighted by how full they are. */
+    public long getEvaluation() {
+        return evaluation;
+    }
+
+    public boolean isEmpty(int cell) {
+        return (occupied(cell >>> 6) & 1L << cell) == 0;
+    }
+
+    /** X, O, or -1 for an empty cell. */
+    public int get(int cell) {
+        long bit = 1L << cell;
+        int w = cell >>> 6;
+        return (stones[X][w] & bit) != 0 ? X : (stones[O][w] & bit) != 0 ? O : -1;
+    }
+
+    long occupied(int word) {
+        return stones[X][word] | stones[O][word];
+    }
+
+    /** Places a stone for the side to move; the cell must be empty and the game not over. */
+    public void play(int cell) {
+        int p = moveCount & 1;
+        byte[] own = lineCount[p], other = lineCount[p ^ 1];
+        for (int i = lineStart[cell]; i < lineStart[cell + 1]; i++) {
+            int l = lineIds[i];
+            evaluation -= lineValue(l);
+            if (++own[l] == k) {
+                winner = p;
+            }
+            evaluation += lineValue(l);
+        }
+        stones[p][cell >>> 6] |= 1L << cell;
+        hash ^= zobrist[p][cell];
+        history[moveCount++] = cell;
+    }
+
+    /** Takes back the last move. */
+    public void undo() {
+        int cell = history[--moveCount];
+        int p = moveCount & 1;
+        byte[] own = lineCount[p];
+        for (int i = lineStart[cell]; i < lineStart[cell + 1]; i++) {
+            int l = lineIds[i];
+            evaluation -= lineValue(l);
+            own[l]--;
+            evaluation += lineValue(l);
+        }
+        stones[p][cell >>> 6] &= ~(1L << cell);
+        hash ^= zobrist[p][cell];
+        winner = -1;
+    }
+
+    private long lineValue(int l) {
+        int x = lineCount[X][l], o = lineCount[O][l];
+        if (x > 0 && o > 0) {
+            return 0;
+        }
+        return x > 0 ? lineWeight[x] : o > 0 ? -lineWeight[o] : 0;
+    }
+
+    /** The empty cell that would complete line l, if l is one stone short for player and the other has none on it. */
+    int completion(int l, int player) {
+        if (lineCount[player][l] != k - 1 || lineCount[player ^ 1][l] != 0) {
+            return -1;
+        }
+        for (int w = 0; w < words; w++) {
+            long free = lineMask[l * words + w] & ~occupied(w);
+            if (free != 0) {
+                return w << 6 | Long.numberOfTrailingZeros(free);
+            }
+        }
+        return -1;
+    }
+
+    /** A cell where player would win at once, or -1. */
+    public int findWin(int player) {
+        for (int l = 0; l < lines; l++) {
+            int cell = completion(l, player);
+            if (cell >= 0) {
+                return cell;
+            }
+        }
+        return -1;
+    }
+}
@@ -3,46 +3,58 @@ package org.example;
 import java.util.Scanner;
 
 public class TicTacToe {
-    private static char[][] board = new char[3][3];
-    private static char currentPlayer = 'X';
+    private static MnkBoard board = new MnkBoard(3, 3, 3);
+    private static MnkAI computer;
     private static boolean gameOver = false;
 
+    // Usage: TicTacToe [rows cols k] [ai]; with "ai" the computer plays O
     public static void main(String[] args) {
         Scanner scanner = new Scanner(System.in);
 
         // Initialize board with empty spaces
-        initializeBoard();
+        initializeBoard(args);
 
         // Game loop
         while (!gameOver) {
             printBoard();
-            playerMove(scanner);
+            if (computer != null && board.toMove() == MnkBoard.O) {
+                computerMove();
+            } else {
+                playerMove(scanner);
+            }
             checkGameStatus();
-            switchPlayer();
         }
 
         scanner.close();
     }
 
-    // Initialize the game board
-    private static void initializeBoard() {
-        for (int i = 0; i < 3; i++) {
-            for (int j = 0; j < 3; j++) {
-                board[i][j] = ' ';
-            }
+    // Initialize the game board, m x n with k in a row to win
+    private static void initializeBoard(String[] args) {
+        int argIndex = 0;
+        if (args.length >= 3) {
+            board = new MnkBoard(Integer.parseInt(args[0]), Integer.parseInt(args[1]), Integer.parseInt(args[2]));
+            argIndex = 3;
         }
+        if (args.length > argIndex && args[argIndex].equalsIgnoreCase("ai")) {
+            computer = new MnkAI(board);
+        }
+    }
+
+    private static char mark(int player) {
+        return player == MnkBoard.X ? 'X' : 'O';
     }
 
-    // Print the Tic-Tac-Toe board
+    // Print the board
     private static void printBoard() {
         System.out.println("Current board:");
-        for (int i = 0; i < 3; i++) {
-            for (int j = 0; j < 3; j++) {
-                System.out.print(board[i][j]);
-                if (j < 2) System.out.print(" | ");
+        for (int i = 0; i < board.getRows(); i++) {
+            for (int j = 0; j < board.getCols(); j++) {
+                int player = board.get(i * board.getCols() + j);
+                System.out.print(player < 0 ? ' ' : mark(player));
+                if (j < board.getCols() - 1) System.out.print(" | ");
             }
             System.out.println();
-            if (i < 2) System.out.println("---------");
+            if (i < board.getRows() - 1) System.out.println("-".repeat(4 * board.getCols() - 3));
         }
     }
 
@@ -52,14 +64,16 @@ public class TicTacToe {
         boolean validMove = false;
 
         while (!validMove) {
-            System.out.println("Player " + currentPlayer + ", enter row (1-3) and column (1-3) to place your mark:");
+            System.out.println("Player " + mark(board.toMove()) + ", enter row (1-" + board.getRows()
+                    + ") and column (1-" + board.getCols() + ") to place your mark:");
 
-            // Read user input (1-3, so we adjust for array indexing)
+            // Read user input (1-based, so we adjust for array indexing)
             row = scanner.nextInt() - 1;
             col = scanner.nextInt() - 1;
 
-            if (row >= 0 && row < 3 && col >= 0 && col < 3 && board[row][col] == ' ') {
-                board[row][col] = currentPlayer;
+            if (row >= 0 && row < board.getRows() && col >= 0 && col < board.getCols()
+                    && board.isEmpty(row * board.getCols() + col)) {
+                board.play(row * board.getCols() + col);
                 validMove = true;
             } else {
                 System.out.println("Invalid move. Try again.");
@@ -67,57 +81,25 @@ public class TicTacToe {
         }
     }
 
+    // Let the computer choose its move
+    private static void computerMove() {
+        long nodes = computer.getNodes();
+        int cell = computer.bestMove();
+        board.play(cell);
+        System.out.println("Computer plays row " + (cell / board.getCols() + 1) + ", column "
+                + (cell % board.getCols() + 1) + " (" + (computer.getNodes() - nodes) + " positions searched)");
+    }
+
     // Check if the game is over
     private static void checkGameStatus() {
-        if (hasWon()) {
+        if (board.getWinner() >= 0) {
             printBoard();
-            System.out.println("Player " + currentPlayer + " wins!");
+            System.out.println("Player " + mark(board.getWinner()) + " wins!");
             gameOver = true;
-        } else if (isBoardFull()) {
+        } else if (board.isFull()) {
             printBoard();
             System.out.println("It's a draw!");
             gameOver = true;
         }
     }
-
-    // Check if the current player has won
-    private static boolean hasWon() {
-        // Check rows, columns, and diagonals for a win
-        for (int i = 0; i < 3; i++) {
-            if (board[i][0] == currentPlayer && board[i][1] == currentPlayer && board[i][2] == currentPlayer) {
-                return true;
-            }
-            if (board[0][i] == currentPlayer && board[1][i] == currentPlayer && board[2][i] == currentPlayer) {
-                return true;
-            }
-        }
-        if (board[0][0] == currentPlayer && board[1][1] == currentPlayer && board[2][2] == currentPlayer) {
-            return true;
-        }
-        if (board[0][2] == currentPlayer && board[1][1] == currentPlayer && board[2][0] == currentPlayer) {
-            return true;
-        }
-        return false;
-    }
-
-    // Check if the board is full (no more moves left)
-    private static boolean isBoardFull() {
-        for (int i = 0; i < 3; i++) {
-            for (int j = 0; j < 3; j++) {
-                if (board[i][j] == ' ') {
-                    return false;
-                }
-            }
-        }
-        return true;
-    }
-
-    // Switch players
-    private static void switchPlayer() {
-        if (currentPlayer == 'X') {
-            currentPlayer = 'O';
-        } else {
-            currentPlayer = 'X';
-        }
-    }
-}
\ No newline at end of file
+}
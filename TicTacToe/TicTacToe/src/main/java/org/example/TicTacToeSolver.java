@@ -0,0 +1,97 @@
+package org.example;
+
+/**
+ * Solves small m,n,k games from the empty board and reports the result and
+ * nodes per second, twice over. The first pass enumerates every position that
+ * can arise in play, memoised in a table indexed by the position read as a
+ * base-3 number, so the count of distinct positions is exact (5,478 for
+ * tic-tac-toe). The second pass uses {@link MnkAI}'s alpha-beta search, which
+ * proves the same result while visiting far fewer nodes.
+ *
+ * Usage: java org.example.TicTacToeSolver [rows cols k]...
+ * With no arguments it solves 3,3,3 and 4,4,4 and 4,4,3.
+ */
+public class TicTacToeSolver {
+
+    static final int MAX_CELLS = 16;
+    static final String[] RESULTS = {"second player wins", "draw", "first player wins"};
+
+    private final MnkBoard board;
+    private final byte[] memo;
+    private final int[] power3;
+    private long nodes;
+    private long positions;
+
+    TicTacToeSolver(MnkBoard board) {
+        if (board.getCells() > MAX_CELLS) {
+            throw new IllegalArgumentException("full enumeration is limited to " + MAX_CELLS + " cells");
+        }
+        this.board = board;
+        power3 = new int[board.getCells() + 1];
+        power3[0] = 1;
+        for (int i = 1; i <= board.getCells(); i++) {
+            power3[i] = power3[i - 1] * 3;
+        }
+        memo = new byte[power3[board.getCells()]];
+    }
+
+    public static void main(String[] args) {
+        int[] games = {3, 3, 3, 4, 4, 4, 4, 4, 3};
+        if (args.length >= 3) {
+            games = new int[args.length / 3 * 3];
+            for (int i = 0; i < games.length; i++) {
+                games[i] = Integer.parseInt(args[i]);
+            }
+        }
+        for (int g = 0; g + 2 < games.length; g += 3) {
+            int rows = games[g], cols = games[g + 1], k = games[g + 2];
+            System.out.printf("%d,%d,%d%n", rows, cols, k);
+
+            TicTacToeSolver solver = new TicTacToeSolver(new MnkBoard(rows, cols, k));
+            long begin = System.nanoTime();
+            int value = solver.value(0);
+            double seconds = (System.nanoTime() - begin) / 1e9;
+            System.out.printf("  enumeration: %s, %d positions, %d nodes in %.2f s, %.1f M nodes/sec%n",
+                    RESULTS[value + 1], solver.positions, solver.nodes, seconds, solver.nodes / seconds / 1e6);
+
+            MnkBoard board = new MnkBoard(rows, cols, k);
+            MnkAI ai = new MnkAI(board, 22);
+            begin = System.nanoTime();
+            int solved = ai.solve();
+            seconds = (System.nanoTime() - begin) / 1e9;
+            System.out.printf("  alpha-beta:  %s, %d nodes in %.2f s, %.1f M nodes/sec%n",
+                    RESULTS[solved + 1], ai.getNodes(), seconds, ai.getNodes() / seconds / 1e6);
+            if (solved != value) {
+                throw new IllegalStateException("alpha-beta disagrees with the enumeration");
+            }
+        }
+    }
+
+    /** The game's value for the side to move, -1, 0 or 1, at the position with base-3 index. */
+    private int value(int index) {
+        nodes++;
+        byte known = memo[index];
+        if (known != 0) {
+            return known - 2;
+        }
+        int result;
+        if (board.getWinner() >= 0) {
+            result = -1;
+        } else if (board.isFull()) {
+            result = 0;
+        } else {
+            result = -1;
+            int digit = board.toMove() + 1;
+            for (int cell = 0; cell < board.getCells(); cell++) {
+                if (board.isEmpty(cell)) {
+                    board.play(cell);
+                    result = Math.max(result, -value(index + digit * power3[cell]));
+                    board.undo();
+                }
+            }
+        }
+        positions++;
+        memo[index] = (byte) (result + 2);
+        return result;
+    }
+}
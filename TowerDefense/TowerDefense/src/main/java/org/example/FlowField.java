@@ -0,0 +1,197 @@
+package org.example;
+
+import java.util.Arrays;
+
+/**
+ * A grid of cells, some blocked, and for every open cell its distance in steps
+ * to the goal and the neighbour one step closer. Every enemy follows the same
+ * field, so pathfinding costs nothing per enemy.
+ *
+ * Blocking a cell only repairs the cells whose route ran through it. Those are
+ * the cells whose chain of next-steps reaches it. Their distances are re-seeded
+ * from the untouched cells around them and spread by a breadth-first search
+ * restricted to them. Cell i is (i % width, i / width).
+ */
+public final class FlowField {
+
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    final int width;
+    final int height;
+    final int goal;
+    final boolean[] blocked;
+    final int[] distance;
+    final int[] next;
+
+    private final boolean[] affected;
+    private final int[] work;
+    private final int[] savedDistance;
+    private final int[] savedNext;
+    private final long[] seeds;
+    private final int[] neighbours = new int[4];
+
+    public FlowField(int width, int height, int goal) {
+        this.width = width;
+        this.height = height;
+        this.goal = goal;
+        int cells = width * height;
+        blocked = new boolean[cells];
+        distance = new int[cells];
+        next = new int[cells];
+        affected = new boolean[cells];
+        work = new int[2 * cells];
+        savedDistance = new int[cells];
+        savedNext = new int[cells];
+        seeds = new long[cells];
+        rebuild();
+    }
+
+    public int cell(int x, int y) {
+        return y * width + x;
+    }
+
+    public boolean isBlocked(int cell) {
+        return blocked[cell];
+    }
+
+    public int distance(int cell) {
+        return distance[cell];
+    }
+
+    /** Neighbour one step closer to the goal, or -1 at the goal or where it cannot be reached. */
+    public int next(int cell) {
+        return next[cell];
+    }
+
+    /** Open neighbours of a cell into {@code neighbours}; returns how many. */
+    private int neighbours(int cell) {
+        int x = cell % width, n = 0;
+        if (x > 0 && !blocked[cell - 1]) {
+            neighbours[n++] = cell - 1;
+        }
+        if (x < width - 1 && !blocked[cell + 1]) {
+            neighbours[n++] = cell + 1;
+        }
+        if (cell >= width && !blocked[cell - width]) {
+            neighbours[n++] = cell - width;
+        }
+        if (cell + width < blocked.length && !blocked[cell + width]) {
+            neighbours[n++] = cell + width;
+        }
+        return n;
+    }
+
+    /** Breadth-first search from the goal over the whole grid. */
+    public void rebuild() {
+        Arrays.fill(distance, UNREACHABLE);
+        Arrays.fill(next, -1);
+        if (blocked[goal]) {
+            return;
+        }
+        distance[goal] = 0;
+        int head = 0, tail = 0;
+        work[tail++] = goal;
+        while (head < tail) {
+            int c = work[head++];
+            for (int k = 0, n = neighbours(c); k < n; k++) {
+                int m = neighbours[k];
+                if (distance[m] == UNREACHABLE) {
+                    distance[m] = distance[c] + 1;
+                    next[m] = c;
+                    work[tail++] = m;
+                }
+            }
+        }
+    }
+
+    /**
+     * Blocks a cell and repairs the field. Refuses, leaving everything as it
+     * was, if the cell is the goal or already blocked, or if any of
+     * {@code mustReach[0..count)} would be cut off from the goal.
+     */
+    public boolean block(int cell, int[] mustReach, int count) {
+        if (cell == goal || blocked[cell]) {
+            return false;
+        }
+        // cells routed through the new block, found by walking next-steps backwards
+        int affectedCount = 0;
+        work[affectedCount++] = cell;
+        affected[cell] = true;
+        for (int i = 0; i < affectedCount; i++) {
+            int a = work[i];
+            for (int k = 0, n = neighbours(a); k < n; k++) {
+                int m = neighbours[k];
+                if (!affected[m] && next[m] == a) {
+                    affected[m] = true;
+                    work[affectedCount++] = m;
+                }
+            }
+        }
+        for (int i = 0; i < affectedCount; i++) {
+            int a = work[i];
+            savedDistance[i] = distance[a];
+            savedNext[i] = next[a];
+            distance[a] = UNREACHABLE;
+            next[a] = -1;
+        }
+        blocked[cell] = true;
+
+        // seed each affected cell from its best untouched neighbour, then spread in distance order
+        int seedCount = 0;
+        for (int i = 1; i < affectedCount; i++) {
+            int a = work[i], best = UNREACHABLE, via = -1;
+            for (int k = 0, n = neighbours(a); k < n; k++) {
+                int m = neighbours[k];
+                if (!affected[m] && distance[m] < best) {
+                    best = distance[m];
+                    via = m;
+                }
+            }
+            if (via >= 0) {
+                distance[a] = best + 1;
+                next[a] = via;
+                seeds[seedCount++] = (long) (best + 1) << 32 | a;
+            }
+        }
+        Arrays.sort(seeds, 0, seedCount);
+        // the queue lives after the affected list in work[]; each affected cell joins it at most once
+        int queueStart = affectedCount, head = queueStart, tail = queueStart, s = 0;
+        while (s < seedCount || head < tail) {
+            int c;
+            if (head < tail && (s == seedCount || distance[work[head]] <= (int) (seeds[s] >>> 32))) {
+                c = work[head++];
+            } else {
+                long seed = seeds[s++];
+                c = (int) seed;
+                if ((int) (seed >>> 32) != distance[c]) {
+                    continue;
+                }
+            }
+            for (int k = 0, n = neighbours(c); k < n; k++) {
+                int m = neighbours[k];
+                if (affected[m] && distance[m] > distance[c] + 1) {
+                    distance[m] = distance[c] + 1;
+                    next[m] = c;
+                    work[tail++] = m;
+                }
+            }
+        }
+
+        boolean ok = true;
+        for (int i = 0; i < count && ok; i++) {
+            ok = distance[mustReach[i]] != UNREACHABLE;
+        }
+        for (int i = 0; i < affectedCount; i++) {
+            int a = work[i];
+            affected[a] = false;
+            if (!ok) {
+                distance[a] = savedDistance[i];
+                next[a] = savedNext[i];
+            }
+        }
+        if (!ok) {
+            blocked[cell] = false;
+        }
+        return ok;
+    }
+}
@@ -0,0 +1,413 @@
+package org.example;
+
+import java.util.Arrays;
+
+/**
+ * The rules of the game on a grid of {@value #CELL}-pixel cells. Enemies walk
+ * the {@link FlowField} from the spawn cell to the goal cell. Towers sit on
+ * cells, fire when their cooldown has run out, and aim at the enemy in range
+ * that is nearest the goal. Projectiles home in on their target.
+ *
+ * Everything is kept in primitive arrays. Enemy slots are reused through a free
+ * list, and each slot carries a generation, so a projectile whose target died
+ * and whose slot was reused lets it go. Projectiles are packed and removed by
+ * swapping with the last one. Towers find their targets in a uniform grid of
+ * enemies, rebuilt by counting sort each tick, so the work per tick is about
+ * the number of towers times the number of enemies near one of them.
+ */
+public final class TowerDefenseEngine {
+
+    public static final int CELL = 20;
+    private static final int BUCKET = 2 * CELL;
+    private static final float PROJECTILE_SPEED = 12;
+
+    public static class Wave {
+        final int count;
+        final int interval;
+        final int health;
+        final float speed;
+        final int reward;
+
+        /** {@code count} enemies, one every {@code interval} ticks, moving {@code speed} pixels a tick. */
+        public Wave(int count, int interval, int health, float speed, int reward) {
+            this.count = count;
+            this.interval = interval;
+            this.health = health;
+            this.speed = Math.min(speed, CELL / 2f);
+            this.reward = reward;
+        }
+    }
+
+    final FlowField field;
+    final int spawn;
+    /** The spawn and every live enemy's cell, which must all still reach the goal after a placement. */
+    private int[] mustReach = new int[64];
+
+    // enemies: slots [0, enemyHigh), live where alive[i]
+    private int enemyHigh;
+    float[] enemyX = new float[64];
+    float[] enemyY = new float[64];
+    int[] enemyHealth = new int[64];
+    private float[] enemySpeed = new float[64];
+    private int[] enemyReward = new int[64];
+    private int[] enemyGeneration = new int[64];
+    boolean[] enemyAlive = new boolean[64];
+    private int[] freeSlots = new int[64];
+    private int freeCount;
+    private int liveEnemies;
+
+    // towers
+    int towerCount;
+    int[] towerCell = new int[16];
+    private float[] towerRange = new float[16];
+    private int[] towerDamage = new int[16];
+    private int[] towerCooldown = new int[16];
+    private int[] towerReady = new int[16];
+
+    // projectiles: packed in [0, projectileCount)
+    int projectileCount;
+    float[] projectileX = new float[64];
+    float[] projectileY = new float[64];
+    private int[] projectileTarget = new int[64];
+    private int[] projectileGeneration = new int[64];
+    private int[] projectileDamage = new int[64];
+
+    // range index over enemy slots
+    private final int bucketColumns;
+    private final int bucketRows;
+    private final int[] bucketStart;
+    private final int[] bucketFill;
+    private int[] bucketItems = new int[64];
+
+    private Wave wave;
+    private int waveRemaining;
+    private int waveTimer;
+
+    long ticks;
+    long spawned;
+    long kills;
+    long leaks;
+    long shots;
+    int lives = 20;
+    int gold = 100;
+
+    public TowerDefenseEngine(int columns, int rows, int spawn, int goal) {
+        field = new FlowField(columns, rows, goal);
+        this.spawn = spawn;
+        bucketColumns = (columns * CELL + BUCKET - 1) / BUCKET;
+        bucketRows = (rows * CELL + BUCKET - 1) / BUCKET;
+        bucketStart = new int[bucketColumns * bucketRows + 1];
+        bucketFill = new int[bucketColumns * bucketRows];
+    }
+
+    public FlowField getField() {
+        return field;
+    }
+
+    private int cellAt(float x, float y) {
+        int cx = Math.max(0, Math.min(field.width - 1, (int) (x / CELL)));
+        int cy = Math.max(0, Math.min(field.height - 1, (int) (y / CELL)));
+        return field.cell(cx, cy);
+    }
+
+    private static float centre(int c) {
+        return c * CELL + CELL / 2f;
+    }
+
+    /**
+     * Places a tower on a cell if it is free, no enemy stands on it, and the
+     * spawn and every live enemy can still reach the goal; the field is
+     * repaired incrementally.
+     */
+    public boolean placeTower(int cell, float range, int damage, int cooldown) {
+        if (cell == spawn) {
+            return false;
+        }
+        if (mustReach.length < liveEnemies + 1) {
+            mustReach = new int[Math.max(liveEnemies + 1, mustReach.length * 2)];
+        }
+        int reachCount = 0;
+        mustReach[reachCount++] = spawn;
+        for (int i = 0; i < enemyHigh; i++) {
+            if (enemyAlive[i]) {
+                int c = cellAt(enemyX[i], enemyY[i]);
+                if (c == cell) {
+                    return false;
+                }
+                mustReach[reachCount++] = c;
+            }
+        }
+        if (!field.block(cell, mustReach, reachCount)) {
+            return false;
+        }
+        if (towerCount == towerCell.length) {
+            int n = towerCount * 2;
+            towerCell = Arrays.copyOf(towerCell, n);
+            towerRange = Arrays.copyOf(towerRange, n);
+            towerDamage = Arrays.copyOf(towerDamage, n);
+            towerCooldown = Arrays.copyOf(towerCooldown, n);
+            towerReady = Arrays.copyOf(towerReady, n);
+        }
+        towerCell[towerCount] = cell;
+        towerRange[towerCount] = range;
+        towerDamage[towerCount] = damage;
+        towerCooldown[towerCount] = cooldown;
+        towerReady[towerCount] = 0;
+        towerCount++;
+        return true;
+    }
+
+    public void startWave(Wave wave) {
+        this.wave = wave;
+        waveRemaining = wave.count;
+        waveTimer = 0;
+    }
+
+    /** True while the current wave has enemies still to spawn or still alive. */
+    public boolean isWaveRunning() {
+        return waveRemaining > 0 || liveEnemies > 0;
+    }
+
+    public void tick() {
+        ticks++;
+        if (waveRemaining > 0 && --waveTimer <= 0) {
+            spawnEnemy();
+            waveRemaining--;
+            waveTimer = wave.interval;
+        }
+        moveEnemies();
+        indexEnemies();
+        fireTowers();
+        moveProjectiles();
+    }
+
+    private void spawnEnemy() {
+        int slot;
+        if (freeCount > 0) {
+            slot = freeSlots[--freeCount];
+        } else {
+            if (enemyHigh == enemyX.length) {
+                int n = enemyHigh * 2;
+                enemyX = Arrays.copyOf(enemyX, n);
+                enemyY = Arrays.copyOf(enemyY, n);
+                enemyHealth = Arrays.copyOf(enemyHealth, n);
+                enemySpeed = Arrays.copyOf(enemySpeed, n);
+                enemyReward = Arrays.copyOf(enemyReward, n);
+                enemyGeneration = Arrays.copyOf(enemyGeneration, n);
+                enemyAlive = Arrays.copyOf(enemyAlive, n);
+                freeSlots = Arrays.copyOf(freeSlots, n);
+            }
+            slot = enemyHigh++;
+        }
+        enemyX[slot] = centre(spawn % field.width);
+        enemyY[slot] = centre(spawn / field.width);
+        enemyHealth[slot] = wave.health;
+        enemySpeed[slot] = wave.speed;
+        enemyReward[slot] = wave.reward;
+        enemyAlive[slot] = true;
+        liveEnemies++;
+        spawned++;
+    }
+
+    private void removeEnemy(int slot) {
+        enemyAlive[slot] = false;
+        enemyGeneration[slot]++;
+        freeSlots[freeCount++] = slot;
+        liveEnemies--;
+    }
+
+    /** Each enemy heads for the centre of the next cell of the field from the cell it is in. */
+    private void moveEnemies() {
+        int goal = field.goal;
+        for (int i = 0; i < enemyHigh; i++) {
+            if (!enemyAlive[i]) {
+                continue;
+            }
+            int c = cellAt(enemyX[i], enemyY[i]);
+            if (c == goal) {
+                removeEnemy(i);
+                leaks++;
+                lives--;
+                continue;
+            }
+            int target = field.next[c];
+            if (target < 0) {
+                continue;
+            }
+            float dx = centre(target % field.width) - enemyX[i], dy = centre(target / field.width) - enemyY[i];
+            float length = (float) Math.sqrt(dx * dx + dy * dy), step = enemySpeed[i];
+            if (length <= step) {
+                enemyX[i] += dx;
+                enemyY[i] += dy;
+            } else {
+                enemyX[i] += dx * step / length;
+                enemyY[i] += dy * step / length;
+            }
+        }
+    }
+
+    private int bucketColumn(float x) {
+        return Math.max(0, Math.min(bucketColumns - 1, (int) (x / BUCKET)));
+    }
+
+    private int bucketRow(float y) {
+        return Math.max(0, Math.min(bucketRows - 1, (int) (y / BUCKET)));
+    }
+
+    private void indexEnemies() {
+        Arrays.fill(bucketStart, 0);
+        for (int i = 0; i < enemyHigh; i++) {
+            if (enemyAlive[i]) {
+                bucketStart[bucketRow(enemyY[i]) * bucketColumns + bucketColumn(enemyX[i]) + 1]++;
+            }
+        }
+        for (int b = 0; b < bucketFill.length; b++) {
+            bucketStart[b + 1] += bucketStart[b];
+        }
+        if (bucketItems.length < liveEnemies) {
+            bucketItems = new int[Math.max(liveEnemies, bucketItems.length * 2)];
+        }
+        System.arraycopy(bucketStart, 0, bucketFill, 0, bucketFill.length);
+        for (int i = 0; i < enemyHigh; i++) {
+            if (enemyAlive[i]) {
+                bucketItems[bucketFill[bucketRow(enemyY[i]) * bucketColumns + bucketColumn(enemyX[i])]++] = i;
+            }
+        }
+    }
+
+    /** Live enemy within range of (x, y) nearest the goal, or -1. */
+    private int findTarget(float x, float y, float range) {
+        int best = -1, bestDistance = Integer.MAX_VALUE;
+        float r2 = range * range;
+        int c0 = bucketColumn(x - range), c1 = bucketColumn(x + range);
+        int r0 = bucketRow(y - range), r1 = bucketRow(y + range);
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                int b = r * bucketColumns + c;
+                for (int k = bucketStart[b], end = bucketStart[b + 1]; k < end; k++) {
+                    int e = bucketItems[k];
+                    float dx = enemyX[e] - x, dy = enemyY[e] - y;
+                    if (dx * dx + dy * dy <= r2) {
+                        int d = field.distance[cellAt(enemyX[e], enemyY[e])];
+                        if (d < bestDistance || d == bestDistance && e < best) {
+                            bestDistance = d;
+                            best = e;
+                        }
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    private void fireTowers() {
+        for (int t = 0; t < towerCount; t++) {
+            if (towerReady[t] > 0) {
+                towerReady[t]--;
+                continue;
+            }
+            int cell = towerCell[t];
+            float x = centre(cell % field.width), y = centre(cell / field.width);
+            int target = findTarget(x, y, towerRange[t]);
+            if (target < 0) {
+                continue;
+            }
+            if (projectileCount == projectileX.length) {
+                int n = projectileCount * 2;
+                projectileX = Arrays.copyOf(projectileX, n);
+                projectileY = Arrays.copyOf(projectileY, n);
+                projectileTarget = Arrays.copyOf(projectileTarget, n);
+                projectileGeneration = Arrays.copyOf(projectileGeneration, n);
+                projectileDamage = Arrays.copyOf(projectileDamage, n);
+            }
+            int p = projectileCount++;
+            projectileX[p] = x;
+            projectileY[p] = y;
+            projectileTarget[p] = target;
+            projectileGeneration[p] = enemyGeneration[target];
+            projectileDamage[p] = towerDamage[t];
+            towerReady[t] = towerCooldown[t];
+            shots++;
+        }
+    }
+
+    private void moveProjectiles() {
+        for (int p = 0; p < projectileCount; p++) {
+            int e = projectileTarget[p];
+            boolean done;
+            if (!enemyAlive[e] || enemyGeneration[e] != projectileGeneration[p]) {
+                done = true;
+            } else {
+                float dx = enemyX[e] - projectileX[p], dy = enemyY[e] - projectileY[p];
+                float length = (float) Math.sqrt(dx * dx + dy * dy);
+                if (length <= PROJECTILE_SPEED) {
+                    done = true;
+                    enemyHealth[e] -= projectileDamage[p];
+                    if (enemyHealth[e] <= 0) {
+                        gold += enemyReward[e];
+                        kills++;
+                        removeEnemy(e);
+                    }
+                } else {
+                    done = false;
+                    projectileX[p] += dx * PROJECTILE_SPEED / length;
+                    projectileY[p] += dy * PROJECTILE_SPEED / length;
+                }
+            }
+            if (done) {
+                int last = --projectileCount;
+                projectileX[p] = projectileX[last];
+                projectileY[p] = projectileY[last];
+                projectileTarget[p] = projectileTarget[last];
+                projectileGeneration[p] = projectileGeneration[last];
+                projectileDamage[p] = projectileDamage[last];
+                p--;
+            }
+        }
+    }
+
+    /** Enemy slots in use, live or not; iterate with {@link #isEnemyAlive}. */
+    public int enemySlots() {
+        return enemyHigh;
+    }
+
+    public boolean isEnemyAlive(int slot) {
+        return enemyAlive[slot];
+    }
+
+    public int getLiveEnemies() {
+        return liveEnemies;
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+
+    public long getKills() {
+        return kills;
+    }
+
+    public long getLeaks() {
+        return leaks;
+    }
+
+    public long getSpawned() {
+        return spawned;
+    }
+
+    public long getShots() {
+        return shots;
+    }
+
+    public int getLives() {
+        return lives;
+    }
+
+    public int getGold() {
+        return gold;
+    }
+
+    public void spendGold(int amount) {
+        gold -= amount;
+    }
+}
@@ -4,124 +4,79 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.Random;
-
-class Enemy {
-    int x, y, health, speed;
-    boolean isAlive = true;
-
-    public Enemy(int x, int y, int speed, int health) {
-        this.x = x;
-        this.y = y;
-        this.speed = speed;
-        this.health = health;
-    }
-
-    public void move() {
-        if (health <= 0) {
-            isAlive = false;
-        }
-        x += speed;
-    }
-}
-
-class Tower {
-    int x, y, range;
-
-    public Tower(int x, int y, int range) {
-        this.x = x;
-        this.y = y;
-        this.range = range;
-    }
-}
-
-class Bullet {
-    int x, y, speed;
-    Enemy target;
-
-    public Bullet(int x, int y, int speed, Enemy target) {
-        this.x = x;
-        this.y = y;
-        this.speed = speed;
-        this.target = target;
-    }
-
-    public void move() {
-        if (target.isAlive) {
-            x += (target.x - x) / speed;
-            y += (target.y - y) / speed;
-            if (Math.abs(x - target.x) < 5 && Math.abs(y - target.y) < 5) {
-                target.health -= 10;
-            }
-        }
-    }
-}
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
 
 public class TowerDefenseGame extends JPanel implements ActionListener {
+    private static final int CELL = TowerDefenseEngine.CELL;
+    private static final int TOWER_COST = 25;
+
     private Timer timer;
-    private ArrayList<Enemy> enemies;
-    private ArrayList<Tower> towers;
-    private ArrayList<Bullet> bullets;
-    private Random random;
+    private final TowerDefenseEngine engine;
+    private int wave;
 
     public TowerDefenseGame() {
-        this.enemies = new ArrayList<>();
-        this.towers = new ArrayList<>();
-        this.bullets = new ArrayList<>();
-        this.random = new Random();
+        this.engine = WaveSimulator.newMap();
+        setPreferredSize(new Dimension(WaveSimulator.COLUMNS * CELL, WaveSimulator.ROWS * CELL));
         this.timer = new Timer(100, this);
         this.timer.start();
 
-        towers.add(new Tower(300, 200, 100));
+        engine.placeTower(engine.getField().cell(300 / CELL, 200 / CELL), 100, 10, 5);
+
+        addMouseListener(new MouseAdapter() {
+            @Override
+            public void mousePressed(MouseEvent e) {
+                int x = e.getX() / CELL, y = e.getY() / CELL;
+                if (x < WaveSimulator.COLUMNS && y < WaveSimulator.ROWS && engine.getGold() >= TOWER_COST
+                        && engine.placeTower(engine.getField().cell(x, y), 100, 10, 5)) {
+                    engine.spendGold(TOWER_COST);
+                    repaint();
+                }
+            }
+        });
     }
 
     @Override
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
+        FlowField field = engine.getField();
+        g.setColor(Color.LIGHT_GRAY);
+        g.fillRect(engine.spawn % field.width * CELL, engine.spawn / field.width * CELL, CELL, CELL);
+        g.fillRect(field.goal % field.width * CELL, field.goal / field.width * CELL, CELL, CELL);
         g.setColor(Color.GREEN);
-        for (Tower tower : towers) {
-            g.fillRect(tower.x, tower.y, 20, 20);
+        for (int t = 0; t < engine.towerCount; t++) {
+            int cell = engine.towerCell[t];
+            g.fillRect(cell % field.width * CELL, cell / field.width * CELL, CELL, CELL);
         }
         g.setColor(Color.RED);
-        for (Enemy enemy : enemies) {
-            g.fillRect(enemy.x, enemy.y, 20, 20);
+        for (int i = 0; i < engine.enemySlots(); i++) {
+            if (engine.isEnemyAlive(i)) {
+                g.fillRect((int) engine.enemyX[i] - CELL / 2, (int) engine.enemyY[i] - CELL / 2, CELL, CELL);
+            }
         }
         g.setColor(Color.BLUE);
-        for (Bullet bullet : bullets) {
-            g.fillOval(bullet.x, bullet.y, 5, 5);
+        for (int p = 0; p < engine.projectileCount; p++) {
+            g.fillOval((int) engine.projectileX[p] - 2, (int) engine.projectileY[p] - 2, 5, 5);
+        }
+        g.setColor(Color.BLACK);
+        g.drawString("Wave " + wave + "   Lives " + engine.getLives() + "   Gold " + engine.getGold()
+                + "   (click to build a tower: " + TOWER_COST + " gold)", 10, 15);
+        if (engine.getLives() <= 0) {
+            g.setFont(new Font("Arial", Font.BOLD, 40));
+            g.drawString("GAME OVER", 180, 200);
         }
     }
 
     @Override
     public void actionPerformed(ActionEvent e) {
-        if (random.nextInt(10) > 8) {
-            enemies.add(new Enemy(0, 200, 5, 30));
+        if (!engine.isWaveRunning()) {
+            wave++;
+            engine.startWave(new TowerDefenseEngine.Wave(5 + wave, 8, 20 + 10 * wave, 5, 5));
         }
-
-        for (Enemy enemy : enemies) {
-            enemy.move();
+        engine.tick();
+        if (engine.getLives() <= 0) {
+            timer.stop();
         }
-
-        for (Tower tower : towers) {
-            for (Enemy enemy : enemies) {
-                if (enemy.isAlive && Math.abs(tower.x - enemy.x) < tower.range) {
-                    bullets.add(new Bullet(tower.x, tower.y, 10, enemy));
-                }
-            }
-        }
-
-        Iterator<Bullet> bulletIterator = bullets.iterator();
-        while (bulletIterator.hasNext()) {
-            Bullet bullet = bulletIterator.next();
-            bullet.move();
-            if (!bullet.target.isAlive) {
-                bulletIterator.remove();
-            }
-        }
-
-        enemies.removeIf(enemy -> !enemy.isAlive);
         repaint();
     }
 
@@ -129,7 +84,7 @@ public class TowerDefenseGame extends JPanel implements ActionListener {
         JFrame frame = new JFrame("Tower Defense");
         TowerDefenseGame game = new TowerDefenseGame();
         frame.add(game);
-        frame.setSize(600, 400);
+        frame.pack();
         frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         frame.setVisible(true);
     }
@@ -0,0 +1,66 @@
+package org.example;
+
+import java.util.Random;
+
+/**
+ * Headless balance run: a fixed random layout of towers on the 30x20 map, then
+ * wave after wave with enemy health cycling through a range of levels. It
+ * prints, for each health level, the share of enemies that leak through, and
+ * the overall ticks per second. Lives are not enforced, so every wave is played
+ * out.
+ *
+ * Usage: java org.example.WaveSimulator [waves] [towers] [seed]
+ */
+public class WaveSimulator {
+
+    static final int COLUMNS = 30, ROWS = 20;
+    static final int LEVELS = 10;
+
+    public static void main(String[] args) {
+        int waves = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+        int towers = args.length > 1 ? Integer.parseInt(args[1]) : 30;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 1;
+
+        TowerDefenseEngine engine = newMap();
+        Random random = new Random(seed);
+        int placed = 0;
+        for (int attempt = 0; placed < towers && attempt < 100 * towers; attempt++) {
+            if (engine.placeTower(random.nextInt(COLUMNS * ROWS), 70, 10, 4)) {
+                placed++;
+            }
+        }
+        System.out.printf("%d towers placed, path length %d cells%n", placed,
+                engine.getField().distance(engine.spawn));
+
+        long[] spawned = new long[LEVELS], leaked = new long[LEVELS];
+        long begin = System.nanoTime();
+        for (int w = 0; w < waves; w++) {
+            int level = w % LEVELS;
+            long leaksBefore = engine.getLeaks(), spawnedBefore = engine.getSpawned();
+            engine.startWave(new TowerDefenseEngine.Wave(20, 6, health(level), 4, 5));
+            while (engine.isWaveRunning()) {
+                engine.tick();
+            }
+            spawned[level] += engine.getSpawned() - spawnedBefore;
+            leaked[level] += engine.getLeaks() - leaksBefore;
+        }
+        double seconds = (System.nanoTime() - begin) / 1e9;
+
+        System.out.println("health  leaked");
+        for (int level = 0; level < LEVELS; level++) {
+            System.out.printf("%6d  %5.1f%%%n", health(level), 100.0 * leaked[level] / Math.max(1, spawned[level]));
+        }
+        System.out.printf("%d waves, %d ticks in %.2f s: %.0f ticks/sec, %d enemies, %d kills, %d leaks, %d shots%n",
+                waves, engine.getTicks(), seconds, engine.getTicks() / seconds, engine.getSpawned(),
+                engine.getKills(), engine.getLeaks(), engine.getShots());
+    }
+
+    static int health(int level) {
+        return 30 + 30 * level;
+    }
+
+    /** The game's map: enemies enter at the left of the middle row and leave at the right. */
+    static TowerDefenseEngine newMap() {
+        return new TowerDefenseEngine(COLUMNS, ROWS, ROWS / 2 * COLUMNS, ROWS / 2 * COLUMNS + COLUMNS - 1);
+    }
+}